@@ -0,0 +1,154 @@
+package de.zabuza.kivabot.benchmark;
+
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks of the tool and reports the average time per operation.
+ * Each benchmark is warmed up first, such that the measured code is compiled,
+ * and then measured over several iterations of a fixed duration. Benchmarks
+ * which need a display are skipped in headless environments.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class BenchmarkRunner {
+	/**
+	 * The duration of a single iteration, in nanoseconds.
+	 */
+	private static final long ITERATION_DURATION = 1_000_000_000L;
+	/**
+	 * The amount of measured iterations per benchmark.
+	 */
+	private static final int MEASUREMENT_ITERATIONS = 10;
+	/**
+	 * The amount of warm up iterations per benchmark.
+	 */
+	private static final int WARMUP_ITERATIONS = 5;
+
+	/**
+	 * Creates all benchmarks of the tool.
+	 * 
+	 * @return A list containing all benchmarks of the tool
+	 */
+	public static List<IBenchmark> createBenchmarks() {
+		final List<IBenchmark> benchmarks = new ArrayList<>();
+		benchmarks.add(new LoggingBenchmark(true));
+		benchmarks.add(new LoggingBenchmark(false));
+		benchmarks.add(new SettingsBenchmark(false));
+		benchmarks.add(new SettingsBenchmark(true));
+		benchmarks.add(new SettingsControllerBenchmark());
+		benchmarks.add(new RoutePlanningBenchmark(false));
+		benchmarks.add(new RoutePlanningBenchmark(true));
+		return benchmarks;
+	}
+
+	/**
+	 * Runs the benchmarks of the tool and prints their results.
+	 * 
+	 * @param args
+	 *            Optional, parts of the names of the benchmarks to run. All
+	 *            benchmarks are run if not given.
+	 * @throws Exception
+	 *             If a benchmark failed
+	 */
+	public static void main(final String[] args) throws Exception {
+		final BenchmarkRunner runner = new BenchmarkRunner();
+		for (final IBenchmark benchmark : createBenchmarks()) {
+			boolean isSelected = args.length == 0;
+			for (final String filter : args) {
+				if (benchmark.getName().contains(filter)) {
+					isSelected = true;
+				}
+			}
+			if (!isSelected) {
+				continue;
+			}
+
+			if (benchmark.isDisplayRequired() && GraphicsEnvironment.isHeadless()) {
+				System.out.println(benchmark.getName() + ": skipped, no display available");
+				continue;
+			}
+			System.out.println(runner.run(benchmark));
+		}
+	}
+
+	/**
+	 * Sink which consumes the results of the operations such that they can not
+	 * be eliminated.
+	 */
+	private volatile int mSink;
+
+	/**
+	 * Creates a new runner of benchmarks.
+	 */
+	public BenchmarkRunner() {
+		this.mSink = 0;
+	}
+
+	/**
+	 * Runs the given benchmark.
+	 * 
+	 * @param benchmark
+	 *            The benchmark to run
+	 * @return The result of the benchmark, containing the average time per
+	 *         operation and its standard deviation over the iterations
+	 * @throws Exception
+	 *             If the benchmark failed
+	 */
+	public String run(final IBenchmark benchmark) throws Exception {
+		final double[] timesPerOperation = new double[MEASUREMENT_ITERATIONS];
+		benchmark.setUp();
+		try {
+			for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+				runIteration(benchmark);
+			}
+			for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+				timesPerOperation[i] = runIteration(benchmark);
+			}
+		} finally {
+			benchmark.tearDown();
+		}
+
+		double mean = 0.0;
+		for (final double timePerOperation : timesPerOperation) {
+			mean += timePerOperation;
+		}
+		mean /= timesPerOperation.length;
+		double variance = 0.0;
+		for (final double timePerOperation : timesPerOperation) {
+			variance += (timePerOperation - mean) * (timePerOperation - mean);
+		}
+		variance /= timesPerOperation.length;
+
+		return String.format("%-45s %14.1f ns/op +- %10.1f", benchmark.getName(), Double.valueOf(mean),
+				Double.valueOf(Math.sqrt(variance)));
+	}
+
+	/**
+	 * Runs a single iteration of the given benchmark, that is executing its
+	 * operation until the duration of an iteration has passed.
+	 * 
+	 * @param benchmark
+	 *            The benchmark to run
+	 * @return The average time per operation during the iteration, in
+	 *         nanoseconds
+	 * @throws Exception
+	 *             If the operation failed
+	 */
+	private double runIteration(final IBenchmark benchmark) throws Exception {
+		long operations = 0;
+		final long start = System.nanoTime();
+		long elapsed;
+		do {
+			final Object result = benchmark.run();
+			if (result != null) {
+				this.mSink ^= System.identityHashCode(result);
+			}
+			operations++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < ITERATION_DURATION);
+		return (double) elapsed / operations;
+	}
+}
@@ -0,0 +1,51 @@
+package de.zabuza.kivabot.benchmark;
+
+/**
+ * Interface for benchmarks which measure a single operation of the tool.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IBenchmark {
+	/**
+	 * Gets the name of the benchmark.
+	 * 
+	 * @return The name of the benchmark
+	 */
+	public String getName();
+
+	/**
+	 * Whether the benchmark needs a display since it measures parts of the view.
+	 * 
+	 * @return <tt>True</tt> if the benchmark needs a display, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isDisplayRequired();
+
+	/**
+	 * Executes the measured operation once.
+	 * 
+	 * @return The result of the operation, it is consumed by the runner such
+	 *         that the operation can not be eliminated
+	 * @throws Exception
+	 *             If the operation failed
+	 */
+	public Object run() throws Exception;
+
+	/**
+	 * Sets the benchmark up, called once before the operation is executed.
+	 * 
+	 * @throws Exception
+	 *             If the setup failed
+	 */
+	public void setUp() throws Exception;
+
+	/**
+	 * Tears the benchmark down, called once after the operation was executed
+	 * for the last time.
+	 * 
+	 * @throws Exception
+	 *             If the tear down failed
+	 */
+	public void tearDown() throws Exception;
+}
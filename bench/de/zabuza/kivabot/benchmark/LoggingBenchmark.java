@@ -0,0 +1,111 @@
+package de.zabuza.kivabot.benchmark;
+
+import javax.swing.JFrame;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.view.MainFrameView;
+
+/**
+ * Benchmark which measures logging a message to the log area of the main view,
+ * either through the logger or directly through the view.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LoggingBenchmark implements IBenchmark {
+	/**
+	 * The message to log.
+	 */
+	private static final String MESSAGE = "Collected baru corn.";
+
+	/**
+	 * The frame of the view.
+	 */
+	private JFrame mFrame;
+	/**
+	 * The logger to log with.
+	 */
+	private Logger mLogger;
+	/**
+	 * Whether the message is logged through the logger or directly through the
+	 * view.
+	 */
+	private final boolean mUseLogger;
+	/**
+	 * The view to log to.
+	 */
+	private MainFrameView mView;
+
+	/**
+	 * Creates a new benchmark which measures logging a message.
+	 * 
+	 * @param useLogger
+	 *            Whether the message is logged through the logger, including the
+	 *            indentation of its level, or directly through the view
+	 */
+	public LoggingBenchmark(final boolean useLogger) {
+		this.mUseLogger = useLogger;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#getName()
+	 */
+	@Override
+	public String getName() {
+		if (this.mUseLogger) {
+			return "Logger.logInfo";
+		}
+		return "MainFrameView.log";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#isDisplayRequired()
+	 */
+	@Override
+	public boolean isDisplayRequired() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#run()
+	 */
+	@Override
+	public Object run() {
+		if (this.mUseLogger) {
+			this.mLogger.logInfo(MESSAGE, Logger.FIRST_LEVEL);
+		} else {
+			this.mView.log(MESSAGE);
+		}
+		return this.mView;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#setUp()
+	 */
+	@Override
+	public void setUp() {
+		this.mFrame = new JFrame();
+		this.mFrame.setBounds(0, 0, MainFrameView.WIDTH, MainFrameView.HEIGHT);
+		this.mFrame.getContentPane().setLayout(null);
+		this.mView = new MainFrameView(this.mFrame);
+		this.mLogger = new Logger(this.mView);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#tearDown()
+	 */
+	@Override
+	public void tearDown() {
+		this.mFrame.dispose();
+	}
+}
@@ -0,0 +1,184 @@
+package de.zabuza.kivabot.benchmark;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.zabuza.kivabot.model.routing.IRouteProvider;
+import de.zabuza.kivabot.model.routing.NetworkRouteProvider;
+import de.zabuza.kivabot.model.routing.Route;
+import de.zabuza.kivabot.model.routing.RouteTable;
+import de.zabuza.kivabot.model.routing.TableRouteProvider;
+import de.zabuza.kivabot.model.routing.TourPlanner;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+import de.zabuza.kivabot.model.tasks.TaskDefinition;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+
+/**
+ * Benchmark which measures the route planning a routine does before it moves,
+ * that is planning the tour over all resources and searching the route to the
+ * first of them. The routes are searched on a grid network which covers all
+ * resources, either directly or through a precomputed route table.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutePlanningBenchmark implements IBenchmark {
+	/**
+	 * The amount of fields the grid network covers around the resources.
+	 */
+	private static final int GRID_MARGIN = 10;
+	/**
+	 * The position the tour starts at.
+	 */
+	private static final Point START = new Point(96, 104);
+
+	/**
+	 * Creates a network which contains every field of the rectangle which covers
+	 * the given points and walking edges between all neighboring fields.
+	 * 
+	 * @param points
+	 *            The points the network covers
+	 * @return The created network
+	 */
+	private static FreewarNetwork createGridNetwork(final List<Point> points) {
+		int minX = START.x;
+		int maxX = START.x;
+		int minY = START.y;
+		int maxY = START.y;
+		for (final Point point : points) {
+			minX = Math.min(minX, point.x);
+			maxX = Math.max(maxX, point.x);
+			minY = Math.min(minY, point.y);
+			maxY = Math.max(maxY, point.y);
+		}
+
+		final FreewarNetwork network = new FreewarNetwork();
+		int id = 0;
+		for (int x = minX - GRID_MARGIN; x <= maxX + GRID_MARGIN; x++) {
+			for (int y = minY - GRID_MARGIN; y <= maxY + GRID_MARGIN; y++) {
+				network.addFreewarNode(new FreewarNode(id, x, y));
+				id++;
+			}
+		}
+		for (int x = minX - GRID_MARGIN; x <= maxX + GRID_MARGIN; x++) {
+			for (int y = minY - GRID_MARGIN; y <= maxY + GRID_MARGIN; y++) {
+				final FreewarNode source = network.getNodeByCoordinates(x, y).get();
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						final Optional<FreewarNode> destination = network.getNodeByCoordinates(x + dx, y + dy);
+						if ((dx != 0 || dy != 0) && destination.isPresent()) {
+							network.addEdge(source, destination.get(), EMoveType.WALKING);
+						}
+					}
+				}
+			}
+		}
+		return network;
+	}
+
+	/**
+	 * Map which connects the tasks to the positions of their resources.
+	 */
+	private final Map<EKivaTask, Point> mDestinations;
+	/**
+	 * The provider to search the routes with.
+	 */
+	private IRouteProvider mRouteProvider;
+	/**
+	 * Whether the routes are searched through a precomputed route table or
+	 * directly on the network.
+	 */
+	private final boolean mUseRouteTable;
+
+	/**
+	 * Creates a new benchmark which measures the route planning.
+	 * 
+	 * @param useRouteTable
+	 *            Whether the routes are searched through a precomputed route
+	 *            table or directly on the network
+	 */
+	public RoutePlanningBenchmark(final boolean useRouteTable) {
+		this.mUseRouteTable = useRouteTable;
+		this.mDestinations = new EnumMap<>(EKivaTask.class);
+		for (final TaskDefinition definition : TaskCatalog.loadDefault().getDefinitions()) {
+			this.mDestinations.put(definition.getTask(), definition.getDestination());
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#getName()
+	 */
+	@Override
+	public String getName() {
+		if (this.mUseRouteTable) {
+			return "RoutePlanning.routeTable";
+		}
+		return "RoutePlanning.network";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#isDisplayRequired()
+	 */
+	@Override
+	public boolean isDisplayRequired() {
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#run()
+	 */
+	@Override
+	public Object run() {
+		final List<EKivaTask> tour = new TourPlanner(this.mRouteProvider).planTour(START, this.mDestinations);
+		final Optional<Route> route = this.mRouteProvider.getRoute(START, this.mDestinations.get(tour.get(0)));
+		return route;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#setUp()
+	 */
+	@Override
+	public void setUp() {
+		final List<Point> points = new ArrayList<>(this.mDestinations.values());
+		// Only walking, the grid does not contain the destinations of spheres
+		final Set<EMoveType> movementOptions = EnumSet.noneOf(EMoveType.class);
+		final IRouteProvider networkRouteProvider = new NetworkRouteProvider(createGridNetwork(points),
+				movementOptions);
+		if (this.mUseRouteTable) {
+			// The start is a point of interest too, like the current position of
+			// a routine standing at a resource
+			points.add(START);
+			final RouteTable table = RouteTable.compute(networkRouteProvider, movementOptions, points);
+			this.mRouteProvider = new TableRouteProvider(table, networkRouteProvider);
+		} else {
+			this.mRouteProvider = networkRouteProvider;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#tearDown()
+	 */
+	@Override
+	public void tearDown() {
+		// Nothing to tear down
+	}
+}
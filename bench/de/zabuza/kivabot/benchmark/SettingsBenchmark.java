@@ -0,0 +1,126 @@
+package de.zabuza.kivabot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.controller.settings.Settings;
+import de.zabuza.kivabot.controller.settings.SettingsController;
+
+/**
+ * Benchmark which measures saving the settings to or loading them from the
+ * settings file. The settings file is created in a temporary directory, the
+ * settings of the tool are not touched.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SettingsBenchmark implements IBenchmark {
+	/**
+	 * The name of the file the settings are saved in.
+	 */
+	private static final String SETTINGS_FILE_NAME = "config.ini";
+	/**
+	 * The prefix of the temporary directory the settings file is created in.
+	 */
+	private static final String TEMP_DIRECTORY_PREFIX = "kivabot-settings-benchmark";
+
+	/**
+	 * The temporary directory the settings file is created in, <tt>null</tt>
+	 * if not set up.
+	 */
+	private Path mDirectory;
+	/**
+	 * Whether saving or loading the settings is measured.
+	 */
+	private final boolean mMeasureSave;
+	/**
+	 * The provider of the settings to save or to load into.
+	 */
+	private SettingsController mProvider;
+	/**
+	 * The settings to save or to load.
+	 */
+	private Settings mSettings;
+
+	/**
+	 * Creates a new benchmark which measures saving or loading the settings.
+	 * 
+	 * @param measureSave
+	 *            Whether saving or loading the settings is measured
+	 */
+	public SettingsBenchmark(final boolean measureSave) {
+		this.mMeasureSave = measureSave;
+		this.mDirectory = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#getName()
+	 */
+	@Override
+	public String getName() {
+		if (this.mMeasureSave) {
+			return "Settings.saveSettings";
+		}
+		return "Settings.loadSettings";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#isDisplayRequired()
+	 */
+	@Override
+	public boolean isDisplayRequired() {
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#run()
+	 */
+	@Override
+	public Object run() {
+		if (this.mMeasureSave) {
+			this.mSettings.saveSettings(this.mProvider);
+		} else {
+			this.mSettings.loadSettings(this.mProvider);
+		}
+		return this.mProvider;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#setUp()
+	 */
+	@Override
+	public void setUp() throws IOException {
+		this.mDirectory = Files.createTempDirectory(TEMP_DIRECTORY_PREFIX);
+
+		final Logger logger = new Logger(null);
+		this.mProvider = new SettingsController(null, null, logger);
+		SettingsControllerBenchmark.fillSettings(this.mProvider);
+		this.mSettings = new Settings(logger, this.mDirectory.resolve(SETTINGS_FILE_NAME).toString());
+		this.mSettings.saveSettings(this.mProvider);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#tearDown()
+	 */
+	@Override
+	public void tearDown() throws IOException {
+		if (this.mDirectory == null) {
+			return;
+		}
+		Files.deleteIfExists(this.mDirectory.resolve(SETTINGS_FILE_NAME));
+		Files.deleteIfExists(this.mDirectory);
+		this.mDirectory = null;
+	}
+}
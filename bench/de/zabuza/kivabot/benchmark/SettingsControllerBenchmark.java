@@ -0,0 +1,115 @@
+package de.zabuza.kivabot.benchmark;
+
+import javax.swing.JFrame;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.controller.settings.ISettingsProvider;
+import de.zabuza.kivabot.controller.settings.SettingsController;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.view.MainFrameView;
+import de.zabuza.sparkle.freewar.EWorld;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Benchmark which measures passing the settings of a typical configuration to
+ * the main view.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SettingsControllerBenchmark implements IBenchmark {
+	/**
+	 * Fills the given provider with the settings of a typical configuration.
+	 * 
+	 * @param provider
+	 *            The provider to fill
+	 */
+	public static void fillSettings(final ISettingsProvider provider) {
+		provider.setSetting("username", "Zabuza");
+		provider.setSetting("password", "password");
+		provider.setSetting("world", EWorld.ONE.toString());
+		provider.setSetting("browser", EBrowser.CHROME.toString());
+		provider.setSetting("headless", Boolean.FALSE.toString());
+		provider.setSetting("repeat", Boolean.TRUE.toString());
+		provider.setSetting("routine_interval", "60");
+		provider.setSetting("use_protection_spell", Boolean.TRUE.toString());
+		provider.setSetting("use_special_skill", Boolean.FALSE.toString());
+		provider.setSetting("protection_spell", "Schutzzauber");
+		provider.setSetting("binary", "C:\\Program Files\\Google\\Chrome\\Application\\chrome.exe");
+		for (final EBrowser browser : EBrowser.values()) {
+			provider.setSetting("driver@" + browser, "C:\\drivers\\" + browser + ".exe");
+		}
+		for (final EMoveType moveType : EMoveType.values()) {
+			provider.setSetting("movement_option@" + moveType, Boolean.toString(moveType == EMoveType.BLUE_SPHERE));
+		}
+		for (final EKivaTask task : EKivaTask.values()) {
+			provider.setSetting("task@" + task, Boolean.TRUE.toString());
+		}
+	}
+
+	/**
+	 * The controller whose settings are passed to the view.
+	 */
+	private SettingsController mController;
+	/**
+	 * The frame of the view.
+	 */
+	private JFrame mFrame;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#getName()
+	 */
+	@Override
+	public String getName() {
+		return "SettingsController.passSettingsToMainView";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#isDisplayRequired()
+	 */
+	@Override
+	public boolean isDisplayRequired() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#run()
+	 */
+	@Override
+	public Object run() {
+		this.mController.passSettingsToMainView();
+		return this.mController;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#setUp()
+	 */
+	@Override
+	public void setUp() {
+		this.mFrame = new JFrame();
+		this.mFrame.setBounds(0, 0, MainFrameView.WIDTH, MainFrameView.HEIGHT);
+		this.mFrame.getContentPane().setLayout(null);
+		final MainFrameView view = new MainFrameView(this.mFrame);
+		this.mController = new SettingsController(this.mFrame, view, new Logger(view));
+		fillSettings(this.mController);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.benchmark.IBenchmark#tearDown()
+	 */
+	@Override
+	public void tearDown() {
+		this.mFrame.dispose();
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * This is the core package for benchmarking the hot paths of the tool.
+ */
+package de.zabuza.kivabot.benchmark;
\ No newline at end of file
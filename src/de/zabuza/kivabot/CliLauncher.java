@@ -0,0 +1,102 @@
+package de.zabuza.kivabot;
+
+import java.nio.file.Paths;
+
+import de.zabuza.kivabot.controller.CliController;
+import de.zabuza.kivabot.controller.logging.CompositeLogSink;
+import de.zabuza.kivabot.controller.logging.ConsoleLogSink;
+import de.zabuza.kivabot.controller.logging.JsonFileLogSink;
+import de.zabuza.kivabot.controller.logging.Logger;
+
+/**
+ * Starts the tool without a frame, for example on headless servers. The
+ * routine is described by the saved settings, which can be overridden by
+ * arguments of the form <tt>key=value</tt>. The routines of several accounts
+ * are run in parallel by naming a file of accounts with the argument
+ * <tt>accounts=path</tt>. Messages are printed to the
+ * console and written to the log files. No AWT or Swing component is
+ * initialized.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class CliLauncher {
+	/**
+	 * Exit status if the routine could not be started.
+	 */
+	private static final int EXIT_FAILURE = 1;
+	/**
+	 * The base name of the log files.
+	 */
+	private static final String LOG_BASE_NAME = "kivabot";
+	/**
+	 * The directory of the log files.
+	 */
+	private static final String LOG_DIRECTORY = "logs";
+	/**
+	 * The size in bytes after which the log file is rotated.
+	 */
+	private static final long LOG_MAX_FILE_SIZE = 10 * 1024 * 1024;
+	/**
+	 * The time in milliseconds after which the log file is rotated.
+	 */
+	private static final long LOG_ROTATION_INTERVAL = 24 * 60 * 60 * 1000;
+
+	/**
+	 * Runs the routines described by the settings and the arguments.
+	 * 
+	 * @param args
+	 *            Arguments of the form <tt>key=value</tt> which override the
+	 *            saved settings with the given key, for example
+	 *            <tt>username=Foo</tt> or <tt>repeat=true</tt>. Passwords are
+	 *            not accepted. The argument <tt>accounts=path</tt> names a file
+	 *            with one line <tt>username:password</tt> per account.
+	 */
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", Boolean.TRUE.toString());
+
+		final JsonFileLogSink fileSink = new JsonFileLogSink(Paths.get(LOG_DIRECTORY), LOG_BASE_NAME,
+				LOG_MAX_FILE_SIZE, LOG_ROTATION_INTERVAL);
+		final Logger logger = new Logger(null, new CompositeLogSink(new ConsoleLogSink(), fileSink));
+		final CliController controller = new CliController(logger);
+		// Stop the routines also if the tool is terminated from outside
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				controller.shutdown();
+			}
+		}));
+
+		boolean wasStarted = false;
+		try {
+			controller.initialize(args);
+			wasStarted = controller.run();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final Exception e) {
+			logger.logUnknownError(e);
+		} finally {
+			controller.shutdown();
+		}
+		// The log file can not report its own errors if it stays unwritable
+		if (fileSink.getErrors() > 0) {
+			System.err.println(fileSink.getErrors() + " errors occurred while writing the log files.");
+		}
+
+		if (!wasStarted) {
+			System.exit(EXIT_FAILURE);
+		}
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private CliLauncher() {
+
+	}
+}
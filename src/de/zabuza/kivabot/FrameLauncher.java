@@ -3,10 +3,12 @@ package de.zabuza.kivabot;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Toolkit;
+import java.nio.file.Paths;
 
 import javax.swing.JFrame;
 
 import de.zabuza.kivabot.controller.MainFrameController;
+import de.zabuza.kivabot.controller.logging.JsonFileLogSink;
 import de.zabuza.kivabot.controller.logging.Logger;
 import de.zabuza.kivabot.view.MainFrameView;
 
@@ -17,6 +19,22 @@ import de.zabuza.kivabot.view.MainFrameView;
  * 
  */
 public final class FrameLauncher {
+	/**
+	 * The base name of the log files.
+	 */
+	private static final String LOG_BASE_NAME = "kivabot";
+	/**
+	 * The directory of the log files.
+	 */
+	private static final String LOG_DIRECTORY = "logs";
+	/**
+	 * The size in bytes after which the log file is rotated.
+	 */
+	private static final long LOG_MAX_FILE_SIZE = 10 * 1024 * 1024;
+	/**
+	 * The time in milliseconds after which the log file is rotated.
+	 */
+	private static final long LOG_ROTATION_INTERVAL = 24 * 60 * 60 * 1000;
 	/**
 	 * The title of the tool.
 	 */
@@ -52,7 +70,8 @@ public final class FrameLauncher {
 							(screenSize.height - frame.getHeight()) / 2);
 
 					window = new MainFrameView(frame);
-					logger = new Logger(window);
+					logger = new Logger(window, new JsonFileLogSink(Paths.get(LOG_DIRECTORY), LOG_BASE_NAME,
+							LOG_MAX_FILE_SIZE, LOG_ROTATION_INTERVAL));
 					final MainFrameController controller = new MainFrameController(frame, window, logger);
 					controller.initialize();
 					controller.start();
@@ -0,0 +1,292 @@
+package de.zabuza.kivabot.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.controller.settings.SettingsController;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
+
+/**
+ * The controller of the tool when it runs without a frame. The account and its
+ * routine are described by the saved settings, which can be overridden by
+ * arguments of the form <tt>key=value</tt> using the keys of the settings
+ * file. Passwords are not accepted as arguments, since the arguments of a
+ * process can be read by every user of the host. Further accounts are given by
+ * the argument <tt>accounts=path</tt>, naming a file with one line
+ * <tt>username:password</tt> per account, they share all other settings. Then
+ * the account of the settings is not used. The routines of all accounts are
+ * executed in parallel and the controller waits until they have finished, if
+ * repeating is set the routines are scheduled recurringly until the tool is
+ * shut down.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class CliController implements IRoutineListener {
+	/**
+	 * The key of the argument which names the file of the accounts.
+	 */
+	private static final String ACCOUNTS_KEY = "accounts";
+	/**
+	 * Lines of the file of the accounts which start with this symbol are
+	 * ignored.
+	 */
+	private static final String COMMENT_SYMBOL = "#";
+	/**
+	 * The separator between the name and the password of a user in the file of
+	 * the accounts.
+	 */
+	private static final String CREDENTIALS_SEPARATOR = ":";
+	/**
+	 * The separator between the key and the value of an argument.
+	 */
+	private static final String KEY_VALUE_SEPARATOR = "=";
+	/**
+	 * The key of the password setting, which is not accepted as argument.
+	 */
+	private static final String PASSWORD_KEY = "password";
+
+	/**
+	 * The engine, scheduler and metrics which execute the routines,
+	 * <tt>null</tt> if the routines were not started yet.
+	 */
+	private RoutineBootstrap mBootstrap;
+	/**
+	 * Map which connects the names of the users given by the file of the
+	 * accounts to their passwords, in the order of the file.
+	 */
+	private final Map<String, String> mCredentials;
+	/**
+	 * Latch which is released once the controller does not need to wait
+	 * anymore, either since all routines have finished or since the controller
+	 * was shut down.
+	 */
+	private final CountDownLatch mFinished;
+	/**
+	 * Whether the file of the accounts could not be read or contains invalid
+	 * lines.
+	 */
+	private boolean mHasInvalidAccounts;
+	/**
+	 * Whether the controller was shut down.
+	 */
+	private boolean mIsShutdown;
+	/**
+	 * The logger of the tool.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The amount of routines which were executed once and did not finish yet.
+	 */
+	private final AtomicInteger mRemainingRoutines;
+	/**
+	 * The controller for the settings.
+	 */
+	private final SettingsController mSettingsController;
+
+	/**
+	 * Creates a new controller which runs the tool without a frame.
+	 * 
+	 * @param logger
+	 *            The logger of the tool
+	 */
+	public CliController(final Logger logger) {
+		this.mLogger = logger;
+		this.mSettingsController = new SettingsController(null, null, logger);
+		this.mCredentials = new LinkedHashMap<>();
+		this.mBootstrap = null;
+		this.mFinished = new CountDownLatch(1);
+		this.mHasInvalidAccounts = false;
+		this.mRemainingRoutines = new AtomicInteger(0);
+		this.mIsShutdown = false;
+	}
+
+	/**
+	 * Initializes the controller. Loads the saved settings and overrides them
+	 * by the given arguments.
+	 * 
+	 * @param args
+	 *            Arguments of the form <tt>key=value</tt> which override the
+	 *            saved settings with the given key, except for the password,
+	 *            or of the form <tt>accounts=path</tt> which names the file of
+	 *            the accounts
+	 */
+	public void initialize(final String[] args) {
+		this.mSettingsController.initialize();
+		for (final String arg : args) {
+			final int separatorIndex = arg.indexOf(KEY_VALUE_SEPARATOR);
+			if (separatorIndex <= 0) {
+				this.mLogger.logError("Ignoring invalid argument, expected key=value: " + arg, Logger.TOP_LEVEL);
+				continue;
+			}
+			final String key = arg.substring(0, separatorIndex).trim();
+			final String value = arg.substring(separatorIndex + KEY_VALUE_SEPARATOR.length()).trim();
+			if (key.equals(ACCOUNTS_KEY)) {
+				loadCredentials(value);
+			} else if (key.equals(PASSWORD_KEY)) {
+				this.mLogger.logError("Ignoring password argument, passwords are only read from files.",
+						Logger.TOP_LEVEL);
+			} else {
+				this.mSettingsController.setSetting(key, value);
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.tasks.IRoutineListener#routineFinished(de.zabuza.
+	 * kivabot.model.Account, java.util.Set)
+	 */
+	@Override
+	public void routineFinished(final Account account, final Set<EKivaTask> collectedTasks) {
+		// Recurring routines run until the tool is shut down
+		if (!this.mBootstrap.isScheduled(account) && this.mRemainingRoutines.decrementAndGet() == 0) {
+			this.mFinished.countDown();
+		}
+	}
+
+	/**
+	 * Runs the routines of all accounts described by the settings and the
+	 * arguments in parallel and waits until they have finished, or until the
+	 * controller is shut down if the routines are repeated.
+	 * 
+	 * @return <tt>True</tt> if the routines could be started, <tt>false</tt> if
+	 *         the settings or the file of the accounts do not describe valid
+	 *         accounts
+	 * @throws InterruptedException
+	 *             If the current thread was interrupted while waiting
+	 */
+	public boolean run() throws InterruptedException {
+		if (this.mHasInvalidAccounts) {
+			return false;
+		}
+		final List<Account> accounts;
+		try {
+			accounts = createAccounts();
+		} catch (final IllegalArgumentException e) {
+			this.mLogger.logError("The settings do not describe a valid account, world and browser must be set.",
+					Logger.TOP_LEVEL);
+			return false;
+		}
+
+		final RoutineBootstrap bootstrap;
+		synchronized (this) {
+			if (this.mIsShutdown) {
+				// The tool is terminated already
+				return true;
+			}
+			// One thread per account, such that all routines run in parallel
+			bootstrap = new RoutineBootstrap(accounts.size(), this.mSettingsController, this, this.mLogger);
+			this.mBootstrap = bootstrap;
+		}
+
+		bootstrap.startMetricsServer();
+		final boolean isRepeat = this.mSettingsController.isRepeat();
+		if (!isRepeat) {
+			this.mRemainingRoutines.set(accounts.size());
+		}
+		for (final Account account : accounts) {
+			this.mLogger.forAccount(account).logInfo("Routine started.", Logger.TOP_LEVEL);
+			bootstrap.startRoutine(account, this.mLogger, isRepeat, this.mSettingsController.getRoutineInterval());
+		}
+
+		this.mFinished.await();
+		return true;
+	}
+
+	/**
+	 * Shuts the controller down. Stops all routines, quits all web drivers which
+	 * are kept for reuse and logs a summary of the metrics of all routines.
+	 * Subsequent calls have no effect.
+	 */
+	public void shutdown() {
+		final RoutineBootstrap bootstrap;
+		synchronized (this) {
+			if (this.mIsShutdown) {
+				return;
+			}
+			this.mIsShutdown = true;
+			bootstrap = this.mBootstrap;
+		}
+
+		if (bootstrap != null) {
+			bootstrap.shutdown();
+		}
+		this.mFinished.countDown();
+		this.mLogger.close();
+	}
+
+	/**
+	 * Creates the accounts to run the routines of. These are the accounts of
+	 * the users given by the file of the accounts or, if there is none, the
+	 * account described by the settings.
+	 * 
+	 * @return The accounts to run the routines of, not empty
+	 * @throws IllegalArgumentException
+	 *             If the world or browser setting is missing or invalid
+	 */
+	private List<Account> createAccounts() throws IllegalArgumentException {
+		final List<Account> accounts = new ArrayList<>();
+		if (this.mCredentials.isEmpty()) {
+			accounts.add(this.mSettingsController.createAccount());
+			return accounts;
+		}
+		for (final Entry<String, String> credentials : this.mCredentials.entrySet()) {
+			accounts.add(this.mSettingsController.createAccount(credentials.getKey(), credentials.getValue()));
+		}
+		return accounts;
+	}
+
+	/**
+	 * Adds the users given by the file of the accounts. The file is encoded in
+	 * ISO-8859-1 and contains one line <tt>username:password</tt> per user,
+	 * empty lines and lines starting with <tt>#</tt> are ignored.
+	 * 
+	 * @param path
+	 *            The path of the file of the accounts
+	 */
+	private void loadCredentials(final String path) {
+		final List<String> lines;
+		try {
+			lines = Files.readAllLines(Paths.get(path), StandardCharsets.ISO_8859_1);
+		} catch (final IOException | RuntimeException e) {
+			this.mLogger.logError("Could not read the accounts from: " + path, Logger.TOP_LEVEL);
+			this.mHasInvalidAccounts = true;
+			return;
+		}
+
+		int lineNumber = 0;
+		for (final String line : lines) {
+			lineNumber++;
+			final String trimmedLine = line.trim();
+			if (trimmedLine.isEmpty() || trimmedLine.startsWith(COMMENT_SYMBOL)) {
+				continue;
+			}
+			final int separatorIndex = trimmedLine.indexOf(CREDENTIALS_SEPARATOR);
+			if (separatorIndex <= 0) {
+				// Do not log the line, it may contain a password
+				this.mLogger.logError("Invalid account in line " + lineNumber + " of " + path
+						+ ", expected username:password", Logger.TOP_LEVEL);
+				this.mHasInvalidAccounts = true;
+				continue;
+			}
+			this.mCredentials.put(trimmedLine.substring(0, separatorIndex),
+					trimmedLine.substring(separatorIndex + CREDENTIALS_SEPARATOR.length()));
+		}
+	}
+}
@@ -1,33 +1,44 @@
 package de.zabuza.kivabot.controller;
 
 import java.util.Optional;
+import java.util.Set;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 import de.zabuza.kivabot.controller.listener.StartActionListener;
 import de.zabuza.kivabot.controller.listener.StopActionListener;
 import de.zabuza.kivabot.controller.listener.StopAtWindowCloseListener;
 import de.zabuza.kivabot.controller.logging.Logger;
 import de.zabuza.kivabot.controller.settings.SettingsController;
-import de.zabuza.kivabot.model.tasks.RoutineTask;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
 import de.zabuza.kivabot.view.MainFrameView;
 
 /**
- * The controller of the main frame.
+ * The controller of the main frame. Except for the notifications of finished
+ * routines, all methods are called from the event dispatch thread, the state
+ * of the controller is confined to it.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  * 
  */
-public final class MainFrameController {
+public final class MainFrameController implements IRoutineListener {
 	/**
-	 * The time to wait for a thread to be finished after interrupting, in
-	 * milliseconds.
+	 * The maximal amount of routines to execute in parallel. The view controls
+	 * only one account at a time.
 	 */
-	private static final long INTERRUPT_WAIT = 2000;
+	private static final int MAX_PARALLEL_ROUTINES = 1;
 	/**
-	 * The current executing routine.
+	 * The engine, scheduler and metrics which execute the routines.
 	 */
-	private RoutineTask mCurrentRoutine;
+	private final RoutineBootstrap mBootstrap;
+	/**
+	 * The account of the current executing routine or <tt>null</tt> if there is
+	 * none. Only accessed from the event dispatch thread.
+	 */
+	private Account mCurrentAccount;
 	/**
 	 * Logger of the main frame.
 	 */
@@ -55,7 +66,8 @@ public final class MainFrameController {
 		this.mView = view;
 		this.mLogger = logger;
 		this.mSettingsController = new SettingsController(owner, view, logger);
-		this.mCurrentRoutine = null;
+		this.mBootstrap = new RoutineBootstrap(MAX_PARALLEL_ROUTINES, this.mSettingsController, this, logger);
+		this.mCurrentAccount = null;
 	}
 
 	/**
@@ -68,23 +80,49 @@ public final class MainFrameController {
 		this.mSettingsController.passSettingsToMainView();
 	}
 
-	/**
-	 * Call this method when the routine has finished.
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.tasks.IRoutineListener#routineFinished(de.zabuza.
+	 * kivabot.model.Account, java.util.Set)
 	 */
-	public void routineFinished() {
-		this.mCurrentRoutine = null;
+	@Override
+	public void routineFinished(final Account account, final Set<EKivaTask> collectedTasks) {
 		this.mLogger.logInfo("Routine finished.", Logger.TOP_LEVEL);
-		this.mView.setAllInputEnabled(true);
-		this.mView.setStartButtonEnabled(true);
-		this.mView.setStopButtonEnabled(false);
-		this.mView.setSettingsButtonEnabled(true);
+		// Called from the thread of the routine, the view must only be changed by
+		// the event dispatch thread
+		SwingUtilities.invokeLater(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				// Recurring routines keep the view locked until they are stopped
+				if (!MainFrameController.this.mBootstrap.isScheduled(account)) {
+					enableViewInput();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Shuts the controller down. Stops the routine, quits all web drivers which
+	 * are kept for reuse and logs a summary of the metrics of all routines.
+	 */
+	public void shutdown() {
+		stopRoutine();
+		this.mBootstrap.shutdown();
+		this.mLogger.close();
 	}
 
 	/**
 	 * Starts the controller.
 	 */
 	public void start() {
-		// Nothing to do yet
+		this.mBootstrap.startMetricsServer();
 	}
 
 	/**
@@ -108,11 +146,11 @@ public final class MainFrameController {
 			protectionSpell = Optional.empty();
 		}
 
-		this.mCurrentRoutine = new RoutineTask(this.mView.getUsername(), this.mView.getPassword(),
-				this.mView.getWorld(), this.mView.getBrowser(), this.mView.getMovementOptions(), protectionSpell,
-				this.mView.isUseSpecialSkillChecked(), this.mView.getKivaTasks(), this.mLogger, this,
-				this.mSettingsController);
-		this.mCurrentRoutine.start();
+		this.mCurrentAccount = new Account(this.mView.getUsername(), this.mView.getPassword(), this.mView.getWorld(),
+				this.mView.getBrowser(), this.mView.isHeadlessChecked(), this.mView.getMovementOptions(),
+				protectionSpell, this.mView.isUseSpecialSkillChecked(), this.mView.getKivaTasks());
+		this.mBootstrap.startRoutine(this.mCurrentAccount, this.mLogger, this.mView.isRepeatChecked(),
+				this.mView.getRoutineInterval());
 	}
 
 	/**
@@ -120,16 +158,28 @@ public final class MainFrameController {
 	 */
 	public void stopRoutine() {
 		this.mLogger.logInfo("Routine stopped.", Logger.TOP_LEVEL);
-		if (this.mCurrentRoutine != null) {
-			this.mCurrentRoutine.interrupt();
-			try {
-				this.mCurrentRoutine.join(INTERRUPT_WAIT);
-			} catch (final InterruptedException e) {
-				this.mLogger.logUnknownError(e);
-			}
+		final Account currentAccount = this.mCurrentAccount;
+		if (currentAccount == null) {
+			return;
+		}
+
+		if (!this.mBootstrap.stopRoutine(currentAccount)) {
+			// The account was waiting for its next run
+			enableViewInput();
 		}
 	}
 
+	/**
+	 * Enables the input of the view such that a new routine can be started.
+	 */
+	private void enableViewInput() {
+		this.mCurrentAccount = null;
+		this.mView.setAllInputEnabled(true);
+		this.mView.setStartButtonEnabled(true);
+		this.mView.setStopButtonEnabled(false);
+		this.mView.setSettingsButtonEnabled(true);
+	}
+
 	/**
 	 * Links the listener to the view.
 	 */
@@ -0,0 +1,239 @@
+package de.zabuza.kivabot.controller;
+
+import java.io.IOException;
+
+import de.zabuza.kivabot.controller.engine.RoutineEngine;
+import de.zabuza.kivabot.controller.engine.RoutineScheduler;
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.controller.metrics.MetricsServer;
+import de.zabuza.kivabot.controller.settings.SettingsController;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.routing.NetworkCache;
+import de.zabuza.kivabot.model.routing.RouteTableCache;
+import de.zabuza.kivabot.model.session.ActionTargetStore;
+import de.zabuza.kivabot.model.session.ProtectionStore;
+import de.zabuza.kivabot.model.session.SessionStore;
+import de.zabuza.kivabot.model.session.WebDriverPool;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+
+/**
+ * Wiring of the parts which execute routines, shared by the controllers of
+ * the tool. It creates the engine together with the stores and caches it
+ * shares between routines, the scheduler for recurring routines and the
+ * registry of the metrics, which can be exposed by a server.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutineBootstrap {
+	/**
+	 * The interval between recurring routines to use if the given interval is
+	 * not valid, in minutes.
+	 */
+	private static final long DEFAULT_ROUTINE_INTERVAL = 60;
+	/**
+	 * The time to wait for a thread to be finished after interrupting, in
+	 * milliseconds.
+	 */
+	private static final long INTERRUPT_WAIT = 2000;
+	/**
+	 * The highest valid port, <tt>0</tt> is the lowest and picks any free port.
+	 */
+	private static final int MAX_PORT = 65535;
+	/**
+	 * The amount of milliseconds in one minute.
+	 */
+	private static final long MILLIS_PER_MINUTE = 60 * 1000;
+	/**
+	 * The time after which a resource which could not be collected is retried
+	 * by recurring routines, in milliseconds.
+	 */
+	private static final long RETRY_DELAY = 15 * MILLIS_PER_MINUTE;
+
+	/**
+	 * The engine which executes the routines.
+	 */
+	private final RoutineEngine mEngine;
+	/**
+	 * The logger of the tool.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The registry of the metrics of all routines.
+	 */
+	private final MetricsRegistry mMetrics;
+	/**
+	 * The server which exposes the metrics, <tt>null</tt> if not started.
+	 */
+	private MetricsServer mMetricsServer;
+	/**
+	 * The scheduler which runs the routines recurringly.
+	 */
+	private final RoutineScheduler mScheduler;
+	/**
+	 * The controller for the settings.
+	 */
+	private final SettingsController mSettingsController;
+
+	/**
+	 * Creates the engine, the scheduler and all parts they share.
+	 * 
+	 * @param maxParallelRoutines
+	 *            The maximal amount of routines to execute in parallel, further
+	 *            routines are queued
+	 * @param settingsController
+	 *            The controller for the settings
+	 * @param listener
+	 *            Listener which gets notified whenever a routine has finished,
+	 *            before the scheduler plans its next run
+	 * @param logger
+	 *            The logger of the tool
+	 */
+	public RoutineBootstrap(final int maxParallelRoutines, final SettingsController settingsController,
+			final IRoutineListener listener, final Logger logger) {
+		this.mSettingsController = settingsController;
+		this.mLogger = logger;
+		this.mMetrics = new MetricsRegistry();
+		final RouteTableCache routeTableCache = new RouteTableCache(new NetworkCache(logger), logger);
+		final TaskCatalog taskCatalog = TaskCatalog.loadDefault();
+		this.mEngine = new RoutineEngine(maxParallelRoutines, settingsController, routeTableCache, taskCatalog,
+				new WebDriverPool(), new SessionStore(logger), new ActionTargetStore(logger),
+				new ProtectionStore(logger), this.mMetrics);
+		this.mScheduler = new RoutineScheduler(this.mEngine, taskCatalog, RETRY_DELAY);
+		this.mEngine.addRoutineListener(listener);
+		this.mEngine.addRoutineListener(this.mScheduler);
+		this.mMetricsServer = null;
+	}
+
+	/**
+	 * Gets the interval between recurring routines from the given text. Falls
+	 * back to the default interval if the text is not a positive number of
+	 * minutes.
+	 * 
+	 * @param routineIntervalText
+	 *            The interval between recurring routines in minutes, may be
+	 *            <tt>null</tt>
+	 * @return The interval between recurring routines, in milliseconds
+	 */
+	public long getRoutineInterval(final String routineIntervalText) {
+		long routineInterval = 0;
+		if (routineIntervalText != null) {
+			try {
+				routineInterval = Long.parseLong(routineIntervalText.trim());
+			} catch (final NumberFormatException e) {
+				routineInterval = 0;
+			}
+		}
+		if (routineInterval <= 0) {
+			this.mLogger.logError("Invalid routine interval, using " + DEFAULT_ROUTINE_INTERVAL + " minutes.",
+					Logger.TOP_LEVEL);
+			routineInterval = DEFAULT_ROUTINE_INTERVAL;
+		}
+		return routineInterval * MILLIS_PER_MINUTE;
+	}
+
+	/**
+	 * Whether the given account is scheduled for recurring runs.
+	 * 
+	 * @param account
+	 *            The account in question
+	 * @return <tt>True</tt> if the account is scheduled, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isScheduled(final Account account) {
+		return this.mScheduler.isScheduled(account);
+	}
+
+	/**
+	 * Shuts all parts down. Stops all routines, quits all web drivers which are
+	 * kept for reuse, stops the metrics server and logs a summary of the
+	 * metrics of all routines.
+	 */
+	public void shutdown() {
+		this.mScheduler.shutdown();
+		this.mEngine.shutdown(INTERRUPT_WAIT);
+		if (this.mMetricsServer != null) {
+			this.mMetricsServer.stop();
+		}
+
+		// Export the metrics of the session before the log is closed
+		for (final String line : this.mMetrics.createSummary()) {
+			this.mLogger.logInfo(line, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Starts the server which exposes the metrics, if a port is set in the
+	 * settings.
+	 */
+	public void startMetricsServer() {
+		final String metricsPortText = this.mSettingsController.getMetricsPort();
+		if (metricsPortText == null) {
+			return;
+		}
+
+		try {
+			final int metricsPort = Integer.parseInt(metricsPortText.trim());
+			if (metricsPort < 0 || metricsPort > MAX_PORT) {
+				this.mLogger.logError("Invalid metrics port: " + metricsPortText, Logger.TOP_LEVEL);
+				return;
+			}
+			this.mMetricsServer = new MetricsServer(metricsPort, this.mMetrics, this.mEngine, this.mScheduler);
+			this.mMetricsServer.start();
+			this.mLogger.logInfo("Metrics are served at port " + this.mMetricsServer.getPort() + ".",
+					Logger.TOP_LEVEL);
+		} catch (final NumberFormatException e) {
+			this.mLogger.logError("Invalid metrics port: " + metricsPortText, Logger.TOP_LEVEL);
+		} catch (final IOException e) {
+			this.mLogger.logError("Could not start the metrics server at port " + metricsPortText + ".",
+					Logger.TOP_LEVEL);
+		}
+	}
+
+	/**
+	 * Starts the routine of the given account. If repeating, the routine is
+	 * scheduled recurringly with the given interval, else it is executed once.
+	 * 
+	 * @param account
+	 *            The account to start the routine of
+	 * @param logger
+	 *            The logger to use for the routine
+	 * @param isRepeat
+	 *            Whether the routine should be repeated
+	 * @param routineIntervalText
+	 *            The interval between recurring routines in minutes, may be
+	 *            <tt>null</tt> if not repeating
+	 */
+	public void startRoutine(final Account account, final Logger logger, final boolean isRepeat,
+			final String routineIntervalText) {
+		if (isRepeat) {
+			this.mScheduler.schedule(account, logger, getRoutineInterval(routineIntervalText));
+		} else {
+			this.mEngine.startRoutine(account, logger);
+		}
+	}
+
+	/**
+	 * Stops the routine of the given account and removes it from the recurring
+	 * runs. Waits a bounded time for an executing routine to stop.
+	 * 
+	 * @param account
+	 *            The account to stop the routine of
+	 * @return <tt>True</tt> if the routine was executing, its listeners get
+	 *         notified once it has finished, <tt>false</tt> if the account was
+	 *         only waiting for its next run
+	 */
+	public boolean stopRoutine(final Account account) {
+		this.mScheduler.unschedule(account);
+		if (!this.mEngine.isRunning(account)) {
+			return false;
+		}
+		if (!this.mEngine.stopRoutine(account, INTERRUPT_WAIT)) {
+			this.mLogger.logError("Routine did not stop in time, it terminates in the background.",
+					Logger.TOP_LEVEL);
+		}
+		return true;
+	}
+}
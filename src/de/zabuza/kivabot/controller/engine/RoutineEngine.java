@@ -0,0 +1,363 @@
+package de.zabuza.kivabot.controller.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.IBrowserSettingsProvider;
+import de.zabuza.kivabot.model.TaskThreadFactory;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.routing.RouteTableCache;
+import de.zabuza.kivabot.model.session.ActionTargetStore;
+import de.zabuza.kivabot.model.session.HttpActionClient;
+import de.zabuza.kivabot.model.session.ProtectionStore;
+import de.zabuza.kivabot.model.session.SessionStore;
+import de.zabuza.kivabot.model.session.WebDriverPool;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
+import de.zabuza.kivabot.model.tasks.RoutineTask;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+
+/**
+ * Engine which executes the routines of many accounts in parallel on a bounded
+ * pool of threads. Every account has its own routine with its own browser and
+ * instance, while the immutable parts like the browser settings and the route
+ * tables are shared by all routines. The same holds for the pool of warm web
+ * drivers, the HTTP client which collects the resources without the browser,
+ * if enabled, and the stores of the sessions, the learned anchor targets and
+ * the protection expiries. An account can only have one routine at a time,
+ * routines exceeding the size of the pool are queued until a thread gets
+ * available. Routines are plain tasks which are stopped by interrupting them.
+ * They run on virtual threads if the runtime supports them, such that routines
+ * blocked on their browser do not hold a platform thread each.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutineEngine implements IRoutineListener {
+	/**
+	 * The prefix of the names of the threads which execute the routines.
+	 */
+	private static final String THREAD_NAME_PREFIX = "Routine-";
+
+	/**
+	 * The browser settings provider shared by all routines.
+	 */
+	private final IBrowserSettingsProvider mBrowserSettingsProvider;
+	/**
+	 * The pool of the web drivers shared by all routines.
+	 */
+	private final WebDriverPool mDriverPool;
+	/**
+	 * The executor which executes the routines.
+	 */
+	private final ThreadPoolExecutor mExecutor;
+	/**
+	 * The HTTP client shared by all routines to collect resources with.
+	 */
+	private final HttpActionClient mHttpClient;
+	/**
+	 * The listeners to notify when a routine has finished.
+	 */
+	private final List<IRoutineListener> mListeners;
+	/**
+	 * The registry of the metrics shared by all routines.
+	 */
+	private final MetricsRegistry mMetrics;
+	/**
+	 * The store of the estimated protection expiries shared by all routines.
+	 */
+	private final ProtectionStore mProtectionStore;
+	/**
+	 * The cache of the route tables shared by all routines.
+	 */
+	private final RouteTableCache mRouteTableCache;
+	/**
+	 * Map which connects the keys of accounts to their routines which are
+	 * currently queued or executed. Access is guarded by the engine itself.
+	 */
+	private final Map<String, RoutineTask> mRoutines;
+	/**
+	 * The store of the sessions shared by all routines.
+	 */
+	private final SessionStore mSessionStore;
+	/**
+	 * The catalog of the definitions of all tasks shared by all routines.
+	 */
+	private final TaskCatalog mTaskCatalog;
+	/**
+	 * The store of the learned anchor targets shared by all routines.
+	 */
+	private final ActionTargetStore mTargetStore;
+
+	/**
+	 * Creates a new engine which executes at most the given amount of routines in
+	 * parallel.
+	 * 
+	 * @param maxParallelRoutines
+	 *            The maximal amount of routines to execute in parallel, must be
+	 *            positive
+	 * @param browserSettingsProvider
+	 *            The browser settings provider shared by all routines
+	 * @param routeTableCache
+	 *            The cache of the route tables shared by all routines
+	 * @param taskCatalog
+	 *            The catalog of the definitions of all tasks shared by all
+	 *            routines
+	 * @param driverPool
+	 *            The pool of the web drivers shared by all routines
+	 * @param sessionStore
+	 *            The store of the sessions shared by all routines
+	 * @param targetStore
+	 *            The store of the learned anchor targets shared by all routines
+	 * @param protectionStore
+	 *            The store of the estimated protection expiries shared by all
+	 *            routines
+	 * @param metrics
+	 *            The registry of the metrics shared by all routines
+	 */
+	public RoutineEngine(final int maxParallelRoutines, final IBrowserSettingsProvider browserSettingsProvider,
+			final RouteTableCache routeTableCache, final TaskCatalog taskCatalog, final WebDriverPool driverPool,
+			final SessionStore sessionStore, final ActionTargetStore targetStore,
+			final ProtectionStore protectionStore, final MetricsRegistry metrics) {
+		this.mBrowserSettingsProvider = browserSettingsProvider;
+		this.mRouteTableCache = routeTableCache;
+		this.mTaskCatalog = taskCatalog;
+		this.mDriverPool = driverPool;
+		this.mHttpClient = new HttpActionClient();
+		this.mSessionStore = sessionStore;
+		this.mTargetStore = targetStore;
+		this.mProtectionStore = protectionStore;
+		this.mMetrics = metrics;
+		this.mListeners = new CopyOnWriteArrayList<>();
+		this.mRoutines = new HashMap<>();
+		this.mExecutor = new ThreadPoolExecutor(maxParallelRoutines, maxParallelRoutines, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), new TaskThreadFactory(THREAD_NAME_PREFIX));
+	}
+
+	/**
+	 * Adds a listener which gets notified whenever a routine has finished.
+	 * 
+	 * @param listener
+	 *            The listener to add
+	 */
+	public void addRoutineListener(final IRoutineListener listener) {
+		this.mListeners.add(listener);
+	}
+
+	/**
+	 * Gets the amount of routines which are currently queued or executed.
+	 * 
+	 * @return The amount of routines which are currently queued or executed
+	 */
+	public synchronized int getActiveRoutines() {
+		return this.mRoutines.size();
+	}
+
+	/**
+	 * Gets the amount of routines which are currently executed. Every executed
+	 * routine holds a session of its account.
+	 * 
+	 * @return The amount of routines which are currently executed
+	 */
+	public int getExecutingRoutines() {
+		return this.mExecutor.getActiveCount();
+	}
+
+	/**
+	 * Gets the amount of routines which are currently queued, waiting for a
+	 * thread of the engine.
+	 * 
+	 * @return The amount of routines which are currently queued
+	 */
+	public int getQueuedRoutines() {
+		return this.mExecutor.getQueue().size();
+	}
+
+	/**
+	 * Whether a routine of the given account is currently queued or executed.
+	 * 
+	 * @param account
+	 *            The account in question
+	 * @return <tt>True</tt> if a routine of the given account is currently
+	 *         queued or executed, <tt>false</tt> otherwise
+	 */
+	public synchronized boolean isRunning(final Account account) {
+		return this.mRoutines.containsKey(account.getKey());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.tasks.IRoutineListener#routineFinished(de.zabuza.
+	 * kivabot.model.Account, java.util.Set)
+	 */
+	@Override
+	public void routineFinished(final Account account, final Set<EKivaTask> collectedTasks) {
+		synchronized (this) {
+			this.mRoutines.remove(account.getKey());
+			notifyAll();
+		}
+		for (final IRoutineListener listener : this.mListeners) {
+			listener.routineFinished(account, collectedTasks);
+		}
+	}
+
+	/**
+	 * Stops all routines and shuts the engine down, including the pool of the web
+	 * drivers and the HTTP client. No further routines can be started afterwards.
+	 * 
+	 * @param timeout
+	 *            The time to wait for the routines to be finished, in
+	 *            milliseconds
+	 */
+	public void shutdown(final long timeout) {
+		stopAllRoutines(timeout);
+		this.mExecutor.shutdownNow();
+		this.mDriverPool.shutdown();
+		this.mHttpClient.close();
+	}
+
+	/**
+	 * Starts a routine for the given account. The routine is queued if all
+	 * threads of the engine are busy.
+	 * 
+	 * @param account
+	 *            The account to start a routine for
+	 * @param logger
+	 *            The logger to use for the routine, messages of the routine are
+	 *            tagged with the account
+	 * @return <tt>True</tt> if the routine was started, <tt>false</tt> if a
+	 *         routine of the given account is already queued or executed or if
+	 *         the engine was shut down
+	 */
+	public synchronized boolean startRoutine(final Account account, final Logger logger) {
+		final String key = account.getKey();
+		if (this.mRoutines.containsKey(key)) {
+			return false;
+		}
+
+		final RoutineTask routine = new RoutineTask(account, logger.forAccount(account), this,
+				this.mBrowserSettingsProvider, this.mRouteTableCache, this.mTaskCatalog, this.mDriverPool,
+				this.mHttpClient, this.mSessionStore, this.mTargetStore, this.mProtectionStore, this.mMetrics);
+		this.mRoutines.put(key, routine);
+		try {
+			this.mExecutor.execute(routine);
+		} catch (final RejectedExecutionException e) {
+			// The engine was shut down, the routine will never run
+			this.mRoutines.remove(key);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Stops all routines and waits for them to be finished.
+	 * 
+	 * @param timeout
+	 *            The time to wait for the routines to be finished, in
+	 *            milliseconds
+	 * @return <tt>True</tt> if all routines have finished in time,
+	 *         <tt>false</tt> otherwise
+	 */
+	public boolean stopAllRoutines(final long timeout) {
+		final List<RoutineTask> routines;
+		synchronized (this) {
+			routines = new ArrayList<>(this.mRoutines.values());
+		}
+		for (final RoutineTask routine : routines) {
+			cancelRoutine(routine);
+		}
+
+		final long deadline = System.currentTimeMillis() + timeout;
+		synchronized (this) {
+			for (final RoutineTask routine : routines) {
+				if (!awaitRoutine(routine, deadline)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops the routine of the given account, if present, and waits for it to be
+	 * finished.
+	 * 
+	 * @param account
+	 *            The account whose routine to stop
+	 * @param timeout
+	 *            The time to wait for the routine to be finished, in milliseconds
+	 * @return <tt>True</tt> if the routine has finished in time or there was no
+	 *         routine, <tt>false</tt> otherwise
+	 */
+	public boolean stopRoutine(final Account account, final long timeout) {
+		final RoutineTask routine;
+		synchronized (this) {
+			routine = this.mRoutines.get(account.getKey());
+		}
+		if (routine == null) {
+			return true;
+		}
+		cancelRoutine(routine);
+
+		final long deadline = System.currentTimeMillis() + timeout;
+		synchronized (this) {
+			return awaitRoutine(routine, deadline);
+		}
+	}
+
+	/**
+	 * Waits until the given routine has finished or the deadline has passed. The
+	 * caller must hold the lock of the engine.
+	 * 
+	 * @param routine
+	 *            The routine to wait for
+	 * @param deadline
+	 *            The point in time, in milliseconds, after which waiting is
+	 *            given up
+	 * @return <tt>True</tt> if the routine has finished, <tt>false</tt> if the
+	 *         deadline has passed or the waiting thread was interrupted
+	 */
+	private boolean awaitRoutine(final RoutineTask routine, final long deadline) {
+		while (this.mRoutines.get(routine.getAccount().getKey()) == routine) {
+			final long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			try {
+				wait(remaining);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Interrupts the given routine. A routine which is still queued is removed
+	 * from the queue and finishes immediately, without waiting for a thread of
+	 * the engine.
+	 * 
+	 * @param routine
+	 *            The routine to cancel
+	 */
+	private void cancelRoutine(final RoutineTask routine) {
+		routine.interrupt();
+		if (this.mExecutor.remove(routine)) {
+			routineFinished(routine.getAccount(), Collections.<EKivaTask> emptySet());
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package de.zabuza.kivabot.controller.engine;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.TaskThreadFactory;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+
+/**
+ * Scheduler which runs the routines of accounts recurringly on an engine. The
+ * next run of an account is planned for the moment the first of its resources
+ * becomes available again. A collected resource becomes available again after
+ * the interval of the account, a resource which could not be collected, for
+ * example since its collection anchor was not present yet, is retried after a
+ * shorter delay. All planned runs wait in the delay queue of a single timer
+ * thread, such that waiting accounts do not occupy any thread of the engine.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutineScheduler implements IRoutineListener {
+	/**
+	 * The format used to log the time of the next run.
+	 */
+	private static final DateTimeFormatter NEXT_RUN_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+	/**
+	 * The prefix of the name of the timer thread of the scheduler.
+	 */
+	private static final String THREAD_NAME_PREFIX = "RoutineScheduler-";
+
+	/**
+	 * The engine which executes the routines.
+	 */
+	private final RoutineEngine mEngine;
+	/**
+	 * Map which connects the keys of scheduled accounts to the time after which a
+	 * collected resource is available again, in milliseconds. Access is guarded
+	 * by the scheduler itself.
+	 */
+	private final Map<String, Long> mIntervals;
+	/**
+	 * Map which connects the keys of scheduled accounts to the logger of their
+	 * routines. Access is guarded by the scheduler itself.
+	 */
+	private final Map<String, Logger> mLoggers;
+	/**
+	 * Map which connects the keys of scheduled accounts to their next planned
+	 * run, if they are currently waiting. Access is guarded by the scheduler
+	 * itself.
+	 */
+	private final Map<String, ScheduledFuture<?>> mPlannedRuns;
+	/**
+	 * The time after which a resource which could not be collected is retried, in
+	 * milliseconds.
+	 */
+	private final long mRetryDelay;
+	/**
+	 * The catalog of the definitions of all tasks, providing their cooldowns.
+	 */
+	private final TaskCatalog mTaskCatalog;
+	/**
+	 * The timer which waits for the planned runs.
+	 */
+	private final ScheduledExecutorService mTimer;
+
+	/**
+	 * Creates a new scheduler which runs routines on the given engine. The
+	 * scheduler needs to be registered as listener of the engine.
+	 * 
+	 * @param engine
+	 *            The engine which executes the routines
+	 * @param taskCatalog
+	 *            The catalog of the definitions of all tasks, providing their
+	 *            cooldowns
+	 * @param retryDelay
+	 *            The time after which a resource which could not be collected is
+	 *            retried, in milliseconds
+	 */
+	public RoutineScheduler(final RoutineEngine engine, final TaskCatalog taskCatalog, final long retryDelay) {
+		this.mEngine = engine;
+		this.mTaskCatalog = taskCatalog;
+		this.mRetryDelay = retryDelay;
+		this.mIntervals = new HashMap<>();
+		this.mLoggers = new HashMap<>();
+		this.mPlannedRuns = new HashMap<>();
+
+		final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+				new TaskThreadFactory(THREAD_NAME_PREFIX));
+		// Unscheduled runs should not stay in the queue until they are due
+		timer.setRemoveOnCancelPolicy(true);
+		this.mTimer = timer;
+	}
+
+	/**
+	 * Gets the amount of accounts which are scheduled for recurring runs.
+	 * 
+	 * @return The amount of accounts which are scheduled
+	 */
+	public synchronized int getScheduledAccounts() {
+		return this.mLoggers.size();
+	}
+
+	/**
+	 * Whether the given account is scheduled for recurring runs.
+	 * 
+	 * @param account
+	 *            The account in question
+	 * @return <tt>True</tt> if the account is scheduled, <tt>false</tt> otherwise
+	 */
+	public synchronized boolean isScheduled(final Account account) {
+		return this.mLoggers.containsKey(account.getKey());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.tasks.IRoutineListener#routineFinished(de.zabuza.
+	 * kivabot.model.Account, java.util.Set)
+	 */
+	@Override
+	public synchronized void routineFinished(final Account account, final Set<EKivaTask> collectedTasks) {
+		final Logger logger = this.mLoggers.get(account.getKey());
+		if (logger == null) {
+			// Account is not scheduled, it was run only once
+			return;
+		}
+
+		final long interval = this.mIntervals.get(account.getKey()).longValue();
+		final long delay = computeNextRunDelay(account.getSubTasks(), interval, collectedTasks);
+		final LocalTime nextRun = LocalTime.now().plus(delay, ChronoUnit.MILLIS);
+		logger.logInfo("Next run at " + NEXT_RUN_FORMAT.format(nextRun) + ".", Logger.TOP_LEVEL);
+		planRun(account, delay);
+	}
+
+	/**
+	 * Schedules the given account for recurring runs, the first run starts
+	 * immediately. Has no effect if the account is already scheduled.
+	 * 
+	 * @param account
+	 *            The account to schedule
+	 * @param logger
+	 *            The logger to use for the routines of the account
+	 * @param interval
+	 *            The time after which a collected resource is available again, in
+	 *            milliseconds
+	 */
+	public synchronized void schedule(final Account account, final Logger logger, final long interval) {
+		final String key = account.getKey();
+		if (this.mLoggers.containsKey(key)) {
+			return;
+		}
+		this.mLoggers.put(key, logger);
+		this.mIntervals.put(key, Long.valueOf(interval));
+		planRun(account, 0);
+	}
+
+	/**
+	 * Unschedules all accounts and stops the timer of the scheduler. Routines
+	 * which are currently executed are not stopped.
+	 */
+	public synchronized void shutdown() {
+		this.mLoggers.clear();
+		this.mIntervals.clear();
+		this.mPlannedRuns.clear();
+		this.mTimer.shutdownNow();
+	}
+
+	/**
+	 * Unschedules the given account such that no further runs are started for
+	 * it. A routine which is currently executed is not stopped.
+	 * 
+	 * @param account
+	 *            The account to unschedule
+	 */
+	public synchronized void unschedule(final Account account) {
+		final String key = account.getKey();
+		this.mLoggers.remove(key);
+		this.mIntervals.remove(key);
+		final ScheduledFuture<?> plannedRun = this.mPlannedRuns.remove(key);
+		if (plannedRun != null) {
+			plannedRun.cancel(false);
+		}
+	}
+
+	/**
+	 * Computes the delay until the next run of an account. That is the moment
+	 * the first of its resources becomes available again. A collected resource is
+	 * available again after the interval of the account, but not before the
+	 * cooldown of its task has passed. Accounts without sub tasks run again after
+	 * their interval.
+	 * 
+	 * @param subTasks
+	 *            The sub tasks of the account
+	 * @param interval
+	 *            The time after which a collected resource of the account is
+	 *            available again, in milliseconds
+	 * @param collectedTasks
+	 *            A set containing all sub tasks whose resource was collected in
+	 *            the last run
+	 * @return The delay until the next run, in milliseconds
+	 */
+	long computeNextRunDelay(final Set<EKivaTask> subTasks, final long interval,
+			final Set<EKivaTask> collectedTasks) {
+		if (subTasks.isEmpty()) {
+			return interval;
+		}
+		long delay = Long.MAX_VALUE;
+		for (final EKivaTask task : subTasks) {
+			final long availableIn;
+			if (collectedTasks.contains(task)) {
+				availableIn = Math.max(interval, this.mTaskCatalog.getDefinition(task).getCooldown());
+			} else {
+				availableIn = this.mRetryDelay;
+			}
+			delay = Math.min(delay, availableIn);
+		}
+		return delay;
+	}
+
+	/**
+	 * Plans a run of the given account after the given delay. The caller must
+	 * hold the lock of the scheduler.
+	 * 
+	 * @param account
+	 *            The account to plan a run for
+	 * @param delay
+	 *            The delay until the run, in milliseconds
+	 */
+	private void planRun(final Account account, final long delay) {
+		final ScheduledFuture<?> plannedRun = this.mTimer.schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				startRun(account);
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+		this.mPlannedRuns.put(account.getKey(), plannedRun);
+	}
+
+	/**
+	 * Starts the planned run of the given account on the engine, if it is still
+	 * scheduled.
+	 * 
+	 * @param account
+	 *            The account to start the run of
+	 */
+	private synchronized void startRun(final Account account) {
+		final String key = account.getKey();
+		this.mPlannedRuns.remove(key);
+		final Logger logger = this.mLoggers.get(key);
+		if (logger == null) {
+			return;
+		}
+		this.mEngine.startRoutine(account, logger);
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This is the core package for executing routines from the controller of the
+ * tool.
+ */
+package de.zabuza.kivabot.controller.engine;
\ No newline at end of file
@@ -0,0 +1,51 @@
+package de.zabuza.kivabot.controller.logging;
+
+/**
+ * Sink which passes all log records to several other sinks, for example to the
+ * console and a file.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class CompositeLogSink implements ILogSink {
+	/**
+	 * The sinks to pass all records to.
+	 */
+	private final ILogSink[] mSinks;
+
+	/**
+	 * Creates a new sink which passes all records to the given sinks.
+	 * 
+	 * @param sinks
+	 *            The sinks to pass all records to
+	 */
+	public CompositeLogSink(final ILogSink... sinks) {
+		this.mSinks = sinks.clone();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.controller.logging.ILogSink#close()
+	 */
+	@Override
+	public void close() {
+		for (final ILogSink sink : this.mSinks) {
+			sink.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.controller.logging.ILogSink#write(de.zabuza.kivabot.
+	 * controller.logging.LogRecord)
+	 */
+	@Override
+	public void write(final LogRecord record) {
+		for (final ILogSink sink : this.mSinks) {
+			sink.write(record);
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package de.zabuza.kivabot.controller.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sink which prints log records to the standard streams, errors to the
+ * standard error stream and all other records to the standard output stream.
+ * Used instead of the view when the tool runs without a frame. Records are
+ * only enqueued by the logging threads, a single printer thread prints them in
+ * batches. If the queue is full, new records are dropped and the amount of
+ * dropped records is printed with the next batch.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ConsoleLogSink implements ILogSink {
+	/**
+	 * The maximal amount of records waiting in the queue.
+	 */
+	private static final int CAPACITY = 10_000;
+	/**
+	 * The time to wait for the printer thread when closing the sink, in
+	 * milliseconds.
+	 */
+	private static final long CLOSE_WAIT = 5_000;
+	/**
+	 * Indent to be used for every logging level.
+	 */
+	private static final String LOG_LEVEL_INDENT = "  ";
+	/**
+	 * The maximal amount of records printed with one batch.
+	 */
+	private static final int MAX_BATCH_SIZE = 512;
+	/**
+	 * The time the printer thread waits for records before it checks whether
+	 * the sink was closed, in milliseconds.
+	 */
+	private static final long POLL_TIMEOUT = 500;
+	/**
+	 * The name of the printer thread.
+	 */
+	private static final String PRINTER_THREAD_NAME = "LogPrinter";
+	/**
+	 * Prompt text which should be displayed in front of every output
+	 */
+	private static final String PROMPT = ">";
+	/**
+	 * The format of the time printed in front of every record.
+	 */
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+	/**
+	 * Appends the given record as line to the given builder. The line consists
+	 * of the time, the account and task the record belongs to and the message,
+	 * indented by its logging level.
+	 * 
+	 * @param builder
+	 *            The builder to append to
+	 * @param record
+	 *            The record to append
+	 */
+	private static void appendLine(final StringBuilder builder, final LogRecord record) {
+		builder.append(TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestamp()),
+				ZoneId.systemDefault())));
+		if (record.getAccount() != null || record.getTask() != null) {
+			builder.append(" [");
+			if (record.getAccount() != null) {
+				builder.append(record.getAccount());
+			}
+			if (record.getAccount() != null && record.getTask() != null) {
+				builder.append('/');
+			}
+			if (record.getTask() != null) {
+				builder.append(record.getTask());
+			}
+			builder.append(']');
+		}
+		builder.append(' ');
+		for (int i = 0; i < record.getLevel(); i++) {
+			builder.append(LOG_LEVEL_INDENT);
+		}
+		builder.append(PROMPT).append(record.getMessage()).append(System.lineSeparator());
+		if (record.getStackTrace() != null) {
+			builder.append(record.getStackTrace());
+		}
+	}
+
+	/**
+	 * Prints the given text to the given stream, if not empty.
+	 * 
+	 * @param stream
+	 *            The stream to print to
+	 * @param text
+	 *            The text to print
+	 */
+	private static void print(final PrintStream stream, final StringBuilder text) {
+		if (text.length() == 0) {
+			return;
+		}
+		stream.print(text);
+		stream.flush();
+		text.setLength(0);
+	}
+
+	/**
+	 * The amount of records which were dropped since the last batch, since the
+	 * queue was full.
+	 */
+	private final AtomicInteger mDropped;
+	/**
+	 * Whether the sink was closed.
+	 */
+	private volatile boolean mIsClosed;
+	/**
+	 * The thread which prints the records.
+	 */
+	private final Thread mPrinter;
+	/**
+	 * The queue of records waiting to be printed.
+	 */
+	private final BlockingQueue<LogRecord> mQueue;
+
+	/**
+	 * Creates and starts a new sink which prints to the standard streams.
+	 */
+	public ConsoleLogSink() {
+		this.mQueue = new LinkedBlockingQueue<>(CAPACITY);
+		this.mDropped = new AtomicInteger(0);
+		this.mIsClosed = false;
+
+		this.mPrinter = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				printRecords();
+			}
+		}, PRINTER_THREAD_NAME);
+		this.mPrinter.setDaemon(true);
+		this.mPrinter.start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.controller.logging.ILogSink#close()
+	 */
+	@Override
+	public void close() {
+		if (this.mIsClosed) {
+			return;
+		}
+		this.mIsClosed = true;
+		try {
+			this.mPrinter.join(CLOSE_WAIT);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.controller.logging.ILogSink#write(de.zabuza.kivabot.
+	 * controller.logging.LogRecord)
+	 */
+	@Override
+	public void write(final LogRecord record) {
+		if (this.mIsClosed) {
+			return;
+		}
+		if (!this.mQueue.offer(record)) {
+			this.mDropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Prints records in batches until the sink is closed and all remaining
+	 * records are printed. Successive records of the same kind are printed with
+	 * one call. Executed by the printer thread.
+	 */
+	private void printRecords() {
+		final List<LogRecord> records = new ArrayList<>(MAX_BATCH_SIZE);
+		final StringBuilder infoText = new StringBuilder();
+		final StringBuilder errorText = new StringBuilder();
+		try {
+			while (!this.mIsClosed || !this.mQueue.isEmpty()) {
+				final LogRecord firstRecord = this.mQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (firstRecord == null) {
+					continue;
+				}
+				records.add(firstRecord);
+				this.mQueue.drainTo(records, MAX_BATCH_SIZE - 1);
+
+				for (final LogRecord record : records) {
+					if (record.isError()) {
+						print(System.out, infoText);
+						appendLine(errorText, record);
+					} else {
+						print(System.err, errorText);
+						appendLine(infoText, record);
+					}
+				}
+				print(System.out, infoText);
+				print(System.err, errorText);
+
+				final int dropped = this.mDropped.getAndSet(0);
+				if (dropped > 0) {
+					System.err.println(dropped + " log messages were dropped since the log was overloaded.");
+				}
+				records.clear();
+			}
+		} catch (final InterruptedException e) {
+			// Printer is terminated, remaining records are lost
+		}
+	}
+}
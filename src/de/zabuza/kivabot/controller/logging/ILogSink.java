@@ -0,0 +1,25 @@
+package de.zabuza.kivabot.controller.logging;
+
+/**
+ * Interface for destinations of log records besides the view, for example
+ * files. Sinks are shared by all routines and must be thread-safe.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface ILogSink {
+	/**
+	 * Closes the sink. Records which were already written are flushed, further
+	 * records are discarded.
+	 */
+	public void close();
+
+	/**
+	 * Writes the given record to the sink. Implementations must not block the
+	 * calling thread on slow operations like disk access.
+	 * 
+	 * @param record
+	 *            The record to write
+	 */
+	public void write(final LogRecord record);
+}
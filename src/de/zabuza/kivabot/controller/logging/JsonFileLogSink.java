@@ -0,0 +1,503 @@
+package de.zabuza.kivabot.controller.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sink which writes log records as JSON lines to a file. Records are only
+ * enqueued by the logging threads, a single writer thread encodes them in
+ * batches and appends each batch with one write to a file channel. The file is
+ * rotated once it exceeds a maximal size or after a given time, rotated files
+ * are compressed with gzip by a background thread. If the queue is full, new
+ * records are dropped and the amount of dropped records is written with the
+ * next batch. Records of batches which could not be written count as dropped.
+ * Errors while writing or compressing files are counted and also written with
+ * the next batch, together with the last of them.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class JsonFileLogSink implements ILogSink {
+	/**
+	 * The maximal amount of records waiting in the queue.
+	 */
+	private static final int CAPACITY = 10_000;
+	/**
+	 * The time to wait for the writer and compressor threads when closing the
+	 * sink, in milliseconds.
+	 */
+	private static final long CLOSE_WAIT = 5_000;
+	/**
+	 * The name of the compressor thread.
+	 */
+	private static final String COMPRESSOR_THREAD_NAME = "LogCompressor";
+	/**
+	 * The file extension of the log files.
+	 */
+	private static final String FILE_EXTENSION = ".jsonl";
+	/**
+	 * The file extension appended to compressed log files.
+	 */
+	private static final String GZIP_EXTENSION = ".gz";
+	/**
+	 * The maximal amount of records written with one batch.
+	 */
+	private static final int MAX_BATCH_SIZE = 512;
+	/**
+	 * The time the writer thread waits for records before it checks whether the
+	 * sink was closed, in milliseconds.
+	 */
+	private static final long POLL_TIMEOUT = 500;
+	/**
+	 * The format of the time appended to the names of rotated files.
+	 */
+	private static final DateTimeFormatter ROTATION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+	/**
+	 * The name of the writer thread.
+	 */
+	private static final String WRITER_THREAD_NAME = "LogWriter";
+
+	/**
+	 * Appends the given record as JSON line to the given builder.
+	 * 
+	 * @param builder
+	 *            The builder to append to
+	 * @param record
+	 *            The record to append
+	 */
+	private static void appendJsonLine(final StringBuilder builder, final LogRecord record) {
+		builder.append("{\"timestamp\":");
+		appendJsonString(builder, Instant.ofEpochMilli(record.getTimestamp()).toString());
+		builder.append(",\"level\":");
+		if (record.isError()) {
+			appendJsonString(builder, "ERROR");
+		} else {
+			appendJsonString(builder, "INFO");
+		}
+		if (record.getAccount() != null) {
+			builder.append(",\"account\":");
+			appendJsonString(builder, record.getAccount());
+		}
+		if (record.getTask() != null) {
+			builder.append(",\"task\":");
+			appendJsonString(builder, record.getTask());
+		}
+		builder.append(",\"message\":");
+		appendJsonString(builder, record.getMessage());
+		if (record.getLatency() != LogRecord.NO_LATENCY) {
+			builder.append(",\"latency\":").append(record.getLatency());
+		}
+		if (record.getStackTrace() != null) {
+			builder.append(",\"stackTrace\":");
+			appendJsonString(builder, record.getStackTrace());
+		}
+		builder.append("}\n");
+	}
+
+	/**
+	 * Appends the given text as JSON string to the given builder.
+	 * 
+	 * @param builder
+	 *            The builder to append to
+	 * @param text
+	 *            The text to append
+	 */
+	private static void appendJsonString(final StringBuilder builder, final String text) {
+		builder.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c == '\n') {
+				builder.append("\\n");
+			} else if (c == '\r') {
+				builder.append("\\r");
+			} else if (c == '\t') {
+				builder.append("\\t");
+			} else if (c < ' ') {
+				builder.append(String.format("\\u%04x", Integer.valueOf(c)));
+			} else {
+				builder.append(c);
+			}
+		}
+		builder.append('"');
+	}
+
+	/**
+	 * Creates a factory for daemon threads with the given name.
+	 * 
+	 * @param name
+	 *            The name of the threads
+	 * @return The factory for daemon threads with the given name
+	 */
+	private static ThreadFactory createThreadFactory(final String name) {
+		return new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * The base name of the log files, without extension.
+	 */
+	private final String mBaseName;
+	/**
+	 * The channel to the current log file, <tt>null</tt> if not opened yet.
+	 * Only accessed by the writer thread.
+	 */
+	private FileChannel mChannel;
+	/**
+	 * Executor of the background thread which compresses rotated files.
+	 */
+	private final ExecutorService mCompressor;
+	/**
+	 * The directory of the log files.
+	 */
+	private final Path mDirectory;
+	/**
+	 * The amount of records which were dropped since the last batch, since the
+	 * queue was full.
+	 */
+	private final AtomicInteger mDropped;
+	/**
+	 * The amount of errors which occurred while writing or compressing log
+	 * files since the sink was created.
+	 */
+	private final AtomicInteger mErrors;
+	/**
+	 * The size of the current log file in bytes. Only accessed by the writer
+	 * thread.
+	 */
+	private long mFileSize;
+	/**
+	 * Whether the sink was closed.
+	 */
+	private volatile boolean mIsClosed;
+	/**
+	 * Description of the last error which occurred while writing or
+	 * compressing log files, <tt>null</tt> if there was none.
+	 */
+	private volatile String mLastError;
+	/**
+	 * The size in bytes after which the log file is rotated.
+	 */
+	private final long mMaxFileSize;
+	/**
+	 * The queue of records waiting to be written.
+	 */
+	private final BlockingQueue<LogRecord> mQueue;
+	/**
+	 * The time at which the current log file is rotated, in milliseconds since
+	 * the epoch. Only accessed by the writer thread.
+	 */
+	private long mRotationDue;
+	/**
+	 * The time in milliseconds after which the log file is rotated.
+	 */
+	private final long mRotationInterval;
+	/**
+	 * The amount of errors which occurred while writing or compressing log
+	 * files since the last batch.
+	 */
+	private final AtomicInteger mUnreportedErrors;
+	/**
+	 * The thread which writes the records.
+	 */
+	private final Thread mWriter;
+
+	/**
+	 * Creates and starts a new sink which writes to a log file in the given
+	 * directory.
+	 * 
+	 * @param directory
+	 *            The directory of the log files, is created if not present
+	 * @param baseName
+	 *            The base name of the log files, without extension
+	 * @param maxFileSize
+	 *            The size in bytes after which the log file is rotated
+	 * @param rotationInterval
+	 *            The time in milliseconds after which the log file is rotated
+	 */
+	public JsonFileLogSink(final Path directory, final String baseName, final long maxFileSize,
+			final long rotationInterval) {
+		this.mDirectory = directory;
+		this.mBaseName = baseName;
+		this.mMaxFileSize = maxFileSize;
+		this.mRotationInterval = rotationInterval;
+		this.mQueue = new LinkedBlockingQueue<>(CAPACITY);
+		this.mDropped = new AtomicInteger(0);
+		this.mErrors = new AtomicInteger(0);
+		this.mUnreportedErrors = new AtomicInteger(0);
+		this.mLastError = null;
+		this.mIsClosed = false;
+		this.mCompressor = Executors.newSingleThreadExecutor(createThreadFactory(COMPRESSOR_THREAD_NAME));
+
+		this.mWriter = createThreadFactory(WRITER_THREAD_NAME).newThread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				writeRecords();
+			}
+		});
+		this.mWriter.start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.controller.logging.ILogSink#close()
+	 */
+	@Override
+	public void close() {
+		if (this.mIsClosed) {
+			return;
+		}
+		this.mIsClosed = true;
+		try {
+			this.mWriter.join(CLOSE_WAIT);
+			this.mCompressor.shutdown();
+			this.mCompressor.awaitTermination(CLOSE_WAIT, TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets the amount of errors which occurred while writing or compressing log
+	 * files since the sink was created.
+	 * 
+	 * @return The amount of errors
+	 */
+	public int getErrors() {
+		return this.mErrors.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.controller.logging.ILogSink#write(de.zabuza.kivabot.
+	 * controller.logging.LogRecord)
+	 */
+	@Override
+	public void write(final LogRecord record) {
+		if (this.mIsClosed) {
+			return;
+		}
+		if (!this.mQueue.offer(record)) {
+			this.mDropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Closes the channel to the current log file, if opened.
+	 */
+	private void closeChannel() {
+		if (this.mChannel == null) {
+			return;
+		}
+		try {
+			this.mChannel.close();
+		} catch (final IOException e) {
+			// Ignore, the channel is not used anymore anyway
+		}
+		this.mChannel = null;
+	}
+
+	/**
+	 * Compresses the given rotated log file with gzip and deletes it afterwards.
+	 * 
+	 * @param file
+	 *            The rotated log file to compress
+	 */
+	private void compress(final Path file) {
+		final Path target = file.resolveSibling(file.getFileName().toString() + GZIP_EXTENSION);
+		try (final OutputStream output = new GZIPOutputStream(Files.newOutputStream(target))) {
+			Files.copy(file, output);
+		} catch (final IOException e) {
+			reportError("IO-error while compressing log file " + file, e);
+			return;
+		}
+		try {
+			Files.delete(file);
+		} catch (final IOException e) {
+			reportError("IO-error while deleting compressed log file " + file, e);
+		}
+	}
+
+	/**
+	 * Gets the path of the current log file.
+	 * 
+	 * @return The path of the current log file
+	 */
+	private Path getLogFile() {
+		return this.mDirectory.resolve(this.mBaseName + FILE_EXTENSION);
+	}
+
+	/**
+	 * Opens the channel to the current log file, if not already opened.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred while opening the channel
+	 */
+	private void openChannel() throws IOException {
+		if (this.mChannel != null) {
+			return;
+		}
+		Files.createDirectories(this.mDirectory);
+		this.mChannel = FileChannel.open(getLogFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		this.mFileSize = this.mChannel.size();
+		this.mRotationDue = System.currentTimeMillis() + this.mRotationInterval;
+	}
+
+	/**
+	 * Counts the given error which occurred while writing or compressing log
+	 * files, such that it is reported with the next batch.
+	 * 
+	 * @param description
+	 *            Description of the failed action
+	 * @param exception
+	 *            The exception of the error
+	 */
+	private void reportError(final String description, final IOException exception) {
+		this.mLastError = description + ": " + exception;
+		this.mErrors.incrementAndGet();
+		this.mUnreportedErrors.incrementAndGet();
+	}
+
+	/**
+	 * Rotates the current log file. It is renamed by appending the current time
+	 * and compressed in the background.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred while rotating the file
+	 */
+	private void rotate() throws IOException {
+		closeChannel();
+		final String time = ROTATION_FORMAT.format(LocalDateTime.now(ZoneId.systemDefault()));
+		final Path rotatedFile = this.mDirectory.resolve(this.mBaseName + "-" + time + FILE_EXTENSION);
+		Files.move(getLogFile(), rotatedFile);
+		this.mCompressor.execute(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				compress(rotatedFile);
+			}
+		});
+		openChannel();
+	}
+
+	/**
+	 * Appends the given encoded batch of records to the current log file,
+	 * rotating it before if needed.
+	 * 
+	 * @param batch
+	 *            The encoded batch of records
+	 * @throws IOException
+	 *             If an I/O-exception occurred while writing the batch
+	 */
+	private void writeBatch(final byte[] batch) throws IOException {
+		openChannel();
+		final boolean isTooLarge = this.mFileSize + batch.length > this.mMaxFileSize;
+		final boolean isTooOld = System.currentTimeMillis() >= this.mRotationDue;
+		if (this.mFileSize > 0 && (isTooLarge || isTooOld)) {
+			rotate();
+		}
+
+		final ByteBuffer buffer = ByteBuffer.wrap(batch);
+		while (buffer.hasRemaining()) {
+			this.mChannel.write(buffer);
+		}
+		this.mFileSize += batch.length;
+	}
+
+	/**
+	 * Writes records in batches until the sink is closed and all remaining
+	 * records are written. Executed by the writer thread.
+	 */
+	private void writeRecords() {
+		final List<LogRecord> records = new ArrayList<>(MAX_BATCH_SIZE);
+		final StringBuilder batch = new StringBuilder();
+		try {
+			while (!this.mIsClosed || !this.mQueue.isEmpty()) {
+				final LogRecord firstRecord = this.mQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (firstRecord == null) {
+					continue;
+				}
+				records.add(firstRecord);
+				this.mQueue.drainTo(records, MAX_BATCH_SIZE - 1);
+
+				for (final LogRecord record : records) {
+					appendJsonLine(batch, record);
+				}
+				final int dropped = this.mDropped.getAndSet(0);
+				if (dropped > 0) {
+					appendJsonLine(batch, new LogRecord(System.currentTimeMillis(), null, null, Logger.TOP_LEVEL,
+							dropped + " log records were dropped since the log was overloaded.", true,
+							LogRecord.NO_LATENCY, null));
+				}
+				final int errors = this.mUnreportedErrors.getAndSet(0);
+				if (errors > 0) {
+					appendJsonLine(batch, new LogRecord(System.currentTimeMillis(), null, null, Logger.TOP_LEVEL,
+							errors + " errors occurred while writing the log files, the last one was: "
+									+ this.mLastError,
+							true, LogRecord.NO_LATENCY, null));
+				}
+
+				try {
+					writeBatch(batch.toString().getBytes(StandardCharsets.UTF_8));
+				} catch (final IOException e) {
+					// The batch is lost, report it with the next batch instead
+					this.mDropped.addAndGet(records.size() + dropped);
+					this.mUnreportedErrors.addAndGet(errors);
+					reportError("IO-error while writing log file " + getLogFile(), e);
+					closeChannel();
+				}
+				records.clear();
+				batch.setLength(0);
+			}
+		} catch (final InterruptedException e) {
+			// Writer is terminated, remaining records are lost
+		} finally {
+			closeChannel();
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package de.zabuza.kivabot.controller.logging;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.Timer;
+
+import de.zabuza.kivabot.view.MainFrameView;
+
+/**
+ * Asynchronous pipeline which moves log records from arbitrary threads to the
+ * log of the main frame. Producers only enqueue records into a bounded
+ * lock-free queue and never wait for Swing. A single consumer on the event
+ * dispatch thread drains the queue once per frame and appends all records of
+ * the frame with as few document updates as possible. If the queue is full,
+ * new records are dropped and the amount of dropped records is reported with
+ * the next frame.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LogPipeline {
+	/**
+	 * The maximal amount of records waiting in the queue.
+	 */
+	private static final int CAPACITY = 10_000;
+	/**
+	 * The time between two frames of the consumer, in milliseconds.
+	 */
+	private static final int FRAME_DELAY = 40;
+	/**
+	 * Indent to be used for every logging level.
+	 */
+	private static final String LOG_LEVEL_INDENT = "  ";
+	/**
+	 * Prompt text which should be displayed in front of every output
+	 */
+	private static final String PROMPT = ">";
+
+	/**
+	 * Creates the text which displays the given record in the log.
+	 * 
+	 * @param record
+	 *            The record to display
+	 * @return The text which displays the record, indented by its logging level
+	 */
+	private static String createDisplayText(final LogRecord record) {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < record.getLevel(); i++) {
+			builder.append(LOG_LEVEL_INDENT);
+		}
+		builder.append(PROMPT).append(record.getMessage());
+		return builder.toString();
+	}
+
+	/**
+	 * The amount of records which were dropped since the last frame, since the
+	 * queue was full.
+	 */
+	private final AtomicInteger mDropped;
+	/**
+	 * The timer which plans the next frame of the consumer on the event dispatch
+	 * thread.
+	 */
+	private final Timer mFrameTimer;
+	/**
+	 * Whether a frame of the consumer is already planned.
+	 */
+	private final AtomicBoolean mIsFramePlanned;
+	/**
+	 * The queue of records waiting to be displayed.
+	 */
+	private final Queue<LogRecord> mQueue;
+	/**
+	 * The amount of records in the queue. Kept separately since the size of the
+	 * queue can not be computed in constant time.
+	 */
+	private final AtomicInteger mSize;
+	/**
+	 * View of the main frame.
+	 */
+	private final MainFrameView mView;
+
+	/**
+	 * Creates a new pipeline which displays records in the log of the given view.
+	 * 
+	 * @param view
+	 *            View of the main frame
+	 */
+	public LogPipeline(final MainFrameView view) {
+		this.mView = view;
+		this.mQueue = new ConcurrentLinkedQueue<>();
+		this.mSize = new AtomicInteger(0);
+		this.mDropped = new AtomicInteger(0);
+		this.mIsFramePlanned = new AtomicBoolean(false);
+
+		this.mFrameTimer = new Timer(FRAME_DELAY, new ActionListener() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+			 */
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				flush();
+			}
+		});
+		this.mFrameTimer.setRepeats(false);
+	}
+
+	/**
+	 * Enqueues the given record to be displayed with the next frame. Does not
+	 * block and can be called from any thread.
+	 * 
+	 * @param record
+	 *            The record to enqueue
+	 */
+	public void enqueue(final LogRecord record) {
+		if (this.mSize.incrementAndGet() > CAPACITY) {
+			this.mSize.decrementAndGet();
+			this.mDropped.incrementAndGet();
+		} else {
+			this.mQueue.offer(record);
+		}
+
+		if (this.mIsFramePlanned.compareAndSet(false, true)) {
+			this.mFrameTimer.start();
+		}
+	}
+
+	/**
+	 * Appends the given text to the log of the view, if not empty.
+	 * 
+	 * @param text
+	 *            The text to append, consisting of lines separated by line breaks
+	 * @param isError
+	 *            Whether the text consists of error messages
+	 */
+	private void appendRun(final StringBuilder text, final boolean isError) {
+		if (text.length() == 0) {
+			return;
+		}
+		if (isError) {
+			this.mView.logError(text.toString());
+		} else {
+			this.mView.log(text.toString());
+		}
+		text.setLength(0);
+	}
+
+	/**
+	 * Drains the queue and appends all records to the log of the view. Successive
+	 * records of the same kind are joined to a single update of the document.
+	 * Must be called on the event dispatch thread.
+	 */
+	private void flush() {
+		// Reset before draining, records enqueued from now on plan a new frame
+		this.mIsFramePlanned.set(false);
+
+		final StringBuilder text = new StringBuilder();
+		boolean isErrorRun = false;
+		LogRecord record = this.mQueue.poll();
+		while (record != null) {
+			this.mSize.decrementAndGet();
+			if (record.isError() != isErrorRun) {
+				appendRun(text, isErrorRun);
+				isErrorRun = record.isError();
+			}
+			if (text.length() != 0) {
+				text.append('\n');
+			}
+			text.append(createDisplayText(record));
+			record = this.mQueue.poll();
+		}
+		appendRun(text, isErrorRun);
+
+		final int dropped = this.mDropped.getAndSet(0);
+		if (dropped > 0) {
+			this.mView.logError(dropped + " log messages were dropped since the log was overloaded.");
+		}
+	}
+}
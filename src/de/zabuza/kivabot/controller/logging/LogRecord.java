@@ -0,0 +1,166 @@
+package de.zabuza.kivabot.controller.logging;
+
+/**
+ * Immutable record of a single log message together with the context it was
+ * logged in.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LogRecord {
+	/**
+	 * Value of the latency for records which do not measure an operation.
+	 */
+	public static final long NO_LATENCY = -1;
+
+	/**
+	 * The key of the account the record belongs to, <tt>null</tt> if it does
+	 * not belong to an account.
+	 */
+	private final String mAccount;
+	/**
+	 * Whether the record is an error message.
+	 */
+	private final boolean mIsError;
+	/**
+	 * The latency of the operation measured by the record in milliseconds, or
+	 * {@link #NO_LATENCY}.
+	 */
+	private final long mLatency;
+	/**
+	 * The logging level of the record.
+	 */
+	private final int mLevel;
+	/**
+	 * The message of the record.
+	 */
+	private final String mMessage;
+	/**
+	 * The stack trace of the error reported by the record, <tt>null</tt> if not
+	 * present.
+	 */
+	private final String mStackTrace;
+	/**
+	 * The name of the task the record belongs to, <tt>null</tt> if it does not
+	 * belong to a task.
+	 */
+	private final String mTask;
+	/**
+	 * The time the record was created at, in milliseconds since the epoch.
+	 */
+	private final long mTimestamp;
+
+	/**
+	 * Creates a new log record.
+	 * 
+	 * @param timestamp
+	 *            The time the record was created at, in milliseconds since the
+	 *            epoch
+	 * @param account
+	 *            The key of the account the record belongs to, <tt>null</tt> if
+	 *            it does not belong to an account
+	 * @param task
+	 *            The name of the task the record belongs to, <tt>null</tt> if it
+	 *            does not belong to a task
+	 * @param level
+	 *            The logging level of the record
+	 * @param message
+	 *            The message of the record
+	 * @param isError
+	 *            Whether the record is an error message
+	 * @param latency
+	 *            The latency of the operation measured by the record in
+	 *            milliseconds, or {@link #NO_LATENCY}
+	 * @param stackTrace
+	 *            The stack trace of the error reported by the record,
+	 *            <tt>null</tt> if not present
+	 */
+	public LogRecord(final long timestamp, final String account, final String task, final int level,
+			final String message, final boolean isError, final long latency, final String stackTrace) {
+		this.mTimestamp = timestamp;
+		this.mAccount = account;
+		this.mTask = task;
+		this.mLevel = level;
+		this.mMessage = message;
+		this.mIsError = isError;
+		this.mLatency = latency;
+		this.mStackTrace = stackTrace;
+	}
+
+	/**
+	 * Gets the key of the account the record belongs to.
+	 * 
+	 * @return The key of the account the record belongs to, <tt>null</tt> if it
+	 *         does not belong to an account
+	 */
+	public String getAccount() {
+		return this.mAccount;
+	}
+
+	/**
+	 * Gets the latency of the operation measured by the record.
+	 * 
+	 * @return The latency in milliseconds, or {@link #NO_LATENCY}
+	 */
+	public long getLatency() {
+		return this.mLatency;
+	}
+
+	/**
+	 * Gets the logging level of the record.
+	 * 
+	 * @return The logging level of the record
+	 */
+	public int getLevel() {
+		return this.mLevel;
+	}
+
+	/**
+	 * Gets the message of the record.
+	 * 
+	 * @return The message of the record
+	 */
+	public String getMessage() {
+		return this.mMessage;
+	}
+
+	/**
+	 * Gets the stack trace of the error reported by the record.
+	 * 
+	 * @return The stack trace of the error reported by the record,
+	 *         <tt>null</tt> if not present
+	 */
+	public String getStackTrace() {
+		return this.mStackTrace;
+	}
+
+	/**
+	 * Gets the name of the task the record belongs to.
+	 * 
+	 * @return The name of the task the record belongs to, <tt>null</tt> if it
+	 *         does not belong to a task
+	 */
+	public String getTask() {
+		return this.mTask;
+	}
+
+	/**
+	 * Gets the time the record was created at.
+	 * 
+	 * @return The time the record was created at, in milliseconds since the
+	 *         epoch
+	 */
+	public long getTimestamp() {
+		return this.mTimestamp;
+	}
+
+	/**
+	 * Whether the record is an error message.
+	 * 
+	 * @return <tt>True</tt> if the record is an error message, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isError() {
+		return this.mIsError;
+	}
+}
@@ -1,12 +1,19 @@
 package de.zabuza.kivabot.controller.logging;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import de.zabuza.kivabot.model.Account;
 import de.zabuza.kivabot.view.MainFrameView;
 
 /**
- * Logger of the main frame.
+ * Logger of the main frame. Messages are passed to an asynchronous
+ * {@link LogPipeline}, logging thus never blocks the calling thread on the
+ * view. Additionally all messages can be written to a structured
+ * {@link ILogSink}, tagged with the account and task they belong to.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
- * 
+ *
  */
 public final class Logger {
 	/**
@@ -23,42 +30,136 @@ public final class Logger {
 	public static final int TOP_LEVEL = 0;
 
 	/**
-	 * Indent to be used for every logging level.
-	 */
-	private static final String LOG_LEVEL_INDENT = "  ";
-	/**
-	 * Prompt text which should be displayed in front of every output
+	 * Creates the pipeline which displays messages in the given view.
+	 * 
+	 * @param view
+	 *            view of the main frame, <tt>null</tt> if messages should not be
+	 *            displayed
+	 * @return The pipeline for the view, <tt>null</tt> if messages should not be
+	 *         displayed
 	 */
-	private static final String PROMPT = ">";
+	private static LogPipeline createPipeline(final MainFrameView view) {
+		if (view == null) {
+			return null;
+		}
+		return new LogPipeline(view);
+	}
 
 	/**
-	 * Creates a logging level indent.
+	 * Gets the stack trace of the given error as text.
 	 * 
-	 * @param level
-	 *            Logging level of the indent.
-	 * @return The indent for the logging level
+	 * @param e
+	 *            The error to get the stack trace of
+	 * @return The stack trace of the error
 	 */
-	private static String createLevelIndent(final int level) {
-		final StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < level; i++) {
-			builder.append(LOG_LEVEL_INDENT);
-		}
-		return builder.toString();
+	private static String getStackTrace(final Exception e) {
+		final StringWriter stackTrace = new StringWriter();
+		e.printStackTrace(new PrintWriter(stackTrace));
+		return stackTrace.toString();
 	}
 
 	/**
-	 * View of the main frame.
+	 * The key of the account all messages belong to, <tt>null</tt> if they do
+	 * not belong to an account.
+	 */
+	private final String mAccount;
+	/**
+	 * The pipeline which displays the messages in the view of the main frame,
+	 * <tt>null</tt> if messages are not displayed.
+	 */
+	private final LogPipeline mPipeline;
+	/**
+	 * The sink to write all messages to, <tt>null</tt> if messages are not
+	 * written.
+	 */
+	private final ILogSink mSink;
+	/**
+	 * The name of the task all messages belong to, <tt>null</tt> if they do not
+	 * belong to a task.
 	 */
-	private final MainFrameView mView;
+	private final String mTask;
 
 	/**
 	 * Creates a new Logger using the view of the main frame.
 	 * 
 	 * @param view
-	 *            view of the main frame
+	 *            view of the main frame, <tt>null</tt> if messages should be
+	 *            discarded
 	 */
 	public Logger(final MainFrameView view) {
-		this.mView = view;
+		this(view, null);
+	}
+
+	/**
+	 * Creates a new Logger using the view of the main frame and a sink which
+	 * additionally receives all messages.
+	 * 
+	 * @param view
+	 *            view of the main frame, <tt>null</tt> if messages should not be
+	 *            displayed
+	 * @param sink
+	 *            The sink to write all messages to, <tt>null</tt> if messages
+	 *            should not be written
+	 */
+	public Logger(final MainFrameView view, final ILogSink sink) {
+		this(createPipeline(view), sink, null, null);
+	}
+
+	/**
+	 * Creates a new Logger which shares the given pipeline and sink.
+	 * 
+	 * @param pipeline
+	 *            The pipeline which displays the messages, <tt>null</tt> if
+	 *            messages are not displayed
+	 * @param sink
+	 *            The sink to write all messages to, <tt>null</tt> if messages
+	 *            are not written
+	 * @param account
+	 *            The key of the account all messages belong to, <tt>null</tt> if
+	 *            they do not belong to an account
+	 * @param task
+	 *            The name of the task all messages belong to, <tt>null</tt> if
+	 *            they do not belong to a task
+	 */
+	private Logger(final LogPipeline pipeline, final ILogSink sink, final String account, final String task) {
+		this.mPipeline = pipeline;
+		this.mSink = sink;
+		this.mAccount = account;
+		this.mTask = task;
+	}
+
+	/**
+	 * Closes the sink of the logger, if present. Should be called once the tool
+	 * shuts down.
+	 */
+	public void close() {
+		if (this.mSink != null) {
+			this.mSink.close();
+		}
+	}
+
+	/**
+	 * Creates a logger which logs to the same destinations but tags all messages
+	 * with the given account.
+	 * 
+	 * @param account
+	 *            The account all messages belong to
+	 * @return The logger for the given account
+	 */
+	public Logger forAccount(final Account account) {
+		return new Logger(this.mPipeline, this.mSink, account.getKey(), this.mTask);
+	}
+
+	/**
+	 * Creates a logger which logs to the same destinations but tags all messages
+	 * with the given task.
+	 * 
+	 * @param task
+	 *            The name of the task all messages belong to
+	 * @return The logger for the given task
+	 */
+	public Logger forTask(final String task) {
+		return new Logger(this.mPipeline, this.mSink, this.mAccount, task);
 	}
 
 	/**
@@ -70,9 +171,7 @@ public final class Logger {
 	 *            The logging level
 	 */
 	public void logError(final String message, final int level) {
-		if (this.mView != null) {
-			this.mView.logError(createLevelIndent(level) + PROMPT + message);
-		}
+		log(level, message, true, LogRecord.NO_LATENCY, null);
 	}
 
 	/**
@@ -84,24 +183,76 @@ public final class Logger {
 	 *            The logging level
 	 */
 	public void logInfo(final String message, final int level) {
-		if (this.mView != null) {
-			this.mView.log(createLevelIndent(level) + PROMPT + message);
+		log(level, message, false, LogRecord.NO_LATENCY, null);
+	}
+
+	/**
+	 * Logs the latency of an operation. The message is only written to the sink
+	 * and not displayed.
+	 * 
+	 * @param message
+	 *            The message describing the operation
+	 * @param latency
+	 *            The latency of the operation in milliseconds
+	 */
+	public void logLatency(final String message, final long latency) {
+		if (this.mSink != null) {
+			this.mSink.write(new LogRecord(System.currentTimeMillis(), this.mAccount, this.mTask, TOP_LEVEL, message,
+					false, latency, null));
 		}
 	}
 
 	/**
-	 * Logs an unknown error.
+	 * Logs an unknown error. The stack trace of the error is written to the sink
+	 * if present, else to the standard error stream.
 	 * 
 	 * @param e
 	 *            The error to log
 	 */
 	public void logUnknownError(final Exception e) {
-		if (this.mView != null) {
-			this.mView.logError(PROMPT + "An unknown error occurred:");
-			if (e.getMessage() != null) {
-				this.mView.logError(e.getMessage());
-				e.printStackTrace();
-			}
+		if (this.mPipeline == null && this.mSink == null) {
+			return;
+		}
+
+		final String stackTrace = getStackTrace(e);
+		log(TOP_LEVEL, "An unknown error occurred:", true, LogRecord.NO_LATENCY, stackTrace);
+		if (e.getMessage() != null) {
+			log(TOP_LEVEL, e.getMessage(), true, LogRecord.NO_LATENCY, null);
+		}
+		if (this.mSink == null) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Passes a message to the pipeline and the sink, if present.
+	 * 
+	 * @param level
+	 *            The logging level
+	 * @param message
+	 *            The message to log
+	 * @param isError
+	 *            Whether the message is an error message
+	 * @param latency
+	 *            The latency of the operation measured by the message in
+	 *            milliseconds, or {@link LogRecord#NO_LATENCY}
+	 * @param stackTrace
+	 *            The stack trace of the error reported by the message,
+	 *            <tt>null</tt> if not present
+	 */
+	private void log(final int level, final String message, final boolean isError, final long latency,
+			final String stackTrace) {
+		if (this.mPipeline == null && this.mSink == null) {
+			return;
+		}
+
+		final LogRecord record = new LogRecord(System.currentTimeMillis(), this.mAccount, this.mTask, level, message,
+				isError, latency, stackTrace);
+		if (this.mPipeline != null) {
+			this.mPipeline.enqueue(record);
+		}
+		if (this.mSink != null) {
+			this.mSink.write(record);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,304 @@
+package de.zabuza.kivabot.controller.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.zabuza.kivabot.controller.engine.RoutineEngine;
+import de.zabuza.kivabot.controller.engine.RoutineScheduler;
+import de.zabuza.kivabot.model.metrics.ELatencyMetric;
+import de.zabuza.kivabot.model.metrics.LatencyHistogram;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+
+/**
+ * Embedded HTTP server which exposes the metrics of the running bot in the
+ * Prometheus text format, such that it can be scraped by existing monitoring.
+ * It publishes the latency histograms and task counters of the
+ * {@link MetricsRegistry}, the state of the engine and the scheduler as well
+ * as the memory of the JVM. The exposition is created on request, the server
+ * does not interfere with the routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MetricsServer {
+	/**
+	 * The content type of the Prometheus text format.
+	 */
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	/**
+	 * The path the metrics are served at.
+	 */
+	private static final String METRICS_PATH = "/metrics";
+	/**
+	 * The prefix of the names of all metrics.
+	 */
+	private static final String PREFIX = "kivabot_";
+	/**
+	 * The name of the thread which serves the requests.
+	 */
+	private static final String THREAD_NAME = "MetricsServer";
+
+	/**
+	 * Appends a gauge with a single value to the given exposition.
+	 * 
+	 * @param exposition
+	 *            The exposition to append to
+	 * @param name
+	 *            The name of the gauge, without prefix
+	 * @param help
+	 *            The description of the gauge
+	 * @param value
+	 *            The value of the gauge
+	 */
+	private static void appendGauge(final StringBuilder exposition, final String name, final String help,
+			final long value) {
+		appendHeader(exposition, name, help, "gauge");
+		exposition.append(PREFIX).append(name).append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * Appends the help and type lines of a metric to the given exposition.
+	 * 
+	 * @param exposition
+	 *            The exposition to append to
+	 * @param name
+	 *            The name of the metric, without prefix
+	 * @param help
+	 *            The description of the metric
+	 * @param type
+	 *            The type of the metric
+	 */
+	private static void appendHeader(final StringBuilder exposition, final String name, final String help,
+			final String type) {
+		exposition.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+		exposition.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+	}
+
+	/**
+	 * Appends the samples of the given histogram to the given exposition.
+	 * 
+	 * @param exposition
+	 *            The exposition to append to
+	 * @param name
+	 *            The name of the histogram, without prefix
+	 * @param labels
+	 *            The labels identifying the histogram, without braces
+	 * @param histogram
+	 *            The histogram to append
+	 */
+	private static void appendHistogram(final StringBuilder exposition, final String name, final String labels,
+			final LatencyHistogram histogram) {
+		final long[] bounds = LatencyHistogram.getBucketBounds();
+		final long[] counts = histogram.getBucketCounts();
+		long cumulativeCount = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			cumulativeCount += counts[i];
+			exposition.append(PREFIX).append(name).append("_bucket{").append(labels).append(",le=\"")
+					.append(bounds[i]).append("\"} ").append(cumulativeCount).append('\n');
+		}
+		cumulativeCount += counts[bounds.length];
+		exposition.append(PREFIX).append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ")
+				.append(cumulativeCount).append('\n');
+		exposition.append(PREFIX).append(name).append("_sum{").append(labels).append("} ")
+				.append(histogram.getSum()).append('\n');
+		exposition.append(PREFIX).append(name).append("_count{").append(labels).append("} ")
+				.append(cumulativeCount).append('\n');
+	}
+
+	/**
+	 * Creates a label with the given name and value, where the value is given as
+	 * lower case.
+	 * 
+	 * @param name
+	 *            The name of the label
+	 * @param value
+	 *            The value of the label
+	 * @return The label in the format of the exposition
+	 */
+	private static String createLabel(final String name, final Enum<?> value) {
+		return name + "=\"" + value.name().toLowerCase(Locale.ROOT) + "\"";
+	}
+
+	/**
+	 * The engine whose state is published.
+	 */
+	private final RoutineEngine mEngine;
+	/**
+	 * The executor of the thread which serves the requests.
+	 */
+	private final ExecutorService mExecutor;
+	/**
+	 * The registry whose metrics are published.
+	 */
+	private final MetricsRegistry mMetrics;
+	/**
+	 * The scheduler whose state is published.
+	 */
+	private final RoutineScheduler mScheduler;
+	/**
+	 * The embedded HTTP server.
+	 */
+	private final HttpServer mServer;
+
+	/**
+	 * Creates a new metrics server which listens at the given port. The server
+	 * needs to be started.
+	 * 
+	 * @param port
+	 *            The port to listen at or <tt>0</tt> to use any free port
+	 * @param metrics
+	 *            The registry whose metrics are published
+	 * @param engine
+	 *            The engine whose state is published
+	 * @param scheduler
+	 *            The scheduler whose state is published
+	 * @throws IOException
+	 *             If the server could not be bound to the port
+	 */
+	public MetricsServer(final int port, final MetricsRegistry metrics, final RoutineEngine engine,
+			final RoutineScheduler scheduler) throws IOException {
+		this.mMetrics = metrics;
+		this.mEngine = engine;
+		this.mScheduler = scheduler;
+
+		this.mServer = HttpServer.create(new InetSocketAddress(port), 0);
+		this.mServer.createContext(METRICS_PATH, new HttpHandler() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see com.sun.net.httpserver.HttpHandler#handle(com.sun.net.httpserver.
+			 * HttpExchange)
+			 */
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				serveMetrics(exchange);
+			}
+		});
+		this.mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.mServer.setExecutor(this.mExecutor);
+	}
+
+	/**
+	 * Creates the exposition of all metrics in the Prometheus text format.
+	 * 
+	 * @return The exposition of all metrics
+	 */
+	public String createExposition() {
+		final StringBuilder exposition = new StringBuilder();
+
+		// Metrics of the routines
+		appendHeader(exposition, "latency_milliseconds", "Latency of the operations of the routines.", "histogram");
+		for (final ELatencyMetric metric : ELatencyMetric.values()) {
+			appendHistogram(exposition, "latency_milliseconds", createLabel("operation", metric),
+					this.mMetrics.getHistogram(metric));
+		}
+		appendHeader(exposition, "task_executions_total", "Executions of the tasks by their outcome.", "counter");
+		for (final EKivaTask task : EKivaTask.values()) {
+			final String taskLabel = createLabel("task", task);
+			exposition.append(PREFIX).append("task_executions_total{").append(taskLabel)
+					.append(",outcome=\"success\"} ").append(this.mMetrics.getSuccessCount(task)).append('\n');
+			exposition.append(PREFIX).append("task_executions_total{").append(taskLabel)
+					.append(",outcome=\"abort\"} ").append(this.mMetrics.getAbortCount(task)).append('\n');
+		}
+
+		// State of the engine and scheduler
+		appendGauge(exposition, "routines_executing", "Routines which are executed and hold a session.",
+				this.mEngine.getExecutingRoutines());
+		appendGauge(exposition, "routines_queued", "Routines which wait for a thread of the engine.",
+				this.mEngine.getQueuedRoutines());
+		appendGauge(exposition, "accounts_scheduled", "Accounts which are scheduled for recurring runs.",
+				this.mScheduler.getScheduledAccounts());
+
+		// Memory of the JVM
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		final MemoryUsage heap = memory.getHeapMemoryUsage();
+		final MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+		appendHeader(exposition, "jvm_memory_used_bytes", "Used memory of the JVM.", "gauge");
+		exposition.append(PREFIX).append("jvm_memory_used_bytes{area=\"heap\"} ").append(heap.getUsed())
+				.append('\n');
+		exposition.append(PREFIX).append("jvm_memory_used_bytes{area=\"nonheap\"} ").append(nonHeap.getUsed())
+				.append('\n');
+		appendHeader(exposition, "jvm_memory_committed_bytes", "Committed memory of the JVM.", "gauge");
+		exposition.append(PREFIX).append("jvm_memory_committed_bytes{area=\"heap\"} ").append(heap.getCommitted())
+				.append('\n');
+		exposition.append(PREFIX).append("jvm_memory_committed_bytes{area=\"nonheap\"} ")
+				.append(nonHeap.getCommitted()).append('\n');
+		appendGauge(exposition, "jvm_threads", "Live threads of the JVM.",
+				ManagementFactory.getThreadMXBean().getThreadCount());
+
+		return exposition.toString();
+	}
+
+	/**
+	 * Gets the port the server listens at.
+	 * 
+	 * @return The port the server listens at
+	 */
+	public int getPort() {
+		return this.mServer.getAddress().getPort();
+	}
+
+	/**
+	 * Starts the server.
+	 */
+	public void start() {
+		this.mServer.start();
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		this.mServer.stop(0);
+		this.mExecutor.shutdownNow();
+	}
+
+	/**
+	 * Serves the exposition of all metrics to the given exchange.
+	 * 
+	 * @param exchange
+	 *            The exchange to serve
+	 * @throws IOException
+	 *             If an I/O-exception occurred while serving
+	 */
+	private void serveMetrics(final HttpExchange exchange) throws IOException {
+		if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals(METRICS_PATH)) {
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+			return;
+		}
+
+		final byte[] content = createExposition().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, content.length);
+		try (final OutputStream output = exchange.getResponseBody()) {
+			output.write(content);
+		}
+	}
+}
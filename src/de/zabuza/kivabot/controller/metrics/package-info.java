@@ -0,0 +1,4 @@
+/**
+ * This is the core package for metrics from the controller of the tool.
+ */
+package de.zabuza.kivabot.controller.metrics;
\ No newline at end of file
@@ -25,6 +25,10 @@ public final class Settings {
 	 * File path of the settings.
 	 */
 	private static final String FILEPATH = "config.ini";
+	/**
+	 * File path of the settings used by this object.
+	 */
+	private final String mFilepath;
 	/**
 	 * The logger used by this object.
 	 */
@@ -41,8 +45,21 @@ public final class Settings {
 	 *            The logger to use
 	 */
 	public Settings(final Logger logger) {
+		this(logger, FILEPATH);
+	}
+
+	/**
+	 * Create a new settings object which uses the given file.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 * @param filepath
+	 *            File path of the settings
+	 */
+	public Settings(final Logger logger, final String filepath) {
 		this.mProperties = new Properties();
 		this.mLogger = logger;
+		this.mFilepath = filepath;
 	}
 
 	/**
@@ -54,13 +71,13 @@ public final class Settings {
 	 */
 	public final void loadSettings(final ISettingsProvider provider) {
 		this.mLogger.logInfo("Loading settings...", Logger.TOP_LEVEL);
-		try (final FileInputStream fis = new FileInputStream(FILEPATH)) {
+		try (final FileInputStream fis = new FileInputStream(this.mFilepath)) {
 			try {
 				this.mProperties.load(fis);
 			} catch (final FileNotFoundException e) {
 				saveSettings(provider);
 
-				try (final FileInputStream anotherFis = new FileInputStream(FILEPATH)) {
+				try (final FileInputStream anotherFis = new FileInputStream(this.mFilepath)) {
 					this.mProperties.load(anotherFis);
 				}
 			}
@@ -71,7 +88,7 @@ public final class Settings {
 			}
 			this.mLogger.logInfo("Settings loaded.", Logger.FIRST_LEVEL);
 		} catch (final IOException e) {
-			this.mLogger.logError("IO-error while loading settings from : " + FILEPATH, Logger.FIRST_LEVEL);
+			this.mLogger.logError("IO-error while loading settings from : " + this.mFilepath, Logger.FIRST_LEVEL);
 			e.printStackTrace();
 		}
 	}
@@ -90,12 +107,12 @@ public final class Settings {
 			this.mProperties.put(entry.getKey(), entry.getValue());
 		}
 
-		try (final FileOutputStream target = new FileOutputStream(new File(FILEPATH))) {
+		try (final FileOutputStream target = new FileOutputStream(new File(this.mFilepath))) {
 			// Save the settings
 			this.mProperties.store(target, FILE_COMMENT);
 			this.mLogger.logInfo("Settings saved.", Logger.FIRST_LEVEL);
 		} catch (final IOException e) {
-			this.mLogger.logError("IO-error while saving settings to : " + FILEPATH, Logger.FIRST_LEVEL);
+			this.mLogger.logError("IO-error while saving settings to : " + this.mFilepath, Logger.FIRST_LEVEL);
 			e.printStackTrace();
 		}
 	}
@@ -2,9 +2,11 @@ package de.zabuza.kivabot.controller.settings;
 
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.swing.JFrame;
@@ -16,6 +18,7 @@ import de.zabuza.kivabot.controller.listener.FileChooseSetActionListener;
 import de.zabuza.kivabot.controller.listener.SaveActionListener;
 import de.zabuza.kivabot.controller.listener.SettingsActionListener;
 import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
 import de.zabuza.kivabot.model.IBrowserSettingsProvider;
 import de.zabuza.kivabot.model.tasks.EKivaTask;
 import de.zabuza.kivabot.view.MainFrameView;
@@ -47,6 +50,20 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 * Key identifier for driver settings.
 	 */
 	private static final String KEY_IDENTIFIER_DRIVER = "driver";
+	/**
+	 * Key identifier for the headless setting.
+	 */
+	private static final String KEY_IDENTIFIER_HEADLESS = "headless";
+	/**
+	 * Key identifier for whether resources are collected by plain HTTP requests
+	 * instead of the browser. It can only be set in the settings file.
+	 */
+	private static final String KEY_IDENTIFIER_HTTP_FAST_PATH = "http_fast_path";
+	/**
+	 * Key identifier for the port of the metrics server. It can only be set in
+	 * the settings file.
+	 */
+	private static final String KEY_IDENTIFIER_METRICS_PORT = "metrics_port";
 	/**
 	 * Key identifier for the movement options.
 	 */
@@ -59,6 +76,14 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 * Key identifier for the protection spell setting.
 	 */
 	private static final String KEY_IDENTIFIER_PROTECTION_SPELL = "protection_spell";
+	/**
+	 * Key identifier for the repeat routine setting.
+	 */
+	private static final String KEY_IDENTIFIER_REPEAT = "repeat";
+	/**
+	 * Key identifier for the routine interval setting.
+	 */
+	private static final String KEY_IDENTIFIER_ROUTINE_INTERVAL = "routine_interval";
 	/**
 	 * Key identifier for the tasks.
 	 */
@@ -83,6 +108,11 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 * Key identifier for the selected world.
 	 */
 	private static final String KEY_IDENTIFIER_WORLD = "world";
+	/**
+	 * Key identifier for the world domain setting. It can only be set in the
+	 * settings file.
+	 */
+	private static final String KEY_IDENTIFIER_WORLD_DOMAIN = "world_domain";
 	/**
 	 * Separator which separates several information in a key.
 	 */
@@ -144,6 +174,64 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		this.mSettingsDialog = null;
 	}
 
+	/**
+	 * Creates the account described by the current settings, like it would be
+	 * created by the main view after passing the settings to it.
+	 * 
+	 * @return The account described by the current settings
+	 * @throws IllegalArgumentException
+	 *             If the world or browser setting is missing or invalid
+	 */
+	public Account createAccount() throws IllegalArgumentException {
+		return createAccount(getSetting(KEY_IDENTIFIER_USERNAME), getSetting(KEY_IDENTIFIER_PASSWORD));
+	}
+
+	/**
+	 * Creates the account of the given user, all other values of the account
+	 * are described by the current settings. This allows running the routines
+	 * of several users with the same settings.
+	 * 
+	 * @param username
+	 *            The name of the user
+	 * @param password
+	 *            The password of the user
+	 * @return The account of the given user
+	 * @throws IllegalArgumentException
+	 *             If the world or browser setting is missing or invalid
+	 */
+	public Account createAccount(final String username, final String password) throws IllegalArgumentException {
+		final EWorld world = EWorld.valueOf(getSetting(KEY_IDENTIFIER_WORLD));
+		final EBrowser browser = EBrowser.valueOf(getSetting(KEY_IDENTIFIER_BROWSER));
+		final boolean headless = Boolean.valueOf(getSetting(KEY_IDENTIFIER_HEADLESS)).booleanValue();
+
+		final Set<EMoveType> movementOptions = EnumSet.noneOf(EMoveType.class);
+		for (final EMoveType moveType : EMoveType.values()) {
+			final String key = KEY_IDENTIFIER_MOVEMENT_OPTION + KEY_INFO_SEPARATOR + moveType;
+			if (Boolean.valueOf(getSetting(key)).booleanValue()) {
+				movementOptions.add(moveType);
+			}
+		}
+
+		final Set<EKivaTask> tasks = EnumSet.noneOf(EKivaTask.class);
+		for (final EKivaTask task : EKivaTask.values()) {
+			final String key = KEY_IDENTIFIER_TASK + KEY_INFO_SEPARATOR + task;
+			if (Boolean.valueOf(getSetting(key)).booleanValue()) {
+				tasks.add(task);
+			}
+		}
+
+		final Optional<String> protectionSpell;
+		if (Boolean.valueOf(getSetting(KEY_IDENTIFIER_USE_PROTECTION_SPELL)).booleanValue()) {
+			protectionSpell = Optional.ofNullable(getProtectionSpell());
+		} else {
+			protectionSpell = Optional.empty();
+		}
+		final boolean useSpecialSkill = Boolean.valueOf(getSetting(KEY_IDENTIFIER_USE_SPECIAL_SKILL)).booleanValue();
+
+		return new Account(username, password, world, browser, headless, movementOptions, protectionSpell,
+				useSpecialSkill, tasks);
+	}
+
 	/**
 	 * Call whenever the save action is to be executed. This will save all settings
 	 * and close the settings dialog, if opened.
@@ -215,6 +303,20 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 			setSetting(key, browser.toString());
 		}
 
+		// Headless setting
+		final boolean headless = this.mView.isHeadlessChecked();
+		setSetting(KEY_IDENTIFIER_HEADLESS, Boolean.toString(headless));
+
+		// Repeat routine setting
+		final boolean repeat = this.mView.isRepeatChecked();
+		setSetting(KEY_IDENTIFIER_REPEAT, Boolean.toString(repeat));
+
+		// Routine interval
+		final String routineInterval = this.mView.getRoutineInterval();
+		if (routineInterval != null) {
+			setSetting(KEY_IDENTIFIER_ROUTINE_INTERVAL, routineInterval);
+		}
+
 		// Movement options
 		final Set<EMoveType> selectedOptions = this.mView.getMovementOptions();
 		for (final EMoveType moveType : EMoveType.values()) {
@@ -310,6 +412,20 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		return driver;
 	}
 
+	/**
+	 * Gets the port the metrics server should listen at.
+	 * 
+	 * @return The port the metrics server should listen at or <tt>null</tt> if
+	 *         not set, in which case no metrics server should be started
+	 */
+	public String getMetricsPort() {
+		final String metricsPort = getSetting(KEY_IDENTIFIER_METRICS_PORT);
+		if (metricsPort.equals(UNKNOWN_KEY_VALUE)) {
+			return null;
+		}
+		return metricsPort;
+	}
+
 	/**
 	 * Gets the name of the protection spell to use.
 	 * 
@@ -323,6 +439,20 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		return protectionSpell;
 	}
 
+	/**
+	 * Gets the interval between recurring routines.
+	 * 
+	 * @return The interval between recurring routines in minutes, as entered by
+	 *         the user, or <tt>null</tt> if not set
+	 */
+	public String getRoutineInterval() {
+		final String routineInterval = getSetting(KEY_IDENTIFIER_ROUTINE_INTERVAL);
+		if (routineInterval.equals(UNKNOWN_KEY_VALUE)) {
+			return null;
+		}
+		return routineInterval;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -353,14 +483,51 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		return userProfile;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#getWorldDomain()
+	 */
+	@Override
+	public String getWorldDomain() {
+		final String worldDomain = getSetting(KEY_IDENTIFIER_WORLD_DOMAIN);
+		if (worldDomain.equals(UNKNOWN_KEY_VALUE)) {
+			return null;
+		}
+		return worldDomain;
+	}
+
 	/**
-	 * Initializes the controller.
+	 * Initializes the controller. If the controller has no view, only the
+	 * settings are loaded.
 	 */
 	public void initialize() {
-		linkListener();
+		if (this.mView != null) {
+			linkListener();
+		}
 		this.mSettings.loadSettings(this);
 	}
 
+	/**
+	 * Whether routines should be repeated recurringly.
+	 * 
+	 * @return <tt>True</tt> if routines should be repeated, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isRepeat() {
+		return Boolean.valueOf(getSetting(KEY_IDENTIFIER_REPEAT)).booleanValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#isUseHttpFastPath()
+	 */
+	@Override
+	public boolean isUseHttpFastPath() {
+		return Boolean.valueOf(getSetting(KEY_IDENTIFIER_HTTP_FAST_PATH)).booleanValue();
+	}
+
 	/**
 	 * Passes the settings of the store to the main view for display.
 	 */
@@ -381,6 +548,15 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 			} else if (keyIdentifier.equals(KEY_IDENTIFIER_BROWSER)) {
 				// Browser
 				this.mView.setBrowser(EBrowser.valueOf(entry.getValue()));
+			} else if (keyIdentifier.equals(KEY_IDENTIFIER_HEADLESS)) {
+				// Headless setting
+				this.mView.setHeadless(Boolean.valueOf(entry.getValue()).booleanValue());
+			} else if (keyIdentifier.equals(KEY_IDENTIFIER_REPEAT)) {
+				// Repeat routine setting
+				this.mView.setRepeat(Boolean.valueOf(entry.getValue()).booleanValue());
+			} else if (keyIdentifier.equals(KEY_IDENTIFIER_ROUTINE_INTERVAL)) {
+				// Routine interval
+				this.mView.setRoutineInterval(entry.getValue());
 			} else if (keyIdentifier.equals(KEY_IDENTIFIER_MOVEMENT_OPTION)) {
 				// Movement option
 				final EMoveType moveType = EMoveType.valueOf(keySplit[1]);
@@ -0,0 +1,45 @@
+package de.zabuza.kivabot.mock;
+
+/**
+ * Pages served by the mock server, used to script their latency.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum EMockPage {
+	/**
+	 * The chat frames.
+	 */
+	CHAT,
+	/**
+	 * The in-game frame set which contains all frames.
+	 */
+	FRAMESET,
+	/**
+	 * The item frame which contains the status, the inventory and the skill
+	 * menu of the player.
+	 */
+	ITEM,
+	/**
+	 * The login form and the login itself.
+	 */
+	LOGIN,
+	/**
+	 * The main frame which contains the description and the anchors of the
+	 * current place.
+	 */
+	MAIN,
+	/**
+	 * The map frame which contains the position and the movement anchors.
+	 */
+	MAP,
+	/**
+	 * The menu frame and the logout.
+	 */
+	MENU,
+	/**
+	 * The coordinate list of the wiki which is used to create the network of
+	 * the map.
+	 */
+	WIKI
+}
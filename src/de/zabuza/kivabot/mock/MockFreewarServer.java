@@ -0,0 +1,749 @@
+package de.zabuza.kivabot.mock;
+
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.zabuza.sparkle.selectors.Names;
+import de.zabuza.sparkle.selectors.Paths;
+
+/**
+ * Local mock of the game server which serves the login and the in-game frames
+ * the routines interact with, that are the map, the main frame with its
+ * collection anchors, the status, inventory and skill menu in the item frame
+ * and the menu. It tracks the state of the players such that complete
+ * routines can be executed against it without the live game. The latency of
+ * each page can be scripted to emulate a slow server. Sparkle creates the
+ * network of the map from the coordinate list of the wiki, the server serves a
+ * coordinate list which covers all resources and the start position. It is
+ * used if the server is set as HTTP proxy of the tool, for example by the
+ * system properties <tt>http.proxyHost</tt> and <tt>http.proxyPort</tt>. The
+ * server is thread-safe.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MockFreewarServer {
+	/**
+	 * The name of the item which protects the player.
+	 */
+	public static final String PROTECTION_SPELL = "Schutzzauber";
+	/**
+	 * The character set of the pages.
+	 */
+	private static final String CHARSET = StandardCharsets.ISO_8859_1.name();
+	/**
+	 * The path of the in-game pages.
+	 */
+	private static final String PATH_IN_GAME = "/" + Paths.LOGIN + "/internal/";
+	/**
+	 * The path of the login form.
+	 */
+	private static final String PATH_LOGIN = "/" + Paths.LOGIN;
+	/**
+	 * The path of the coordinate list of the wiki.
+	 */
+	private static final String PATH_WIKI = "/index.php";
+	/**
+	 * The position new players start at.
+	 */
+	private static final Point START_POSITION = new Point(96, 104);
+	/**
+	 * The name of the threads which serve the requests.
+	 */
+	private static final String THREAD_NAME = "MockFreewarServer";
+	/**
+	 * The amount of fields the coordinate list of the wiki covers around the
+	 * resources and the start position.
+	 */
+	private static final int WIKI_MARGIN = 2;
+
+	/**
+	 * Gets the id of the session of the given request.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @return The id of the session or <tt>null</tt> if the request has no
+	 *         session cookie
+	 */
+	private static String getSessionId(final HttpExchange exchange) {
+		final String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+		if (cookies == null) {
+			return null;
+		}
+		for (final String cookie : cookies.split(";")) {
+			final String[] nameValue = cookie.trim().split("=", 2);
+			if (nameValue.length == 2 && nameValue[0].equals(Names.COOKIE_SESSION_ID)) {
+				return nameValue[1];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Parses the given url encoded parameters.
+	 * 
+	 * @param parameters
+	 *            The parameters to parse, may be <tt>null</tt>
+	 * @return Map which connects the names of the parameters to their values
+	 */
+	private static Map<String, String> parseParameters(final String parameters) {
+		final Map<String, String> nameToValue = new HashMap<>();
+		if (parameters == null || parameters.isEmpty()) {
+			return nameToValue;
+		}
+		try {
+			for (final String parameter : parameters.split("&")) {
+				final String[] nameValue = parameter.split("=", 2);
+				final String value;
+				if (nameValue.length > 1) {
+					value = URLDecoder.decode(nameValue[1], CHARSET);
+				} else {
+					value = "";
+				}
+				nameToValue.put(URLDecoder.decode(nameValue[0], CHARSET), value);
+			}
+		} catch (final UnsupportedEncodingException e) {
+			throw new AssertionError(e);
+		}
+		return nameToValue;
+	}
+
+	/**
+	 * Reads the body of the given request.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @return The body of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private static String readBody(final HttpExchange exchange) throws IOException {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (final InputStream input = exchange.getRequestBody()) {
+			final byte[] buffer = new byte[1024];
+			int read = input.read(buffer);
+			while (read != -1) {
+				body.write(buffer, 0, read);
+				read = input.read(buffer);
+			}
+		}
+		return body.toString(CHARSET);
+	}
+
+	/**
+	 * Sends the given page as response to the request.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param html
+	 *            The content of the page
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private static void sendPage(final HttpExchange exchange, final String html) throws IOException {
+		final byte[] content = html.getBytes(CHARSET);
+		exchange.getResponseHeaders().set("Content-Type", "text/html; charset=" + CHARSET);
+		exchange.sendResponseHeaders(200, content.length);
+		try (final OutputStream output = exchange.getResponseBody()) {
+			output.write(content);
+		}
+	}
+
+	/**
+	 * Redirects the request to the given location.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param location
+	 *            The location to redirect to
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private static void sendRedirect(final HttpExchange exchange, final String location) throws IOException {
+		exchange.getResponseHeaders().set("Location", location);
+		exchange.sendResponseHeaders(302, -1);
+		exchange.close();
+	}
+
+	/**
+	 * The amount of resources collected by all players.
+	 */
+	private int mCollectedResources;
+	/**
+	 * The executor which serves the requests.
+	 */
+	private final ExecutorService mExecutor;
+	/**
+	 * Map which connects pages to their latency, in milliseconds.
+	 */
+	private final Map<EMockPage, Long> mLatencies;
+	/**
+	 * Map which connects the names of players to their state.
+	 */
+	private final Map<String, MockPlayer> mPlayers;
+	/**
+	 * The time after which a collected resource is available again, in
+	 * milliseconds.
+	 */
+	private long mResourceCooldown;
+	/**
+	 * Map which connects the positions of resources to the text of their
+	 * collection anchor.
+	 */
+	private final Map<Point, String> mResources;
+	/**
+	 * The underlying HTTP server.
+	 */
+	private final HttpServer mServer;
+	/**
+	 * Map which connects the ids of valid sessions to the names of their players.
+	 */
+	private final Map<String, String> mSessions;
+
+	/**
+	 * Creates a new mock server which listens at the given port of the loopback
+	 * address. It has no resources and no latency until scripted otherwise.
+	 * 
+	 * @param port
+	 *            The port to listen at or <tt>0</tt> to use any free port
+	 * @throws IOException
+	 *             If the server could not be bound to the port
+	 */
+	public MockFreewarServer(final int port) throws IOException {
+		this.mLatencies = new EnumMap<>(EMockPage.class);
+		this.mPlayers = new HashMap<>();
+		this.mResources = new HashMap<>();
+		this.mSessions = new HashMap<>();
+		this.mResourceCooldown = 0;
+		this.mCollectedResources = 0;
+
+		this.mServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.mServer.createContext("/", new HttpHandler() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see com.sun.net.httpserver.HttpHandler#handle(com.sun.net.httpserver.
+			 * HttpExchange)
+			 */
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				try {
+					handleRequest(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		// Latency is emulated by sleeping, requests must not wait for each other
+		this.mExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.mServer.setExecutor(this.mExecutor);
+	}
+
+	/**
+	 * Adds a resource which can be collected at the given position by clicking
+	 * an anchor with the given text in the main frame.
+	 * 
+	 * @param position
+	 *            The position of the resource
+	 * @param anchorText
+	 *            The text of the collection anchor
+	 */
+	public synchronized void addResource(final Point position, final String anchorText) {
+		this.mResources.put(new Point(position), anchorText);
+	}
+
+	/**
+	 * Gets the amount of resources collected by all players since the server
+	 * was created.
+	 * 
+	 * @return The amount of collected resources
+	 */
+	public synchronized int getCollectedResources() {
+		return this.mCollectedResources;
+	}
+
+	/**
+	 * Gets the state of the player with the given name.
+	 * 
+	 * @param name
+	 *            The name of the player
+	 * @return The state of the player or <tt>null</tt> if the player did not log
+	 *         in yet
+	 */
+	public synchronized MockPlayer getPlayer(final String name) {
+		return this.mPlayers.get(name);
+	}
+
+	/**
+	 * Gets the full domain url the game world of the server can be reached at.
+	 * 
+	 * @return The full domain url of the server
+	 */
+	public String getWorldDomain() {
+		return "http://localhost:" + this.mServer.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * Sets the latency of the given page.
+	 * 
+	 * @param page
+	 *            The page to set the latency of
+	 * @param latency
+	 *            The time to wait before the page is served, in milliseconds
+	 */
+	public synchronized void setLatency(final EMockPage page, final long latency) {
+		this.mLatencies.put(page, Long.valueOf(latency));
+	}
+
+	/**
+	 * Sets the time after which a collected resource is available again for the
+	 * player who collected it.
+	 * 
+	 * @param cooldown
+	 *            The cooldown of resources, in milliseconds
+	 */
+	public synchronized void setResourceCooldown(final long cooldown) {
+		this.mResourceCooldown = cooldown;
+	}
+
+	/**
+	 * Starts the server in the background.
+	 */
+	public void start() {
+		this.mServer.start();
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		this.mServer.stop(0);
+		this.mExecutor.shutdownNow();
+	}
+
+	/**
+	 * Waits the latency of the given page.
+	 * 
+	 * @param page
+	 *            The page to wait the latency of
+	 */
+	private void awaitLatency(final EMockPage page) {
+		final Long latency;
+		synchronized (this) {
+			latency = this.mLatencies.get(page);
+		}
+		if (latency == null || latency.longValue() <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(latency.longValue());
+		} catch (final InterruptedException e) {
+			// Server is stopping, serve the page directly
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets the player of the session of the given request.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @return The player of the session or <tt>null</tt> if the request has no
+	 *         valid session
+	 */
+	private synchronized MockPlayer getSessionPlayer(final HttpExchange exchange) {
+		final String name = this.mSessions.get(getSessionId(exchange));
+		if (name == null) {
+			return null;
+		}
+		return this.mPlayers.get(name);
+	}
+
+	/**
+	 * Handles the given request by dispatching it to the requested page.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void handleRequest(final HttpExchange exchange) throws IOException {
+		final String path = exchange.getRequestURI().getPath();
+		if (path.equals(PATH_LOGIN) || path.equals(PATH_LOGIN + "/")) {
+			awaitLatency(EMockPage.LOGIN);
+			serveLoginForm(exchange);
+			return;
+		}
+		if (path.equals(PATH_IN_GAME + "index.php")) {
+			awaitLatency(EMockPage.LOGIN);
+			login(exchange);
+			return;
+		}
+		if (path.equals(PATH_WIKI)) {
+			awaitLatency(EMockPage.WIKI);
+			serveWiki(exchange);
+			return;
+		}
+		if (!path.startsWith(PATH_IN_GAME)) {
+			exchange.sendResponseHeaders(404, -1);
+			return;
+		}
+
+		final MockPlayer player = getSessionPlayer(exchange);
+		if (player == null) {
+			// Invalid sessions end up at the login form which has no frames
+			sendRedirect(exchange, PATH_LOGIN);
+			return;
+		}
+
+		final String page = path.substring(PATH_IN_GAME.length());
+		final Map<String, String> parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+		if (page.equals("friset.php")) {
+			awaitLatency(EMockPage.FRAMESET);
+			serveFrameset(exchange);
+		} else if (page.equals("map.php")) {
+			awaitLatency(EMockPage.MAP);
+			serveMap(exchange, player, parameters);
+		} else if (page.equals("main.php")) {
+			awaitLatency(EMockPage.MAIN);
+			serveMain(exchange, player, parameters);
+		} else if (page.equals("item.php") || page.equals("ability.php")) {
+			awaitLatency(EMockPage.ITEM);
+			serveItem(exchange, player, page, parameters);
+		} else if (page.equals("menu.php") || page.equals("logout.php")) {
+			awaitLatency(EMockPage.MENU);
+			serveMenu(exchange, page, parameters);
+		} else if (page.equals("chattext.php") || page.equals("chatform.php")) {
+			awaitLatency(EMockPage.CHAT);
+			serveChat(exchange, page);
+		} else {
+			exchange.sendResponseHeaders(404, -1);
+		}
+	}
+
+	/**
+	 * Logs the player of the submitted login form in by creating a new session
+	 * and redirects to the in-game frame set. Every name and password is
+	 * accepted.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void login(final HttpExchange exchange) throws IOException {
+		final String name = parseParameters(readBody(exchange)).get("name");
+		if (name == null || name.isEmpty()) {
+			sendRedirect(exchange, PATH_LOGIN);
+			return;
+		}
+
+		final String sessionId = UUID.randomUUID().toString().replace("-", "");
+		synchronized (this) {
+			if (!this.mPlayers.containsKey(name)) {
+				this.mPlayers.put(name, new MockPlayer(name, START_POSITION));
+			}
+			this.mSessions.put(sessionId, name);
+		}
+		exchange.getResponseHeaders().add("Set-Cookie", Names.COOKIE_SESSION_ID + "=" + sessionId + "; Path=/");
+		sendRedirect(exchange, PATH_IN_GAME + "friset.php");
+	}
+
+	/**
+	 * Serves the given chat frame.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param page
+	 *            The requested chat page
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveChat(final HttpExchange exchange, final String page) throws IOException {
+		if (page.equals("chattext.php")) {
+			sendPage(exchange, "<html><body class=\"framechattextbg\"></body></html>");
+		} else {
+			sendPage(exchange, "<html><body><form><input type=\"text\" id=\"chat_text\"></form></body></html>");
+		}
+	}
+
+	/**
+	 * Serves the in-game frame set.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveFrameset(final HttpExchange exchange) throws IOException {
+		final StringBuilder html = new StringBuilder();
+		html.append("<html><frameset cols=\"*,250\"><frameset rows=\"250,*,120,30\">");
+		html.append("<frame name=\"" + Names.FRAME_MAP + "\" src=\"map.php\">");
+		html.append("<frame name=\"" + Names.FRAME_MAIN + "\" src=\"main.php\">");
+		html.append("<frame name=\"" + Names.FRAME_CHAT_TEXT + "\" src=\"chattext.php\">");
+		html.append("<frame name=\"" + Names.FRAME_CHAT_FORM + "\" src=\"chatform.php\">");
+		html.append("</frameset><frameset rows=\"*,60\">");
+		html.append("<frame name=\"" + Names.FRAME_ITEM + "\" src=\"item.php\">");
+		html.append("<frame name=\"" + Names.FRAME_MENU + "\" src=\"menu.php\">");
+		html.append("</frameset></frameset></html>");
+		sendPage(exchange, html.toString());
+	}
+
+	/**
+	 * Serves the item frame or the skill menu and executes the requested action.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param player
+	 *            The player of the session
+	 * @param page
+	 *            The requested item page
+	 * @param parameters
+	 *            The parameters of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveItem(final HttpExchange exchange, final MockPlayer player, final String page,
+			final Map<String, String> parameters) throws IOException {
+		final StringBuilder html = new StringBuilder();
+		html.append("<html><body class=\"frameitembg\">");
+		if (page.equals("ability.php")) {
+			html.append("<p class=\"listcaption\">Deine trainierbaren Fhigkeiten</p>");
+			html.append("<table class=\"abilitymenu\"></table>");
+			html.append("<a href=\"item.php\">Zurck</a></body></html>");
+			sendPage(exchange, html.toString());
+			return;
+		}
+
+		final String action = parameters.get("action");
+		synchronized (this) {
+			if ("activate".equals(action)) {
+				player.protect();
+			} else if ("special_activate".equals(action)) {
+				player.activateSpecialSkill();
+			} else if ("special".equals(action)) {
+				html.append("<p>Spezialfhigkeit</p><a href=\"item.php?action=special_activate\">Anwenden</a>");
+				html.append("</body></html>");
+				sendPage(exchange, html.toString());
+				return;
+			}
+
+			html.append("<div id=\"toplpheader\"></div><p class=\"listcaption\">" + player.getName() + "</p>");
+			html.append("<p id=\"listrow_status\">Status: ");
+			if (player.isProtected()) {
+				html.append("Schutz");
+			} else {
+				html.append("Normal");
+			}
+			html.append("</p>");
+		}
+		html.append("<p id=\"listrow_special\"><a href=\"item.php?action=special\">Spezialfhigkeit</a></p>");
+		html.append("<p id=\"listrow_char_mission\"><a href=\"ability.php\">Fhigkeiten</a></p>");
+		html.append("<p class=\"listcaption\">Inventar <a href=\"item.php?action=closeinv\">schlieen</a></p>");
+		html.append("<p class=\"listitemrow\"><b>" + PROTECTION_SPELL + "</b> ");
+		html.append("<a href=\"item.php?action=activate\">Benutzen</a></p>");
+		html.append("</body></html>");
+		sendPage(exchange, html.toString());
+	}
+
+	/**
+	 * Serves the login form.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveLoginForm(final HttpExchange exchange) throws IOException {
+		final StringBuilder html = new StringBuilder();
+		html.append("<html><body><form method=\"post\" action=\"" + PATH_IN_GAME + "index.php\">");
+		html.append("<input class=\"logininput\" type=\"text\" name=\"name\">");
+		html.append("<input class=\"logininput\" type=\"password\" name=\"password\">");
+		html.append("<input class=\"loginsubmit\" type=\"submit\" name=\"submit\" value=\"Einloggen\">");
+		html.append("</form></body></html>");
+		sendPage(exchange, html.toString());
+	}
+
+	/**
+	 * Serves the main frame and collects the resource at the position of the
+	 * player if requested.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param player
+	 *            The player of the session
+	 * @param parameters
+	 *            The parameters of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveMain(final HttpExchange exchange, final MockPlayer player, final Map<String, String> parameters)
+			throws IOException {
+		final StringBuilder html = new StringBuilder();
+		html.append("<html><body><table class=\"areadescription\"><tr><td>");
+		synchronized (this) {
+			final Point position = player.getPosition();
+			html.append("Ort " + position.x + "," + position.y + "</td></tr></table>");
+
+			final String anchorText = this.mResources.get(position);
+			if (anchorText != null && player.canCollect(this.mResourceCooldown)) {
+				if ("collect".equals(parameters.get("action"))) {
+					player.collect();
+					this.mCollectedResources++;
+					html.append("<p class=\"maindesc1\">Du hast die Ressource mitgenommen.</p>");
+				} else {
+					html.append("<p class=\"maindesc1\"><a href=\"main.php?action=collect\">" + anchorText);
+					html.append("</a></p>");
+				}
+			}
+		}
+		html.append("</body></html>");
+		sendPage(exchange, html.toString());
+	}
+
+	/**
+	 * Serves the map frame and moves the player if requested. Every position is
+	 * reachable.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param player
+	 *            The player of the session
+	 * @param parameters
+	 *            The parameters of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveMap(final HttpExchange exchange, final MockPlayer player, final Map<String, String> parameters)
+			throws IOException {
+		boolean hasMoved = false;
+		final Point position;
+		synchronized (this) {
+			if (parameters.containsKey("dx") && parameters.containsKey("dy")) {
+				try {
+					player.move(Integer.parseInt(parameters.get("dx")), Integer.parseInt(parameters.get("dy")));
+					hasMoved = true;
+				} catch (final NumberFormatException e) {
+					// Ignore malformed movements like the game does
+				}
+			}
+			position = player.getPosition();
+		}
+
+		final StringBuilder html = new StringBuilder();
+		html.append("<html><head><script>function Move(x, y) {");
+		html.append("location.href = 'map.php?dx=' + x + '&dy=' + y; }</script></head><body>");
+		html.append("<p class=\"positiontext\">Position X: " + position.x + " Y: " + position.y + "</p>");
+		html.append("<div id=\"test\"></div>");
+		for (int dy = -1; dy <= 1; dy++) {
+			for (int dx = -1; dx <= 1; dx++) {
+				if (dx != 0 || dy != 0) {
+					html.append("<a href=\"#\" onclick=\"Move(" + dx + ", " + dy + "); return false;\">o</a>");
+				}
+			}
+		}
+		if (hasMoved) {
+			// The game reloads the main frame after each step
+			html.append("<script>parent." + Names.FRAME_MAIN + ".location.href = 'main.php';</script>");
+		}
+		html.append("</body></html>");
+		sendPage(exchange, html.toString());
+	}
+
+	/**
+	 * Serves the menu frame or the logout and executes it if confirmed.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @param page
+	 *            The requested menu page
+	 * @param parameters
+	 *            The parameters of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveMenu(final HttpExchange exchange, final String page, final Map<String, String> parameters)
+			throws IOException {
+		if (page.equals("menu.php")) {
+			sendPage(exchange, "<html><body><a href=\"logout.php\" target=\"" + Names.FRAME_MAP
+					+ "\">Logout</a></body></html>");
+			return;
+		}
+		if (!parameters.containsKey("sure")) {
+			sendPage(exchange, "<html><body><a href=\"logout.php?sure=1\" target=\"_top\">Wirklich ausloggen</a>"
+					+ "</body></html>");
+			return;
+		}
+
+		synchronized (this) {
+			this.mSessions.remove(getSessionId(exchange));
+		}
+		sendRedirect(exchange, PATH_LOGIN);
+	}
+
+	/**
+	 * Serves the coordinate list of the wiki. It contains every field of the
+	 * rectangle which covers all resources and the start position.
+	 * 
+	 * @param exchange
+	 *            The exchange of the request
+	 * @throws IOException
+	 *             If an I/O-Exception occurred
+	 */
+	private void serveWiki(final HttpExchange exchange) throws IOException {
+		int minX = START_POSITION.x;
+		int maxX = START_POSITION.x;
+		int minY = START_POSITION.y;
+		int maxY = START_POSITION.y;
+		synchronized (this) {
+			for (final Point position : this.mResources.keySet()) {
+				minX = Math.min(minX, position.x);
+				maxX = Math.max(maxX, position.x);
+				minY = Math.min(minY, position.y);
+				maxY = Math.max(maxY, position.y);
+			}
+		}
+
+		// Sparkle reads the list line by line, it must not be the last line
+		final StringBuilder html = new StringBuilder();
+		html.append("<html>\n<div id=\"mw-content-text\">");
+		for (int x = minX - WIKI_MARGIN; x <= maxX + WIKI_MARGIN; x++) {
+			for (int y = minY - WIKI_MARGIN; y <= maxY + WIKI_MARGIN; y++) {
+				html.append(x + "," + y + ";");
+			}
+		}
+		html.append("</div><label id=\"wpSummaryLabel\"></label>\n</html>\n");
+		sendPage(exchange, html.toString());
+	}
+}
@@ -0,0 +1,138 @@
+package de.zabuza.kivabot.mock;
+
+import java.awt.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of a player of the mock server. The player is not thread-safe,
+ * access is guarded by the server.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MockPlayer {
+	/**
+	 * Map which connects the positions of resources to the point in time they
+	 * were last collected by the player, in milliseconds.
+	 */
+	private final Map<Point, Long> mCollectedAt;
+	/**
+	 * Whether the player is protected.
+	 */
+	private boolean mIsProtected;
+	/**
+	 * Whether the special skill of the player was activated.
+	 */
+	private boolean mIsSpecialSkillActivated;
+	/**
+	 * The name of the player.
+	 */
+	private final String mName;
+	/**
+	 * The current position of the player.
+	 */
+	private final Point mPosition;
+
+	/**
+	 * Creates a new player which is not protected and stands at the given
+	 * position.
+	 * 
+	 * @param name
+	 *            The name of the player
+	 * @param position
+	 *            The position the player stands at
+	 */
+	public MockPlayer(final String name, final Point position) {
+		this.mName = name;
+		this.mPosition = new Point(position);
+		this.mCollectedAt = new HashMap<>();
+		this.mIsProtected = false;
+		this.mIsSpecialSkillActivated = false;
+	}
+
+	/**
+	 * Activates the special skill of the player.
+	 */
+	public void activateSpecialSkill() {
+		this.mIsSpecialSkillActivated = true;
+	}
+
+	/**
+	 * Whether the player can collect the resource at its current position. That
+	 * is the case if the player did not collect it within the given cooldown.
+	 * 
+	 * @param cooldown
+	 *            The time after which a collected resource is available again, in
+	 *            milliseconds
+	 * @return <tt>True</tt> if the player can collect the resource, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean canCollect(final long cooldown) {
+		final Long collectedAt = this.mCollectedAt.get(this.mPosition);
+		return collectedAt == null || System.currentTimeMillis() - collectedAt.longValue() >= cooldown;
+	}
+
+	/**
+	 * Collects the resource at the current position of the player.
+	 */
+	public void collect() {
+		this.mCollectedAt.put(new Point(this.mPosition), Long.valueOf(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Gets the name of the player.
+	 * 
+	 * @return The name of the player
+	 */
+	public String getName() {
+		return this.mName;
+	}
+
+	/**
+	 * Gets the current position of the player.
+	 * 
+	 * @return The current position of the player
+	 */
+	public Point getPosition() {
+		return new Point(this.mPosition);
+	}
+
+	/**
+	 * Whether the player is protected.
+	 * 
+	 * @return <tt>True</tt> if the player is protected, <tt>false</tt> otherwise
+	 */
+	public boolean isProtected() {
+		return this.mIsProtected;
+	}
+
+	/**
+	 * Whether the special skill of the player was activated.
+	 * 
+	 * @return <tt>True</tt> if the special skill was activated, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isSpecialSkillActivated() {
+		return this.mIsSpecialSkillActivated;
+	}
+
+	/**
+	 * Moves the player by the given offset.
+	 * 
+	 * @param dx
+	 *            The offset in x direction
+	 * @param dy
+	 *            The offset in y direction
+	 */
+	public void move(final int dx, final int dy) {
+		this.mPosition.translate(dx, dy);
+	}
+
+	/**
+	 * Protects the player.
+	 */
+	public void protect() {
+		this.mIsProtected = true;
+	}
+}
@@ -0,0 +1,61 @@
+package de.zabuza.kivabot.mock;
+
+import java.io.IOException;
+
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+import de.zabuza.kivabot.model.tasks.TaskDefinition;
+
+/**
+ * Starts the mock server with the resources collected by the routines, for
+ * example to run the tool against it for integration or load tests. The tool
+ * uses the server if its url is set as <tt>world_domain</tt> in the settings
+ * file and the server is set as HTTP proxy of the tool.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MockServerLauncher {
+	/**
+	 * The port the server listens at by default.
+	 */
+	private static final int DEFAULT_PORT = 8080;
+
+	/**
+	 * Starts the mock server. It runs until the process gets terminated.
+	 * 
+	 * @param args
+	 *            Optional, the port to listen at, the latency of every page and
+	 *            the cooldown of resources, both in milliseconds
+	 * @throws IOException
+	 *             If the server could not be bound to the port
+	 */
+	public static void main(final String[] args) throws IOException {
+		int port = DEFAULT_PORT;
+		if (args.length > 0) {
+			port = Integer.parseInt(args[0]);
+		}
+		final MockFreewarServer server = new MockFreewarServer(port);
+		if (args.length > 1) {
+			final long latency = Long.parseLong(args[1]);
+			for (final EMockPage page : EMockPage.values()) {
+				server.setLatency(page, latency);
+			}
+		}
+		if (args.length > 2) {
+			server.setResourceCooldown(Long.parseLong(args[2]));
+		}
+
+		for (final TaskDefinition definition : TaskCatalog.loadDefault().getDefinitions()) {
+			server.addResource(definition.getDestination(), definition.getAnchorText());
+		}
+		server.start();
+		System.out.println("Mock server started at " + server.getWorldDomain());
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private MockServerLauncher() {
+
+	}
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+/**
+ * This is the core package for the local mock of the game server which is used
+ * to exercise routines without the live game.
+ */
+package de.zabuza.kivabot.mock;
\ No newline at end of file
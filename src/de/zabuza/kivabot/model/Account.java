@@ -0,0 +1,209 @@
+package de.zabuza.kivabot.model;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.sparkle.freewar.EWorld;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Immutable description of an account together with the options of the
+ * routine which acts with it. Two accounts are considered to be the same if
+ * they act with the same user in the same world.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class Account {
+	/**
+	 * The separator used between the name of the user and the world in the key of
+	 * an account.
+	 */
+	private static final String KEY_SEPARATOR = "@";
+
+	/**
+	 * The browser to use.
+	 */
+	private final EBrowser mBrowser;
+	/**
+	 * Whether the routine runs on a headless in-process browser which emulates
+	 * the browser to use.
+	 */
+	private final boolean mHeadless;
+	/**
+	 * A set containing all movement options allowed to use.
+	 */
+	private final Set<EMoveType> mMovementOptions;
+	/**
+	 * The password of the user to act with.
+	 */
+	private final String mPassword;
+	/**
+	 * If present, the name of the protection spell item which is used prior of
+	 * movement.
+	 */
+	private final Optional<String> mProtectionSpell;
+	/**
+	 * A set containing all sub tasks to execute.
+	 */
+	private final Set<EKivaTask> mSubTasks;
+	/**
+	 * The name of the user to act with.
+	 */
+	private final String mUsername;
+	/**
+	 * Whether the special skill gets activated prior to movement.
+	 */
+	private final boolean mUseSpecialSkill;
+	/**
+	 * The world of the user to act with.
+	 */
+	private final EWorld mWorld;
+
+	/**
+	 * Creates a new account.
+	 * 
+	 * @param username
+	 *            The name of the user to act with
+	 * @param password
+	 *            The password of the user to act with
+	 * @param world
+	 *            The world of the user to act with
+	 * @param browser
+	 *            The browser to use
+	 * @param headless
+	 *            Whether the routine should run on a headless in-process browser
+	 *            which emulates the browser to use
+	 * @param movementOptions
+	 *            A set containing all movement options allowed to use
+	 * @param protectionSpell
+	 *            If present, the name of the protection spell item to use prior of
+	 *            movement
+	 * @param useSpecialSkill
+	 *            Whether the special skill should get activated prior to movement
+	 * @param subTasks
+	 *            A set containing all sub tasks to execute
+	 */
+	public Account(final String username, final String password, final EWorld world, final EBrowser browser,
+			final boolean headless, final Set<EMoveType> movementOptions, final Optional<String> protectionSpell,
+			final boolean useSpecialSkill, final Set<EKivaTask> subTasks) {
+		this.mUsername = username;
+		this.mPassword = password;
+		this.mWorld = world;
+		this.mBrowser = browser;
+		this.mHeadless = headless;
+		this.mMovementOptions = Collections.unmodifiableSet(new HashSet<>(movementOptions));
+		this.mProtectionSpell = protectionSpell;
+		this.mUseSpecialSkill = useSpecialSkill;
+		this.mSubTasks = Collections.unmodifiableSet(new HashSet<>(subTasks));
+	}
+
+	/**
+	 * Gets the browser to use.
+	 * 
+	 * @return The browser to use
+	 */
+	public EBrowser getBrowser() {
+		return this.mBrowser;
+	}
+
+	/**
+	 * Gets the key which identifies this account, it consists of the name of the
+	 * user and the world.
+	 * 
+	 * @return The key which identifies this account
+	 */
+	public String getKey() {
+		return this.mUsername + KEY_SEPARATOR + this.mWorld;
+	}
+
+	/**
+	 * Gets an unmodifiable set containing all movement options allowed to use.
+	 * 
+	 * @return An unmodifiable set containing all movement options allowed to use
+	 */
+	public Set<EMoveType> getMovementOptions() {
+		return this.mMovementOptions;
+	}
+
+	/**
+	 * Gets the password of the user to act with.
+	 * 
+	 * @return The password of the user to act with
+	 */
+	public String getPassword() {
+		return this.mPassword;
+	}
+
+	/**
+	 * Gets the name of the protection spell item to use prior of movement.
+	 * 
+	 * @return If present, the name of the protection spell item to use prior of
+	 *         movement
+	 */
+	public Optional<String> getProtectionSpell() {
+		return this.mProtectionSpell;
+	}
+
+	/**
+	 * Gets an unmodifiable set containing all sub tasks to execute.
+	 * 
+	 * @return An unmodifiable set containing all sub tasks to execute
+	 */
+	public Set<EKivaTask> getSubTasks() {
+		return this.mSubTasks;
+	}
+
+	/**
+	 * Gets the name of the user to act with.
+	 * 
+	 * @return The name of the user to act with
+	 */
+	public String getUsername() {
+		return this.mUsername;
+	}
+
+	/**
+	 * Gets the world of the user to act with.
+	 * 
+	 * @return The world of the user to act with
+	 */
+	public EWorld getWorld() {
+		return this.mWorld;
+	}
+
+	/**
+	 * Whether the routine should run on a headless in-process browser which
+	 * emulates the browser to use.
+	 * 
+	 * @return <tt>True</tt> if the routine should run headless, <tt>false</tt>
+	 *         if it should drive the real browser
+	 */
+	public boolean isHeadless() {
+		return this.mHeadless;
+	}
+
+	/**
+	 * Whether the special skill should get activated prior to movement.
+	 * 
+	 * @return <tt>True</tt> if the special skill should get activated prior to
+	 *         movement, <tt>false</tt> otherwise
+	 */
+	public boolean isUseSpecialSkill() {
+		return this.mUseSpecialSkill;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getKey();
+	}
+}
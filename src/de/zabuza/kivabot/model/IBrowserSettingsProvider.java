@@ -31,4 +31,22 @@ public interface IBrowserSettingsProvider {
 	 * @return The path to the user profile to use or <tt>null</tt> if not set
 	 */
 	public String getUserProfile();
+
+	/**
+	 * Gets the full domain url to reach the game worlds at, overriding the
+	 * official domains. For example the url of a local mock server.
+	 * 
+	 * @return The full domain url to reach the game worlds at or <tt>null</tt> if
+	 *         the official domains should be used
+	 */
+	public String getWorldDomain();
+
+	/**
+	 * Whether the session of the browser should be reused by plain HTTP requests
+	 * to collect resources, which is faster than clicking with the browser.
+	 * 
+	 * @return <tt>True</tt> if resources should be collected by HTTP requests,
+	 *         <tt>false</tt> if the browser should be used
+	 */
+	public boolean isUseHttpFastPath();
 }
@@ -0,0 +1,91 @@
+package de.zabuza.kivabot.model;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for the threads which execute tasks. Tasks spend most of their time
+ * blocked on the browser or sleeping, the factory thus creates virtual threads
+ * if the runtime supports them, such that idle tasks do not hold a platform
+ * thread and its stack. On older runtimes it falls back to daemon platform
+ * threads. The threads are named by a prefix followed by their number.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TaskThreadFactory implements ThreadFactory {
+	/**
+	 * Creates a factory for virtual threads with the given name prefix, if the
+	 * runtime supports virtual threads. The factory is accessed by reflection
+	 * since virtual threads are not available on all supported runtimes.
+	 * 
+	 * @param namePrefix
+	 *            The prefix of the names of the threads
+	 * @return The factory for virtual threads or <tt>null</tt> if the runtime
+	 *         does not support them
+	 */
+	private static ThreadFactory createVirtualThreadFactory(final String namePrefix) {
+		try {
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			final Object namedBuilder = builderClass.getMethod("name", String.class, long.class).invoke(builder,
+					namePrefix, Long.valueOf(1));
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+		} catch (final ReflectiveOperationException e) {
+			// The runtime does not support virtual threads or they are not enabled
+			return null;
+		}
+	}
+
+	/**
+	 * The amount of platform threads created so far.
+	 */
+	private final AtomicInteger mCreatedThreads;
+	/**
+	 * The prefix of the names of the threads.
+	 */
+	private final String mNamePrefix;
+	/**
+	 * The factory for virtual threads, <tt>null</tt> if the runtime does not
+	 * support them.
+	 */
+	private final ThreadFactory mVirtualThreadFactory;
+
+	/**
+	 * Creates a new factory for threads with the given name prefix.
+	 * 
+	 * @param namePrefix
+	 *            The prefix of the names of the threads
+	 */
+	public TaskThreadFactory(final String namePrefix) {
+		this.mNamePrefix = namePrefix;
+		this.mCreatedThreads = new AtomicInteger(0);
+		this.mVirtualThreadFactory = createVirtualThreadFactory(namePrefix);
+	}
+
+	/**
+	 * Whether the factory creates virtual threads.
+	 * 
+	 * @return <tt>True</tt> if the factory creates virtual threads,
+	 *         <tt>false</tt> if it creates platform threads
+	 */
+	public boolean isVirtual() {
+		return this.mVirtualThreadFactory != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+	 */
+	@Override
+	public Thread newThread(final Runnable runnable) {
+		if (this.mVirtualThreadFactory != null) {
+			return this.mVirtualThreadFactory.newThread(runnable);
+		}
+
+		final Thread thread = new Thread(runnable, this.mNamePrefix + this.mCreatedThreads.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,30 @@
+package de.zabuza.kivabot.model.metrics;
+
+/**
+ * Operations of the routines whose latency is measured.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum ELatencyMetric {
+	/**
+	 * Clicking the anchor which collects a resource.
+	 */
+	ANCHOR_CLICK,
+	/**
+	 * Logging in or resuming the session of an account.
+	 */
+	LOGIN,
+	/**
+	 * Moving from the current position to the destination of a resource.
+	 */
+	MOVEMENT_LEG,
+	/**
+	 * Checking and, if necessary, activating the protection of the player.
+	 */
+	PROTECTION_CHECK,
+	/**
+	 * Executing a whole routine.
+	 */
+	ROUTINE
+}
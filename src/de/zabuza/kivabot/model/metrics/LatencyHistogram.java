@@ -0,0 +1,157 @@
+package de.zabuza.kivabot.model.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with fixed buckets. Recording a latency is lock-free
+ * and does not allocate, such that it can be used on the hot paths of the
+ * routines. The histogram is thread-safe, queried values are not taken as
+ * atomic snapshot though.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LatencyHistogram {
+	/**
+	 * The inclusive upper bounds of the buckets in milliseconds, in ascending
+	 * order. An additional bucket holds all latencies exceeding the last bound.
+	 */
+	private static final long[] BUCKET_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000,
+			20_000, 50_000, 100_000, 200_000, 500_000 };
+
+	/**
+	 * Gets the inclusive upper bounds of the buckets in milliseconds, in
+	 * ascending order. An additional bucket, not contained in the bounds, holds
+	 * all latencies exceeding the last bound.
+	 * 
+	 * @return The upper bounds of the buckets, a copy which may be modified
+	 */
+	public static long[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+
+	/**
+	 * The amount of latencies in each bucket, the last bucket holds all latencies
+	 * exceeding the last bound.
+	 */
+	private final AtomicLongArray mBucketCounts;
+	/**
+	 * The amount of recorded latencies.
+	 */
+	private final LongAdder mCount;
+	/**
+	 * The maximal recorded latency in milliseconds.
+	 */
+	private final AtomicLong mMax;
+	/**
+	 * The sum of all recorded latencies in milliseconds.
+	 */
+	private final LongAdder mSum;
+
+	/**
+	 * Creates a new empty histogram.
+	 */
+	public LatencyHistogram() {
+		this.mBucketCounts = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+		this.mCount = new LongAdder();
+		this.mSum = new LongAdder();
+		this.mMax = new AtomicLong(0);
+	}
+
+	/**
+	 * Gets the amount of latencies in each bucket. The buckets are not
+	 * cumulative, the last bucket holds all latencies exceeding the last bound.
+	 * 
+	 * @return The amount of latencies in each bucket, in the order of the bounds
+	 */
+	public long[] getBucketCounts() {
+		final long[] counts = new long[this.mBucketCounts.length()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.mBucketCounts.get(i);
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 * 
+	 * @return The amount of recorded latencies
+	 */
+	public long getCount() {
+		return this.mCount.sum();
+	}
+
+	/**
+	 * Gets the maximal recorded latency.
+	 * 
+	 * @return The maximal recorded latency in milliseconds or <tt>0</tt> if
+	 *         nothing was recorded yet
+	 */
+	public long getMax() {
+		return this.mMax.get();
+	}
+
+	/**
+	 * Estimates the given percentile of the recorded latencies. The estimation
+	 * is the upper bound of the bucket containing the percentile, capped by the
+	 * maximal recorded latency.
+	 * 
+	 * @param percentile
+	 *            The percentile to estimate, between <tt>0</tt> and <tt>1</tt>
+	 * @return The estimated percentile in milliseconds or <tt>0</tt> if nothing
+	 *         was recorded yet
+	 */
+	public long getPercentile(final double percentile) {
+		final long[] counts = getBucketCounts();
+		long total = 0;
+		for (final long count : counts) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(BUCKET_BOUNDS[i], getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Gets the sum of all recorded latencies.
+	 * 
+	 * @return The sum of all recorded latencies in milliseconds
+	 */
+	public long getSum() {
+		return this.mSum.sum();
+	}
+
+	/**
+	 * Records the given latency.
+	 * 
+	 * @param latency
+	 *            The latency to record in milliseconds, negative values are
+	 *            treated as <tt>0</tt>
+	 */
+	public void record(final long latency) {
+		final long value = Math.max(0, latency);
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS.length && value > BUCKET_BOUNDS[bucket]) {
+			bucket++;
+		}
+		this.mBucketCounts.incrementAndGet(bucket);
+		this.mCount.increment();
+		this.mSum.add(value);
+		long max = this.mMax.get();
+		while (value > max && !this.mMax.compareAndSet(max, value)) {
+			max = this.mMax.get();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package de.zabuza.kivabot.model.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+
+/**
+ * Registry of the metrics of all routines. It holds a latency histogram for
+ * each {@link ELatencyMetric} and counts the successful and aborted executions
+ * of each {@link EKivaTask}. The registry is thread-safe and meant to be
+ * shared by all routines, recording does not block.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MetricsRegistry {
+	/**
+	 * The format of a line of the summary which describes a histogram.
+	 */
+	private static final String HISTOGRAM_SUMMARY_FORMAT = "%-16s count=%d mean=%dms p50=%dms p90=%dms p99=%dms"
+			+ " max=%dms";
+	/**
+	 * The format of a line of the summary which describes the counters of a
+	 * task.
+	 */
+	private static final String TASK_SUMMARY_FORMAT = "%-20s successful=%d aborted=%d";
+
+	/**
+	 * Counters of the aborted executions of each task.
+	 */
+	private final Map<EKivaTask, LongAdder> mAbortCounters;
+	/**
+	 * The latency histogram of each metric.
+	 */
+	private final Map<ELatencyMetric, LatencyHistogram> mHistograms;
+	/**
+	 * Counters of the successful executions of each task.
+	 */
+	private final Map<EKivaTask, LongAdder> mSuccessCounters;
+
+	/**
+	 * Creates a new empty registry.
+	 */
+	public MetricsRegistry() {
+		this.mHistograms = new EnumMap<>(ELatencyMetric.class);
+		for (final ELatencyMetric metric : ELatencyMetric.values()) {
+			this.mHistograms.put(metric, new LatencyHistogram());
+		}
+		this.mSuccessCounters = new EnumMap<>(EKivaTask.class);
+		this.mAbortCounters = new EnumMap<>(EKivaTask.class);
+		for (final EKivaTask task : EKivaTask.values()) {
+			this.mSuccessCounters.put(task, new LongAdder());
+			this.mAbortCounters.put(task, new LongAdder());
+		}
+	}
+
+	/**
+	 * Creates a human readable summary of all metrics.
+	 * 
+	 * @return The lines of the summary
+	 */
+	public List<String> createSummary() {
+		final List<String> lines = new ArrayList<>();
+		for (final ELatencyMetric metric : ELatencyMetric.values()) {
+			final LatencyHistogram histogram = getHistogram(metric);
+			final long count = histogram.getCount();
+			long mean = 0;
+			if (count > 0) {
+				mean = histogram.getSum() / count;
+			}
+			lines.add(String.format(Locale.ROOT, HISTOGRAM_SUMMARY_FORMAT, metric, Long.valueOf(count),
+					Long.valueOf(mean), Long.valueOf(histogram.getPercentile(0.5)),
+					Long.valueOf(histogram.getPercentile(0.9)), Long.valueOf(histogram.getPercentile(0.99)),
+					Long.valueOf(histogram.getMax())));
+		}
+		for (final EKivaTask task : EKivaTask.values()) {
+			lines.add(String.format(Locale.ROOT, TASK_SUMMARY_FORMAT, task, Long.valueOf(getSuccessCount(task)),
+					Long.valueOf(getAbortCount(task))));
+		}
+		return lines;
+	}
+
+	/**
+	 * Gets the amount of aborted executions of the given task.
+	 * 
+	 * @param task
+	 *            The task in question
+	 * @return The amount of aborted executions of the task
+	 */
+	public long getAbortCount(final EKivaTask task) {
+		return this.mAbortCounters.get(task).sum();
+	}
+
+	/**
+	 * Gets the latency histogram of the given metric.
+	 * 
+	 * @param metric
+	 *            The metric to get the histogram of
+	 * @return The latency histogram of the metric
+	 */
+	public LatencyHistogram getHistogram(final ELatencyMetric metric) {
+		return this.mHistograms.get(metric);
+	}
+
+	/**
+	 * Gets the amount of successful executions of the given task.
+	 * 
+	 * @param task
+	 *            The task in question
+	 * @return The amount of successful executions of the task
+	 */
+	public long getSuccessCount(final EKivaTask task) {
+		return this.mSuccessCounters.get(task).sum();
+	}
+
+	/**
+	 * Records an aborted execution of the given task.
+	 * 
+	 * @param task
+	 *            The task which was aborted
+	 */
+	public void recordAbort(final EKivaTask task) {
+		this.mAbortCounters.get(task).increment();
+	}
+
+	/**
+	 * Records the latency of an operation which started at the given time.
+	 * 
+	 * @param metric
+	 *            The metric of the operation
+	 * @param startTime
+	 *            The time the operation started at, as given by
+	 *            {@link System#nanoTime()}
+	 * @return The recorded latency in milliseconds
+	 */
+	public long recordLatencySince(final ELatencyMetric metric, final long startTime) {
+		final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		getHistogram(metric).record(latency);
+		return latency;
+	}
+
+	/**
+	 * Records a successful execution of the given task.
+	 * 
+	 * @param task
+	 *            The task which was executed successfully
+	 */
+	public void recordSuccess(final EKivaTask task) {
+		this.mSuccessCounters.get(task).increment();
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * This is the core package for metrics of the model.
+ */
+package de.zabuza.kivabot.model.metrics;
\ No newline at end of file
@@ -0,0 +1,30 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+
+/**
+ * Cost provider which estimates the cost of moving between two positions by
+ * their Chebyshev distance. As walking is possible in all eight directions,
+ * this is exactly the amount of steps needed on an open map and a lower bound
+ * else.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ChebyshevCostProvider implements IRouteCostProvider {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.routing.IRouteCostProvider#getCost(java.awt.Point,
+	 * java.awt.Point)
+	 */
+	@Override
+	public float getCost(final Point source, final Point destination) {
+		final int differenceX = Math.abs(source.x - destination.x);
+		final int differenceY = Math.abs(source.y - destination.y);
+		return Math.max(differenceX, differenceY);
+	}
+
+}
@@ -0,0 +1,25 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+
+/**
+ * Interface for objects that provide the cost of moving between two positions
+ * of the world. The cost is measured in amount of actions, like the costs of
+ * the movement network.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IRouteCostProvider {
+	/**
+	 * Gets the cost of moving from the given source to the given destination.
+	 * 
+	 * @param source
+	 *            The position to start at
+	 * @param destination
+	 *            The position to move to
+	 * @return The cost of moving from the source to the destination or
+	 *         {@link Float#POSITIVE_INFINITY} if the destination is not reachable
+	 */
+	public float getCost(final Point source, final Point destination);
+}
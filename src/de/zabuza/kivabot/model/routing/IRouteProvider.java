@@ -0,0 +1,25 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.Optional;
+
+/**
+ * Interface for objects that provide routes between two positions of the
+ * world, in addition to their costs.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IRouteProvider extends IRouteCostProvider {
+	/**
+	 * Gets the cheapest route from the given source to the given destination.
+	 * 
+	 * @param source
+	 *            The position to start at
+	 * @param destination
+	 *            The position to move to
+	 * @return The cheapest route from the source to the destination or empty if
+	 *         the destination is not reachable
+	 */
+	public Optional<Route> getRoute(final Point source, final Point destination);
+}
@@ -0,0 +1,276 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.TaskThreadFactory;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+
+/**
+ * Cache of the movement network of the world. The network is kept as a binary
+ * snapshot on disk and only fetched from the wiki again if the snapshot is
+ * missing or stale. A stale snapshot keeps being served while it is refreshed
+ * in the background, callers only wait for the wiki if there is no snapshot at
+ * all. The wiki is always fetched by a single background thread without
+ * holding the lock of the cache, waiting callers share its result. If the wiki
+ * can not be reached, the refresh is not attempted again before a delay
+ * passed.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NetworkCache {
+	/**
+	 * File path of the network snapshot.
+	 */
+	private static final String FILEPATH = "network.dat";
+	/**
+	 * The age after which a snapshot is considered stale, in milliseconds.
+	 */
+	private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+	/**
+	 * The minimal time between two attempts to refresh the snapshot, in
+	 * milliseconds.
+	 */
+	private static final long REFRESH_RETRY_DELAY = TimeUnit.MINUTES.toMillis(30);
+	/**
+	 * The factory of the threads refreshing the snapshot.
+	 */
+	private static final ThreadFactory THREAD_FACTORY = new TaskThreadFactory("NetworkRefresh-");
+
+	/**
+	 * The time the snapshot was last attempted to be refreshed, in milliseconds
+	 * since the epoch, or <tt>0</tt> if it was not attempted yet.
+	 */
+	private long mLastRefreshAttempt;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The network of the current snapshot or <tt>null</tt> if not loaded yet.
+	 */
+	private FreewarNetwork mNetwork;
+	/**
+	 * Future which is completed once the currently running refresh of the
+	 * snapshot has finished, or <tt>null</tt> if no refresh is running.
+	 */
+	private CompletableFuture<Void> mRefresh;
+	/**
+	 * The current snapshot or <tt>null</tt> if not loaded yet.
+	 */
+	private NetworkSnapshot mSnapshot;
+	/**
+	 * Whether the snapshot was already loaded from disk.
+	 */
+	private boolean mWasLoaded;
+
+	/**
+	 * Creates a new network cache.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 */
+	public NetworkCache(final Logger logger) {
+		this.mLogger = logger;
+		this.mNetwork = null;
+		this.mSnapshot = null;
+		this.mWasLoaded = false;
+		this.mRefresh = null;
+		this.mLastRefreshAttempt = 0;
+	}
+
+	/**
+	 * Gets the movement network, loading or refreshing its snapshot if necessary.
+	 * The network is shared by all callers and must not be modified without
+	 * synchronizing on it.
+	 * 
+	 * @return The movement network or empty if neither a snapshot exists nor the
+	 *         wiki could be reached
+	 */
+	public Optional<FreewarNetwork> getNetwork() {
+		final Optional<NetworkSnapshot> snapshot = getSnapshot();
+		if (!snapshot.isPresent()) {
+			return Optional.empty();
+		}
+		return Optional.of(getNetwork(snapshot.get()));
+	}
+
+	/**
+	 * Gets the movement network of the given snapshot. For the current snapshot
+	 * this is the network shared by all callers, see {@link #getNetwork()}. For
+	 * an older snapshot, which got refreshed meanwhile, a new network is created.
+	 * The network thus always matches the given snapshot.
+	 * 
+	 * @param snapshot
+	 *            The snapshot to get the network of, as given by
+	 *            {@link #getSnapshot()}
+	 * @return The movement network of the given snapshot
+	 */
+	public FreewarNetwork getNetwork(final NetworkSnapshot snapshot) {
+		synchronized (this) {
+			if (snapshot == this.mSnapshot) {
+				if (this.mNetwork == null) {
+					this.mNetwork = this.mSnapshot.createNetwork();
+				}
+				return this.mNetwork;
+			}
+		}
+		return snapshot.createNetwork();
+	}
+
+	/**
+	 * Gets the current snapshot of the network, loading or refreshing it if
+	 * necessary.
+	 * 
+	 * @return The current snapshot or empty if neither a snapshot exists nor the
+	 *         wiki could be reached
+	 */
+	public Optional<NetworkSnapshot> getSnapshot() {
+		awaitSnapshot();
+		synchronized (this) {
+			return Optional.ofNullable(this.mSnapshot);
+		}
+	}
+
+	/**
+	 * Ensures that a snapshot is available if possible and waits for the refresh
+	 * of the snapshot if there is nothing to serve meanwhile. The lock of the
+	 * cache is not held while waiting. If the current thread is interrupted while
+	 * waiting, it stops waiting and keeps its interrupted status.
+	 */
+	private void awaitSnapshot() {
+		final CompletableFuture<Void> refresh;
+		synchronized (this) {
+			refresh = ensureSnapshot();
+		}
+		if (refresh == null) {
+			return;
+		}
+
+		try {
+			refresh.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			// The refresh always completes normally, it logs its own errors
+		}
+	}
+
+	/**
+	 * Ensures that a snapshot is available if possible. Loads the snapshot from
+	 * disk on first use and starts to refresh it from the wiki in the background
+	 * if it is missing or stale, unless a refresh is already running or was
+	 * attempted recently. Must be called while holding the lock of the cache.
+	 * 
+	 * @return The future of the running refresh if there is no snapshot to serve
+	 *         meanwhile and the caller has to wait for it, else <tt>null</tt>
+	 */
+	private CompletableFuture<Void> ensureSnapshot() {
+		if (!this.mWasLoaded) {
+			loadSnapshot();
+			this.mWasLoaded = true;
+		}
+		if (this.mSnapshot != null && !isStale(this.mSnapshot)) {
+			return null;
+		}
+
+		final long now = System.currentTimeMillis();
+		if (this.mRefresh == null && now - this.mLastRefreshAttempt >= REFRESH_RETRY_DELAY) {
+			this.mLastRefreshAttempt = now;
+			final CompletableFuture<Void> refresh = new CompletableFuture<>();
+			this.mRefresh = refresh;
+			THREAD_FACTORY.newThread(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					try {
+						refreshSnapshot();
+					} finally {
+						// Always release the refresh, else the snapshot would never be refreshed again
+						synchronized (NetworkCache.this) {
+							NetworkCache.this.mRefresh = null;
+						}
+						refresh.complete(null);
+					}
+				}
+			}).start();
+		}
+
+		if (this.mSnapshot == null) {
+			// There is nothing to serve meanwhile, the caller has to wait
+			return this.mRefresh;
+		}
+		return null;
+	}
+
+	/**
+	 * Whether the given snapshot is stale and should be refreshed.
+	 * 
+	 * @param snapshot
+	 *            The snapshot in question
+	 * @return <tt>True</tt> if the snapshot is stale, <tt>false</tt> otherwise
+	 */
+	private boolean isStale(final NetworkSnapshot snapshot) {
+		return System.currentTimeMillis() - snapshot.getTimestamp() > MAX_AGE;
+	}
+
+	/**
+	 * Loads the snapshot from disk, if present and valid. Must be called while
+	 * holding the lock of the cache.
+	 */
+	private void loadSnapshot() {
+		final File file = new File(FILEPATH);
+		if (!file.isFile()) {
+			return;
+		}
+		try {
+			this.mSnapshot = NetworkSnapshot.load(file);
+			this.mNetwork = null;
+		} catch (final IOException e) {
+			this.mLogger.logError("Invalid network snapshot, discarding it: " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Refreshes the snapshot from the wiki and saves it to disk. The wiki is
+	 * fetched without holding the lock of the cache, such that a stale snapshot
+	 * can be served meanwhile. Keeps the previous snapshot if the wiki can not be
+	 * reached or its network can not be read.
+	 */
+	private void refreshSnapshot() {
+		this.mLogger.logInfo("Refreshing movement network...", Logger.TOP_LEVEL);
+		NetworkSnapshot snapshot = null;
+		try {
+			final long timestamp = System.currentTimeMillis();
+			snapshot = NetworkSnapshot.fromNetwork(FreewarNetwork.createFromWiki(), timestamp);
+			this.mLogger.logInfo("Movement network refreshed.", Logger.FIRST_LEVEL);
+		} catch (final IOException | RuntimeException e) {
+			this.mLogger.logError("Could not refresh movement network, retrying in "
+					+ TimeUnit.MILLISECONDS.toMinutes(REFRESH_RETRY_DELAY) + " minutes.", Logger.FIRST_LEVEL);
+		}
+
+		if (snapshot != null) {
+			try {
+				snapshot.save(new File(FILEPATH));
+			} catch (final IOException e) {
+				this.mLogger.logError("IO-error while saving network snapshot to : " + FILEPATH, Logger.FIRST_LEVEL);
+			}
+
+			synchronized (this) {
+				this.mSnapshot = snapshot;
+				this.mNetwork = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import de.zabuza.sparkle.freewar.frames.EFrame;
+import de.zabuza.sparkle.freewar.frames.IFrameManager;
+import de.zabuza.sparkle.freewar.inventory.IInventory;
+import de.zabuza.sparkle.freewar.location.ILocation;
+import de.zabuza.sparkle.freewar.movement.EDirection;
+import de.zabuza.sparkle.freewar.movement.IMovement;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.selectors.CSSSelectors;
+import de.zabuza.sparkle.selectors.Classes;
+import de.zabuza.sparkle.wait.EventQueueEmptyWait;
+
+/**
+ * Movement of a Freewar instance which acts like the movement of the Sparkle
+ * API but searches its routes on a given movement network, for example the
+ * network of the {@link NetworkCache}, instead of fetching the network from the
+ * wiki when it is created. The network is shared with other users, routes are
+ * searched by a {@link NetworkRouteProvider} which synchronizes on it. The
+ * routes are moved along by a {@link RouteMovement}, such that canceling the
+ * movement stops it promptly.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NetworkMovement implements IMovement {
+	/**
+	 * Timeout in milliseconds to wait for the move waiting method cycle to check
+	 * its condition.
+	 */
+	private static final long MOVE_WAITING_TIMEOUT = 500;
+
+	/**
+	 * The web driver used by this movement.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * Manager to use for switching frames.
+	 */
+	private final IFrameManager mFrameManager;
+	/**
+	 * The inventory object used by this movement.
+	 */
+	private final IInventory mInventory;
+	/**
+	 * The location object used by this movement.
+	 */
+	private final ILocation mLocation;
+	/**
+	 * If present, the network to search routes on.
+	 */
+	private final Optional<FreewarNetwork> mNetwork;
+	/**
+	 * The current movement along a route or <tt>null</tt> if there is none.
+	 */
+	private volatile RouteMovement mRouteMovement;
+
+	/**
+	 * Creates a new movement object that uses the given driver and searches its
+	 * routes on the given network.
+	 * 
+	 * @param driver
+	 *            Web driver this object should use
+	 * @param location
+	 *            Location object this object should use
+	 * @param inventory
+	 *            Inventory object this object should use
+	 * @param frameManager
+	 *            Manager to use for switching frames
+	 * @param network
+	 *            If present, the network to search routes on. If not present,
+	 *            moving to a destination is always canceled.
+	 */
+	public NetworkMovement(final WebDriver driver, final ILocation location, final IInventory inventory,
+			final IFrameManager frameManager, final Optional<FreewarNetwork> network) {
+		this.mDriver = driver;
+		this.mLocation = location;
+		this.mInventory = inventory;
+		this.mFrameManager = frameManager;
+		this.mNetwork = network;
+		this.mRouteMovement = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#cancelMovementTask()
+	 */
+	@Override
+	public void cancelMovementTask() {
+		final RouteMovement routeMovement = this.mRouteMovement;
+		if (routeMovement != null) {
+			routeMovement.cancel();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#canMove()
+	 */
+	@Override
+	public boolean canMove() {
+		switchToMapFrame();
+
+		final List<WebElement> travelOnElements = this.mDriver
+				.findElements(By.cssSelector(CSSSelectors.MAP_TRAVEL_ON_TIME));
+		if (!travelOnElements.isEmpty()) {
+			return travelOnElements.iterator().next().getText().isEmpty();
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#hasMovementTask()
+	 */
+	@Override
+	public boolean hasMovementTask() {
+		final RouteMovement routeMovement = this.mRouteMovement;
+		return routeMovement != null && routeMovement.isRunning();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.sparkle.freewar.movement.IMovement#move(de.zabuza.sparkle.freewar
+	 * .movement.EDirection)
+	 */
+	@Override
+	public boolean move(final EDirection direction) {
+		final Point positionBefore = this.mLocation.getPosition();
+
+		switchToMapFrame();
+		final String selector;
+		if (direction == EDirection.NORTH) {
+			selector = CSSSelectors.MAP_MOVE_NORTH_ANCHOR;
+		} else if (direction == EDirection.EAST) {
+			selector = CSSSelectors.MAP_MOVE_EAST_ANCHOR;
+		} else if (direction == EDirection.SOUTH) {
+			selector = CSSSelectors.MAP_MOVE_SOUTH_ANCHOR;
+		} else if (direction == EDirection.WEST) {
+			selector = CSSSelectors.MAP_MOVE_WEST_ANCHOR;
+		} else if (direction == EDirection.NORTHEAST) {
+			selector = CSSSelectors.MAP_MOVE_NORTHEAST_ANCHOR;
+		} else if (direction == EDirection.SOUTHEAST) {
+			selector = CSSSelectors.MAP_MOVE_SOUTHEAST_ANCHOR;
+		} else if (direction == EDirection.SOUTHWEST) {
+			selector = CSSSelectors.MAP_MOVE_SOUTHWEST_ANCHOR;
+		} else {
+			selector = CSSSelectors.MAP_MOVE_NORTHWEST_ANCHOR;
+		}
+
+		// The desired position is not reachable
+		final WebElement moveAnchor = this.mDriver.findElement(By.cssSelector(selector));
+		if (Classes.hasClass(moveAnchor, Classes.MAP_FIELD_NOCANGO)) {
+			return false;
+		}
+		moveAnchor.click();
+
+		// Wait for the movement to be executed if the delayed executor is used
+		new EventQueueEmptyWait(this.mDriver).waitUntilCondition();
+
+		// The player moved if the position changed
+		return !positionBefore.equals(this.mLocation.getPosition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#moveTo(int, int)
+	 */
+	@Override
+	public void moveTo(final int xCoordinate, final int yCoordinate) {
+		moveTo(xCoordinate, yCoordinate, Collections.emptySet());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#moveTo(int, int,
+	 * java.util.Set)
+	 */
+	@Override
+	public void moveTo(final int xCoordinate, final int yCoordinate, final Set<EMoveType> options) {
+		// Cancel the previous movement, without a new task the movement is unsuccessful
+		cancelMovementTask();
+		this.mRouteMovement = null;
+
+		if (!this.mNetwork.isPresent()) {
+			return;
+		}
+		final IRouteProvider routeProvider = new NetworkRouteProvider(this.mNetwork.get(), options);
+		final Optional<Route> route = routeProvider.getRoute(this.mLocation.getPosition(),
+				new Point(xCoordinate, yCoordinate));
+		if (!route.isPresent()) {
+			return;
+		}
+
+		final RouteMovement routeMovement = new RouteMovement(route.get(), this.mLocation, this, this.mInventory);
+		this.mRouteMovement = routeMovement;
+		routeMovement.start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.sparkle.freewar.movement.IMovement#moveWaiting(de.zabuza.sparkle
+	 * .freewar.movement.EDirection)
+	 */
+	@Override
+	public boolean moveWaiting(final EDirection direction) {
+		// Wait for the player to be able to move
+		while (!canMove()) {
+			try {
+				TimeUnit.MILLISECONDS.sleep(MOVE_WAITING_TIMEOUT);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return move(direction);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.movement.IMovement#wasTaskSuccessful()
+	 */
+	@Override
+	public boolean wasTaskSuccessful() {
+		final RouteMovement routeMovement = this.mRouteMovement;
+		return routeMovement != null && routeMovement.wasSuccessful();
+	}
+
+	/**
+	 * Switches to the map frame and waits until it is loaded. It ensures that
+	 * previously queued events are processed before switching frames.
+	 */
+	private void switchToMapFrame() {
+		this.mFrameManager.switchToFrame(EFrame.MAP);
+	}
+}
@@ -0,0 +1,115 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.Optional;
+import java.util.Set;
+
+import de.zabuza.pathweaver.network.Path;
+import de.zabuza.pathweaver.network.algorithm.shortestpath.DijkstraShortestPathComputation;
+import de.zabuza.pathweaver.network.algorithm.shortestpath.IShortestPathComputation;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+
+/**
+ * Route provider which computes the exact route and cost of moving between two
+ * positions by a shortest path search on the movement network, using the given
+ * movement options like the movement of the Freewar instance does.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NetworkRouteProvider implements IRouteProvider {
+	/**
+	 * The shortest path computation object to use.
+	 */
+	private final IShortestPathComputation mComputation;
+	/**
+	 * A set containing all movement options allowed to use.
+	 */
+	private final Set<EMoveType> mMovementOptions;
+	/**
+	 * The network to search on, shared with other users. It is used as lock for
+	 * adding and removing temporary edges.
+	 */
+	private final FreewarNetwork mNetwork;
+
+	/**
+	 * Creates a new route provider which searches on the given network.
+	 * 
+	 * @param network
+	 *            The network to search on
+	 * @param movementOptions
+	 *            A set containing all movement options allowed to use
+	 */
+	public NetworkRouteProvider(final FreewarNetwork network, final Set<EMoveType> movementOptions) {
+		this.mNetwork = network;
+		this.mMovementOptions = movementOptions;
+		this.mComputation = new DijkstraShortestPathComputation(network);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.routing.IRouteCostProvider#getCost(java.awt.Point,
+	 * java.awt.Point)
+	 */
+	@Override
+	public float getCost(final Point source, final Point destination) {
+		final Optional<FreewarNode> sourceNode = this.mNetwork.getNodeByCoordinates(source.x, source.y);
+		final Optional<FreewarNode> destinationNode = this.mNetwork.getNodeByCoordinates(destination.x,
+				destination.y);
+		if (!sourceNode.isPresent() || !destinationNode.isPresent()) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		final Optional<Float> cost;
+		synchronized (this.mNetwork) {
+			this.mNetwork.addTemporaryEdges(sourceNode.get(), this.mMovementOptions);
+			try {
+				cost = this.mComputation.computeShortestPathCost(sourceNode.get(), destinationNode.get());
+			} finally {
+				this.mNetwork.removeTemporaryEdges();
+			}
+		}
+
+		if (!cost.isPresent()) {
+			return Float.POSITIVE_INFINITY;
+		}
+		return cost.get().floatValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.routing.IRouteProvider#getRoute(java.awt.Point,
+	 * java.awt.Point)
+	 */
+	@Override
+	public Optional<Route> getRoute(final Point source, final Point destination) {
+		final Optional<FreewarNode> sourceNode = this.mNetwork.getNodeByCoordinates(source.x, source.y);
+		final Optional<FreewarNode> destinationNode = this.mNetwork.getNodeByCoordinates(destination.x,
+				destination.y);
+		if (!sourceNode.isPresent() || !destinationNode.isPresent()) {
+			return Optional.empty();
+		}
+
+		final Optional<Path> path;
+		synchronized (this.mNetwork) {
+			this.mNetwork.addTemporaryEdges(sourceNode.get(), this.mMovementOptions);
+			try {
+				path = this.mComputation.computeShortestPath(sourceNode.get(), destinationNode.get());
+			} finally {
+				this.mNetwork.removeTemporaryEdges();
+			}
+		}
+
+		if (!path.isPresent()) {
+			return Optional.empty();
+		}
+		return Optional.of(Route.fromPath(path.get()));
+	}
+
+}
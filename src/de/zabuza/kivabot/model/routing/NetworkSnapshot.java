@@ -0,0 +1,279 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import de.zabuza.pathweaver.network.DirectedWeightedEdge;
+import de.zabuza.pathweaver.network.Node;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+
+/**
+ * Compact and immutable snapshot of the walking network of the world. It
+ * consists of the coordinates of all nodes and, for every node, a bit mask of
+ * the eight directions a walking edge leaves it into. Snapshots can be saved to
+ * and loaded from a versioned binary file, which is memory-mapped for loading.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NetworkSnapshot {
+	/**
+	 * The offsets of the eight walking directions in x-direction, indexed by their
+	 * bit in the adjacency mask.
+	 */
+	private static final int[] DIRECTION_OFFSET_X = { -1, 0, 1, -1, 1, -1, 0, 1 };
+	/**
+	 * The offsets of the eight walking directions in y-direction, indexed by their
+	 * bit in the adjacency mask.
+	 */
+	private static final int[] DIRECTION_OFFSET_Y = { -1, -1, -1, 0, 0, 1, 1, 1 };
+	/**
+	 * The size of the file header in bytes, consisting of magic number, version,
+	 * creation timestamp and amount of nodes.
+	 */
+	private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+	/**
+	 * The magic number every snapshot file starts with.
+	 */
+	private static final int MAGIC_NUMBER = 0x4B564E57;
+	/**
+	 * The size of the data of a single node in bytes, consisting of both
+	 * coordinates and the adjacency mask.
+	 */
+	private static final int NODE_SIZE = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+	/**
+	 * The version of the file format, files of other versions are rejected.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Creates a snapshot of the walking edges of the given network.
+	 * 
+	 * @param network
+	 *            The network to create a snapshot of
+	 * @param timestamp
+	 *            The time the data of the network was fetched at, in milliseconds
+	 *            since the epoch
+	 * @return The snapshot of the given network
+	 */
+	public static NetworkSnapshot fromNetwork(final FreewarNetwork network, final long timestamp) {
+		final int size = network.getSize();
+		final int[] xCoordinates = new int[size];
+		final int[] yCoordinates = new int[size];
+		final byte[] adjacency = new byte[size];
+
+		int index = 0;
+		for (final Node node : network.getNodes()) {
+			final FreewarNode freewarNode = (FreewarNode) node;
+			xCoordinates[index] = freewarNode.getXCoordinate();
+			yCoordinates[index] = freewarNode.getYCoordinate();
+
+			int mask = 0;
+			for (final DirectedWeightedEdge edge : network.getOutgoingEdges(node)) {
+				final FreewarNode destination = (FreewarNode) edge.getDestination();
+				final int direction = getDirection(destination.getXCoordinate() - xCoordinates[index],
+						destination.getYCoordinate() - yCoordinates[index]);
+				if (direction != -1) {
+					mask |= 1 << direction;
+				}
+			}
+			adjacency[index] = (byte) mask;
+			index++;
+		}
+
+		return new NetworkSnapshot(xCoordinates, yCoordinates, adjacency, timestamp);
+	}
+
+	/**
+	 * Loads a snapshot from the given file by memory-mapping it.
+	 * 
+	 * @param file
+	 *            The file to load the snapshot from
+	 * @return The snapshot contained in the file
+	 * @throws IOException
+	 *             If an I/O-exception occurred or the file does not contain a valid
+	 *             snapshot of the current version
+	 */
+	public static NetworkSnapshot load(final File file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE) {
+				throw new IOException("Network snapshot is truncated: " + file);
+			}
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+			if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != VERSION) {
+				throw new IOException("Network snapshot has an unsupported format: " + file);
+			}
+			final long timestamp = buffer.getLong();
+			final int size = buffer.getInt();
+			if (size < 0 || buffer.remaining() != (long) size * NODE_SIZE) {
+				throw new IOException("Network snapshot is truncated: " + file);
+			}
+
+			final int[] xCoordinates = new int[size];
+			final int[] yCoordinates = new int[size];
+			final byte[] adjacency = new byte[size];
+			buffer.asIntBuffer().get(xCoordinates);
+			buffer.position(buffer.position() + size * Integer.BYTES);
+			buffer.asIntBuffer().get(yCoordinates);
+			buffer.position(buffer.position() + size * Integer.BYTES);
+			buffer.get(adjacency);
+
+			return new NetworkSnapshot(xCoordinates, yCoordinates, adjacency, timestamp);
+		}
+	}
+
+	/**
+	 * Gets the bit of the direction which leads to the neighbor with the given
+	 * offset.
+	 * 
+	 * @param offsetX
+	 *            The offset of the neighbor in x-direction
+	 * @param offsetY
+	 *            The offset of the neighbor in y-direction
+	 * @return The bit of the direction or <tt>-1</tt> if the offset does not
+	 *         belong to a direct neighbor
+	 */
+	private static int getDirection(final int offsetX, final int offsetY) {
+		for (int direction = 0; direction < DIRECTION_OFFSET_X.length; direction++) {
+			if (DIRECTION_OFFSET_X[direction] == offsetX && DIRECTION_OFFSET_Y[direction] == offsetY) {
+				return direction;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * For every node, a bit mask of the directions walking edges leave it into.
+	 */
+	private final byte[] mAdjacency;
+	/**
+	 * The time the data of the network was fetched at, in milliseconds since the
+	 * epoch.
+	 */
+	private final long mTimestamp;
+	/**
+	 * The x-coordinates of all nodes.
+	 */
+	private final int[] mXCoordinates;
+	/**
+	 * The y-coordinates of all nodes.
+	 */
+	private final int[] mYCoordinates;
+
+	/**
+	 * Creates a new snapshot out of the given data. The arrays are not copied.
+	 * 
+	 * @param xCoordinates
+	 *            The x-coordinates of all nodes
+	 * @param yCoordinates
+	 *            The y-coordinates of all nodes
+	 * @param adjacency
+	 *            For every node, a bit mask of the directions walking edges leave
+	 *            it into
+	 * @param timestamp
+	 *            The time the data of the network was fetched at, in milliseconds
+	 *            since the epoch
+	 */
+	private NetworkSnapshot(final int[] xCoordinates, final int[] yCoordinates, final byte[] adjacency,
+			final long timestamp) {
+		this.mXCoordinates = xCoordinates;
+		this.mYCoordinates = yCoordinates;
+		this.mAdjacency = adjacency;
+		this.mTimestamp = timestamp;
+	}
+
+	/**
+	 * Creates a network out of this snapshot, containing all nodes and their
+	 * walking edges.
+	 * 
+	 * @return The network represented by this snapshot
+	 */
+	public FreewarNetwork createNetwork() {
+		final FreewarNetwork network = new FreewarNetwork();
+		final FreewarNode[] nodes = new FreewarNode[this.mXCoordinates.length];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new FreewarNode(i, this.mXCoordinates[i], this.mYCoordinates[i]);
+			network.addFreewarNode(nodes[i]);
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			final int mask = this.mAdjacency[i];
+			for (int direction = 0; direction < DIRECTION_OFFSET_X.length; direction++) {
+				if ((mask & (1 << direction)) == 0) {
+					continue;
+				}
+				final Optional<FreewarNode> destination = network.getNodeByCoordinates(
+						this.mXCoordinates[i] + DIRECTION_OFFSET_X[direction],
+						this.mYCoordinates[i] + DIRECTION_OFFSET_Y[direction]);
+				if (destination.isPresent()) {
+					network.addEdge(nodes[i], destination.get(), EMoveType.WALKING);
+				}
+			}
+		}
+		return network;
+	}
+
+	/**
+	 * Gets the amount of nodes of this snapshot.
+	 * 
+	 * @return The amount of nodes of this snapshot
+	 */
+	public int getSize() {
+		return this.mXCoordinates.length;
+	}
+
+	/**
+	 * Gets the time the data of the network was fetched at.
+	 * 
+	 * @return The time the data of the network was fetched at, in milliseconds
+	 *         since the epoch
+	 */
+	public long getTimestamp() {
+		return this.mTimestamp;
+	}
+
+	/**
+	 * Saves this snapshot to the given file. The file is replaced atomically, such
+	 * that readers never see a partially written snapshot.
+	 * 
+	 * @param file
+	 *            The file to save the snapshot to
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	public void save(final File file) throws IOException {
+		final int size = getSize();
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + size * NODE_SIZE);
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putInt(VERSION);
+		buffer.putLong(this.mTimestamp);
+		buffer.putInt(size);
+		buffer.asIntBuffer().put(this.mXCoordinates);
+		buffer.position(buffer.position() + size * Integer.BYTES);
+		buffer.asIntBuffer().put(this.mYCoordinates);
+		buffer.position(buffer.position() + size * Integer.BYTES);
+		buffer.put(this.mAdjacency);
+		buffer.flip();
+
+		final File temporaryFile = new File(file.getPath() + ".tmp");
+		try (final FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+}
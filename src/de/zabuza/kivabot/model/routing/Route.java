@@ -0,0 +1,191 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import de.zabuza.pathweaver.network.DirectedWeightedEdge;
+import de.zabuza.pathweaver.network.Path;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+
+/**
+ * Immutable route through the world, consisting of the positions to move along
+ * and the cost of every step. The cost of a step also determines its movement
+ * type, like in the movement network.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class Route {
+	/**
+	 * Creates a route out of the given path of the movement network.
+	 * 
+	 * @param path
+	 *            The path to create a route of, consisting of freewar nodes
+	 * @return The route represented by the given path
+	 */
+	public static Route fromPath(final Path path) {
+		final int length = path.getEdges().size();
+		final int[] xCoordinates = new int[length + 1];
+		final int[] yCoordinates = new int[length + 1];
+		final float[] stepCosts = new float[length];
+
+		final FreewarNode source = (FreewarNode) path.getSource();
+		xCoordinates[0] = source.getXCoordinate();
+		yCoordinates[0] = source.getYCoordinate();
+		int step = 0;
+		for (final DirectedWeightedEdge edge : path.getEdges()) {
+			final FreewarNode destination = (FreewarNode) edge.getDestination();
+			xCoordinates[step + 1] = destination.getXCoordinate();
+			yCoordinates[step + 1] = destination.getYCoordinate();
+			stepCosts[step] = edge.getCost();
+			step++;
+		}
+
+		return new Route(xCoordinates, yCoordinates, stepCosts);
+	}
+
+	/**
+	 * Reads a route which was written by {@link #write(DataOutput)}.
+	 * 
+	 * @param input
+	 *            The input to read from
+	 * @return The route which was read
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	public static Route read(final DataInput input) throws IOException {
+		final int length = input.readInt();
+		if (length < 0) {
+			throw new IOException("Invalid route length: " + length);
+		}
+		final int[] xCoordinates = new int[length + 1];
+		final int[] yCoordinates = new int[length + 1];
+		final float[] stepCosts = new float[length];
+		for (int i = 0; i <= length; i++) {
+			xCoordinates[i] = input.readInt();
+			yCoordinates[i] = input.readInt();
+		}
+		for (int i = 0; i < length; i++) {
+			stepCosts[i] = input.readFloat();
+		}
+		return new Route(xCoordinates, yCoordinates, stepCosts);
+	}
+
+	/**
+	 * The total cost of the route.
+	 */
+	private final float mCost;
+	/**
+	 * The cost of every step of the route.
+	 */
+	private final float[] mStepCosts;
+	/**
+	 * The x-coordinates of all positions of the route, starting with the source.
+	 */
+	private final int[] mXCoordinates;
+	/**
+	 * The y-coordinates of all positions of the route, starting with the source.
+	 */
+	private final int[] mYCoordinates;
+
+	/**
+	 * Creates a new route out of the given data. The arrays are not copied.
+	 * 
+	 * @param xCoordinates
+	 *            The x-coordinates of all positions of the route, starting with the
+	 *            source
+	 * @param yCoordinates
+	 *            The y-coordinates of all positions of the route, starting with the
+	 *            source
+	 * @param stepCosts
+	 *            The cost of every step of the route
+	 */
+	private Route(final int[] xCoordinates, final int[] yCoordinates, final float[] stepCosts) {
+		this.mXCoordinates = xCoordinates;
+		this.mYCoordinates = yCoordinates;
+		this.mStepCosts = stepCosts;
+
+		float cost = 0;
+		for (final float stepCost : stepCosts) {
+			cost += stepCost;
+		}
+		this.mCost = cost;
+	}
+
+	/**
+	 * Gets the total cost of the route.
+	 * 
+	 * @return The total cost of the route
+	 */
+	public float getCost() {
+		return this.mCost;
+	}
+
+	/**
+	 * Gets the position the route ends at.
+	 * 
+	 * @return The position the route ends at
+	 */
+	public Point getDestination() {
+		final int last = this.mStepCosts.length;
+		return new Point(this.mXCoordinates[last], this.mYCoordinates[last]);
+	}
+
+	/**
+	 * Gets the amount of steps of the route.
+	 * 
+	 * @return The amount of steps of the route
+	 */
+	public int getLength() {
+		return this.mStepCosts.length;
+	}
+
+	/**
+	 * Gets the position the route starts at.
+	 * 
+	 * @return The position the route starts at
+	 */
+	public Point getSource() {
+		return new Point(this.mXCoordinates[0], this.mYCoordinates[0]);
+	}
+
+	/**
+	 * Creates a path of the movement network out of this route, such that it can
+	 * be executed by a movement task.
+	 * 
+	 * @return The path represented by this route
+	 */
+	public Path toPath() {
+		FreewarNode node = new FreewarNode(0, this.mXCoordinates[0], this.mYCoordinates[0]);
+		final Path path = new Path(node);
+		for (int step = 0; step < this.mStepCosts.length; step++) {
+			final FreewarNode nextNode = new FreewarNode(step + 1, this.mXCoordinates[step + 1],
+					this.mYCoordinates[step + 1]);
+			path.addEdge(new DirectedWeightedEdge(node, nextNode, this.mStepCosts[step]));
+			node = nextNode;
+		}
+		return path;
+	}
+
+	/**
+	 * Writes this route to the given output. It can be read again by
+	 * {@link #read(DataInput)}.
+	 * 
+	 * @param output
+	 *            The output to write to
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeInt(this.mStepCosts.length);
+		for (int i = 0; i < this.mXCoordinates.length; i++) {
+			output.writeInt(this.mXCoordinates[i]);
+			output.writeInt(this.mYCoordinates[i]);
+		}
+		for (final float stepCost : this.mStepCosts) {
+			output.writeFloat(stepCost);
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.kivabot.model.TaskThreadFactory;
+import de.zabuza.pathweaver.network.DirectedWeightedEdge;
+import de.zabuza.sparkle.freewar.IFreewarInstance;
+import de.zabuza.sparkle.freewar.inventory.IInventory;
+import de.zabuza.sparkle.freewar.location.ILocation;
+import de.zabuza.sparkle.freewar.movement.IMovement;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+import de.zabuza.sparkle.freewar.movement.network.NetworkUtil;
+
+/**
+ * Movement of a Freewar instance along a given route. The movement runs on its
+ * own thread and completes a future once it has arrived or failed, such that
+ * waiting threads wake up immediately instead of polling for the movement to
+ * finish. Unlike the movement task of the Sparkle API, the steps are executed
+ * by an own loop which checks for cancellation while waiting for the player to
+ * be able to move and stops as soon as its thread is interrupted, such that a
+ * canceled movement does not keep using the browser.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RouteMovement implements Runnable {
+	/**
+	 * Timeout in milliseconds to wait for the player to be able to move before
+	 * checking again.
+	 */
+	private static final long MOVE_WAITING_TIMEOUT = 500;
+	/**
+	 * The factory of the threads executing movements.
+	 */
+	private static final ThreadFactory THREAD_FACTORY = new TaskThreadFactory("RouteMovement-");
+
+	/**
+	 * Future which is completed with whether the destination was reached, once
+	 * the movement has finished.
+	 */
+	private final CompletableFuture<Boolean> mCompletion;
+	/**
+	 * The object to use for accessing the inventory of the instance.
+	 */
+	private final IInventory mInventory;
+	/**
+	 * The location object of the instance.
+	 */
+	private final ILocation mLocation;
+	/**
+	 * The movement object of the instance which executes the single steps.
+	 */
+	private final IMovement mMovement;
+	/**
+	 * The route to move along.
+	 */
+	private final Route mRoute;
+	/**
+	 * The thread which executes the movement or <tt>null</tt> if it is not
+	 * running. Access is guarded by the movement itself.
+	 */
+	private Thread mWorker;
+	/**
+	 * Whether the movement was canceled.
+	 */
+	private volatile boolean mWasCanceled;
+
+	/**
+	 * Creates a new movement of the given instance along the given route. The
+	 * movement needs to be started by {@link #start()}.
+	 * 
+	 * @param route
+	 *            The route to move along, it must start at the current position
+	 * @param instance
+	 *            The instance to move
+	 */
+	public RouteMovement(final Route route, final IFreewarInstance instance) {
+		this(route, instance.getLocation(), instance.getMovement(), instance.getInventory());
+	}
+
+	/**
+	 * Creates a new movement along the given route which executes its steps with
+	 * the given objects of an instance. The movement needs to be started by
+	 * {@link #start()}.
+	 * 
+	 * @param route
+	 *            The route to move along, it must start at the current position
+	 * @param location
+	 *            The location object of the instance
+	 * @param movement
+	 *            The movement object of the instance which executes the single
+	 *            steps
+	 * @param inventory
+	 *            The object to use for accessing the inventory of the instance
+	 */
+	public RouteMovement(final Route route, final ILocation location, final IMovement movement,
+			final IInventory inventory) {
+		this.mRoute = route;
+		this.mLocation = location;
+		this.mMovement = movement;
+		this.mInventory = inventory;
+		this.mCompletion = new CompletableFuture<>();
+		this.mWasCanceled = false;
+		this.mWorker = null;
+	}
+
+	/**
+	 * Cancels the movement. It stops before the next step, while waiting for the
+	 * player to be able to move or, since its thread gets interrupted, within the
+	 * current step, and completes as unsuccessful. Can be called from any thread.
+	 */
+	public void cancel() {
+		this.mWasCanceled = true;
+		synchronized (this) {
+			if (this.mWorker != null) {
+				this.mWorker.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Gets the future which is completed once the movement has finished.
+	 * 
+	 * @return Future which is completed with <tt>true</tt> if the destination was
+	 *         reached and with <tt>false</tt> if the movement was canceled or
+	 *         aborted itself. It completes exceptionally if an error occurred
+	 *         during the movement.
+	 */
+	public CompletableFuture<Boolean> getCompletion() {
+		return this.mCompletion;
+	}
+
+	/**
+	 * Whether the movement is still executed by its thread, that is it was
+	 * started and did not finish yet.
+	 * 
+	 * @return <tt>True</tt> if the movement is still running, <tt>false</tt> if
+	 *         it has finished or was not started yet
+	 */
+	public synchronized boolean isRunning() {
+		return this.mWorker != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		setWorker(Thread.currentThread());
+		final boolean wasSuccessful;
+		try {
+			wasSuccessful = moveAlongRoute();
+		} catch (final Throwable e) {
+			// Also errors of the driver must complete the movement, else waiting threads never wake up
+			setWorker(null);
+			this.mCompletion.completeExceptionally(e);
+			return;
+		}
+		// The movement does not use the instance anymore once it has completed
+		setWorker(null);
+		this.mCompletion.complete(Boolean.valueOf(wasSuccessful));
+	}
+
+	/**
+	 * Starts the movement on its own thread.
+	 */
+	public void start() {
+		final Thread worker = THREAD_FACTORY.newThread(this);
+		setWorker(worker);
+		worker.start();
+	}
+
+	/**
+	 * Whether the movement has finished and reached the destination.
+	 * 
+	 * @return <tt>True</tt> if the movement has reached the destination,
+	 *         <tt>false</tt> if it is still running, was canceled, aborted
+	 *         itself or failed with an error
+	 */
+	public boolean wasSuccessful() {
+		final CompletableFuture<Boolean> completion = this.mCompletion;
+		return completion.isDone() && !completion.isCompletedExceptionally()
+				&& completion.getNow(Boolean.FALSE).booleanValue();
+	}
+
+	/**
+	 * Whether the movement was canceled, either by {@link #cancel()} or by
+	 * interrupting its thread.
+	 * 
+	 * @return <tt>True</tt> if the movement was canceled, <tt>false</tt>
+	 *         otherwise
+	 */
+	private boolean isCanceled() {
+		return this.mWasCanceled || Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 * Moves along the route step by step. Before each step it waits for the
+	 * player to be able to move and to have left the position of the previous
+	 * step. It stops as soon as the movement is canceled or the player is not at
+	 * the assumed position anymore.
+	 * 
+	 * @return <tt>True</tt> if the destination was reached, <tt>false</tt> if the
+	 *         movement was canceled or aborted itself
+	 */
+	private boolean moveAlongRoute() {
+		final Iterator<DirectedWeightedEdge> edgeIter = this.mRoute.toPath().getEdges().iterator();
+		Point lastPos = null;
+		while (edgeIter.hasNext()) {
+			final DirectedWeightedEdge edge = edgeIter.next();
+
+			// Wait for the player to be able to move
+			Point currentPos;
+			while (true) {
+				if (isCanceled()) {
+					return false;
+				}
+				if (this.mMovement.canMove()) {
+					currentPos = this.mLocation.getPosition();
+					if (!currentPos.equals(lastPos)) {
+						break;
+					}
+				}
+				try {
+					TimeUnit.MILLISECONDS.sleep(MOVE_WAITING_TIMEOUT);
+				} catch (final InterruptedException e) {
+					return false;
+				}
+			}
+
+			// Check if the player still is at the assumed position
+			final FreewarNode source = (FreewarNode) edge.getSource();
+			if (source.getXCoordinate() != (int) currentPos.getX()
+					|| source.getYCoordinate() != (int) currentPos.getY()) {
+				return false;
+			}
+			lastPos = currentPos;
+
+			// Execute the movement represented by the edge
+			final FreewarNode destination = (FreewarNode) edge.getDestination();
+			final Point destinationPos = new Point(destination.getXCoordinate(), destination.getYCoordinate());
+			final EMoveType type = NetworkUtil.getMoveTypeOfCost(edge.getCost());
+			if (isCanceled() || !NetworkUtil.executeMovement(type, currentPos, destinationPos, this.mMovement,
+					this.mInventory)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the thread which executes the movement.
+	 * 
+	 * @param worker
+	 *            The thread which executes the movement or <tt>null</tt> if the
+	 *            movement has finished
+	 */
+	private synchronized void setWorker(final Thread worker) {
+		this.mWorker = worker;
+	}
+}
@@ -0,0 +1,219 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+
+/**
+ * Immutable table of the cheapest routes between all pairs of a fixed set of
+ * points of interest, computed for a given set of movement options.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RouteTable {
+	/**
+	 * Computes the table of the cheapest routes between all pairs of the given
+	 * points.
+	 * 
+	 * @param routeProvider
+	 *            The provider to compute the routes with, it must use the given
+	 *            movement options
+	 * @param movementOptions
+	 *            The movement options the routes are computed for
+	 * @param points
+	 *            The points of interest to compute the routes between
+	 * @return The table of the cheapest routes between all pairs of the points
+	 */
+	public static RouteTable compute(final IRouteProvider routeProvider, final Set<EMoveType> movementOptions,
+			final List<Point> points) {
+		final int amount = points.size();
+		final Route[][] routes = new Route[amount][amount];
+		for (int i = 0; i < amount; i++) {
+			for (int j = 0; j < amount; j++) {
+				if (i != j) {
+					routes[i][j] = routeProvider.getRoute(points.get(i), points.get(j)).orElse(null);
+				}
+			}
+		}
+		return new RouteTable(movementOptions, points, routes);
+	}
+
+	/**
+	 * Reads a table which was written by {@link #write(DataOutput)}.
+	 * 
+	 * @param input
+	 *            The input to read from
+	 * @return The table which was read
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	public static RouteTable read(final DataInput input) throws IOException {
+		final int optionsMask = input.readInt();
+		final Set<EMoveType> movementOptions = EnumSet.noneOf(EMoveType.class);
+		for (final EMoveType moveType : EMoveType.values()) {
+			if ((optionsMask & (1 << moveType.ordinal())) != 0) {
+				movementOptions.add(moveType);
+			}
+		}
+
+		final int amount = input.readInt();
+		if (amount < 0) {
+			throw new IOException("Invalid amount of points: " + amount);
+		}
+		final List<Point> points = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			points.add(new Point(input.readInt(), input.readInt()));
+		}
+
+		final Route[][] routes = new Route[amount][amount];
+		for (int i = 0; i < amount; i++) {
+			for (int j = 0; j < amount; j++) {
+				if (i != j && input.readBoolean()) {
+					routes[i][j] = Route.read(input);
+				}
+			}
+		}
+		return new RouteTable(movementOptions, points, routes);
+	}
+
+	/**
+	 * Map connecting the points of interest to their index in the table.
+	 */
+	private final Map<Point, Integer> mIndices;
+	/**
+	 * The movement options the routes were computed for.
+	 */
+	private final Set<EMoveType> mMovementOptions;
+	/**
+	 * The points of interest, in the order of their index.
+	 */
+	private final List<Point> mPoints;
+	/**
+	 * The cheapest routes between the points, indexed by source and destination.
+	 * Contains <tt>null</tt> if the destination is not reachable.
+	 */
+	private final Route[][] mRoutes;
+
+	/**
+	 * Creates a new table out of the given data.
+	 * 
+	 * @param movementOptions
+	 *            The movement options the routes were computed for
+	 * @param points
+	 *            The points of interest, in the order of their index
+	 * @param routes
+	 *            The cheapest routes between the points, indexed by source and
+	 *            destination
+	 */
+	private RouteTable(final Set<EMoveType> movementOptions, final List<Point> points, final Route[][] routes) {
+		this.mMovementOptions = Collections.unmodifiableSet(movementOptions);
+		this.mPoints = Collections.unmodifiableList(new ArrayList<>(points));
+		this.mRoutes = routes;
+		this.mIndices = new HashMap<>();
+		for (int i = 0; i < this.mPoints.size(); i++) {
+			this.mIndices.put(this.mPoints.get(i), Integer.valueOf(i));
+		}
+	}
+
+	/**
+	 * Whether the table contains the route from the given source to the given
+	 * destination, i.e. whether both are distinct points of interest of the table.
+	 * 
+	 * @param source
+	 *            The position to start at
+	 * @param destination
+	 *            The position to move to
+	 * @return <tt>True</tt> if the table contains the route, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean containsRoute(final Point source, final Point destination) {
+		return !source.equals(destination) && this.mIndices.containsKey(source)
+				&& this.mIndices.containsKey(destination);
+	}
+
+	/**
+	 * Gets the movement options the routes were computed for.
+	 * 
+	 * @return An unmodifiable set of the movement options the routes were computed
+	 *         for
+	 */
+	public Set<EMoveType> getMovementOptions() {
+		return this.mMovementOptions;
+	}
+
+	/**
+	 * Gets the points of interest of this table.
+	 * 
+	 * @return An unmodifiable list of the points of interest of this table
+	 */
+	public List<Point> getPoints() {
+		return this.mPoints;
+	}
+
+	/**
+	 * Gets the cheapest route from the given source to the given destination.
+	 * 
+	 * @param source
+	 *            The position to start at
+	 * @param destination
+	 *            The position to move to
+	 * @return The cheapest route or empty if the table does not contain it or the
+	 *         destination is not reachable
+	 */
+	public Optional<Route> getRoute(final Point source, final Point destination) {
+		if (!containsRoute(source, destination)) {
+			return Optional.empty();
+		}
+		final int sourceIndex = this.mIndices.get(source).intValue();
+		final int destinationIndex = this.mIndices.get(destination).intValue();
+		return Optional.ofNullable(this.mRoutes[sourceIndex][destinationIndex]);
+	}
+
+	/**
+	 * Writes this table to the given output. It can be read again by
+	 * {@link #read(DataInput)}.
+	 * 
+	 * @param output
+	 *            The output to write to
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	public void write(final DataOutput output) throws IOException {
+		int optionsMask = 0;
+		for (final EMoveType moveType : this.mMovementOptions) {
+			optionsMask |= 1 << moveType.ordinal();
+		}
+		output.writeInt(optionsMask);
+
+		output.writeInt(this.mPoints.size());
+		for (final Point point : this.mPoints) {
+			output.writeInt(point.x);
+			output.writeInt(point.y);
+		}
+
+		for (int i = 0; i < this.mRoutes.length; i++) {
+			for (int j = 0; j < this.mRoutes.length; j++) {
+				if (i == j) {
+					continue;
+				}
+				final Route route = this.mRoutes[i][j];
+				output.writeBoolean(route != null);
+				if (route != null) {
+					route.write(output);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+
+/**
+ * Cache of the route tables between the points of interest, one for every
+ * combination of movement options in use. Tables are computed on first use
+ * from the cached movement network and saved to disk, such that later runs
+ * only need to look routes up. All tables are discarded once the network
+ * snapshot they were computed on changes. The network is fetched and the
+ * tables are computed and saved without holding the lock of the cache, such
+ * that routines do not wait for each other while doing so.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RouteTableCache {
+	/**
+	 * File path of the route tables.
+	 */
+	private static final String FILEPATH = "routes.dat";
+	/**
+	 * The magic number every route table file starts with.
+	 */
+	private static final int MAGIC_NUMBER = 0x4B565254;
+	/**
+	 * The version of the file format, files of other versions are rejected.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Creates a copy of the given movement options which can be used as key.
+	 * 
+	 * @param movementOptions
+	 *            The movement options to copy
+	 * @return A copy of the given movement options
+	 */
+	private static Set<EMoveType> createKey(final Set<EMoveType> movementOptions) {
+		final Set<EMoveType> key = EnumSet.noneOf(EMoveType.class);
+		key.addAll(movementOptions);
+		return key;
+	}
+
+	/**
+	 * Lock which is held while saving the tables, such that only one thread
+	 * writes the file at a time.
+	 */
+	private final Object mFileLock;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The cache of the movement network the tables are computed on.
+	 */
+	private final NetworkCache mNetworkCache;
+	/**
+	 * The timestamp of the network snapshot the current tables were computed on.
+	 */
+	private long mNetworkTimestamp;
+	/**
+	 * Map connecting movement options to the table computed for them.
+	 */
+	private final Map<Set<EMoveType>, RouteTable> mTables;
+	/**
+	 * Whether the tables were already loaded from disk.
+	 */
+	private boolean mWasLoaded;
+
+	/**
+	 * Creates a new route table cache.
+	 * 
+	 * @param networkCache
+	 *            The cache of the movement network to compute tables on
+	 * @param logger
+	 *            The logger to use
+	 */
+	public RouteTableCache(final NetworkCache networkCache, final Logger logger) {
+		this.mNetworkCache = networkCache;
+		this.mLogger = logger;
+		this.mFileLock = new Object();
+		this.mTables = new HashMap<>();
+		this.mNetworkTimestamp = 0;
+		this.mWasLoaded = false;
+	}
+
+	/**
+	 * Gets the cache of the movement network the tables are computed on.
+	 * 
+	 * @return The cache of the movement network
+	 */
+	public NetworkCache getNetworkCache() {
+		return this.mNetworkCache;
+	}
+
+	/**
+	 * Gets a route provider for the given movement options. Routes between the
+	 * given points of interest are looked up in a precomputed table, all other
+	 * routes are searched on the movement network.
+	 * 
+	 * @param movementOptions
+	 *            A set containing all movement options allowed to use
+	 * @param points
+	 *            The points of interest to precompute routes between
+	 * @return The route provider or empty if the movement network is not
+	 *         available
+	 */
+	public Optional<IRouteProvider> getRouteProvider(final Set<EMoveType> movementOptions,
+			final List<Point> points) {
+		// The snapshot may get refreshed meanwhile, the network and the timestamp
+		// must both belong to the same snapshot
+		final Optional<NetworkSnapshot> snapshot = this.mNetworkCache.getSnapshot();
+		if (!snapshot.isPresent()) {
+			return Optional.empty();
+		}
+		final long networkTimestamp = snapshot.get().getTimestamp();
+		final FreewarNetwork network = this.mNetworkCache.getNetwork(snapshot.get());
+
+		final Set<EMoveType> key = createKey(movementOptions);
+		final IRouteProvider networkRouteProvider = new NetworkRouteProvider(network, key);
+		RouteTable table = getTable(key, points, networkTimestamp);
+		if (table == null) {
+			this.mLogger.logInfo("Computing route table...", Logger.TOP_LEVEL);
+			table = RouteTable.compute(networkRouteProvider, key, points);
+			if (putTable(table, networkTimestamp)) {
+				saveTables();
+			}
+			this.mLogger.logInfo("Route table computed.", Logger.FIRST_LEVEL);
+		}
+
+		return Optional.of(new TableRouteProvider(table, networkRouteProvider));
+	}
+
+	/**
+	 * Gets the table for the given movement options and points of interest.
+	 * Loads the tables from disk on first use and discards all tables if they
+	 * were computed on an other network snapshot.
+	 * 
+	 * @param key
+	 *            The movement options of the table
+	 * @param points
+	 *            The points of interest of the table
+	 * @param networkTimestamp
+	 *            The timestamp of the network snapshot the table must be computed
+	 *            on
+	 * @return The table or <tt>null</tt> if it was not computed yet
+	 */
+	private synchronized RouteTable getTable(final Set<EMoveType> key, final List<Point> points,
+			final long networkTimestamp) {
+		if (!this.mWasLoaded) {
+			loadTables();
+			this.mWasLoaded = true;
+		}
+		if (networkTimestamp != this.mNetworkTimestamp) {
+			this.mTables.clear();
+			this.mNetworkTimestamp = networkTimestamp;
+		}
+
+		final RouteTable table = this.mTables.get(key);
+		if (table == null || !table.getPoints().equals(points)) {
+			return null;
+		}
+		return table;
+	}
+
+	/**
+	 * Loads the tables saved on disk, if present and valid. Must be called while
+	 * holding the lock of the cache.
+	 */
+	private void loadTables() {
+		final File file = new File(FILEPATH);
+		if (!file.isFile()) {
+			return;
+		}
+
+		try (final DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != MAGIC_NUMBER || input.readInt() != VERSION) {
+				throw new IOException("Route tables have an unsupported format: " + FILEPATH);
+			}
+			final long networkTimestamp = input.readLong();
+			final int amount = input.readInt();
+			final Map<Set<EMoveType>, RouteTable> tables = new HashMap<>();
+			for (int i = 0; i < amount; i++) {
+				final RouteTable table = RouteTable.read(input);
+				tables.put(table.getMovementOptions(), table);
+			}
+
+			this.mNetworkTimestamp = networkTimestamp;
+			this.mTables.putAll(tables);
+		} catch (final IOException e) {
+			this.mLogger.logError("Invalid route tables, discarding them: " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Adds the given table, unless the network snapshot changed while it was
+	 * computed.
+	 * 
+	 * @param table
+	 *            The table to add
+	 * @param networkTimestamp
+	 *            The timestamp of the network snapshot the table was computed on
+	 * @return <tt>True</tt> if the table was added, <tt>false</tt> if it was
+	 *         computed on an outdated snapshot
+	 */
+	private synchronized boolean putTable(final RouteTable table, final long networkTimestamp) {
+		if (networkTimestamp != this.mNetworkTimestamp) {
+			return false;
+		}
+		this.mTables.put(table.getMovementOptions(), table);
+		return true;
+	}
+
+	/**
+	 * Saves all current tables to disk. The file is replaced atomically. The
+	 * lock of the cache is only held while copying the tables, not while
+	 * writing them.
+	 */
+	private void saveTables() {
+		synchronized (this.mFileLock) {
+			// Copy the latest state, an earlier save may have been waiting for the file
+			final long networkTimestamp;
+			final List<RouteTable> tables;
+			synchronized (this) {
+				networkTimestamp = this.mNetworkTimestamp;
+				tables = new ArrayList<>(this.mTables.values());
+			}
+
+			final File file = new File(FILEPATH);
+			final File temporaryFile = new File(FILEPATH + ".tmp");
+			try {
+				try (final DataOutputStream output = new DataOutputStream(
+						new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+					output.writeInt(MAGIC_NUMBER);
+					output.writeInt(VERSION);
+					output.writeLong(networkTimestamp);
+					output.writeInt(tables.size());
+					for (final RouteTable table : tables) {
+						table.write(output);
+					}
+				}
+				Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (final IOException e) {
+				this.mLogger.logError("IO-error while saving route tables to : " + FILEPATH, Logger.FIRST_LEVEL);
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.Optional;
+
+/**
+ * Route provider which looks routes between points of interest up in a
+ * precomputed table and only asks a fallback provider for all other routes,
+ * like the first leg from an arbitrary position.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TableRouteProvider implements IRouteProvider {
+	/**
+	 * The provider to ask for routes the table does not contain.
+	 */
+	private final IRouteProvider mFallback;
+	/**
+	 * The table to look routes up in.
+	 */
+	private final RouteTable mTable;
+
+	/**
+	 * Creates a new route provider which looks routes up in the given table.
+	 * 
+	 * @param table
+	 *            The table to look routes up in
+	 * @param fallback
+	 *            The provider to ask for routes the table does not contain
+	 */
+	public TableRouteProvider(final RouteTable table, final IRouteProvider fallback) {
+		this.mTable = table;
+		this.mFallback = fallback;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.routing.IRouteCostProvider#getCost(java.awt.Point,
+	 * java.awt.Point)
+	 */
+	@Override
+	public float getCost(final Point source, final Point destination) {
+		if (!this.mTable.containsRoute(source, destination)) {
+			return this.mFallback.getCost(source, destination);
+		}
+		final Optional<Route> route = this.mTable.getRoute(source, destination);
+		if (!route.isPresent()) {
+			return Float.POSITIVE_INFINITY;
+		}
+		return route.get().getCost();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.routing.IRouteProvider#getRoute(java.awt.Point,
+	 * java.awt.Point)
+	 */
+	@Override
+	public Optional<Route> getRoute(final Point source, final Point destination) {
+		if (!this.mTable.containsRoute(source, destination)) {
+			return this.mFallback.getRoute(source, destination);
+		}
+		return this.mTable.getRoute(source, destination);
+	}
+
+}
@@ -0,0 +1,202 @@
+package de.zabuza.kivabot.model.routing;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Planner which computes the cheapest order for visiting a set of destinations,
+ * starting at a given position. Small sets are solved exactly by dynamic
+ * programming over all subsets, larger sets fall back to a nearest neighbor
+ * tour.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TourPlanner {
+	/**
+	 * The maximal amount of destinations for which the tour gets computed exactly.
+	 * The exact computation needs time and space exponential in this amount.
+	 */
+	private static final int MAX_EXACT_DESTINATIONS = 12;
+	/**
+	 * Value which indicates that no predecessor exists.
+	 */
+	private static final int NO_PREDECESSOR = -1;
+	/**
+	 * The cost used for legs whose destination is not reachable. It is finite such
+	 * that the tour still covers all destinations, but high enough to move such
+	 * legs to the end.
+	 */
+	private static final float UNREACHABLE_COST = 1000000f;
+
+	/**
+	 * Computes the cheapest order for visiting all destinations by dynamic
+	 * programming over all subsets of destinations.
+	 * 
+	 * @param costs
+	 *            The costs of all legs, the last row contains the costs from the
+	 *            start
+	 * @param amount
+	 *            The amount of destinations
+	 * @return The indices of the destinations in the order they should be visited
+	 */
+	private static int[] computeExactOrder(final float[][] costs, final int amount) {
+		final int subsets = 1 << amount;
+		// The cheapest cost of visiting all destinations of the subset, ending at
+		// the given destination
+		final float[][] tentativeCosts = new float[subsets][amount];
+		final int[][] predecessors = new int[subsets][amount];
+		for (final float[] row : tentativeCosts) {
+			Arrays.fill(row, Float.POSITIVE_INFINITY);
+		}
+		for (int last = 0; last < amount; last++) {
+			tentativeCosts[1 << last][last] = costs[amount][last];
+			predecessors[1 << last][last] = NO_PREDECESSOR;
+		}
+
+		for (int subset = 1; subset < subsets; subset++) {
+			for (int last = 0; last < amount; last++) {
+				final float cost = tentativeCosts[subset][last];
+				if ((subset & (1 << last)) == 0 || cost == Float.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int next = 0; next < amount; next++) {
+					if ((subset & (1 << next)) != 0) {
+						continue;
+					}
+					final int nextSubset = subset | (1 << next);
+					final float nextCost = cost + costs[last][next];
+					if (nextCost < tentativeCosts[nextSubset][next]) {
+						tentativeCosts[nextSubset][next] = nextCost;
+						predecessors[nextSubset][next] = last;
+					}
+				}
+			}
+		}
+
+		// Find the cheapest end and walk the tour backwards
+		final int fullSubset = subsets - 1;
+		int last = 0;
+		for (int candidate = 1; candidate < amount; candidate++) {
+			if (tentativeCosts[fullSubset][candidate] < tentativeCosts[fullSubset][last]) {
+				last = candidate;
+			}
+		}
+
+		final int[] order = new int[amount];
+		int subset = fullSubset;
+		for (int i = amount - 1; i >= 0; i--) {
+			order[i] = last;
+			final int predecessor = predecessors[subset][last];
+			subset &= ~(1 << last);
+			last = predecessor;
+		}
+		return order;
+	}
+
+	/**
+	 * Computes an order for visiting all destinations by always moving to the
+	 * cheapest destination not visited yet.
+	 * 
+	 * @param costs
+	 *            The costs of all legs, the last row contains the costs from the
+	 *            start
+	 * @param amount
+	 *            The amount of destinations
+	 * @return The indices of the destinations in the order they should be visited
+	 */
+	private static int[] computeNearestNeighborOrder(final float[][] costs, final int amount) {
+		final boolean[] isVisited = new boolean[amount];
+		final int[] order = new int[amount];
+		int current = amount;
+		for (int i = 0; i < amount; i++) {
+			int next = NO_PREDECESSOR;
+			for (int candidate = 0; candidate < amount; candidate++) {
+				if (!isVisited[candidate]
+						&& (next == NO_PREDECESSOR || costs[current][candidate] < costs[current][next])) {
+					next = candidate;
+				}
+			}
+			isVisited[next] = true;
+			order[i] = next;
+			current = next;
+		}
+		return order;
+	}
+
+	/**
+	 * The provider to use for the cost of moving between two positions.
+	 */
+	private final IRouteCostProvider mCostProvider;
+
+	/**
+	 * Creates a new tour planner which uses the given cost provider.
+	 * 
+	 * @param costProvider
+	 *            The provider to use for the cost of moving between two positions
+	 */
+	public TourPlanner(final IRouteCostProvider costProvider) {
+		this.mCostProvider = costProvider;
+	}
+
+	/**
+	 * Plans the cheapest order for visiting all given destinations, starting at
+	 * the given position. The tour does not return to the start.
+	 * 
+	 * @param <T>
+	 *            The type of the objects which are located at the destinations
+	 * @param start
+	 *            The position to start the tour at
+	 * @param destinations
+	 *            Map connecting the objects to visit to their positions
+	 * @return A list containing all objects to visit in the order they should be
+	 *         visited
+	 */
+	public <T> List<T> planTour(final Point start, final Map<T, Point> destinations) {
+		final int amount = destinations.size();
+		if (amount == 0) {
+			return Collections.emptyList();
+		}
+
+		final List<T> objects = new ArrayList<>(amount);
+		final Point[] positions = new Point[amount];
+		for (final Entry<T, Point> entry : destinations.entrySet()) {
+			positions[objects.size()] = entry.getValue();
+			objects.add(entry.getKey());
+		}
+
+		// Collect the costs of all legs, the start is the last row
+		final float[][] costs = new float[amount + 1][amount];
+		for (int i = 0; i <= amount; i++) {
+			final Point source;
+			if (i == amount) {
+				source = start;
+			} else {
+				source = positions[i];
+			}
+			for (int j = 0; j < amount; j++) {
+				if (i != j) {
+					costs[i][j] = Math.min(this.mCostProvider.getCost(source, positions[j]), UNREACHABLE_COST);
+				}
+			}
+		}
+
+		final int[] order;
+		if (amount <= MAX_EXACT_DESTINATIONS) {
+			order = computeExactOrder(costs, amount);
+		} else {
+			order = computeNearestNeighborOrder(costs, amount);
+		}
+
+		final List<T> tour = new ArrayList<>(amount);
+		for (final int index : order) {
+			tour.add(objects.get(index));
+		}
+		return tour;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * This is the core package for routing of the model.
+ */
+package de.zabuza.kivabot.model.routing;
@@ -0,0 +1,157 @@
+package de.zabuza.kivabot.model.session;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Properties;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.sparkle.freewar.EWorld;
+
+/**
+ * Persistent store of the learned targets of the anchors which collect the
+ * resources. A target is learned the first time its anchor is found, it is
+ * replaced once the main frame offers an other target and removed once the
+ * server rejects it. Targets are stored per world as given in the page,
+ * relative to the main frame. The store is thread-safe and meant to be shared by all
+ * routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ActionTargetStore {
+	/**
+	 * Comment for the targets file.
+	 */
+	private static final String FILE_COMMENT = "Learned anchor targets of the resources for KivaBot.";
+	/**
+	 * File path of the targets.
+	 */
+	private static final String FILEPATH = "targets.ini";
+	/**
+	 * Separator between the task and the world in the key of a target.
+	 */
+	private static final String KEY_SEPARATOR = "@";
+
+	/**
+	 * Gets the key of the target of the given task in the given world.
+	 * 
+	 * @param world
+	 *            The world of the target
+	 * @param task
+	 *            The task whose resource is collected by the target
+	 * @return The key of the target
+	 */
+	private static String getKey(final EWorld world, final EKivaTask task) {
+		return task + KEY_SEPARATOR + world;
+	}
+
+	/**
+	 * Whether the targets were already loaded from the file.
+	 */
+	private boolean mIsLoaded;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * Properties object which connects the keys of tasks in a world to their
+	 * targets.
+	 */
+	private final Properties mProperties;
+
+	/**
+	 * Creates a new target store. The targets are loaded lazily on first use.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 */
+	public ActionTargetStore(final Logger logger) {
+		this.mLogger = logger;
+		this.mProperties = new Properties();
+		this.mIsLoaded = false;
+	}
+
+	/**
+	 * Gets the learned target of the anchor which collects the resource of the
+	 * given task in the given world.
+	 * 
+	 * @param world
+	 *            The world to get the target for
+	 * @param task
+	 *            The task whose resource is collected
+	 * @return If present, the learned target relative to the main frame
+	 */
+	public synchronized Optional<String> getTarget(final EWorld world, final EKivaTask task) {
+		loadTargets();
+		return Optional.ofNullable(this.mProperties.getProperty(getKey(world, task)));
+	}
+
+	/**
+	 * Removes the learned target of the given task in the given world, for
+	 * example since it was rejected by the server.
+	 * 
+	 * @param world
+	 *            The world to remove the target for
+	 * @param task
+	 *            The task whose resource is collected
+	 */
+	public synchronized void removeTarget(final EWorld world, final EKivaTask task) {
+		loadTargets();
+		if (this.mProperties.remove(getKey(world, task)) != null) {
+			saveTargets();
+		}
+	}
+
+	/**
+	 * Sets the learned target of the anchor which collects the resource of the
+	 * given task in the given world.
+	 * 
+	 * @param world
+	 *            The world to set the target for
+	 * @param task
+	 *            The task whose resource is collected
+	 * @param target
+	 *            The target relative to the main frame
+	 */
+	public synchronized void setTarget(final EWorld world, final EKivaTask task, final String target) {
+		loadTargets();
+		final Object previousTarget = this.mProperties.setProperty(getKey(world, task), target);
+		if (!target.equals(previousTarget)) {
+			saveTargets();
+		}
+	}
+
+	/**
+	 * Loads the targets from the file, if not already done.
+	 */
+	private void loadTargets() {
+		if (this.mIsLoaded) {
+			return;
+		}
+		this.mIsLoaded = true;
+
+		try (final FileInputStream fis = new FileInputStream(FILEPATH)) {
+			this.mProperties.load(fis);
+		} catch (final FileNotFoundException e) {
+			// There are no targets yet
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while loading targets from : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Saves the targets to the file.
+	 */
+	private void saveTargets() {
+		try (final FileOutputStream target = new FileOutputStream(new File(FILEPATH))) {
+			this.mProperties.store(target, FILE_COMMENT);
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while saving targets to : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+}
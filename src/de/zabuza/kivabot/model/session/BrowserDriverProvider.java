@@ -0,0 +1,95 @@
+package de.zabuza.kivabot.model.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.openqa.selenium.opera.OperaDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.safari.SafariDriver;
+
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Provider of web drivers which drive a real browser, like the Sparkle API
+ * creates them. Every acquired driver is a new one which gets quit when
+ * released.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class BrowserDriverProvider implements IWebDriverProvider {
+	/**
+	 * The browser to drive.
+	 */
+	private final EBrowser mBrowser;
+	/**
+	 * The capabilities of the browser to drive.
+	 */
+	private final DesiredCapabilities mCapabilities;
+
+	/**
+	 * Creates a new provider of web drivers which drive the given browser.
+	 * 
+	 * @param browser
+	 *            The browser to drive
+	 * @param capabilities
+	 *            The capabilities of the browser to drive
+	 */
+	public BrowserDriverProvider(final EBrowser browser, final DesiredCapabilities capabilities) {
+		this.mBrowser = browser;
+		this.mCapabilities = capabilities;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.model.session.IWebDriverProvider#acquireDriver()
+	 */
+	@Override
+	public WebDriver acquireDriver() {
+		final WebDriver driver;
+		if (this.mBrowser == EBrowser.FIREFOX) {
+			driver = new FirefoxDriver(this.mCapabilities);
+		} else if (this.mBrowser == EBrowser.CHROME) {
+			driver = new ChromeDriver(this.mCapabilities);
+		} else if (this.mBrowser == EBrowser.SAFARI) {
+			driver = new SafariDriver(this.mCapabilities);
+		} else if (this.mBrowser == EBrowser.INTERNET_EXPLORER) {
+			driver = new InternetExplorerDriver(this.mCapabilities);
+		} else if (this.mBrowser == EBrowser.OPERA) {
+			driver = new OperaDriver(this.mCapabilities);
+		} else if (this.mBrowser == EBrowser.MS_EDGE) {
+			driver = new EdgeDriver(this.mCapabilities);
+		} else {
+			throw new IllegalArgumentException("The given browser is not supported: " + this.mBrowser);
+		}
+
+		return WebDrivers.wrap(driver);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.session.IWebDriverProvider#quitDriver(org.openqa.
+	 * selenium.WebDriver)
+	 */
+	@Override
+	public void quitDriver(final WebDriver driver) {
+		driver.quit();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.session.IWebDriverProvider#releaseDriver(org.openqa.
+	 * selenium.WebDriver)
+	 */
+	@Override
+	public void releaseDriver(final WebDriver driver) {
+		driver.quit();
+	}
+}
@@ -0,0 +1,282 @@
+package de.zabuza.kivabot.model.session;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import de.zabuza.kivabot.model.routing.NetworkMovement;
+import de.zabuza.sparkle.freewar.IFreewarInstance;
+import de.zabuza.sparkle.freewar.StayLoggedInService;
+import de.zabuza.sparkle.freewar.chat.Chat;
+import de.zabuza.sparkle.freewar.chat.IChat;
+import de.zabuza.sparkle.freewar.frames.EFrame;
+import de.zabuza.sparkle.freewar.frames.FrameManager;
+import de.zabuza.sparkle.freewar.frames.IFrameManager;
+import de.zabuza.sparkle.freewar.inventory.IInventory;
+import de.zabuza.sparkle.freewar.inventory.Inventory;
+import de.zabuza.sparkle.freewar.location.ILocation;
+import de.zabuza.sparkle.freewar.location.Location;
+import de.zabuza.sparkle.freewar.movement.IMovement;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.freewar.player.IPlayer;
+import de.zabuza.sparkle.freewar.player.Player;
+import de.zabuza.sparkle.freewar.skills.ISkillManager;
+import de.zabuza.sparkle.freewar.skills.SkillManager;
+import de.zabuza.sparkle.selectors.Names;
+import de.zabuza.sparkle.webdriver.IHasWebDriver;
+
+/**
+ * Instance of a logged in account which acts like the instance of the Sparkle
+ * API but moves on a given movement network. The instance of the Sparkle API
+ * fetches the network from the wiki whenever it is created, that is on every
+ * login, this instance uses the cached network instead. All other parts are
+ * the ones of the Sparkle API.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class CachedNetworkFreewarInstance implements IFreewarInstance, IHasWebDriver {
+	/**
+	 * The chat object of this instance.
+	 */
+	private final IChat mChat;
+	/**
+	 * The web driver used by this instance.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * The frame manager of this instance.
+	 */
+	private final IFrameManager mFrameManager;
+	/**
+	 * The inventory object of this instance.
+	 */
+	private final IInventory mInventory;
+	/**
+	 * The location object of this instance.
+	 */
+	private final ILocation mLocation;
+	/**
+	 * The movement object of this instance.
+	 */
+	private final IMovement mMovement;
+	/**
+	 * The player object of this instance.
+	 */
+	private final IPlayer mPlayer;
+	/**
+	 * The object that manages the skills of this instance.
+	 */
+	private final ISkillManager mSkillManager;
+	/**
+	 * Whether the instance takes care of not being logged out due to absence.
+	 */
+	private boolean mStayLoggedIn;
+	/**
+	 * The service which takes care of not being logged out due to absence or
+	 * <tt>null</tt> if not used.
+	 */
+	private StayLoggedInService mStayLoggedInService;
+
+	/**
+	 * Creates a new instance that uses the given driver and moves on the given
+	 * network. It takes care of not being logged out due to absence.
+	 * 
+	 * @param driver
+	 *            The driver this instance should use
+	 * @param user
+	 *            The name of the user of this instance
+	 * @param network
+	 *            If present, the network to move on. If not present, moving to
+	 *            a destination is always canceled.
+	 */
+	public CachedNetworkFreewarInstance(final WebDriver driver, final String user,
+			final Optional<FreewarNetwork> network) {
+		this.mDriver = driver;
+		this.mFrameManager = new FrameManager(this.mDriver);
+
+		this.mPlayer = new Player(this.mDriver, this.mFrameManager);
+		this.mSkillManager = new SkillManager(this.mDriver, this.mFrameManager);
+		this.mInventory = new Inventory(this, this.mDriver, this.mFrameManager);
+		this.mLocation = new Location(this, this.mDriver, this.mFrameManager);
+		this.mMovement = new NetworkMovement(this.mDriver, this.mLocation, this.mInventory, this.mFrameManager,
+				network);
+		this.mChat = new Chat(this.mDriver, this.mFrameManager, user);
+
+		this.mStayLoggedIn = false;
+		this.mStayLoggedInService = null;
+		setStayLoggedIn(true);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.sparkle.freewar.IFreewarInstance#clickAnchorByContent(de.zabuza
+	 * .sparkle.freewar.frames.EFrame, java.lang.String)
+	 */
+	@Override
+	public boolean clickAnchorByContent(final EFrame frame, final String needle) {
+		this.mFrameManager.switchToFrame(frame);
+		final List<WebElement> elements = this.mDriver.findElements(By.partialLinkText(needle));
+		if (elements == null || elements.isEmpty()) {
+			return false;
+		}
+		elements.iterator().next().click();
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getChat()
+	 */
+	@Override
+	public IChat getChat() {
+		return this.mChat;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getFrameManager()
+	 */
+	@Override
+	public IFrameManager getFrameManager() {
+		return this.mFrameManager;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getInventory()
+	 */
+	@Override
+	public IInventory getInventory() {
+		return this.mInventory;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getLocation()
+	 */
+	@Override
+	public ILocation getLocation() {
+		return this.mLocation;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getMovement()
+	 */
+	@Override
+	public IMovement getMovement() {
+		return this.mMovement;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getPlayer()
+	 */
+	@Override
+	public IPlayer getPlayer() {
+		return this.mPlayer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getSessionId()
+	 */
+	@Override
+	public String getSessionId() {
+		final Cookie sessionId = this.mDriver.manage().getCookieNamed(Names.COOKIE_SESSION_ID);
+		if (sessionId == null) {
+			return null;
+		}
+		return sessionId.getValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#getSkillManager()
+	 */
+	@Override
+	public ISkillManager getSkillManager() {
+		return this.mSkillManager;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.webdriver.IHasWebDriver#getWebDriver()
+	 */
+	@Override
+	public WebDriver getWebDriver() {
+		return this.mDriver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#isStayLoggedIn()
+	 */
+	@Override
+	public boolean isStayLoggedIn() {
+		return this.mStayLoggedIn;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#refresh()
+	 */
+	@Override
+	public void refresh() {
+		this.mDriver.navigate().refresh();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#setStayLoggedIn(boolean)
+	 */
+	@Override
+	public void setStayLoggedIn(final boolean stayLoggedIn) {
+		if (this.mStayLoggedIn == stayLoggedIn) {
+			return;
+		}
+		this.mStayLoggedIn = stayLoggedIn;
+
+		if (stayLoggedIn) {
+			this.mStayLoggedInService = new StayLoggedInService(this);
+			this.mStayLoggedInService.start();
+		} else if (this.mStayLoggedInService != null) {
+			this.mStayLoggedInService.stopExecution();
+			this.mStayLoggedInService = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.freewar.IFreewarInstance#shutdown(boolean)
+	 */
+	@Override
+	public void shutdown(final boolean doQuitDriver) {
+		setStayLoggedIn(false);
+		this.mMovement.cancelMovementTask();
+
+		if (doQuitDriver) {
+			this.mDriver.quit();
+		}
+	}
+}
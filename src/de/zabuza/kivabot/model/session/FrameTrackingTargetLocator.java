@@ -0,0 +1,135 @@
+package de.zabuza.kivabot.model.session;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Target locator of a {@link FrameTrackingWebDriver}. Switches to the top level
+ * and into frames by name are passed to the driver, which skips them if
+ * redundant. All other switches are executed and mark the frame of the driver
+ * as unknown.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class FrameTrackingTargetLocator implements TargetLocator {
+	/**
+	 * The driver which tracks the frame it is in.
+	 */
+	private final FrameTrackingWebDriver mDriver;
+	/**
+	 * Target locator of the wrapped driver.
+	 */
+	private final TargetLocator mTargetLocator;
+
+	/**
+	 * Creates a new target locator of the given driver.
+	 * 
+	 * @param driver
+	 *            The driver which tracks the frame it is in
+	 * @param targetLocator
+	 *            Target locator of the driver wrapped by the given driver
+	 */
+	public FrameTrackingTargetLocator(final FrameTrackingWebDriver driver, final TargetLocator targetLocator) {
+		this.mDriver = driver;
+		this.mTargetLocator = targetLocator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#activeElement()
+	 */
+	@Override
+	public WebElement activeElement() {
+		this.mDriver.executePendingSwitch();
+		return this.mTargetLocator.activeElement();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#alert()
+	 */
+	@Override
+	public Alert alert() {
+		this.mDriver.executePendingSwitch();
+		return this.mTargetLocator.alert();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#defaultContent()
+	 */
+	@Override
+	public WebDriver defaultContent() {
+		return this.mDriver.switchToDefaultContent();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#frame(int)
+	 */
+	@Override
+	public WebDriver frame(final int index) {
+		this.mDriver.executePendingSwitch();
+		this.mDriver.invalidateContext();
+		this.mTargetLocator.frame(index);
+		return this.mDriver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#frame(java.lang.String)
+	 */
+	@Override
+	public WebDriver frame(final String nameOrId) {
+		return this.mDriver.switchToFrame(nameOrId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.openqa.selenium.WebDriver.TargetLocator#frame(org.openqa.selenium.
+	 * WebElement)
+	 */
+	@Override
+	public WebDriver frame(final WebElement frameElement) {
+		this.mDriver.executePendingSwitch();
+		this.mDriver.invalidateContext();
+		this.mTargetLocator.frame(frameElement);
+		return this.mDriver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#parentFrame()
+	 */
+	@Override
+	public WebDriver parentFrame() {
+		this.mDriver.executePendingSwitch();
+		this.mDriver.invalidateContext();
+		this.mTargetLocator.parentFrame();
+		return this.mDriver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver.TargetLocator#window(java.lang.String)
+	 */
+	@Override
+	public WebDriver window(final String nameOrHandle) {
+		this.mDriver.executePendingSwitch();
+		this.mDriver.invalidateContext();
+		this.mTargetLocator.window(nameOrHandle);
+		return this.mDriver;
+	}
+}
@@ -0,0 +1,306 @@
+package de.zabuza.kivabot.model.session;
+
+import java.util.List;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import de.zabuza.sparkle.webdriver.IWrapsWebDriver;
+
+/**
+ * Wrapper for web drivers which tracks the frame the driver is currently in and
+ * skips redundant frame switches. The Sparkle API switches to the top level and
+ * then into the desired frame before every operation, even if the driver
+ * already is in that frame. The switch to the top level is deferred until the
+ * next operation, if that operation switches back into the current frame both
+ * switches are skipped. Consecutive operations on the same frame thus do not
+ * switch at all. A frame keeps being the current frame when it navigates, only
+ * navigations of the top level reset the tracking. If an operation fails
+ * unexpectedly the frame is considered unknown and the next switch is
+ * executed.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class FrameTrackingWebDriver implements WebDriver, IWrapsWebDriver {
+	/**
+	 * The context which represents the top level, that is no frame.
+	 */
+	private static final String TOP_LEVEL = "";
+
+	/**
+	 * The name of the frame the driver is currently in, {@link #TOP_LEVEL} if
+	 * it is at the top level or <tt>null</tt> if unknown.
+	 */
+	private String mContext;
+	/**
+	 * Whether a switch to the top level was requested but not executed yet.
+	 */
+	private boolean mIsDefaultContentPending;
+	/**
+	 * Web driver to wrap for frame tracking.
+	 */
+	private final WebDriver mWebDriver;
+
+	/**
+	 * Creates a new instance of this object with a given web driver. The driver
+	 * must be at the top level.
+	 * 
+	 * @param driver
+	 *            Driver to wrap for frame tracking
+	 */
+	public FrameTrackingWebDriver(final WebDriver driver) {
+		this.mWebDriver = driver;
+		this.mContext = TOP_LEVEL;
+		this.mIsDefaultContentPending = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#close()
+	 */
+	@Override
+	public void close() {
+		executePendingSwitch();
+		invalidateContext();
+		this.mWebDriver.close();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#findElement(org.openqa.selenium.By)
+	 */
+	@Override
+	public WebElement findElement(final By by) {
+		executePendingSwitch();
+		try {
+			return this.mWebDriver.findElement(by);
+		} catch (final NoSuchElementException e) {
+			// Expected while waiting for elements, the frame is still valid
+			throw e;
+		} catch (final WebDriverException e) {
+			invalidateContext();
+			throw e;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#findElements(org.openqa.selenium.By)
+	 */
+	@Override
+	public List<WebElement> findElements(final By by) {
+		executePendingSwitch();
+		try {
+			return this.mWebDriver.findElements(by);
+		} catch (final WebDriverException e) {
+			invalidateContext();
+			throw e;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#get(java.lang.String)
+	 */
+	@Override
+	public void get(final String url) {
+		executePendingSwitch();
+		invalidateContext();
+		this.mWebDriver.get(url);
+		// Loading a page always continues at the top level
+		setContext(TOP_LEVEL);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#getCurrentUrl()
+	 */
+	@Override
+	public String getCurrentUrl() {
+		executePendingSwitch();
+		return this.mWebDriver.getCurrentUrl();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#getPageSource()
+	 */
+	@Override
+	public String getPageSource() {
+		executePendingSwitch();
+		return this.mWebDriver.getPageSource();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.webdriver.IWrapsWebDriver#getRawDriver()
+	 */
+	@Override
+	public WebDriver getRawDriver() {
+		return this.mWebDriver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#getTitle()
+	 */
+	@Override
+	public String getTitle() {
+		executePendingSwitch();
+		return this.mWebDriver.getTitle();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#getWindowHandle()
+	 */
+	@Override
+	public String getWindowHandle() {
+		executePendingSwitch();
+		return this.mWebDriver.getWindowHandle();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#getWindowHandles()
+	 */
+	@Override
+	public Set<String> getWindowHandles() {
+		executePendingSwitch();
+		return this.mWebDriver.getWindowHandles();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#manage()
+	 */
+	@Override
+	public Options manage() {
+		executePendingSwitch();
+		return this.mWebDriver.manage();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#navigate()
+	 */
+	@Override
+	public Navigation navigate() {
+		executePendingSwitch();
+		// The navigation may be executed at any time later
+		invalidateContext();
+		return this.mWebDriver.navigate();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#quit()
+	 */
+	@Override
+	public void quit() {
+		invalidateContext();
+		this.mWebDriver.quit();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.openqa.selenium.WebDriver#switchTo()
+	 */
+	@Override
+	public TargetLocator switchTo() {
+		return new FrameTrackingTargetLocator(this, this.mWebDriver.switchTo());
+	}
+
+	/**
+	 * Executes the switch to the top level if it was requested but not executed
+	 * yet. Must be called before every operation which depends on the frame the
+	 * driver is in.
+	 */
+	synchronized void executePendingSwitch() {
+		if (!this.mIsDefaultContentPending) {
+			return;
+		}
+		this.mIsDefaultContentPending = false;
+		this.mContext = null;
+		this.mWebDriver.switchTo().defaultContent();
+		this.mContext = TOP_LEVEL;
+	}
+
+	/**
+	 * Marks the frame the driver is currently in as unknown, such that the next
+	 * switch gets executed.
+	 */
+	synchronized void invalidateContext() {
+		this.mContext = null;
+	}
+
+	/**
+	 * Requests a switch to the top level. The switch is deferred until the next
+	 * operation, it is skipped if that operation switches back into the current
+	 * frame.
+	 * 
+	 * @return This driver
+	 */
+	synchronized WebDriver switchToDefaultContent() {
+		if (!TOP_LEVEL.equals(this.mContext)) {
+			this.mIsDefaultContentPending = true;
+		}
+		return this;
+	}
+
+	/**
+	 * Switches into the frame with the given name, relative to the current
+	 * frame. The switch is skipped if the driver only requested to leave that
+	 * frame before.
+	 * 
+	 * @param frameName
+	 *            The name or id of the frame to switch to
+	 * @return This driver
+	 */
+	synchronized WebDriver switchToFrame(final String frameName) {
+		if (this.mIsDefaultContentPending && frameName.equals(this.mContext)) {
+			// Leaving the frame and entering it again would not change anything
+			this.mIsDefaultContentPending = false;
+			return this;
+		}
+
+		executePendingSwitch();
+		final boolean isAtTopLevel = TOP_LEVEL.equals(this.mContext);
+		this.mContext = null;
+		this.mWebDriver.switchTo().frame(frameName);
+		// Frames of frames are not tracked
+		if (isAtTopLevel) {
+			this.mContext = frameName;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets the frame the driver is currently in.
+	 * 
+	 * @param context
+	 *            The name of the frame, {@link #TOP_LEVEL} for the top level
+	 */
+	private synchronized void setContext(final String context) {
+		this.mContext = context;
+	}
+}
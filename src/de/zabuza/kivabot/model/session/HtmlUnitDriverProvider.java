@@ -0,0 +1,90 @@
+package de.zabuza.kivabot.model.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Provider of headless web drivers which run in-process on HtmlUnit. They need
+ * neither a display nor an external browser process. Every acquired driver is
+ * a new one which gets quit when released.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class HtmlUnitDriverProvider implements IWebDriverProvider {
+	/**
+	 * Gets the version of the browser HtmlUnit emulates for the given browser.
+	 * 
+	 * @param browser
+	 *            The browser to emulate
+	 * @return The version of the browser to emulate
+	 */
+	private static BrowserVersion getBrowserVersion(final EBrowser browser) {
+		if (browser == EBrowser.CHROME) {
+			return BrowserVersion.CHROME;
+		} else if (browser == EBrowser.FIREFOX) {
+			return BrowserVersion.FIREFOX_52;
+		} else if (browser == EBrowser.INTERNET_EXPLORER) {
+			return BrowserVersion.INTERNET_EXPLORER;
+		} else if (browser == EBrowser.MS_EDGE) {
+			return BrowserVersion.EDGE;
+		} else {
+			return BrowserVersion.BEST_SUPPORTED;
+		}
+	}
+
+	/**
+	 * The version of the browser to emulate.
+	 */
+	private final BrowserVersion mBrowserVersion;
+
+	/**
+	 * Creates a new provider of headless web drivers which emulate the given
+	 * browser.
+	 * 
+	 * @param browser
+	 *            The browser to emulate
+	 */
+	public HtmlUnitDriverProvider(final EBrowser browser) {
+		this.mBrowserVersion = getBrowserVersion(browser);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.model.session.IWebDriverProvider#acquireDriver()
+	 */
+	@Override
+	public WebDriver acquireDriver() {
+		// Freewar relies on JavaScript for its frames and movement
+		return WebDrivers.wrap(new HtmlUnitDriver(this.mBrowserVersion, true));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.session.IWebDriverProvider#quitDriver(org.openqa.
+	 * selenium.WebDriver)
+	 */
+	@Override
+	public void quitDriver(final WebDriver driver) {
+		driver.quit();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.kivabot.model.session.IWebDriverProvider#releaseDriver(org.openqa.
+	 * selenium.WebDriver)
+	 */
+	@Override
+	public void releaseDriver(final WebDriver driver) {
+		driver.quit();
+	}
+}
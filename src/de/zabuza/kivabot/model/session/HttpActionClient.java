@@ -0,0 +1,238 @@
+package de.zabuza.kivabot.model.session;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import de.zabuza.sparkle.selectors.Names;
+
+/**
+ * Client which performs simple actions of an in-game session with plain HTTP
+ * requests instead of driving the browser. The session is created by the
+ * browser, the client only reuses its session cookie. Connections are pooled
+ * and kept alive, the client is thread-safe and meant to be shared by all
+ * routines. Each request carries the cookie of its own session, such that
+ * the client does not mix up the sessions of different accounts. Clicking an
+ * anchor is split into finding its target and requesting it, such that a
+ * known target can be requested directly. An action only counts as successful
+ * if the server answers with the main frame of the session, such that a login
+ * or error page is not mistaken for a successful action.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class HttpActionClient {
+	/**
+	 * The start of an anchor tag.
+	 */
+	private static final String ANCHOR_START = "<a ";
+	/**
+	 * The start of the hypertext reference attribute of an anchor.
+	 */
+	private static final String HREF_START = "href=\"";
+	/**
+	 * The time after which idle connections are closed, in seconds. Servers
+	 * close idle connections themselves after a short time, reusing them would
+	 * fail.
+	 */
+	private static final long IDLE_CONNECTION_TIMEOUT = 5;
+	/**
+	 * The class of the area description which is only contained in the main
+	 * frame of a valid session, the Sparkle API detects the main frame by it
+	 * too.
+	 */
+	private static final String MAIN_FRAME_CLASS = "areadescription";
+	/**
+	 * The maximal amount of pooled connections per host.
+	 */
+	private static final int MAX_CONNECTIONS_PER_ROUTE = 16;
+	/**
+	 * The maximal amount of pooled connections in total.
+	 */
+	private static final int MAX_CONNECTIONS_TOTAL = 64;
+	/**
+	 * The timeout for connecting and reading, in milliseconds.
+	 */
+	private static final int TIMEOUT = 10_000;
+
+	/**
+	 * Whether the given page is the main frame of a valid session, as opposed to
+	 * for example the login page or an error page.
+	 * 
+	 * @param page
+	 *            The HTML content of the page
+	 * @return <tt>True</tt> if the page is the main frame, <tt>false</tt>
+	 *         otherwise
+	 */
+	private static boolean isMainFrame(final String page) {
+		return page.contains(MAIN_FRAME_CLASS);
+	}
+
+	/**
+	 * Parses the target of the anchor with the given content from the given
+	 * page.
+	 * 
+	 * @param page
+	 *            The HTML content of the page
+	 * @param anchorText
+	 *            The text the content of the anchor starts with
+	 * @return The target of the anchor, as given in the page, or <tt>null</tt>
+	 *         if there is no such anchor or its target is malformed, for example
+	 *         since the page is truncated
+	 */
+	private static String parseAnchorTarget(final String page, final String anchorText) {
+		final String lowerCasePage = page.toLowerCase(Locale.ROOT);
+		int textIndex = page.indexOf(">" + anchorText);
+		while (textIndex != -1) {
+			final int anchorIndex = lowerCasePage.lastIndexOf(ANCHOR_START, textIndex);
+			final int tagIndex = page.lastIndexOf('<', textIndex);
+			// The text must directly be the content of the anchor
+			if (anchorIndex != -1 && anchorIndex == tagIndex) {
+				final int hrefIndex = lowerCasePage.indexOf(HREF_START, anchorIndex);
+				if (hrefIndex != -1 && hrefIndex < textIndex) {
+					final int targetStart = hrefIndex + HREF_START.length();
+					final int targetEnd = page.indexOf('"', targetStart);
+					if (targetEnd == -1) {
+						return null;
+					}
+					return page.substring(targetStart, targetEnd).replace("&amp;", "&");
+				}
+			}
+			textIndex = page.indexOf(">" + anchorText, textIndex + 1);
+		}
+		return null;
+	}
+
+	/**
+	 * The pooled HTTP client which performs the requests.
+	 */
+	private final CloseableHttpClient mClient;
+
+	/**
+	 * Creates a new client with an empty pool of connections.
+	 */
+	public HttpActionClient() {
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+		connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+		final RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(TIMEOUT)
+				.setConnectionRequestTimeout(TIMEOUT).setSocketTimeout(TIMEOUT).build();
+		this.mClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig).disableCookieManagement()
+				.evictIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.SECONDS).build();
+	}
+
+	/**
+	 * Closes the client and all pooled connections.
+	 */
+	public void close() {
+		try {
+			this.mClient.close();
+		} catch (final IOException e) {
+			// Ignore, the client is not used anymore anyway
+		}
+	}
+
+	/**
+	 * Finds the target of the anchor with the given content by requesting the
+	 * given page.
+	 * 
+	 * @param pageUrl
+	 *            The url of the page which contains the anchor
+	 * @param sessionId
+	 *            The id of the session to act with
+	 * @param anchorText
+	 *            The text the content of the anchor starts with
+	 * @return If present, the target of the anchor as given in the page,
+	 *         relative to the page. Not present if the page does not contain
+	 *         the anchor.
+	 * @throws IOException
+	 *             If an I/O-exception occurred or the server did not answer
+	 *             successfully
+	 */
+	public Optional<String> findAnchorTarget(final String pageUrl, final String sessionId, final String anchorText)
+			throws IOException {
+		return Optional.ofNullable(parseAnchorTarget(get(pageUrl, sessionId), anchorText));
+	}
+
+	/**
+	 * Requests the target of the anchor with the given content, which is like
+	 * clicking the anchor. The server only accepted the target if it answers
+	 * with the main frame of the session which does not offer the anchor
+	 * anymore. It rejected the target if the answer still offers the anchor,
+	 * for example since the target is outdated, or if the answer is not the
+	 * main frame, for example since the session is not valid anymore.
+	 * 
+	 * @param pageUrl
+	 *            The url of the page which contains the anchor
+	 * @param target
+	 *            The target of the anchor, relative to the page
+	 * @param sessionId
+	 *            The id of the session to act with
+	 * @param anchorText
+	 *            The text the content of the anchor starts with
+	 * @return <tt>True</tt> if the server accepted the target, <tt>false</tt>
+	 *         if it rejected the target
+	 * @throws IOException
+	 *             If an I/O-exception occurred or the server did not answer
+	 *             successfully
+	 */
+	public boolean requestAnchorTarget(final String pageUrl, final String target, final String sessionId,
+			final String anchorText) throws IOException {
+		final String targetUrl;
+		try {
+			targetUrl = new URI(pageUrl).resolve(target).toString();
+		} catch (final URISyntaxException | IllegalArgumentException e) {
+			throw new IOException("Invalid anchor target: " + target, e);
+		}
+		final String page = get(targetUrl, sessionId);
+		return isMainFrame(page) && parseAnchorTarget(page, anchorText) == null;
+	}
+
+	/**
+	 * Requests the given url with the cookie of the given session.
+	 * 
+	 * @param url
+	 *            The url to request
+	 * @param sessionId
+	 *            The id of the session to act with
+	 * @return The content of the response
+	 * @throws IOException
+	 *             If an I/O-exception occurred or the server did not answer
+	 *             successfully
+	 */
+	private String get(final String url, final String sessionId) throws IOException {
+		final HttpGet request = new HttpGet(url);
+		request.setHeader("Cookie", Names.COOKIE_SESSION_ID + "=" + sessionId);
+		request.setHeader(HttpHeaders.CONNECTION, "keep-alive");
+		try (final CloseableHttpResponse response = this.mClient.execute(request)) {
+			final HttpEntity entity = response.getEntity();
+			final String content;
+			if (entity == null) {
+				content = "";
+			} else {
+				content = EntityUtils.toString(entity, StandardCharsets.ISO_8859_1);
+			}
+			final int statusCode = response.getStatusLine().getStatusCode();
+			if (statusCode != HttpStatus.SC_OK) {
+				throw new IOException("Unexpected status " + statusCode + " for " + url);
+			}
+			return content;
+		}
+	}
+}
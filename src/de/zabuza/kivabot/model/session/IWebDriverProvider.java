@@ -0,0 +1,40 @@
+package de.zabuza.kivabot.model.session;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Interface for objects that provide web drivers which are used to drive a
+ * session with Freewar. A driver is exclusively used by the caller until it
+ * gets released.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IWebDriverProvider {
+	/**
+	 * Acquires a web driver which is ready to use.
+	 * 
+	 * @return The acquired web driver
+	 */
+	public WebDriver acquireDriver();
+
+	/**
+	 * Quits the given web driver which was acquired from this provider before.
+	 * Unlike {@link #releaseDriver(WebDriver)} the driver is never reused, for
+	 * example because it may still be used by a thread which did not stop. The
+	 * driver must not be used by the caller afterwards.
+	 * 
+	 * @param driver
+	 *            The web driver to quit
+	 */
+	public void quitDriver(final WebDriver driver);
+
+	/**
+	 * Releases the given web driver which was acquired from this provider
+	 * before. The driver must not be used by the caller afterwards.
+	 * 
+	 * @param driver
+	 *            The web driver to release
+	 */
+	public void releaseDriver(final WebDriver driver);
+}
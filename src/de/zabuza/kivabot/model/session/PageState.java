@@ -0,0 +1,116 @@
+package de.zabuza.kivabot.model.session;
+
+import java.awt.Point;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the state of the in-game page, as read by the
+ * {@link PageStateReader}. The snapshot is only valid until the next action
+ * which navigates a frame, for example a movement or the activation of an
+ * item. Values which could not be read, for example since their frame was
+ * not loaded yet, are not present.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PageState {
+	/**
+	 * Whether the inventory is open, only then the items are known.
+	 */
+	private final boolean mIsInventoryOpen;
+	/**
+	 * The names of all items in the inventory, including equipped ones. Empty if
+	 * the inventory is not open.
+	 */
+	private final Set<String> mItems;
+	/**
+	 * The position of the player or <tt>null</tt> if unknown.
+	 */
+	private final Point mPosition;
+	/**
+	 * The status text of the player or <tt>null</tt> if unknown.
+	 */
+	private final String mStatus;
+
+	/**
+	 * Creates a new snapshot of the state of the page.
+	 * 
+	 * @param position
+	 *            The position of the player or <tt>null</tt> if unknown
+	 * @param status
+	 *            The status text of the player or <tt>null</tt> if unknown
+	 * @param isInventoryOpen
+	 *            Whether the inventory is open, only then the items are known
+	 * @param items
+	 *            The names of all items in the inventory, including equipped
+	 *            ones. Empty if the inventory is not open.
+	 */
+	public PageState(final Point position, final String status, final boolean isInventoryOpen,
+			final Set<String> items) {
+		if (position == null) {
+			this.mPosition = null;
+		} else {
+			this.mPosition = new Point(position);
+		}
+		this.mStatus = status;
+		this.mIsInventoryOpen = isInventoryOpen;
+		this.mItems = Collections.unmodifiableSet(new HashSet<>(items));
+	}
+
+	/**
+	 * Gets the names of all items in the inventory, including equipped ones.
+	 * 
+	 * @return An unmodifiable set of the names of all items, empty if the
+	 *         inventory is not open
+	 */
+	public Set<String> getItems() {
+		return this.mItems;
+	}
+
+	/**
+	 * Gets the position of the player.
+	 * 
+	 * @return If present, the position of the player, a new point which may be
+	 *         modified
+	 */
+	public Optional<Point> getPosition() {
+		if (this.mPosition == null) {
+			return Optional.empty();
+		}
+		return Optional.of(new Point(this.mPosition));
+	}
+
+	/**
+	 * Gets the status text of the player, it lists the active effects.
+	 * 
+	 * @return If present, the status text of the player
+	 */
+	public Optional<String> getStatus() {
+		return Optional.ofNullable(this.mStatus);
+	}
+
+	/**
+	 * Whether the inventory contains the given item. Only meaningful if the
+	 * inventory is open.
+	 * 
+	 * @param item
+	 *            The name of the item
+	 * @return <tt>True</tt> if the inventory is open and contains the item,
+	 *         <tt>false</tt> otherwise
+	 */
+	public boolean hasItem(final String item) {
+		return this.mItems.contains(item);
+	}
+
+	/**
+	 * Whether the inventory is open, only then the items are known.
+	 * 
+	 * @return <tt>True</tt> if the inventory is open, <tt>false</tt> otherwise
+	 */
+	public boolean isInventoryOpen() {
+		return this.mIsInventoryOpen;
+	}
+}
@@ -0,0 +1,216 @@
+package de.zabuza.kivabot.model.session;
+
+import java.awt.Point;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import de.zabuza.sparkle.freewar.IFreewarInstance;
+import de.zabuza.sparkle.selectors.CSSSelectors;
+import de.zabuza.sparkle.selectors.Names;
+import de.zabuza.sparkle.selectors.Patterns;
+import de.zabuza.sparkle.wait.EventQueueEmptyWait;
+import de.zabuza.sparkle.webdriver.IHasWebDriver;
+import de.zabuza.sparkle.webdriver.IWrapsWebDriver;
+
+/**
+ * Utility class which reads the state of the in-game page with a single script
+ * call, instead of switching to each frame and searching each element with a
+ * separate call. The frames are read from the top window, such that the frame
+ * the driver is currently in does not matter and stays unchanged. The values
+ * are selected the same way the Sparkle API selects them. Every read executes
+ * the script again, the state is not cached since frames also change without
+ * a navigation, for example the remaining travel time. Whether the player can
+ * move is thus still checked by the movement itself.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PageStateReader {
+	/**
+	 * Index of the texts of the inventory close anchor in the result of the
+	 * script. The anchor is only present if the inventory is open.
+	 */
+	private static final int INDEX_INVENTORY_CLOSE = 2;
+	/**
+	 * Index of the texts of the items in the result of the script.
+	 */
+	private static final int INDEX_ITEMS = 3;
+	/**
+	 * Index of the texts of the position in the result of the script.
+	 */
+	private static final int INDEX_POSITION = 0;
+	/**
+	 * Index of the texts of the status in the result of the script.
+	 */
+	private static final int INDEX_STATUS = 1;
+	/**
+	 * The script which reads the texts of all elements matching the selectors
+	 * given as arguments, in the frames given as arguments. It returns one list
+	 * of texts per value.
+	 */
+	private static final String SCRIPT = "var frameDocument = function(name) {"
+			+ " try { return window.top.frames[name].document; } catch (e) { return null; } };"
+			+ "var texts = function(doc, selector) { var result = []; if (doc) {"
+			+ " var elements = doc.querySelectorAll(selector); for (var i = 0; i < elements.length; i++) {"
+			+ " var text = elements[i].innerText; if (text === undefined || text === null) {"
+			+ " text = elements[i].textContent; } result.push(text.trim()); } } return result; };"
+			+ "var map = frameDocument(arguments[0]); var item = frameDocument(arguments[1]);"
+			+ "return [texts(map, arguments[2]), texts(item, arguments[3]), texts(item, arguments[4]),"
+			+ " texts(item, arguments[5]).concat(texts(item, arguments[6]))];";
+
+	/**
+	 * Reads the state of the page of the given instance with a single script
+	 * call.
+	 * 
+	 * @param instance
+	 *            The instance to read the page of
+	 * @return If present, the state of the page. Not present if the driver of
+	 *         the instance can not execute scripts or the script failed, in
+	 *         which case the values need to be read with the Sparkle API.
+	 */
+	public static Optional<PageState> read(final IFreewarInstance instance) {
+		if (!(instance instanceof IHasWebDriver)) {
+			return Optional.empty();
+		}
+		final WebDriver driver = ((IHasWebDriver) instance).getWebDriver();
+		WebDriver rawDriver = driver;
+		while (!(rawDriver instanceof JavascriptExecutor) && rawDriver instanceof IWrapsWebDriver) {
+			rawDriver = ((IWrapsWebDriver) rawDriver).getRawDriver();
+		}
+		if (!(rawDriver instanceof JavascriptExecutor)) {
+			return Optional.empty();
+		}
+
+		final Object result;
+		try {
+			// The script bypasses the delayed driver, previous events must be processed first
+			new EventQueueEmptyWait(driver).waitUntilCondition();
+			result = ((JavascriptExecutor) rawDriver).executeScript(SCRIPT, Names.FRAME_MAP, Names.FRAME_ITEM,
+					CSSSelectors.MAP_POSITION_TEXT, CSSSelectors.ITEM_PLAYER_STATUS,
+					CSSSelectors.ITEM_INVENTORY_CLOSE_ANCHOR, CSSSelectors.ITEM_INVENTORY_ITEM_NAME,
+					CSSSelectors.ITEM_INVENTORY_ITEM_EQUIPPED_NAME);
+		} catch (final WebDriverException e) {
+			return Optional.empty();
+		}
+		if (!(result instanceof List)) {
+			return Optional.empty();
+		}
+		return Optional.of(createState((List<?>) result));
+	}
+
+	/**
+	 * Gets the position of the player of the given instance. It is read with a
+	 * single script call if possible, else with the Sparkle API.
+	 * 
+	 * @param instance
+	 *            The instance to get the position of
+	 * @return The position of the player
+	 */
+	public static Point readPosition(final IFreewarInstance instance) {
+		final Optional<PageState> state = read(instance);
+		if (state.isPresent() && state.get().getPosition().isPresent()) {
+			return state.get().getPosition().get();
+		}
+		return instance.getLocation().getPosition();
+	}
+
+	/**
+	 * Creates the state of the page from the result of the script.
+	 * 
+	 * @param result
+	 *            The result of the script, one list of texts per value
+	 * @return The state of the page
+	 */
+	private static PageState createState(final List<?> result) {
+		final String positionText = getFirstText(result, INDEX_POSITION);
+		final Point position;
+		if (positionText == null) {
+			position = null;
+		} else {
+			position = parsePosition(positionText);
+		}
+		final String status = getFirstText(result, INDEX_STATUS);
+
+		final boolean isInventoryOpen = getFirstText(result, INDEX_INVENTORY_CLOSE) != null;
+		Set<String> items = Collections.emptySet();
+		if (isInventoryOpen) {
+			items = new HashSet<>();
+			for (final Object item : getTexts(result, INDEX_ITEMS)) {
+				items.add(String.valueOf(item));
+			}
+		}
+		return new PageState(position, status, isInventoryOpen, items);
+	}
+
+	/**
+	 * Gets the first text of the value at the given index of the result of the
+	 * script.
+	 * 
+	 * @param result
+	 *            The result of the script, one list of texts per value
+	 * @param index
+	 *            The index of the value
+	 * @return The first text of the value or <tt>null</tt> if there is none
+	 */
+	private static String getFirstText(final List<?> result, final int index) {
+		final List<?> texts = getTexts(result, index);
+		if (texts.isEmpty() || texts.get(0) == null) {
+			return null;
+		}
+		return String.valueOf(texts.get(0));
+	}
+
+	/**
+	 * Gets the texts of the value at the given index of the result of the script.
+	 * 
+	 * @param result
+	 *            The result of the script, one list of texts per value
+	 * @param index
+	 *            The index of the value
+	 * @return The texts of the value, empty if there are none
+	 */
+	private static List<?> getTexts(final List<?> result, final int index) {
+		if (index >= result.size() || !(result.get(index) instanceof List)) {
+			return Collections.emptyList();
+		}
+		return (List<?>) result.get(index);
+	}
+
+	/**
+	 * Parses the position from the given position text, which has the format
+	 * <tt>Position X: 508 Y: -57</tt>.
+	 * 
+	 * @param positionText
+	 *            The text to parse
+	 * @return The parsed position or <tt>null</tt> if the text does not contain
+	 *         a position
+	 */
+	private static Point parsePosition(final String positionText) {
+		final Matcher matcher = Pattern.compile(Patterns.INTEGER).matcher(positionText);
+		if (!matcher.find()) {
+			return null;
+		}
+		final int x = Integer.parseInt(matcher.group());
+		if (!matcher.find()) {
+			return null;
+		}
+		final int y = Integer.parseInt(matcher.group());
+		return new Point(x, y);
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private PageStateReader() {
+
+	}
+}
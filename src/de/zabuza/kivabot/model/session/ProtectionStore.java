@@ -0,0 +1,139 @@
+package de.zabuza.kivabot.model.session;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Properties;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
+
+/**
+ * Persistent store of the estimated expiry of the protection of accounts. As
+ * long as the estimated expiry is not reached the protection does not need to
+ * be checked again. Expiries are stored as milliseconds since the epoch. The
+ * store is thread-safe and meant to be shared by all routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ProtectionStore {
+	/**
+	 * Comment for the protection file.
+	 */
+	private static final String FILE_COMMENT = "Estimated protection expiries of the accounts for KivaBot.";
+	/**
+	 * File path of the protection expiries.
+	 */
+	private static final String FILEPATH = "protection.ini";
+
+	/**
+	 * Whether the expiries were already loaded from the file.
+	 */
+	private boolean mIsLoaded;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * Properties object which connects the keys of accounts to the estimated
+	 * expiries of their protection.
+	 */
+	private final Properties mProperties;
+
+	/**
+	 * Creates a new protection store. The expiries are loaded lazily on first
+	 * use.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 */
+	public ProtectionStore(final Logger logger) {
+		this.mLogger = logger;
+		this.mProperties = new Properties();
+		this.mIsLoaded = false;
+	}
+
+	/**
+	 * Gets the estimated expiry of the protection of the given account.
+	 * 
+	 * @param account
+	 *            The account to get the expiry of
+	 * @return If present, the estimated expiry of the protection in
+	 *         milliseconds since the epoch
+	 */
+	public synchronized Optional<Long> getExpiry(final Account account) {
+		loadExpiries();
+		final String expiry = this.mProperties.getProperty(account.getKey());
+		if (expiry == null) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(Long.valueOf(expiry));
+		} catch (final NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Removes the estimated expiry of the protection of the given account, for
+	 * example since the protection is known to be missing.
+	 * 
+	 * @param account
+	 *            The account to remove the expiry of
+	 */
+	public synchronized void removeExpiry(final Account account) {
+		loadExpiries();
+		if (this.mProperties.remove(account.getKey()) != null) {
+			saveExpiries();
+		}
+	}
+
+	/**
+	 * Sets the estimated expiry of the protection of the given account.
+	 * 
+	 * @param account
+	 *            The account to set the expiry of
+	 * @param expiry
+	 *            The estimated expiry of the protection in milliseconds since
+	 *            the epoch
+	 */
+	public synchronized void setExpiry(final Account account, final long expiry) {
+		loadExpiries();
+		this.mProperties.setProperty(account.getKey(), Long.toString(expiry));
+		saveExpiries();
+	}
+
+	/**
+	 * Loads the expiries from the file, if not already done.
+	 */
+	private void loadExpiries() {
+		if (this.mIsLoaded) {
+			return;
+		}
+		this.mIsLoaded = true;
+
+		try (final FileInputStream fis = new FileInputStream(FILEPATH)) {
+			this.mProperties.load(fis);
+		} catch (final FileNotFoundException e) {
+			// There are no expiries yet
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while loading protection expiries from : " + FILEPATH,
+					Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Saves the expiries to the file.
+	 */
+	private void saveExpiries() {
+		try (final FileOutputStream target = new FileOutputStream(new File(FILEPATH))) {
+			this.mProperties.store(target, FILE_COMMENT);
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while saving protection expiries to : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+}
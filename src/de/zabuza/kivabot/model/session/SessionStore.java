@@ -0,0 +1,127 @@
+package de.zabuza.kivabot.model.session;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Properties;
+
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
+
+/**
+ * Persistent store of the last valid session ids of accounts. A stored session
+ * can be resumed by the next routine of the account instead of logging in
+ * again. The store is thread-safe and meant to be shared by all routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SessionStore {
+	/**
+	 * Comment for the session file.
+	 */
+	private static final String FILE_COMMENT = "Sessions of the accounts for KivaBot.";
+	/**
+	 * File path of the sessions.
+	 */
+	private static final String FILEPATH = "sessions.ini";
+
+	/**
+	 * Whether the sessions were already loaded from the file.
+	 */
+	private boolean mIsLoaded;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * Properties object which connects the keys of accounts to their session ids.
+	 */
+	private final Properties mProperties;
+
+	/**
+	 * Creates a new session store. The sessions are loaded lazily on first use.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 */
+	public SessionStore(final Logger logger) {
+		this.mLogger = logger;
+		this.mProperties = new Properties();
+		this.mIsLoaded = false;
+	}
+
+	/**
+	 * Gets the id of the last valid session of the given account.
+	 * 
+	 * @param account
+	 *            The account to get the session of
+	 * @return If present, the id of the last valid session of the account
+	 */
+	public synchronized Optional<String> getSessionId(final Account account) {
+		loadSessions();
+		return Optional.ofNullable(this.mProperties.getProperty(account.getKey()));
+	}
+
+	/**
+	 * Removes the session of the given account, for example since it is not valid
+	 * anymore.
+	 * 
+	 * @param account
+	 *            The account to remove the session of
+	 */
+	public synchronized void removeSessionId(final Account account) {
+		loadSessions();
+		if (this.mProperties.remove(account.getKey()) != null) {
+			saveSessions();
+		}
+	}
+
+	/**
+	 * Sets the id of the last valid session of the given account.
+	 * 
+	 * @param account
+	 *            The account to set the session of
+	 * @param sessionId
+	 *            The id of the session
+	 */
+	public synchronized void setSessionId(final Account account, final String sessionId) {
+		loadSessions();
+		final Object previousSessionId = this.mProperties.setProperty(account.getKey(), sessionId);
+		if (!sessionId.equals(previousSessionId)) {
+			saveSessions();
+		}
+	}
+
+	/**
+	 * Loads the sessions from the file, if not already done.
+	 */
+	private void loadSessions() {
+		if (this.mIsLoaded) {
+			return;
+		}
+		this.mIsLoaded = true;
+
+		try (final FileInputStream fis = new FileInputStream(FILEPATH)) {
+			this.mProperties.load(fis);
+		} catch (final FileNotFoundException e) {
+			// There are no sessions yet
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while loading sessions from : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Saves the sessions to the file.
+	 */
+	private void saveSessions() {
+		try (final FileOutputStream target = new FileOutputStream(new File(FILEPATH))) {
+			this.mProperties.store(target, FILE_COMMENT);
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while saving sessions to : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+}
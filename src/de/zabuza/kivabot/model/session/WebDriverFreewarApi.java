@@ -0,0 +1,396 @@
+package de.zabuza.kivabot.model.session;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import de.zabuza.kivabot.model.routing.NetworkCache;
+import de.zabuza.sparkle.IFreewarAPI;
+import de.zabuza.sparkle.Sparkle;
+import de.zabuza.sparkle.freewar.EWorld;
+import de.zabuza.sparkle.freewar.IFreewarInstance;
+import de.zabuza.sparkle.selectors.CSSSelectors;
+import de.zabuza.sparkle.selectors.Names;
+import de.zabuza.sparkle.selectors.Paths;
+import de.zabuza.sparkle.wait.CSSSelectorPresenceWait;
+import de.zabuza.sparkle.wait.EventQueueEmptyWait;
+import de.zabuza.sparkle.wait.FramePresenceWait;
+import de.zabuza.sparkle.wait.LoginFormWait;
+import de.zabuza.sparkle.wait.LoginPopupWait;
+import de.zabuza.sparkle.wait.TimedWait;
+import de.zabuza.sparkle.webdriver.EBrowser;
+import de.zabuza.sparkle.webdriver.IHasWebDriver;
+
+/**
+ * Freewar API which acts like the Sparkle API but gets its web drivers from a
+ * given provider instead of creating them for a browser. The web driver of an
+ * instance is always given back to the provider when the instance is shut
+ * down, the provider decides whether the driver gets quit or not, unless the
+ * caller demands it to be quit. The
+ * capabilities of the drivers are determined by the provider too. The game
+ * worlds can be reached at a different domain than the official one, for
+ * example at a local mock server. Instances move on the cached movement
+ * network instead of fetching the network from the wiki on every login.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverFreewarApi implements IFreewarAPI {
+	/**
+	 * Time to wait between typing in the name and the password of the user, in
+	 * milliseconds.
+	 */
+	private static final long LOGIN_TYPE_WAIT = 200;
+	/**
+	 * The path of the main frame of the game, relative to the world domain.
+	 */
+	private static final String MAIN_FRAME_PATH = "freewar/internal/main.php";
+
+	/**
+	 * The browser the drivers act like.
+	 */
+	private EBrowser mBrowser;
+	/**
+	 * The provider of the web drivers.
+	 */
+	private final IWebDriverProvider mDriverProvider;
+	/**
+	 * A set containing all instances which were created by this API and are not
+	 * shut down yet.
+	 */
+	private final Set<IFreewarInstance> mInstances;
+	/**
+	 * The cache of the movement network the instances move on.
+	 */
+	private final NetworkCache mNetworkCache;
+	/**
+	 * The full domain url to reach the game worlds at or <tt>null</tt> if the
+	 * official domains are used.
+	 */
+	private final String mWorldDomain;
+
+	/**
+	 * Creates a new Freewar API which gets its web drivers from the given
+	 * provider.
+	 * 
+	 * @param driverProvider
+	 *            The provider of the web drivers
+	 * @param browser
+	 *            The browser the drivers act like
+	 * @param worldDomain
+	 *            The full domain url to reach the game worlds at or <tt>null</tt>
+	 *            if the official domains should be used
+	 * @param networkCache
+	 *            The cache of the movement network the instances move on
+	 */
+	public WebDriverFreewarApi(final IWebDriverProvider driverProvider, final EBrowser browser,
+			final String worldDomain, final NetworkCache networkCache) {
+		this.mDriverProvider = driverProvider;
+		this.mBrowser = browser;
+		this.mWorldDomain = worldDomain;
+		this.mNetworkCache = networkCache;
+		this.mInstances = new LinkedHashSet<>();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#createCapabilities(de.zabuza.sparkle.
+	 * webdriver.EBrowser, java.lang.String, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public DesiredCapabilities createCapabilities(final EBrowser browser, final String driverPath,
+			final String binaryPath, final String userProfile) {
+		return new Sparkle(browser).createCapabilities(browser, driverPath, binaryPath, userProfile);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#getBrowser()
+	 */
+	@Override
+	public EBrowser getBrowser() {
+		return this.mBrowser;
+	}
+
+	/**
+	 * Gets the url of the main frame of the given world, the frame which offers
+	 * the actions at the current position of the player.
+	 * 
+	 * @param world
+	 *            The world to get the url for
+	 * @return The url of the main frame of the given world
+	 */
+	public String getMainFrameUrl(final EWorld world) {
+		return getFullWorldDomain(world) + MAIN_FRAME_PATH;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#hijackSession(java.lang.String,
+	 * java.lang.String, de.zabuza.sparkle.freewar.EWorld)
+	 */
+	@Override
+	public IFreewarInstance hijackSession(final String sessionId, final String username, final EWorld world) {
+		// Validate user credentials
+		if (sessionId == null || sessionId.isEmpty() || username == null || username.isEmpty() || world == null) {
+			return null;
+		}
+
+		final WebDriver driver = this.mDriverProvider.acquireDriver();
+		try {
+			// Connect to login form as cookies can not be set at the blank
+			// starting page
+			final String fullWorldDomain = getFullWorldDomain(world);
+			driver.get(fullWorldDomain + Paths.LOGIN);
+			new LoginFormWait(driver).waitUntilCondition();
+
+			// Apply the session cookie, a different domain is the current one
+			final String domain;
+			if (this.mWorldDomain == null) {
+				domain = Paths.getHostDomain(world);
+			} else {
+				domain = null;
+			}
+			final Cookie sessionCookie = new Cookie(Names.COOKIE_SESSION_ID, sessionId, domain, null, null);
+			driver.manage().addCookie(sessionCookie);
+
+			// Connect to the in-game page, if the session is valid then the
+			// instance is ready now
+			driver.get(fullWorldDomain + Paths.IN_GAME);
+
+			return createInstance(driver, username);
+		} catch (final RuntimeException e) {
+			this.mDriverProvider.releaseDriver(driver);
+			throw e;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#login(java.lang.String,
+	 * java.lang.String, de.zabuza.sparkle.freewar.EWorld)
+	 */
+	@Override
+	public IFreewarInstance login(final String username, final String password, final EWorld world) {
+		// Validate arguments
+		if (username == null || username.isEmpty() || password == null || password.isEmpty() || world == null) {
+			return null;
+		}
+
+		final WebDriver driver = this.mDriverProvider.acquireDriver();
+		try {
+			// Connect to login form
+			driver.get(getFullWorldDomain(world) + Paths.LOGIN);
+
+			// Wait for form elements and get them
+			final WebElement loginSubmit = new LoginFormWait(driver).waitUntilCondition();
+			final WebElement loginName = driver.findElement(By.cssSelector(CSSSelectors.LOGIN_FORM_NAME));
+			final WebElement loginPassword = driver.findElement(By.cssSelector(CSSSelectors.LOGIN_FORM_PASSWORD));
+
+			// Type in user credentials
+			loginName.clear();
+			loginName.sendKeys(username);
+			new TimedWait(driver, LOGIN_TYPE_WAIT).waitUntilCondition();
+			loginPassword.clear();
+			loginPassword.sendKeys(password);
+
+			// Submit form and close all pop-ups if existent
+			final String parentWindow = driver.getWindowHandle();
+			loginSubmit.click();
+			boolean isThereAPopup;
+			try {
+				new LoginPopupWait(driver).waitUntilCondition();
+				isThereAPopup = true;
+			} catch (final TimeoutException e) {
+				isThereAPopup = false;
+			}
+			if (isThereAPopup) {
+				for (final String window : driver.getWindowHandles()) {
+					if (!window.equals(parentWindow)) {
+						driver.switchTo().window(window);
+						driver.close();
+					}
+				}
+				driver.switchTo().window(parentWindow);
+
+				final WebElement popupContinue = driver.findElement(By.cssSelector(CSSSelectors.LOGIN_POPUP_CONTINUE));
+				popupContinue.click();
+			}
+
+			return createInstance(driver, username);
+		} catch (final RuntimeException e) {
+			this.mDriverProvider.releaseDriver(driver);
+			throw e;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.sparkle.IFreewarAPI#logout(de.zabuza.sparkle.freewar.IFreewarInstance,
+	 * boolean)
+	 */
+	@Override
+	public void logout(final IFreewarInstance instance, final boolean doQuitDriver) {
+		try {
+			if (instance instanceof IHasWebDriver) {
+				final WebDriver driver = ((IHasWebDriver) instance).getWebDriver();
+				// Wait for events to be processed before switching frames
+				new EventQueueEmptyWait(driver).waitUntilCondition();
+				driver.switchTo().defaultContent();
+
+				// Click logout in the menu
+				new FramePresenceWait(driver, Names.FRAME_MENU).waitUntilCondition();
+				driver.switchTo().frame(Names.FRAME_MENU);
+				final WebElement logout = driver.findElement(By.cssSelector(CSSSelectors.MENU_LOGOUT_ANCHOR));
+				logout.click();
+
+				// Confirm the logout in the map
+				new EventQueueEmptyWait(driver).waitUntilCondition();
+				driver.switchTo().defaultContent();
+				driver.switchTo().frame(Names.FRAME_MAP);
+				final WebElement surelyLogout = new CSSSelectorPresenceWait(driver,
+						CSSSelectors.MAP_SURELY_LOGOUT_ANCHOR).waitUntilCondition();
+				surelyLogout.click();
+
+				// Wait for the logout to be fully executed
+				new LoginFormWait(driver).waitUntilCondition();
+			}
+		} finally {
+			shutdownInstance(instance, doQuitDriver);
+		}
+	}
+
+	/**
+	 * Resumes the given session like {@link #hijackSession(String, String, EWorld)}
+	 * does but additionally verifies that the session is still valid, that is
+	 * that the in-game page is displayed.
+	 * 
+	 * @param sessionId
+	 *            The id of the session to resume
+	 * @param username
+	 *            The name of the user the session is valid for
+	 * @param world
+	 *            The world the session is valid for
+	 * @return The instance of the resumed session or empty if the session is not
+	 *         valid anymore
+	 */
+	public Optional<IFreewarInstance> resumeSession(final String sessionId, final String username,
+			final EWorld world) {
+		final IFreewarInstance instance = hijackSession(sessionId, username, world);
+		if (instance == null) {
+			return Optional.empty();
+		}
+
+		try {
+			// An invalid session redirects to the login page which has no frames
+			new FramePresenceWait(((IHasWebDriver) instance).getWebDriver(), Names.FRAME_MAP).waitUntilCondition();
+		} catch (final TimeoutException e) {
+			shutdownInstance(instance, false);
+			return Optional.empty();
+		}
+		return Optional.of(instance);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#setBrowser(de.zabuza.sparkle.webdriver.
+	 * EBrowser)
+	 */
+	@Override
+	public void setBrowser(final EBrowser browser) {
+		this.mBrowser = browser;
+	}
+
+	/**
+	 * Has no effect. The capabilities of the drivers are determined by the
+	 * provider of the web drivers, for example from the browser settings.
+	 * 
+	 * @param capabilities
+	 *            Ignored
+	 */
+	@Override
+	public void setCapabilities(final DesiredCapabilities capabilities) {
+		// The provider determines the capabilities of its drivers
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.sparkle.IFreewarAPI#shutdown(boolean)
+	 */
+	@Override
+	public void shutdown(final boolean doQuitDriver) {
+		for (final IFreewarInstance instance : new LinkedHashSet<>(this.mInstances)) {
+			shutdownInstance(instance, doQuitDriver);
+		}
+	}
+
+	/**
+	 * Creates an instance which uses the given web driver and registers it.
+	 * 
+	 * @param driver
+	 *            The web driver the instance uses
+	 * @param username
+	 *            The name of the user the instance acts with
+	 * @return The created instance
+	 */
+	private IFreewarInstance createInstance(final WebDriver driver, final String username) {
+		final IFreewarInstance instance = new CachedNetworkFreewarInstance(driver, username,
+				this.mNetworkCache.getNetwork());
+		this.mInstances.add(instance);
+		return instance;
+	}
+
+	/**
+	 * Gets the full domain url to reach the given world at.
+	 * 
+	 * @param world
+	 *            The world to get the domain of
+	 * @return The full domain url to reach the given world at
+	 */
+	private String getFullWorldDomain(final EWorld world) {
+		if (this.mWorldDomain == null) {
+			return Paths.getFullWorldDomain(world);
+		}
+		return this.mWorldDomain;
+	}
+
+	/**
+	 * Shuts the given instance down and gives its web driver back to the
+	 * provider, if not already done.
+	 * 
+	 * @param instance
+	 *            The instance to shut down
+	 * @param doQuitDriver
+	 *            Whether the web driver must be quit instead of being given back
+	 *            for reuse, for example because it may still be in use
+	 */
+	private void shutdownInstance(final IFreewarInstance instance, final boolean doQuitDriver) {
+		if (instance == null || !this.mInstances.remove(instance)) {
+			return;
+		}
+		instance.shutdown(false);
+		if (instance instanceof IHasWebDriver) {
+			final WebDriver driver = ((IHasWebDriver) instance).getWebDriver();
+			if (doQuitDriver) {
+				this.mDriverProvider.quitDriver(driver);
+			} else {
+				this.mDriverProvider.releaseDriver(driver);
+			}
+		}
+	}
+}
@@ -0,0 +1,378 @@
+package de.zabuza.kivabot.model.session;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import de.zabuza.kivabot.model.IBrowserSettingsProvider;
+import de.zabuza.kivabot.model.TaskThreadFactory;
+import de.zabuza.sparkle.Sparkle;
+import de.zabuza.sparkle.wait.EventQueueEmptyWait;
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Pool of warm web drivers which are reused across routines instead of
+ * starting a new browser every time. The drivers are pooled by the browser,
+ * whether they are headless, the paths to the driver and the binary of the
+ * browser and the user profile. A released driver is health-checked and
+ * cleaned, it is only kept if it is still usable and the pool has space left
+ * for it. Idle drivers which were not used for a while get quit periodically,
+ * even if the pool is not used anymore. Drivers which may still be used by a
+ * thread that did not stop are quit instead of being released to the pool. The
+ * pool is thread-safe and meant to be shared by all routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverPool {
+	/**
+	 * The page a released driver is reset to.
+	 */
+	private static final String BLANK_PAGE = "about:blank";
+	/**
+	 * The separator used between the information of a pool key.
+	 */
+	private static final String KEY_SEPARATOR = "@";
+	/**
+	 * The maximal amount of idle drivers kept per key.
+	 */
+	private static final int MAX_IDLE_DRIVERS_PER_KEY = 2;
+	/**
+	 * The maximal time a driver is kept idle before it gets quit, in
+	 * milliseconds.
+	 */
+	private static final long MAX_IDLE_TIME = 10 * 60 * 1000;
+	/**
+	 * The interval in which idle drivers are checked for expiry, in
+	 * milliseconds.
+	 */
+	private static final long REAP_INTERVAL = 60 * 1000;
+	/**
+	 * The prefix of the name of the thread which quits expired idle drivers.
+	 */
+	private static final String THREAD_NAME_PREFIX = "WebDriverPoolReaper-";
+
+	/**
+	 * Whether the given driver is still usable. A driver is not usable anymore if
+	 * its browser was closed or crashed.
+	 * 
+	 * @param driver
+	 *            The driver in question
+	 * @return <tt>True</tt> if the driver is still usable, <tt>false</tt>
+	 *         otherwise
+	 */
+	private static boolean isHealthy(final WebDriver driver) {
+		try {
+			driver.getWindowHandle();
+			return true;
+		} catch (final WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Quits the given driver using the given provider which created it. Errors
+	 * are ignored since the driver may already be broken.
+	 * 
+	 * @param driver
+	 *            The driver to quit
+	 * @param factory
+	 *            The provider which created the driver
+	 */
+	private static void quitDriver(final WebDriver driver, final IWebDriverProvider factory) {
+		try {
+			factory.quitDriver(driver);
+		} catch (final WebDriverException e) {
+			// Driver is already broken, nothing to do
+		}
+	}
+
+	/**
+	 * Quits the given drivers using the providers which created them.
+	 * 
+	 * @param driversToFactories
+	 *            Map which connects the drivers to quit to the providers which
+	 *            created them
+	 */
+	private static void quitDrivers(final Map<WebDriver, IWebDriverProvider> driversToFactories) {
+		for (final Entry<WebDriver, IWebDriverProvider> entry : driversToFactories.entrySet()) {
+			quitDriver(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Map which connects idle drivers to the provider which created them.
+	 */
+	private final Map<WebDriver, IWebDriverProvider> mFactories;
+	/**
+	 * Map which connects keys to their idle drivers. The most recently released
+	 * driver is at the front.
+	 */
+	private final Map<String, Deque<WebDriver>> mIdleDrivers;
+	/**
+	 * Map which connects idle drivers to the point in time they got released,
+	 * in milliseconds.
+	 */
+	private final Map<WebDriver, Long> mIdleSince;
+	/**
+	 * Whether the pool was shut down.
+	 */
+	private boolean mIsShutdown;
+	/**
+	 * Timer which periodically quits expired idle drivers.
+	 */
+	private final ScheduledExecutorService mReaper;
+
+	/**
+	 * Creates a new empty pool of web drivers. Expired idle drivers are quit
+	 * periodically until the pool is shut down.
+	 */
+	public WebDriverPool() {
+		this.mIdleDrivers = new HashMap<>();
+		this.mIdleSince = new IdentityHashMap<>();
+		this.mFactories = new IdentityHashMap<>();
+		this.mIsShutdown = false;
+
+		this.mReaper = new ScheduledThreadPoolExecutor(1, new TaskThreadFactory(THREAD_NAME_PREFIX));
+		this.mReaper.scheduleWithFixedDelay(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				reapExpiredDrivers();
+			}
+		}, REAP_INTERVAL, REAP_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the amount of drivers which are currently idle in the pool, over all
+	 * keys.
+	 * 
+	 * @return The amount of idle drivers
+	 */
+	public synchronized int getIdleDriverCount() {
+		return this.mFactories.size();
+	}
+
+	/**
+	 * Gets a provider which acquires drivers for the given browser from the pool.
+	 * Drivers are only created if there is no idle driver available and released
+	 * drivers are given back to the pool.
+	 * 
+	 * @param browser
+	 *            The browser to drive or to emulate if headless
+	 * @param headless
+	 *            Whether the drivers should be headless in-process browsers
+	 * @param browserSettingsProvider
+	 *            The provider of the settings of the browser
+	 * @return A provider which acquires drivers from the pool
+	 */
+	public IWebDriverProvider getProvider(final EBrowser browser, final boolean headless,
+			final IBrowserSettingsProvider browserSettingsProvider) {
+		final IWebDriverProvider factory;
+		if (headless) {
+			factory = new HtmlUnitDriverProvider(browser);
+		} else {
+			final DesiredCapabilities capabilities = new Sparkle(browser).createCapabilities(browser,
+					browserSettingsProvider.getDriverForBrowser(browser), browserSettingsProvider.getBrowserBinary(),
+					browserSettingsProvider.getUserProfile());
+			factory = new BrowserDriverProvider(browser, capabilities);
+		}
+		final String key = browser + KEY_SEPARATOR + headless + KEY_SEPARATOR
+				+ browserSettingsProvider.getDriverForBrowser(browser) + KEY_SEPARATOR
+				+ browserSettingsProvider.getBrowserBinary() + KEY_SEPARATOR + browserSettingsProvider.getUserProfile();
+
+		return new IWebDriverProvider() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.kivabot.model.session.IWebDriverProvider#acquireDriver()
+			 */
+			@Override
+			public WebDriver acquireDriver() {
+				return WebDriverPool.this.acquireDriver(key, factory);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.kivabot.model.session.IWebDriverProvider#quitDriver(org.
+			 * openqa.selenium.WebDriver)
+			 */
+			@Override
+			public void quitDriver(final WebDriver driver) {
+				WebDriverPool.quitDriver(driver, factory);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.kivabot.model.session.IWebDriverProvider#releaseDriver(org.
+			 * openqa.selenium.WebDriver)
+			 */
+			@Override
+			public void releaseDriver(final WebDriver driver) {
+				WebDriverPool.this.releaseDriver(key, factory, driver);
+			}
+		};
+	}
+
+	/**
+	 * Shuts the pool down by quitting all idle drivers. Drivers which are
+	 * released afterwards get quit directly.
+	 */
+	public void shutdown() {
+		this.mReaper.shutdownNow();
+
+		final Map<WebDriver, IWebDriverProvider> idleDrivers;
+		synchronized (this) {
+			this.mIsShutdown = true;
+			idleDrivers = new IdentityHashMap<>(this.mFactories);
+			this.mIdleDrivers.clear();
+			this.mIdleSince.clear();
+			this.mFactories.clear();
+		}
+		quitDrivers(idleDrivers);
+	}
+
+	/**
+	 * Acquires a driver for the given key. Uses the most recently released idle
+	 * driver which is still usable or creates a new one using the given provider.
+	 * 
+	 * @param key
+	 *            The key of the driver
+	 * @param factory
+	 *            The provider which creates drivers for the key
+	 * @return The acquired driver
+	 */
+	private WebDriver acquireDriver(final String key, final IWebDriverProvider factory) {
+		while (true) {
+			final Map<WebDriver, IWebDriverProvider> expiredDrivers;
+			final WebDriver idleDriver;
+			final IWebDriverProvider idleFactory;
+			synchronized (this) {
+				expiredDrivers = removeExpiredDrivers();
+				final Deque<WebDriver> idleDrivers = this.mIdleDrivers.get(key);
+				if (idleDrivers == null || idleDrivers.isEmpty()) {
+					idleDriver = null;
+					idleFactory = null;
+				} else {
+					idleDriver = idleDrivers.pollFirst();
+					this.mIdleSince.remove(idleDriver);
+					idleFactory = this.mFactories.remove(idleDriver);
+				}
+			}
+			quitDrivers(expiredDrivers);
+
+			if (idleDriver == null) {
+				break;
+			}
+			if (isHealthy(idleDriver)) {
+				return idleDriver;
+			}
+			quitDriver(idleDriver, idleFactory);
+		}
+
+		return factory.acquireDriver();
+	}
+
+	/**
+	 * Quits all idle drivers which were not used for longer than the maximal
+	 * idle time.
+	 */
+	private void reapExpiredDrivers() {
+		final Map<WebDriver, IWebDriverProvider> expiredDrivers;
+		synchronized (this) {
+			expiredDrivers = removeExpiredDrivers();
+		}
+		quitDrivers(expiredDrivers);
+	}
+
+	/**
+	 * Removes all idle drivers which were not used for longer than the maximal
+	 * idle time from the pool. The caller must hold the lock of the pool and is
+	 * responsible for quitting the removed drivers.
+	 * 
+	 * @return Map which connects the removed drivers to the providers which
+	 *         created them
+	 */
+	private Map<WebDriver, IWebDriverProvider> removeExpiredDrivers() {
+		final Map<WebDriver, IWebDriverProvider> expiredDrivers = new IdentityHashMap<>();
+		final long now = System.currentTimeMillis();
+		for (final Deque<WebDriver> idleDrivers : this.mIdleDrivers.values()) {
+			final Iterator<WebDriver> driverIter = idleDrivers.iterator();
+			while (driverIter.hasNext()) {
+				final WebDriver driver = driverIter.next();
+				if (now - this.mIdleSince.get(driver).longValue() > MAX_IDLE_TIME) {
+					driverIter.remove();
+					this.mIdleSince.remove(driver);
+					expiredDrivers.put(driver, this.mFactories.remove(driver));
+				}
+			}
+		}
+		return expiredDrivers;
+	}
+
+	/**
+	 * Releases the given driver of the given key. The driver is cleaned and kept
+	 * as idle driver if it is still usable and the pool has space left, else it
+	 * gets quit.
+	 * 
+	 * @param key
+	 *            The key of the driver
+	 * @param factory
+	 *            The provider which created the driver
+	 * @param driver
+	 *            The driver to release
+	 */
+	private void releaseDriver(final String key, final IWebDriverProvider factory, final WebDriver driver) {
+		boolean isReusable = isHealthy(driver);
+		if (isReusable) {
+			// Do not leak the session or its page to the next user of the driver
+			try {
+				// Queued events, like a last click, must still be executed with the session
+				new EventQueueEmptyWait(driver).waitUntilCondition();
+				driver.manage().deleteAllCookies();
+				driver.get(BLANK_PAGE);
+				// Navigations are delayed, else the next user could still act on the old page
+				new EventQueueEmptyWait(driver).waitUntilCondition();
+			} catch (final WebDriverException e) {
+				isReusable = false;
+			}
+		}
+
+		if (isReusable) {
+			synchronized (this) {
+				Deque<WebDriver> idleDrivers = this.mIdleDrivers.get(key);
+				if (idleDrivers == null) {
+					idleDrivers = new ArrayDeque<>();
+					this.mIdleDrivers.put(key, idleDrivers);
+				}
+				if (!this.mIsShutdown && idleDrivers.size() < MAX_IDLE_DRIVERS_PER_KEY) {
+					idleDrivers.addFirst(driver);
+					this.mIdleSince.put(driver, Long.valueOf(System.currentTimeMillis()));
+					this.mFactories.put(driver, factory);
+					return;
+				}
+			}
+		}
+
+		quitDriver(driver, factory);
+	}
+}
@@ -0,0 +1,40 @@
+package de.zabuza.kivabot.model.session;
+
+import org.openqa.selenium.WebDriver;
+
+import de.zabuza.sparkle.webdriver.AntiTrapWebDriver;
+import de.zabuza.sparkle.webdriver.DelayedWebDriver;
+import de.zabuza.sparkle.webdriver.StaleRefresherWebDriver;
+
+/**
+ * Utility class for web drivers.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDrivers {
+	/**
+	 * Wraps the given raw web driver into the same drivers the Sparkle API uses.
+	 * That are a driver which refreshes stale elements, a driver which avoids
+	 * clicking on traps and a driver which delays events. Additionally the raw
+	 * driver is wrapped into a driver which skips redundant frame switches.
+	 * 
+	 * @param driver
+	 *            The raw web driver to wrap
+	 * @return The wrapped web driver
+	 */
+	public static WebDriver wrap(final WebDriver driver) {
+		WebDriver wrappedDriver = new FrameTrackingWebDriver(driver);
+		wrappedDriver = new StaleRefresherWebDriver(wrappedDriver);
+		wrappedDriver = new AntiTrapWebDriver(wrappedDriver);
+		wrappedDriver = new DelayedWebDriver(wrappedDriver);
+		return wrappedDriver;
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private WebDrivers() {
+
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * This is the core package for the sessions with Freewar of the model.
+ */
+package de.zabuza.kivabot.model.session;
\ No newline at end of file
@@ -19,7 +19,7 @@ public class ActivateSpecialSkillTask implements ITask {
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
 	/**
 	 * The logger to use.
 	 */
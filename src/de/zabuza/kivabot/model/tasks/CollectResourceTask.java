@@ -1,10 +1,24 @@
 package de.zabuza.kivabot.model.tasks;
 
 import java.awt.Point;
+import java.io.IOException;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import de.zabuza.kivabot.controller.logging.Logger;
 import de.zabuza.kivabot.model.AbortTaskException;
+import de.zabuza.kivabot.model.metrics.ELatencyMetric;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.routing.IRouteProvider;
+import de.zabuza.kivabot.model.routing.Route;
+import de.zabuza.kivabot.model.routing.RouteMovement;
+import de.zabuza.kivabot.model.session.ActionTargetStore;
+import de.zabuza.kivabot.model.session.HttpActionClient;
+import de.zabuza.kivabot.model.session.PageStateReader;
+import de.zabuza.sparkle.freewar.EWorld;
 import de.zabuza.sparkle.freewar.IFreewarInstance;
 import de.zabuza.sparkle.freewar.frames.EFrame;
 import de.zabuza.sparkle.freewar.movement.IMovement;
@@ -12,7 +26,15 @@ import de.zabuza.sparkle.freewar.movement.network.EMoveType;
 
 /**
  * A task which moves the given Freewar instance to a given destination and
- * collects a given resource by clicking a link.
+ * collects a given resource by clicking a link. If a HTTP client is given, the
+ * link is clicked with plain HTTP requests which reuse the session of the
+ * instance, falling back to the browser if that fails. The target of the link
+ * is learned the first time it is found. Before a target is requested, the
+ * main frame is requested by HTTP to confirm that it offers the link, no
+ * element of the browser is searched for it. A learned target which is not
+ * offered anymore is replaced by the offered one. A collection by HTTP only
+ * counts as successful, and its target is only learned, if the server answers
+ * with the main frame of the session which does not offer the link anymore.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
@@ -20,9 +42,46 @@ import de.zabuza.sparkle.freewar.movement.network.EMoveType;
 public class CollectResourceTask implements ITask {
 
 	/**
-	 * Timeout to check for movement completion.
+	 * The time to wait for a canceled movement to stop, in milliseconds. Bounds
+	 * the time an interrupted task keeps running.
+	 */
+	private final static int MOVEMENT_CANCEL_WAIT = 1000;
+	/**
+	 * Timeout to check for movement completion if the movement of the instance is
+	 * used, as it offers no completion signal.
 	 */
 	private final static int MOVEMENT_CHECK_TIMEOUT = 500;
+	/**
+	 * The maximal time a single step of a movement along a route may take, in
+	 * milliseconds. Bounds the time to wait for a movement which does not finish,
+	 * for example because its driver hangs.
+	 */
+	private final static int MOVEMENT_STEP_TIMEOUT = 60_000;
+	/**
+	 * Interval to check whether a canceled movement has stopped, in
+	 * milliseconds.
+	 */
+	private final static int MOVEMENT_STOP_CHECK_INTERVAL = 50;
+
+	/**
+	 * Whether the given movement is still running.
+	 * 
+	 * @param routeMovement
+	 *            The movement along a route in question or <tt>null</tt> if the
+	 *            movement of the instance is in question
+	 * @param instanceMovement
+	 *            The movement of the instance in question or <tt>null</tt> if a
+	 *            movement along a route is in question
+	 * @return <tt>True</tt> if the movement is still running, <tt>false</tt>
+	 *         otherwise
+	 */
+	private static boolean isMovementRunning(final RouteMovement routeMovement, final IMovement instanceMovement) {
+		if (routeMovement != null) {
+			return routeMovement.isRunning();
+		}
+		return instanceMovement.hasMovementTask();
+	}
+
 	/**
 	 * The point representing the x and y coordinations of the destination to move
 	 * to.
@@ -32,18 +91,40 @@ public class CollectResourceTask implements ITask {
 	 * The name of the destination used by the logger.
 	 */
 	private final String mDestinationName;
+	/**
+	 * Whether a canceled movement did not stop in time and may still use the
+	 * instance.
+	 */
+	private volatile boolean mHasUnstoppedMovement;
+	/**
+	 * If present, the HTTP client to click the resource collection anchor with.
+	 */
+	private final Optional<HttpActionClient> mHttpClient;
 	/**
 	 * The Freewar instance to use.
 	 */
 	private final IFreewarInstance mInstance;
+	/**
+	 * The movement of the instance if it currently moves the instance, else
+	 * <tt>null</tt>.
+	 */
+	private volatile IMovement mInstanceMovement;
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The url of the main frame which contains the resource collection anchor.
+	 */
+	private final String mMainFrameUrl;
+	/**
+	 * The registry to record the metrics of the task in.
+	 */
+	private final MetricsRegistry mMetrics;
 	/**
 	 * The set containing all movement options allowed for movement.
 	 */
@@ -56,6 +137,27 @@ public class CollectResourceTask implements ITask {
 	 * The name of the resource used by the logger.
 	 */
 	private final String mResourceName;
+	/**
+	 * The movement along a route if it currently moves the instance, else
+	 * <tt>null</tt>.
+	 */
+	private volatile RouteMovement mRouteMovement;
+	/**
+	 * If present, the provider of the routes to move along.
+	 */
+	private final Optional<IRouteProvider> mRouteProvider;
+	/**
+	 * The store of the learned targets of the resource collection anchors.
+	 */
+	private final ActionTargetStore mTargetStore;
+	/**
+	 * The task whose resource is collected.
+	 */
+	private final EKivaTask mTask;
+	/**
+	 * The world the instance acts in.
+	 */
+	private final EWorld mWorld;
 
 	/**
 	 * Creates a task which moves the given Freewar instance to a given destination
@@ -63,31 +165,63 @@ public class CollectResourceTask implements ITask {
 	 * 
 	 * @param instance
 	 *            The Freewar instance to use
-	 * @param destination
-	 *            A point representing the x and y coordinations of the destination
-	 *            to move to
-	 * @param destinationName
-	 *            The name of the destination used by the logger
+	 * @param world
+	 *            The world the instance acts in
+	 * @param definition
+	 *            The definition of the task whose resource is collected
 	 * @param movementOptions
 	 *            A set containing all movement options allowed for movement
-	 * @param resourceAnchorText
-	 *            The text of the resource collection anchor
-	 * @param resourceName
-	 *            The name of the resource used by the logger
+	 * @param routeProvider
+	 *            If present, the provider of the routes to move along. Else the
+	 *            movement of the instance searches the route itself.
+	 * @param httpClient
+	 *            If present, the HTTP client to click the resource collection
+	 *            anchor with. Else the anchor is clicked with the browser.
+	 * @param mainFrameUrl
+	 *            The url of the main frame which contains the resource
+	 *            collection anchor
+	 * @param targetStore
+	 *            The store of the learned targets of the resource collection
+	 *            anchors
 	 * @param logger
 	 *            The logger to use
+	 * @param metrics
+	 *            The registry to record the metrics of the task in
 	 */
-	public CollectResourceTask(final IFreewarInstance instance, final Point destination, final String destinationName,
-			final Set<EMoveType> movementOptions, final String resourceAnchorText, final String resourceName,
-			final Logger logger) {
+	public CollectResourceTask(final IFreewarInstance instance, final EWorld world, final TaskDefinition definition,
+			final Set<EMoveType> movementOptions, final Optional<IRouteProvider> routeProvider,
+			final Optional<HttpActionClient> httpClient, final String mainFrameUrl,
+			final ActionTargetStore targetStore, final Logger logger, final MetricsRegistry metrics) {
 		this.mInstance = instance;
-		this.mDestination = destination;
-		this.mDestinationName = destinationName;
+		this.mWorld = world;
+		this.mTask = definition.getTask();
+		this.mDestination = definition.getDestination();
+		this.mDestinationName = definition.getDestinationName();
 		this.mMovementOptions = movementOptions;
-		this.mResourceAnchorText = resourceAnchorText;
-		this.mResourceName = resourceName;
+		this.mRouteProvider = routeProvider;
+		this.mResourceAnchorText = definition.getAnchorText();
+		this.mResourceName = definition.getResourceName();
+		this.mHttpClient = httpClient;
+		this.mMainFrameUrl = mainFrameUrl;
+		this.mTargetStore = targetStore;
 		this.mLogger = logger;
+		this.mMetrics = metrics;
 		this.mInterrupted = false;
+		this.mHasUnstoppedMovement = false;
+		this.mInstanceMovement = null;
+		this.mRouteMovement = null;
+	}
+
+	/**
+	 * Whether a movement of the task was canceled but did not stop in time. The
+	 * movement may then still use the instance, such that its web driver must
+	 * not be reused.
+	 * 
+	 * @return <tt>True</tt> if a movement of the task may still be running,
+	 *         <tt>false</tt> otherwise
+	 */
+	public boolean hasUnstoppedMovement() {
+		return this.mHasUnstoppedMovement;
 	}
 
 	/*
@@ -98,6 +232,16 @@ public class CollectResourceTask implements ITask {
 	@Override
 	public void interrupt() {
 		this.mInterrupted = true;
+
+		// Cancel the current movement, it does not check the flag
+		final RouteMovement routeMovement = this.mRouteMovement;
+		if (routeMovement != null) {
+			routeMovement.cancel();
+		}
+		final IMovement instanceMovement = this.mInstanceMovement;
+		if (instanceMovement != null) {
+			instanceMovement.cancelMovementTask();
+		}
 	}
 
 	/*
@@ -119,28 +263,31 @@ public class CollectResourceTask implements ITask {
 	public void start() {
 		// Move to the destination
 		this.mLogger.logInfo("Moving to " + this.mDestinationName + "...", Logger.TOP_LEVEL);
-		final IMovement movement = this.mInstance.getMovement();
-		movement.moveTo((int) this.mDestination.getX(), (int) this.mDestination.getY(), this.mMovementOptions);
-		while (movement.hasMovementTask()) {
-			try {
-				Thread.sleep(MOVEMENT_CHECK_TIMEOUT);
-			} catch (final InterruptedException e) {
-				movement.cancelMovementTask();
-				if (!isInterrupted()) {
-					this.mLogger.logUnknownError(e);
-				}
-				throw new AbortTaskException();
-			}
+		final long movementStartTime = System.nanoTime();
+		Optional<Route> route = Optional.empty();
+		if (this.mRouteProvider.isPresent()) {
+			final Point position = PageStateReader.readPosition(this.mInstance);
+			route = this.mRouteProvider.get().getRoute(position, this.mDestination);
+		}
+
+		final boolean wasMovementSuccessful;
+		if (route.isPresent()) {
+			wasMovementSuccessful = moveAlongRoute(route.get());
+		} else {
+			wasMovementSuccessful = moveToDestination();
 		}
-		if (!movement.wasTaskSuccessful()) {
+		if (!wasMovementSuccessful) {
 			this.mLogger.logError("Movement was aborted.", Logger.FIRST_LEVEL);
 			throw new AbortTaskException();
 		}
+		this.mMetrics.recordLatencySince(ELatencyMetric.MOVEMENT_LEG, movementStartTime);
 		this.mLogger.logInfo("Arrival at " + this.mDestinationName + ".", Logger.FIRST_LEVEL);
 
 		// Collect the resource
 		this.mLogger.logInfo("Collecting " + this.mResourceName + "...", Logger.TOP_LEVEL);
-		final boolean anchorClicked = this.mInstance.clickAnchorByContent(EFrame.MAIN, this.mResourceAnchorText);
+		final long clickStartTime = System.nanoTime();
+		final boolean anchorClicked = clickResourceAnchor();
+		this.mMetrics.recordLatencySince(ELatencyMetric.ANCHOR_CLICK, clickStartTime);
 		if (!anchorClicked) {
 			this.mLogger.logError("Collection anchor not found.", Logger.FIRST_LEVEL);
 			throw new AbortTaskException();
@@ -148,4 +295,189 @@ public class CollectResourceTask implements ITask {
 		this.mLogger.logInfo("Collected " + this.mResourceName + ".", Logger.FIRST_LEVEL);
 	}
 
+	/**
+	 * Waits a bounded time for the given canceled movement to stop, such that it
+	 * does not use the instance anymore once the task has aborted. If it does not
+	 * stop in time, the task remembers that the movement may still be running.
+	 * The interrupted status of the current thread is cleared while waiting and
+	 * restored afterwards.
+	 * 
+	 * @param routeMovement
+	 *            The canceled movement along a route or <tt>null</tt> if the
+	 *            movement of the instance was canceled
+	 * @param instanceMovement
+	 *            The canceled movement of the instance or <tt>null</tt> if a
+	 *            movement along a route was canceled
+	 */
+	private void awaitCanceledMovement(final RouteMovement routeMovement, final IMovement instanceMovement) {
+		final boolean wasInterrupted = Thread.interrupted();
+		try {
+			final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MOVEMENT_CANCEL_WAIT);
+			while (isMovementRunning(routeMovement, instanceMovement)) {
+				if (System.nanoTime() - deadline >= 0) {
+					this.mHasUnstoppedMovement = true;
+					this.mLogger.logError("Movement did not stop in time.", Logger.FIRST_LEVEL);
+					return;
+				}
+				TimeUnit.MILLISECONDS.sleep(MOVEMENT_STOP_CHECK_INTERVAL);
+			}
+		} catch (final InterruptedException e) {
+			// Give up waiting, the task aborts anyway
+			this.mHasUnstoppedMovement = isMovementRunning(routeMovement, instanceMovement);
+		} finally {
+			if (wasInterrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Clicks the resource collection anchor. Uses the HTTP client if present and
+	 * falls back to the browser if the client fails or does not find the anchor.
+	 * 
+	 * @return <tt>True</tt> if the anchor was clicked, <tt>false</tt> if it was
+	 *         not found
+	 */
+	private boolean clickResourceAnchor() {
+		final String sessionId = this.mInstance.getSessionId();
+		if (this.mHttpClient.isPresent() && sessionId != null) {
+			try {
+				if (clickResourceAnchorByHttp(this.mHttpClient.get(), sessionId)) {
+					return true;
+				}
+				this.mLogger.logInfo("Collection by HTTP failed, using the browser.", Logger.FIRST_LEVEL);
+			} catch (final IOException e) {
+				this.mLogger.logError("HTTP request failed, using the browser: " + e.getMessage(),
+						Logger.FIRST_LEVEL);
+			}
+		}
+		return this.mInstance.clickAnchorByContent(EFrame.MAIN, this.mResourceAnchorText);
+	}
+
+	/**
+	 * Clicks the resource collection anchor with the given HTTP client. The
+	 * main frame is requested first to confirm that it offers the anchor. Else,
+	 * for example if the resource is not available yet or the player is not at
+	 * the destination, requesting the target of the anchor would also answer
+	 * without the anchor, which can not be distinguished from a collection. The
+	 * offered target is requested and learned, replacing a learned target
+	 * which is not offered anymore.
+	 * 
+	 * @param httpClient
+	 *            The HTTP client to use
+	 * @param sessionId
+	 *            The id of the session of the instance
+	 * @return <tt>True</tt> if the anchor was clicked, <tt>false</tt> if it was
+	 *         not offered or the server rejected its target
+	 * @throws IOException
+	 *             If an I/O-exception occurred or the server did not answer
+	 *             successfully
+	 */
+	private boolean clickResourceAnchorByHttp(final HttpActionClient httpClient, final String sessionId)
+			throws IOException {
+		final Optional<String> target = httpClient.findAnchorTarget(this.mMainFrameUrl, sessionId,
+				this.mResourceAnchorText);
+		if (!target.isPresent()) {
+			return false;
+		}
+		final Optional<String> learnedTarget = this.mTargetStore.getTarget(this.mWorld, this.mTask);
+		if (learnedTarget.isPresent() && !learnedTarget.get().equals(target.get())) {
+			this.mLogger.logInfo("Learned target is not offered anymore, learning it again.", Logger.FIRST_LEVEL);
+		}
+
+		boolean wasAccepted = false;
+		try {
+			wasAccepted = httpClient.requestAnchorTarget(this.mMainFrameUrl, target.get(), sessionId,
+					this.mResourceAnchorText);
+		} finally {
+			if (wasAccepted) {
+				this.mTargetStore.setTarget(this.mWorld, this.mTask, target.get());
+			} else {
+				this.mTargetStore.removeTarget(this.mWorld, this.mTask);
+			}
+		}
+		return wasAccepted;
+	}
+
+	/**
+	 * Moves along the given route and waits for the movement to finish.
+	 * 
+	 * @param route
+	 *            The route to move along, it must start at the current position
+	 * @return <tt>True</tt> if the destination was reached, <tt>false</tt> if the
+	 *         movement was aborted
+	 * @throws AbortTaskException
+	 *             Thrown when the task was interrupted while waiting, the
+	 *             movement failed with an error or did not finish in time
+	 */
+	private boolean moveAlongRoute(final Route route) throws AbortTaskException {
+		final RouteMovement routeMovement = new RouteMovement(route, this.mInstance);
+		this.mRouteMovement = routeMovement;
+		try {
+			// The task may have been interrupted before the movement was registered
+			if (isInterrupted()) {
+				throw new AbortTaskException();
+			}
+			routeMovement.start();
+			// Wakes up as soon as the movement arrives or fails
+			final long timeout = (route.getLength() + 1L) * MOVEMENT_STEP_TIMEOUT;
+			return routeMovement.getCompletion().get(timeout, TimeUnit.MILLISECONDS).booleanValue();
+		} catch (final InterruptedException e) {
+			routeMovement.cancel();
+			awaitCanceledMovement(routeMovement, null);
+			if (!isInterrupted()) {
+				this.mLogger.logUnknownError(e);
+			}
+			throw new AbortTaskException();
+		} catch (final ExecutionException e) {
+			this.mLogger.logUnknownError(e);
+			throw new AbortTaskException();
+		} catch (final TimeoutException e) {
+			this.mLogger.logError("Movement did not finish in time.", Logger.FIRST_LEVEL);
+			routeMovement.cancel();
+			awaitCanceledMovement(routeMovement, null);
+			throw new AbortTaskException();
+		} finally {
+			this.mRouteMovement = null;
+		}
+	}
+
+	/**
+	 * Moves to the destination using the movement of the instance, which searches
+	 * the route itself, and waits for the movement to finish.
+	 * 
+	 * @return <tt>True</tt> if the destination was reached, <tt>false</tt> if the
+	 *         movement was aborted
+	 * @throws AbortTaskException
+	 *             Thrown when the task was interrupted while waiting
+	 */
+	private boolean moveToDestination() throws AbortTaskException {
+		final IMovement movement = this.mInstance.getMovement();
+		movement.moveTo((int) this.mDestination.getX(), (int) this.mDestination.getY(), this.mMovementOptions);
+		this.mInstanceMovement = movement;
+		try {
+			// The task may have been interrupted before the movement was registered
+			if (isInterrupted()) {
+				movement.cancelMovementTask();
+				awaitCanceledMovement(null, movement);
+				throw new AbortTaskException();
+			}
+			while (movement.hasMovementTask()) {
+				try {
+					Thread.sleep(MOVEMENT_CHECK_TIMEOUT);
+				} catch (final InterruptedException e) {
+					movement.cancelMovementTask();
+					awaitCanceledMovement(null, movement);
+					if (!isInterrupted()) {
+						this.mLogger.logUnknownError(e);
+					}
+					throw new AbortTaskException();
+				}
+			}
+			return movement.wasTaskSuccessful();
+		} finally {
+			this.mInstanceMovement = null;
+		}
+	}
+
 }
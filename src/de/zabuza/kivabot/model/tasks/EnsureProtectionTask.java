@@ -1,23 +1,49 @@
 package de.zabuza.kivabot.model.tasks;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 import de.zabuza.kivabot.controller.logging.Logger;
 import de.zabuza.kivabot.model.AbortTaskException;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.metrics.ELatencyMetric;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.session.PageState;
+import de.zabuza.kivabot.model.session.PageStateReader;
+import de.zabuza.kivabot.model.session.ProtectionStore;
 import de.zabuza.sparkle.freewar.IFreewarInstance;
-import de.zabuza.sparkle.freewar.inventory.IInventory;
-import de.zabuza.sparkle.freewar.player.IPlayer;
 
 /**
  * A task which ensures that the player is protected by activating a given spell
- * if necessary.
+ * if necessary. The page does not show when the protection expires, the task
+ * thus records an estimated expiry whenever it confirms or activates the
+ * protection. Until the estimated expiry is reached the protection is not
+ * checked again.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
 public class EnsureProtectionTask implements ITask {
+	/**
+	 * The time an activated protection is assumed to last, in milliseconds.
+	 * Estimated conservatively, an underestimation only costs an additional
+	 * check.
+	 */
+	private static final long ACTIVATED_PROTECTION_VALIDITY = TimeUnit.MINUTES.toMillis(15);
+	/**
+	 * The time a confirmed protection is assumed to last further, in
+	 * milliseconds. Shorter than for activated protections since it is unknown
+	 * when the protection was activated.
+	 */
+	private static final long CONFIRMED_PROTECTION_VALIDITY = TimeUnit.MINUTES.toMillis(5);
 	/**
 	 * The name of the protection status.
 	 */
 	private static final String STATUS_PROTECTION_NAME = "Schutz";
+	/**
+	 * The account whose player to protect.
+	 */
+	private final Account mAccount;
 	/**
 	 * The Freewar instance to use.
 	 */
@@ -25,15 +51,23 @@ public class EnsureProtectionTask implements ITask {
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The registry to record the metrics of the task in.
+	 */
+	private final MetricsRegistry mMetrics;
 	/**
 	 * The name of the protection spell item to use if necessary.
 	 */
 	private final String mProtectionSpellName;
+	/**
+	 * The store of the estimated protection expiries.
+	 */
+	private final ProtectionStore mProtectionStore;
 
 	/**
 	 * Creates a task which ensures that the player is protected by activating a
@@ -41,16 +75,26 @@ public class EnsureProtectionTask implements ITask {
 	 * 
 	 * @param instance
 	 *            The Freewar instance to use
+	 * @param account
+	 *            The account whose player to protect
 	 * @param protectionSpellName
 	 *            The name of the protection spell item to use if necessary
+	 * @param protectionStore
+	 *            The store of the estimated protection expiries
 	 * @param logger
 	 *            The logger to use
+	 * @param metrics
+	 *            The registry to record the metrics of the task in
 	 */
-	public EnsureProtectionTask(final IFreewarInstance instance, final String protectionSpellName,
-			final Logger logger) {
+	public EnsureProtectionTask(final IFreewarInstance instance, final Account account,
+			final String protectionSpellName, final ProtectionStore protectionStore, final Logger logger,
+			final MetricsRegistry metrics) {
 		this.mInstance = instance;
+		this.mAccount = account;
 		this.mProtectionSpellName = protectionSpellName;
+		this.mProtectionStore = protectionStore;
 		this.mLogger = logger;
+		this.mMetrics = metrics;
 		this.mInterrupted = false;
 	}
 
@@ -84,20 +128,45 @@ public class EnsureProtectionTask implements ITask {
 		// Ensuring a protection
 		this.mLogger.logInfo("Ensuring protection...", Logger.TOP_LEVEL);
 
-		// Check whether the player is already protected
-		final IPlayer player = this.mInstance.getPlayer();
-		final String status = player.getStatus();
-		if (status.contains(STATUS_PROTECTION_NAME)) {
-			this.mLogger.logInfo("Protection is already active.", Logger.FIRST_LEVEL);
-		} else {
-			// Activate the protection spell item
-			final IInventory inventory = this.mInstance.getInventory();
-			if (inventory.hasItem(this.mProtectionSpellName) && inventory.activateItem(this.mProtectionSpellName)) {
-				this.mLogger.logInfo("Activated protection spell.", Logger.FIRST_LEVEL);
+		// Skip the check if the protection can not have expired yet
+		final long now = System.currentTimeMillis();
+		final Optional<Long> expiry = this.mProtectionStore.getExpiry(this.mAccount);
+		// Estimates too far in the future are invalid, for example since the clock was changed
+		if (expiry.isPresent() && now < expiry.get().longValue()
+				&& expiry.get().longValue() <= now + ACTIVATED_PROTECTION_VALIDITY) {
+			this.mLogger.logInfo("Protection is still active.", Logger.FIRST_LEVEL);
+			return;
+		}
+
+		final long startTime = System.nanoTime();
+		try {
+			// Check whether the player is already protected
+			final Optional<PageState> state = PageStateReader.read(this.mInstance);
+			final String status;
+			if (state.isPresent() && state.get().getStatus().isPresent()) {
+				status = state.get().getStatus().get();
+			} else {
+				status = this.mInstance.getPlayer().getStatus();
+			}
+			if (status.contains(STATUS_PROTECTION_NAME)) {
+				this.mLogger.logInfo("Protection is already active.", Logger.FIRST_LEVEL);
+				this.mProtectionStore.setExpiry(this.mAccount, now + CONFIRMED_PROTECTION_VALIDITY);
 			} else {
-				this.mLogger.logError("Protection spell not found.", Logger.FIRST_LEVEL);
-				throw new AbortTaskException();
+				// Activate the protection spell item, if the inventory is already open its items are known
+				final boolean isKnownMissing = state.isPresent() && state.get().isInventoryOpen()
+						&& !state.get().hasItem(this.mProtectionSpellName);
+				// Activating checks for the item itself
+				if (!isKnownMissing && this.mInstance.getInventory().activateItem(this.mProtectionSpellName)) {
+					this.mLogger.logInfo("Activated protection spell.", Logger.FIRST_LEVEL);
+					this.mProtectionStore.setExpiry(this.mAccount, now + ACTIVATED_PROTECTION_VALIDITY);
+				} else {
+					this.mProtectionStore.removeExpiry(this.mAccount);
+					this.mLogger.logError("Protection spell not found.", Logger.FIRST_LEVEL);
+					throw new AbortTaskException();
+				}
 			}
+		} finally {
+			this.mMetrics.recordLatencySince(ELatencyMetric.PROTECTION_CHECK, startTime);
 		}
 	}
 
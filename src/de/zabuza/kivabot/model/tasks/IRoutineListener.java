@@ -0,0 +1,26 @@
+package de.zabuza.kivabot.model.tasks;
+
+import java.util.Set;
+
+import de.zabuza.kivabot.model.Account;
+
+/**
+ * Interface for objects that want to get notified when a routine has
+ * finished.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IRoutineListener {
+	/**
+	 * Call this method when the routine of the given account has finished. The
+	 * method is called from the thread which executed the routine.
+	 * 
+	 * @param account
+	 *            The account whose routine has finished
+	 * @param collectedTasks
+	 *            An unmodifiable set containing all sub tasks of the routine whose
+	 *            resource was collected
+	 */
+	public void routineFinished(final Account account, final Set<EKivaTask> collectedTasks);
+}
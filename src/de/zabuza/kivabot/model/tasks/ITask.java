@@ -10,7 +10,9 @@ import de.zabuza.kivabot.model.AbortTaskException;
  */
 public interface ITask {
 	/**
-	 * Sets an interrupted flag which is checked by the task to terminate.
+	 * Sets an interrupted flag which is checked by the task to terminate. Can be
+	 * called from any thread, implementations also cancel operations of the
+	 * task which would not check the flag, like an ongoing movement.
 	 */
 	public void interrupt();
 
@@ -1,241 +1,372 @@
 package de.zabuza.kivabot.model.tasks;
 
 import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
-import org.openqa.selenium.remote.DesiredCapabilities;
-
-import de.zabuza.kivabot.controller.MainFrameController;
 import de.zabuza.kivabot.controller.logging.Logger;
 import de.zabuza.kivabot.model.AbortTaskException;
+import de.zabuza.kivabot.model.Account;
 import de.zabuza.kivabot.model.IBrowserSettingsProvider;
-import de.zabuza.sparkle.IFreewarAPI;
-import de.zabuza.sparkle.Sparkle;
+import de.zabuza.kivabot.model.metrics.ELatencyMetric;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.routing.ChebyshevCostProvider;
+import de.zabuza.kivabot.model.routing.IRouteCostProvider;
+import de.zabuza.kivabot.model.routing.IRouteProvider;
+import de.zabuza.kivabot.model.routing.RouteTableCache;
+import de.zabuza.kivabot.model.routing.TourPlanner;
+import de.zabuza.kivabot.model.session.ActionTargetStore;
+import de.zabuza.kivabot.model.session.HttpActionClient;
+import de.zabuza.kivabot.model.session.IWebDriverProvider;
+import de.zabuza.kivabot.model.session.PageStateReader;
+import de.zabuza.kivabot.model.session.ProtectionStore;
+import de.zabuza.kivabot.model.session.SessionStore;
+import de.zabuza.kivabot.model.session.WebDriverFreewarApi;
+import de.zabuza.kivabot.model.session.WebDriverPool;
 import de.zabuza.sparkle.freewar.EWorld;
 import de.zabuza.sparkle.freewar.IFreewarInstance;
-import de.zabuza.sparkle.freewar.movement.network.EMoveType;
 import de.zabuza.sparkle.webdriver.EBrowser;
 
 /**
  * The KivaBot routine which uses the Sparkle API to login to Freewar and
- * collect all ressources.
+ * collect all ressources. The routine acts with one account only and is
+ * executed by the thread which runs it, for example a thread of a pool which
+ * executes the routines of many accounts in parallel.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
-public final class RoutineTask extends Thread implements ITask {
+public final class RoutineTask implements Runnable, ITask {
 	/**
-	 * The Freewar API to use.
+	 * The name of the protection sub task used by the logger.
+	 */
+	private static final String PROTECTION_TASK_NAME = "PROTECTION";
+	/**
+	 * The name of the special skill sub task used by the logger.
+	 */
+	private static final String SPECIAL_SKILL_TASK_NAME = "SPECIAL_SKILL";
+
+	/**
+	 * The account to act with.
 	 */
-	private IFreewarAPI mApi;
+	private final Account mAccount;
 	/**
-	 * The browser to use.
+	 * The Freewar API to use.
 	 */
-	private final EBrowser mBrowser;
+	private WebDriverFreewarApi mApi;
 	/**
 	 * The browser driver provider.
 	 */
 	private final IBrowserSettingsProvider mBrowserSettingsProvider;
 	/**
-	 * The controller of the main frame.
+	 * The current executing sub task or <tt>null</tt> if there is none.
+	 */
+	private volatile ITask mCurrentSubTask;
+	/**
+	 * The pool of the web drivers to use.
+	 */
+	private final WebDriverPool mDriverPool;
+	/**
+	 * Whether a movement of a sub task did not stop in time and may still use
+	 * the web driver of the instance.
 	 */
-	private final MainFrameController mController;
+	private boolean mHasUnstoppedMovement;
 	/**
-	 * The current executing sub task.
+	 * The HTTP client to collect resources with, if enabled by the settings.
 	 */
-	private ITask mCurrentSubTask;
+	private final HttpActionClient mHttpClient;
 	/**
 	 * The Freewar instance to use.
 	 */
 	private IFreewarInstance mInstance;
+	/**
+	 * A set containing all sub tasks whose resource was collected.
+	 */
+	private final Set<EKivaTask> mCollectedTasks;
+	/**
+	 * Whether the routine was interrupted or not.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The listener to notify when the routine has finished.
+	 */
+	private final IRoutineListener mListener;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
 	/**
-	 * A set containing all movement options allowed to use.
+	 * The registry to record the metrics of the routine in.
 	 */
-	private final Set<EMoveType> mMovementOptions;
+	private final MetricsRegistry mMetrics;
 	/**
-	 * The password of the user to act with.
+	 * The store of the estimated protection expiries.
 	 */
-	private final String mPassword;
+	private final ProtectionStore mProtectionStore;
 	/**
-	 * If present, the name of the protection spell item which is used prior of
-	 * movement.
+	 * If present, the provider of the routes to move along.
 	 */
-	private final Optional<String> mProtectionSpell;
+	private Optional<IRouteProvider> mRouteProvider;
 	/**
-	 * A set containing all sub tasks to execute.
+	 * The cache of the route tables between the destinations.
 	 */
-	private final Set<EKivaTask> mSubTasks;
+	private final RouteTableCache mRouteTableCache;
 	/**
-	 * The name of the user to act with.
+	 * The store of the sessions to resume.
 	 */
-	private final String mUsername;
+	private final SessionStore mSessionStore;
 	/**
-	 * Whether the special skill gets activated prior to movement.
+	 * The catalog of the definitions of all tasks.
 	 */
-	private final boolean mUseSpecialSkill;
+	private final TaskCatalog mTaskCatalog;
 	/**
-	 * The world of the user to act with.
+	 * The store of the learned targets of the resource collection anchors.
 	 */
-	private final EWorld mWorld;
+	private final ActionTargetStore mTargetStore;
+	/**
+	 * The thread which currently executes the routine or <tt>null</tt> if it is
+	 * not executed. Access is guarded by the routine itself.
+	 */
+	private Thread mWorker;
 
 	/**
 	 * Creates a new routine task.
 	 * 
-	 * @param username
-	 *            The name of the user to act with
-	 * @param password
-	 *            The password of the user to act with
-	 * @param world
-	 *            The world of the user to act with
-	 * @param browser
-	 *            The browser to use
-	 * @param movementOptions
-	 *            A set containing all movement options allowed to use
-	 * @param protectionSpell
-	 *            If present, the name of the protection spell item to use prior of
-	 *            movement
-	 * @param useSpecialSkill
-	 *            Whether the special skill should get activated prior to movement
-	 * @param subTasks
-	 *            A set containing all sub tasks to execute
+	 * @param account
+	 *            The account to act with
 	 * @param logger
 	 *            The logger to use
-	 * @param controller
-	 *            The controller of the main frame
+	 * @param listener
+	 *            The listener to notify when the routine has finished
 	 * @param browserSettingsProvider
 	 *            The browser settings provider
+	 * @param routeTableCache
+	 *            The cache of the route tables between the destinations
+	 * @param taskCatalog
+	 *            The catalog of the definitions of all tasks
+	 * @param driverPool
+	 *            The pool of the web drivers to use
+	 * @param httpClient
+	 *            The HTTP client to collect resources with, if enabled by the
+	 *            settings
+	 * @param sessionStore
+	 *            The store of the sessions to resume
+	 * @param targetStore
+	 *            The store of the learned targets of the resource collection
+	 *            anchors
+	 * @param protectionStore
+	 *            The store of the estimated protection expiries
+	 * @param metrics
+	 *            The registry to record the metrics of the routine in
 	 */
-	public RoutineTask(final String username, final String password, final EWorld world, final EBrowser browser,
-			final Set<EMoveType> movementOptions, final Optional<String> protectionSpell, final boolean useSpecialSkill,
-			final Set<EKivaTask> subTasks, final Logger logger, final MainFrameController controller,
-			final IBrowserSettingsProvider browserSettingsProvider) {
-		this.mUsername = username;
-		this.mPassword = password;
-		this.mWorld = world;
-		this.mBrowser = browser;
-		this.mMovementOptions = movementOptions;
-		this.mProtectionSpell = protectionSpell;
-		this.mUseSpecialSkill = useSpecialSkill;
-		this.mSubTasks = subTasks;
+	public RoutineTask(final Account account, final Logger logger, final IRoutineListener listener,
+			final IBrowserSettingsProvider browserSettingsProvider, final RouteTableCache routeTableCache,
+			final TaskCatalog taskCatalog, final WebDriverPool driverPool, final HttpActionClient httpClient,
+			final SessionStore sessionStore, final ActionTargetStore targetStore,
+			final ProtectionStore protectionStore, final MetricsRegistry metrics) {
+		this.mAccount = account;
 		this.mLogger = logger;
-		this.mController = controller;
+		this.mListener = listener;
 		this.mBrowserSettingsProvider = browserSettingsProvider;
+		this.mRouteTableCache = routeTableCache;
+		this.mTaskCatalog = taskCatalog;
+		this.mDriverPool = driverPool;
+		this.mHttpClient = httpClient;
+		this.mSessionStore = sessionStore;
+		this.mTargetStore = targetStore;
+		this.mProtectionStore = protectionStore;
+		this.mMetrics = metrics;
 
 		this.mApi = null;
 		this.mInstance = null;
 		this.mCurrentSubTask = null;
+		this.mRouteProvider = Optional.empty();
+		this.mInterrupted = false;
+		this.mHasUnstoppedMovement = false;
+		this.mWorker = null;
+		this.mCollectedTasks = EnumSet.noneOf(EKivaTask.class);
+	}
+
+	/**
+	 * Gets the account the routine acts with.
+	 * 
+	 * @return The account the routine acts with
+	 */
+	public Account getAccount() {
+		return this.mAccount;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see java.lang.Thread#interrupt()
+	 * @see de.zabuza.kivabot.model.tasks.ITask#interrupt()
 	 */
 	@Override
 	public void interrupt() {
-		if (this.mCurrentSubTask != null) {
-			this.mCurrentSubTask.interrupt();
+		this.mInterrupted = true;
+		final ITask currentSubTask = this.mCurrentSubTask;
+		if (currentSubTask != null) {
+			currentSubTask.interrupt();
+		}
+		synchronized (this) {
+			if (this.mWorker != null) {
+				this.mWorker.interrupt();
+			}
 		}
-		super.interrupt();
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see java.lang.Thread#run()
+	 * @see de.zabuza.kivabot.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Runnable#run()
 	 */
 	@Override
 	public void run() {
+		start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.kivabot.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		setWorker(Thread.currentThread());
+		final long startTime = System.nanoTime();
 		try {
+			// The routine may have been stopped before it got executed
+			if (isInterrupted()) {
+				throw new AbortTaskException();
+			}
+
 			// Create sparkle API
 			this.mLogger.logInfo("Starting Sparkle...", Logger.TOP_LEVEL);
-			this.mApi = new Sparkle(this.mBrowser);
-			final DesiredCapabilities capabilities = this.mApi.createCapabilities(this.mBrowser,
-					this.mBrowserSettingsProvider.getDriverForBrowser(this.mBrowser),
-					this.mBrowserSettingsProvider.getBrowserBinary(), this.mBrowserSettingsProvider.getUserProfile());
-
-			this.mApi.setCapabilities(capabilities);
+			this.mApi = createApi();
 			this.mLogger.logInfo("Sparkle started.", Logger.FIRST_LEVEL);
 
 			// Login and create an instance
 			this.mLogger.logInfo("Creating instance...", Logger.TOP_LEVEL);
-			if (this.mUsername == null || this.mUsername.equals("") || this.mPassword == null
-					|| this.mPassword.equals("")) {
+			final String username = this.mAccount.getUsername();
+			final String password = this.mAccount.getPassword();
+			if (username == null || username.equals("") || password == null || password.equals("")) {
 				this.mLogger.logError("Invalid username or password.", Logger.FIRST_LEVEL);
 				throw new AbortTaskException();
 			}
-			this.mInstance = this.mApi.login(this.mUsername, this.mPassword, this.mWorld);
+			final long loginStartTime = System.nanoTime();
+			this.mInstance = resumeSessionOrLogin(username, password);
+			this.mMetrics.recordLatencySince(ELatencyMetric.LOGIN, loginStartTime);
 			this.mLogger.logInfo("Instance created.", Logger.FIRST_LEVEL);
 
 			// Ensure protection if desired
-			if (this.mProtectionSpell.isPresent()) {
-				final String protectionSpellName = this.mProtectionSpell.get();
-				registerAndStartSubTask(new EnsureProtectionTask(this.mInstance, protectionSpellName, this.mLogger));
+			final Optional<String> protectionSpell = this.mAccount.getProtectionSpell();
+			if (protectionSpell.isPresent()) {
+				final String protectionSpellName = protectionSpell.get();
+				final Logger taskLogger = this.mLogger.forTask(PROTECTION_TASK_NAME);
+				registerAndStartSubTask(new EnsureProtectionTask(this.mInstance, this.mAccount, protectionSpellName,
+						this.mProtectionStore, taskLogger, this.mMetrics), taskLogger);
 			}
 
 			// Activate the special skill if desired
-			if (this.mUseSpecialSkill) {
-				registerAndStartSubTask(new ActivateSpecialSkillTask(this.mInstance, this.mLogger));
+			if (this.mAccount.isUseSpecialSkill()) {
+				final Logger taskLogger = this.mLogger.forTask(SPECIAL_SKILL_TASK_NAME);
+				registerAndStartSubTask(new ActivateSpecialSkillTask(this.mInstance, taskLogger), taskLogger);
 			}
 
-			// Collect baru corn
-			if (this.mSubTasks.contains(EKivaTask.BARU_CORN)) {
-				collectResource(new Point(115, 94), "corn storehouse", "Getreide mitnehmen", "baru corn");
+			// Plan the order in which the resources get collected
+			this.mLogger.logInfo("Planning route...", Logger.TOP_LEVEL);
+			final Map<EKivaTask, Point> destinations = new EnumMap<>(EKivaTask.class);
+			for (final EKivaTask task : this.mAccount.getSubTasks()) {
+				destinations.put(task, this.mTaskCatalog.getDefinition(task).getDestination());
 			}
-			// Collect glodo fish
-			if (this.mSubTasks.contains(EKivaTask.GLODO_FISH)) {
-				collectResource(new Point(68, 116), "fish storehouse", "Fische mitnehmen", "glodo fish");
+			final List<Point> pointsOfInterest = new ArrayList<>();
+			for (final TaskDefinition definition : this.mTaskCatalog.getDefinitions()) {
+				pointsOfInterest.add(definition.getDestination());
 			}
-			// Collect marsh gas
-			if (this.mSubTasks.contains(EKivaTask.MARSH_GAS)) {
-				collectResource(new Point(76, 104), "gas storehouse", "Sumpfgasflaschen mitnehmen", "marsh gas");
+			this.mRouteProvider = this.mRouteTableCache.getRouteProvider(this.mAccount.getMovementOptions(),
+					pointsOfInterest);
+			final IRouteCostProvider costProvider;
+			if (this.mRouteProvider.isPresent()) {
+				costProvider = this.mRouteProvider.get();
+			} else {
+				// Fall back to estimated costs
+				costProvider = new ChebyshevCostProvider();
 			}
-			// Collect oil barrel
-			if (this.mSubTasks.contains(EKivaTask.OIL_BARREL)) {
-				collectResource(new Point(103, 117), "oil storehouse", "lfsser mitnehmen", "oil barrel");
-			}
-			// Collect gold from the universal foundation
-			if (this.mSubTasks.contains(EKivaTask.UNIVERSAL_FOUNDATION)) {
-				collectResource(new Point(87, 112), "universal foundation", "Goldmnzen abholen", "gold");
+			final Point start = PageStateReader.readPosition(this.mInstance);
+			final List<EKivaTask> tour = new TourPlanner(costProvider).planTour(start, destinations);
+			this.mLogger.logInfo("Planned route: " + tour, Logger.FIRST_LEVEL);
+
+			for (final EKivaTask task : tour) {
+				collectResource(this.mTaskCatalog.getDefinition(task));
 			}
 		} catch (final AbortTaskException e) {
 			// Known exception, just terminate
 		} catch (final Exception e) {
 			this.mLogger.logUnknownError(e);
 		} finally {
-			terminate();
-			this.mController.routineFinished();
+			try {
+				terminate();
+			} finally {
+				// The routine must always be released, else it could not be started again
+				this.mLogger.logLatency("Routine finished.",
+						this.mMetrics.recordLatencySince(ELatencyMetric.ROUTINE, startTime));
+				setWorker(null);
+				this.mListener.routineFinished(this.mAccount, Collections.unmodifiableSet(this.mCollectedTasks));
+			}
 		}
 	}
 
 	/**
-	 * Starts a collect resource task which moves to the given destination and
-	 * collects the given resource by clicking an anchor.
+	 * Starts a collect resource task which moves to the destination of the given
+	 * task and collects its resource by clicking an anchor.
 	 * 
-	 * @param destination
-	 *            The destination where the resource is located at
-	 * @param destinationName
-	 *            The name of the destination used for logging purpose
-	 * @param resourceAnchorText
-	 *            The text of the anchor which collects the given resource
-	 * @param resourceName
-	 *            The name of the resource to collect used for logging purpose
+	 * @param definition
+	 *            The definition of the task whose resource to collect
 	 * @throws AbortTaskException
 	 *             Thrown when the task was aborted, for example when it was
 	 *             canceled or an error occurred.
 	 */
-	private void collectResource(final Point destination, final String destinationName, final String resourceAnchorText,
-			final String resourceName) throws AbortTaskException {
+	private void collectResource(final TaskDefinition definition) throws AbortTaskException {
+		final EKivaTask task = definition.getTask();
+		final Logger taskLogger = this.mLogger.forTask(task.name());
 		try {
-			registerAndStartSubTask(new CollectResourceTask(this.mInstance, destination, destinationName,
-					this.mMovementOptions, resourceAnchorText, resourceName, this.mLogger));
+			Optional<HttpActionClient> httpClient = Optional.empty();
+			if (this.mBrowserSettingsProvider.isUseHttpFastPath()) {
+				httpClient = Optional.of(this.mHttpClient);
+			}
+			final String mainFrameUrl = this.mApi.getMainFrameUrl(this.mAccount.getWorld());
+			final CollectResourceTask collectTask = new CollectResourceTask(this.mInstance,
+					this.mAccount.getWorld(), definition, this.mAccount.getMovementOptions(), this.mRouteProvider,
+					httpClient, mainFrameUrl, this.mTargetStore, taskLogger, this.mMetrics);
+			try {
+				registerAndStartSubTask(collectTask, taskLogger);
+			} finally {
+				if (collectTask.hasUnstoppedMovement()) {
+					this.mHasUnstoppedMovement = true;
+				}
+			}
+			this.mCollectedTasks.add(task);
+			this.mMetrics.recordSuccess(task);
 		} catch (final AbortTaskException e) {
 			// Known error, just abort the current task and continue
+			this.mMetrics.recordAbort(task);
 		}
 		if (isInterrupted()) {
 			throw new AbortTaskException();
@@ -243,26 +374,127 @@ public final class RoutineTask extends Thread implements ITask {
 	}
 
 	/**
-	 * Registers the given sub task as the current and starts it.
+	 * Creates the Freewar API to use. It either drives the browser of the account
+	 * or a headless in-process browser which emulates it. The web drivers are
+	 * taken from the pool and given back to it when the instance is shut down.
+	 * 
+	 * @return The Freewar API to use
+	 */
+	private WebDriverFreewarApi createApi() {
+		final EBrowser browser = this.mAccount.getBrowser();
+		final IWebDriverProvider driverProvider = this.mDriverPool.getProvider(browser, this.mAccount.isHeadless(),
+				this.mBrowserSettingsProvider);
+		return new WebDriverFreewarApi(driverProvider, browser, this.mBrowserSettingsProvider.getWorldDomain(),
+				this.mRouteTableCache.getNetworkCache());
+	}
+
+	/**
+	 * Registers the given sub task as the current and starts it. The latency of
+	 * the sub task is logged once it finished or aborted.
 	 * 
 	 * @param subTask
 	 *            Sub task to register and start
+	 * @param taskLogger
+	 *            The logger of the sub task
+	 * @throws AbortTaskException
+	 *             Thrown when the routine was interrupted before the sub task
+	 *             could be started or the sub task was aborted
 	 */
-	private void registerAndStartSubTask(final ITask subTask) {
+	private void registerAndStartSubTask(final ITask subTask, final Logger taskLogger) throws AbortTaskException {
 		this.mCurrentSubTask = subTask;
-		this.mCurrentSubTask.start();
+		// The routine may have been interrupted before the sub task was registered
+		if (isInterrupted()) {
+			this.mCurrentSubTask = null;
+			throw new AbortTaskException();
+		}
+
+		final long startTime = System.nanoTime();
+		boolean wasFinished = false;
+		try {
+			subTask.start();
+			wasFinished = true;
+		} finally {
+			this.mCurrentSubTask = null;
+			final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+			if (wasFinished) {
+				taskLogger.logLatency("Task finished.", latency);
+			} else {
+				taskLogger.logLatency("Task aborted.", latency);
+			}
+		}
 	}
 
 	/**
-	 * Terminates the current task and shuts down the instance and API.
+	 * Resumes the last valid session of the account if present and still valid,
+	 * else logs in. The session of the created instance is stored such that it
+	 * can be resumed by the next routine.
+	 * 
+	 * @param username
+	 *            The name of the user to act with
+	 * @param password
+	 *            The password of the user to act with
+	 * @return The created instance
+	 */
+	private IFreewarInstance resumeSessionOrLogin(final String username, final String password) {
+		final EWorld world = this.mAccount.getWorld();
+		IFreewarInstance instance = null;
+
+		final Optional<String> sessionId = this.mSessionStore.getSessionId(this.mAccount);
+		if (sessionId.isPresent()) {
+			final Optional<IFreewarInstance> resumedInstance = this.mApi.resumeSession(sessionId.get(), username,
+					world);
+			if (resumedInstance.isPresent()) {
+				this.mLogger.logInfo("Session resumed.", Logger.FIRST_LEVEL);
+				instance = resumedInstance.get();
+			} else {
+				this.mLogger.logInfo("Session expired, logging in.", Logger.FIRST_LEVEL);
+				this.mSessionStore.removeSessionId(this.mAccount);
+			}
+		}
+
+		if (instance == null) {
+			instance = this.mApi.login(username, password, world);
+		}
+
+		final String currentSessionId = instance.getSessionId();
+		if (currentSessionId != null) {
+			this.mSessionStore.setSessionId(this.mAccount, currentSessionId);
+		}
+		return instance;
+	}
+
+	/**
+	 * Sets the thread which currently executes the routine. Clears the interrupted
+	 * status of the thread when it is released, such that it can be reused.
+	 * 
+	 * @param worker
+	 *            The thread which executes the routine or <tt>null</tt> if it is
+	 *            released
+	 */
+	private synchronized void setWorker(final Thread worker) {
+		if (worker == null) {
+			Thread.interrupted();
+		}
+		this.mWorker = worker;
+	}
+
+	/**
+	 * Terminates the current task and shuts down the instance and API. The
+	 * instance is not logged out such that its session can be resumed by the next
+	 * routine. The web driver is quit instead of being reused if a movement may
+	 * still use it.
 	 */
 	private void terminate() {
 		if (this.mApi != null) {
-			if (this.mInstance != null) {
-				this.mApi.logout(this.mInstance, false);
-				this.mInstance = null;
+			this.mInstance = null;
+			if (this.mHasUnstoppedMovement) {
+				this.mLogger.logInfo("Quitting the browser, a movement did not stop.", Logger.TOP_LEVEL);
+			}
+			try {
+				this.mApi.shutdown(this.mHasUnstoppedMovement);
+			} catch (final RuntimeException e) {
+				this.mLogger.logUnknownError(e);
 			}
-			this.mApi.shutdown(false);
 		}
 	}
 }
@@ -0,0 +1,160 @@
+package de.zabuza.kivabot.model.tasks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog of the definitions of all tasks, loaded once from a compact
+ * resource file. Every line of the file defines one task by the values
+ * <tt>task;x;y;destination name;anchor text;resource name;cooldown</tt>,
+ * where the cooldown is given in minutes. Empty lines and lines starting with
+ * <tt>#</tt> are ignored. The catalog is immutable and can be shared by all
+ * routines.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TaskCatalog {
+	/**
+	 * Symbol which starts a comment line.
+	 */
+	private static final String COMMENT_SYMBOL = "#";
+	/**
+	 * The name of the bundled resource file which contains the default catalog.
+	 */
+	private static final String DEFAULT_RESOURCE = "tasks.catalog";
+	/**
+	 * The amount of values of a line which defines a task.
+	 */
+	private static final int VALUES_PER_LINE = 7;
+	/**
+	 * Separator between the values of a line.
+	 */
+	private static final String VALUE_SEPARATOR = ";";
+
+	/**
+	 * Loads the catalog from the given stream. The stream is encoded in
+	 * ISO-8859-1 and must define every task exactly once.
+	 * 
+	 * @param input
+	 *            The stream to load the catalog from
+	 * @return The loaded catalog
+	 * @throws IOException
+	 *             If an I/O-exception occurred while reading or the stream does
+	 *             not describe a valid catalog
+	 */
+	public static TaskCatalog load(final InputStream input) throws IOException {
+		final Map<EKivaTask, TaskDefinition> definitions = new EnumMap<>(EKivaTask.class);
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.ISO_8859_1));
+		int lineNumber = 0;
+		String line = reader.readLine();
+		while (line != null) {
+			lineNumber++;
+			final String trimmedLine = line.trim();
+			if (!trimmedLine.isEmpty() && !trimmedLine.startsWith(COMMENT_SYMBOL)) {
+				final TaskDefinition definition = parseDefinition(trimmedLine, lineNumber);
+				if (definitions.put(definition.getTask(), definition) != null) {
+					throw new IOException("Task defined twice in line " + lineNumber + ": " + definition.getTask());
+				}
+			}
+			line = reader.readLine();
+		}
+
+		for (final EKivaTask task : EKivaTask.values()) {
+			if (!definitions.containsKey(task)) {
+				throw new IOException("Task is not defined by the catalog: " + task);
+			}
+		}
+		return new TaskCatalog(definitions);
+	}
+
+	/**
+	 * Loads the default catalog which is bundled with the tool.
+	 * 
+	 * @return The default catalog
+	 * @throws UncheckedIOException
+	 *             If the bundled catalog is missing or invalid, which indicates
+	 *             a broken installation
+	 */
+	public static TaskCatalog loadDefault() throws UncheckedIOException {
+		try (final InputStream input = TaskCatalog.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+			if (input == null) {
+				throw new IOException("The bundled task catalog is missing: " + DEFAULT_RESOURCE);
+			}
+			return load(input);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses the definition of a task from the given line of the catalog.
+	 * 
+	 * @param line
+	 *            The line to parse
+	 * @param lineNumber
+	 *            The number of the line, used for error messages
+	 * @return The definition described by the line
+	 * @throws IOException
+	 *             If the line does not describe a valid definition
+	 */
+	private static TaskDefinition parseDefinition(final String line, final int lineNumber) throws IOException {
+		final String[] values = line.split(VALUE_SEPARATOR, -1);
+		if (values.length != VALUES_PER_LINE) {
+			throw new IOException("Invalid amount of values in line " + lineNumber + ": " + line);
+		}
+		try {
+			final EKivaTask task = EKivaTask.valueOf(values[0].trim());
+			final int x = Integer.parseInt(values[1].trim());
+			final int y = Integer.parseInt(values[2].trim());
+			final long cooldown = TimeUnit.MINUTES.toMillis(Long.parseLong(values[6].trim()));
+			return new TaskDefinition(task, x, y, values[3].trim(), values[4].trim(), values[5].trim(), cooldown);
+		} catch (final IllegalArgumentException e) {
+			throw new IOException("Invalid value in line " + lineNumber + ": " + line, e);
+		}
+	}
+
+	/**
+	 * The definitions of all tasks.
+	 */
+	private final Map<EKivaTask, TaskDefinition> mDefinitions;
+
+	/**
+	 * Creates a new catalog with the given definitions.
+	 * 
+	 * @param definitions
+	 *            The definitions of all tasks
+	 */
+	private TaskCatalog(final Map<EKivaTask, TaskDefinition> definitions) {
+		this.mDefinitions = definitions;
+	}
+
+	/**
+	 * Gets the definition of the given task.
+	 * 
+	 * @param task
+	 *            The task to get the definition of
+	 * @return The definition of the given task
+	 */
+	public TaskDefinition getDefinition(final EKivaTask task) {
+		return this.mDefinitions.get(task);
+	}
+
+	/**
+	 * Gets the definitions of all tasks, in the order of the tasks.
+	 * 
+	 * @return An unmodifiable collection of the definitions of all tasks
+	 */
+	public Collection<TaskDefinition> getDefinitions() {
+		return Collections.unmodifiableCollection(this.mDefinitions.values());
+	}
+}
@@ -0,0 +1,133 @@
+package de.zabuza.kivabot.model.tasks;
+
+import java.awt.Point;
+
+/**
+ * Immutable definition of a task which collects a resource, as given by the
+ * {@link TaskCatalog}. It describes where the resource is located and how it
+ * is collected.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TaskDefinition {
+	/**
+	 * The text of the anchor which collects the resource.
+	 */
+	private final String mAnchorText;
+	/**
+	 * The time after which the resource is available again once collected, in
+	 * milliseconds. <tt>0</tt> if only the interval of the account applies.
+	 */
+	private final long mCooldown;
+	/**
+	 * The name of the destination used for logging purpose.
+	 */
+	private final String mDestinationName;
+	/**
+	 * The x coordinate of the destination where the resource is located at.
+	 */
+	private final int mDestinationX;
+	/**
+	 * The y coordinate of the destination where the resource is located at.
+	 */
+	private final int mDestinationY;
+	/**
+	 * The name of the resource used for logging purpose.
+	 */
+	private final String mResourceName;
+	/**
+	 * The task which is defined.
+	 */
+	private final EKivaTask mTask;
+
+	/**
+	 * Creates a new definition of a task.
+	 * 
+	 * @param task
+	 *            The task which is defined
+	 * @param destinationX
+	 *            The x coordinate of the destination where the resource is
+	 *            located at
+	 * @param destinationY
+	 *            The y coordinate of the destination where the resource is
+	 *            located at
+	 * @param destinationName
+	 *            The name of the destination used for logging purpose
+	 * @param anchorText
+	 *            The text of the anchor which collects the resource
+	 * @param resourceName
+	 *            The name of the resource used for logging purpose
+	 * @param cooldown
+	 *            The time after which the resource is available again once
+	 *            collected, in milliseconds. <tt>0</tt> if only the interval of
+	 *            the account applies.
+	 */
+	public TaskDefinition(final EKivaTask task, final int destinationX, final int destinationY,
+			final String destinationName, final String anchorText, final String resourceName, final long cooldown) {
+		this.mTask = task;
+		this.mDestinationX = destinationX;
+		this.mDestinationY = destinationY;
+		this.mDestinationName = destinationName;
+		this.mAnchorText = anchorText;
+		this.mResourceName = resourceName;
+		this.mCooldown = cooldown;
+	}
+
+	/**
+	 * Gets the text of the anchor which collects the resource.
+	 * 
+	 * @return The text of the anchor which collects the resource
+	 */
+	public String getAnchorText() {
+		return this.mAnchorText;
+	}
+
+	/**
+	 * Gets the time after which the resource is available again once collected.
+	 * 
+	 * @return The time after which the resource is available again, in
+	 *         milliseconds. <tt>0</tt> if only the interval of the account
+	 *         applies.
+	 */
+	public long getCooldown() {
+		return this.mCooldown;
+	}
+
+	/**
+	 * Gets the position of the destination where the resource is located at.
+	 * 
+	 * @return The position of the destination, a new point which may be
+	 *         modified
+	 */
+	public Point getDestination() {
+		return new Point(this.mDestinationX, this.mDestinationY);
+	}
+
+	/**
+	 * Gets the name of the destination used for logging purpose.
+	 * 
+	 * @return The name of the destination
+	 */
+	public String getDestinationName() {
+		return this.mDestinationName;
+	}
+
+	/**
+	 * Gets the name of the resource used for logging purpose.
+	 * 
+	 * @return The name of the resource
+	 */
+	public String getResourceName() {
+		return this.mResourceName;
+	}
+
+	/**
+	 * Gets the task which is defined.
+	 * 
+	 * @return The task which is defined
+	 */
+	public EKivaTask getTask() {
+		return this.mTask;
+	}
+}
@@ -0,0 +1,55 @@
+package de.zabuza.kivabot.view;
+
+import java.awt.Color;
+import java.awt.Component;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+
+/**
+ * Renderer for the lines of the log area. Error messages are displayed using a
+ * red font and the full line is available as tool tip, since lines are cut at
+ * the width of the log area.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LogCellRenderer extends DefaultListCellRenderer {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The model of the log whose lines are rendered.
+	 */
+	private final LogListModel mModel;
+
+	/**
+	 * Creates a new renderer for the lines of the given model.
+	 * 
+	 * @param model
+	 *            The model of the log whose lines are rendered
+	 */
+	public LogCellRenderer(final LogListModel model) {
+		this.mModel = model;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * javax.swing.DefaultListCellRenderer#getListCellRendererComponent(javax.
+	 * swing.JList, java.lang.Object, int, boolean, boolean)
+	 */
+	@Override
+	public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index,
+			final boolean isSelected, final boolean cellHasFocus) {
+		super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+		if (!isSelected && index >= 0 && index < this.mModel.getSize() && this.mModel.isError(index)) {
+			setForeground(Color.RED);
+		}
+		setToolTipText((String) value);
+		return this;
+	}
+}
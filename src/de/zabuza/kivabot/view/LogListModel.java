@@ -0,0 +1,135 @@
+package de.zabuza.kivabot.view;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * List model of the log area which holds the lines in a ring buffer of fixed
+ * capacity. If the buffer is full, the oldest lines are overwritten such that
+ * the memory of the log stays constant, regardless of how long the tool runs.
+ * Must only be accessed from the event dispatch thread.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LogListModel extends AbstractListModel<String> {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Ring buffer which contains for each line whether it is an error message.
+	 */
+	private final boolean[] mErrors;
+	/**
+	 * Ring buffer of the lines.
+	 */
+	private final String[] mLines;
+	/**
+	 * The amount of lines currently in the model.
+	 */
+	private int mSize;
+	/**
+	 * The index in the ring buffers of the oldest line.
+	 */
+	private int mStart;
+
+	/**
+	 * Creates a new empty model which holds at most the given amount of lines.
+	 * 
+	 * @param capacity
+	 *            The maximal amount of lines to hold, must be positive
+	 */
+	public LogListModel(final int capacity) {
+		this.mLines = new String[capacity];
+		this.mErrors = new boolean[capacity];
+		this.mSize = 0;
+		this.mStart = 0;
+	}
+
+	/**
+	 * Appends the given lines to the model, overwriting the oldest lines if the
+	 * capacity is exceeded. Listeners are notified with a single event per kind
+	 * of change.
+	 * 
+	 * @param lines
+	 *            The lines to append
+	 * @param isError
+	 *            Whether the lines are error messages
+	 */
+	public void addLines(final String[] lines, final boolean isError) {
+		final int capacity = this.mLines.length;
+		// Lines which would be overwritten immediately are skipped
+		final int firstLine = Math.max(0, lines.length - capacity);
+		final int amount = lines.length - firstLine;
+		if (amount == 0) {
+			return;
+		}
+
+		final int removed = Math.max(0, this.mSize + amount - capacity);
+		for (int i = firstLine; i < lines.length; i++) {
+			final int index;
+			if (this.mSize < capacity) {
+				index = (this.mStart + this.mSize) % capacity;
+				this.mSize++;
+			} else {
+				index = this.mStart;
+				this.mStart = (this.mStart + 1) % capacity;
+			}
+			this.mLines[index] = lines[i];
+			this.mErrors[index] = isError;
+		}
+
+		if (removed > 0) {
+			fireIntervalRemoved(this, 0, removed - 1);
+		}
+		fireIntervalAdded(this, this.mSize - amount, this.mSize - 1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.swing.ListModel#getElementAt(int)
+	 */
+	@Override
+	public String getElementAt(final int index) {
+		return this.mLines[toBufferIndex(index)];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.swing.ListModel#getSize()
+	 */
+	@Override
+	public int getSize() {
+		return this.mSize;
+	}
+
+	/**
+	 * Whether the line at the given index is an error message.
+	 * 
+	 * @param index
+	 *            The index of the line in the model
+	 * @return <tt>True</tt> if the line is an error message, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isError(final int index) {
+		return this.mErrors[toBufferIndex(index)];
+	}
+
+	/**
+	 * Converts the given index of a line in the model to its index in the ring
+	 * buffers.
+	 * 
+	 * @param index
+	 *            The index of the line in the model
+	 * @return The index of the line in the ring buffers
+	 */
+	private int toBufferIndex(final int index) {
+		if (index < 0 || index >= this.mSize) {
+			throw new IndexOutOfBoundsException();
+		}
+		return (this.mStart + index) % this.mLines.length;
+	}
+}
@@ -1,6 +1,5 @@
 package de.zabuza.kivabot.view;
 
-import java.awt.Color;
 import java.awt.Container;
 import java.awt.Font;
 import java.awt.event.ActionListener;
@@ -16,17 +15,14 @@ import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
+import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
-import javax.swing.JTextPane;
 import javax.swing.SwingConstants;
 import javax.swing.border.BevelBorder;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.SimpleAttributeSet;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyleContext;
 
 import de.zabuza.kivabot.model.tasks.EKivaTask;
 import de.zabuza.sparkle.freewar.EWorld;
@@ -60,6 +56,19 @@ public final class MainFrameView {
 	 * The default font size of the view.
 	 */
 	private static final int DEFAULT_FONT_SIZE = 11;
+	/**
+	 * The default interval between recurring routines, in minutes.
+	 */
+	private static final String DEFAULT_ROUTINE_INTERVAL = "60";
+	/**
+	 * The maximal amount of lines kept in the log area, older lines are
+	 * discarded.
+	 */
+	private static final int LOG_CAPACITY = 5_000;
+	/**
+	 * The width of a line in the log area, longer lines are cut.
+	 */
+	private static final int LOG_LINE_WIDTH = WIDTH - 50;
 	/**
 	 * Check box for the blue sphere movement option.
 	 */
@@ -76,6 +85,10 @@ public final class MainFrameView {
 	 * The frame of the view.
 	 */
 	private final JFrame mFrame;
+	/**
+	 * Check box for the headless option.
+	 */
+	private JCheckBox mHeadless;
 	/**
 	 * List of all input elements.
 	 */
@@ -83,7 +96,11 @@ public final class MainFrameView {
 	/**
 	 * Log area of the view.
 	 */
-	private JTextPane mLogArea;
+	private JList<String> mLogArea;
+	/**
+	 * Model of the log area which holds the lines.
+	 */
+	private LogListModel mLogModel;
 	/**
 	 * Log pane of the view.
 	 */
@@ -96,6 +113,14 @@ public final class MainFrameView {
 	 * Password field of the view.
 	 */
 	private JTextField mPasswordField;
+	/**
+	 * Check box for the repeat routine option.
+	 */
+	private JCheckBox mRepeat;
+	/**
+	 * Routine interval field of the view.
+	 */
+	private JTextField mRoutineIntervalField;
 	/**
 	 * Settings button of the view.
 	 */
@@ -233,6 +258,15 @@ public final class MainFrameView {
 		return this.mPasswordField.getText();
 	}
 
+	/**
+	 * Gets the input interval between recurring routines.
+	 * 
+	 * @return The input interval between recurring routines, in minutes
+	 */
+	public String getRoutineInterval() {
+		return this.mRoutineIntervalField.getText();
+	}
+
 	/**
 	 * Gets the input username.
 	 * 
@@ -251,6 +285,26 @@ public final class MainFrameView {
 		return (EWorld) this.mWorldChoiceBox.getSelectedItem();
 	}
 
+	/**
+	 * Gets whether the headless box is checked or not.
+	 * 
+	 * @return <tt>True</tt> if the headless box is checked, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isHeadlessChecked() {
+		return this.mHeadless.isSelected();
+	}
+
+	/**
+	 * Gets whether the repeat routine box is checked or not.
+	 * 
+	 * @return <tt>True</tt> if the repeat routine box is checked, <tt>false</tt>
+	 *         otherwise
+	 */
+	public boolean isRepeatChecked() {
+		return this.mRepeat.isSelected();
+	}
+
 	/**
 	 * Gets whether the use protection spell box is checked or not.
 	 * 
@@ -272,23 +326,27 @@ public final class MainFrameView {
 	}
 
 	/**
-	 * Appends a line to the log area.
+	 * Appends a line to the log area. Must be called on the event dispatch
+	 * thread, other threads log through the pipeline of the logger.
 	 * 
 	 * @param line
-	 *            line to append
+	 *            line to append, may consist of several lines separated by line
+	 *            breaks
 	 */
 	public void log(final String line) {
-		appendToLog(line + "\n", Color.BLACK);
+		appendToLog(line, false);
 	}
 
 	/**
-	 * Appends a line to the log area using a red font.
+	 * Appends a line to the log area using a red font. Must be called on the event
+	 * dispatch thread, other threads log through the pipeline of the logger.
 	 * 
 	 * @param line
-	 *            line to append
+	 *            line to append, may consist of several lines separated by line
+	 *            breaks
 	 */
 	public void logError(final String line) {
-		appendToLog(line + "\n", Color.RED);
+		appendToLog(line, true);
 	}
 
 	/**
@@ -313,6 +371,16 @@ public final class MainFrameView {
 		this.mBrowserChoiceBox.setSelectedItem(browser);
 	}
 
+	/**
+	 * Sets whether the headless box is checked or not.
+	 * 
+	 * @param isChecked
+	 *            Whether the headless box should be checked or not
+	 */
+	public void setHeadless(final boolean isChecked) {
+		this.mHeadless.setSelected(isChecked);
+	}
+
 	/**
 	 * Sets the selection state of the given kiva task option.
 	 * 
@@ -355,6 +423,26 @@ public final class MainFrameView {
 		this.mPasswordField.setText(password);
 	}
 
+	/**
+	 * Sets whether the repeat routine box is checked or not.
+	 * 
+	 * @param isChecked
+	 *            Whether the repeat routine box should be checked or not
+	 */
+	public void setRepeat(final boolean isChecked) {
+		this.mRepeat.setSelected(isChecked);
+	}
+
+	/**
+	 * Sets the input interval between recurring routines.
+	 * 
+	 * @param routineInterval
+	 *            The interval to set, in minutes
+	 */
+	public void setRoutineInterval(final String routineInterval) {
+		this.mRoutineIntervalField.setText(routineInterval);
+	}
+
 	/**
 	 * Enables or disables the settings button.
 	 * 
@@ -426,26 +514,25 @@ public final class MainFrameView {
 	}
 
 	/**
-	 * Appends a message to the logging area.
+	 * Appends a message to the logging area. The area only follows the new
+	 * lines if it was scrolled to the end before, such that older lines can be
+	 * read while the log grows.
 	 * 
 	 * @param message
-	 *            Message to add
-	 * @param color
-	 *            Color of the message
+	 *            Message to add, may consist of several lines separated by line
+	 *            breaks
+	 * @param isError
+	 *            Whether the message is an error message
 	 */
-	private void appendToLog(final String message, final Color color) {
-		final StyleContext sc = StyleContext.getDefaultStyleContext();
-		AttributeSet aset = sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, color);
+	private void appendToLog(final String message, final boolean isError) {
+		final JScrollBar scrollBar = this.mLogPane.getVerticalScrollBar();
+		final boolean isAtEnd = scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum();
 
-		aset = sc.addAttribute(aset, StyleConstants.FontFamily, DEFAULT_FONT);
-		aset = sc.addAttribute(aset, StyleConstants.Alignment, Integer.valueOf(StyleConstants.ALIGN_JUSTIFIED));
+		this.mLogModel.addLines(message.split("\n"), isError);
 
-		final int len = this.mLogArea.getDocument().getLength();
-		this.mLogArea.setCaretPosition(len);
-		this.mLogArea.setCharacterAttributes(aset, false);
-		this.mLogArea.setEditable(true);
-		this.mLogArea.replaceSelection(message);
-		this.mLogArea.setEditable(false);
+		if (isAtEnd) {
+			this.mLogArea.ensureIndexIsVisible(this.mLogModel.getSize() - 1);
+		}
 	}
 
 	/**
@@ -528,6 +615,19 @@ public final class MainFrameView {
 		this.mInputElements.add(this.mPasswordField);
 		this.mPasswordField.setColumns(DEFAULT_FIELD_COLUMNS);
 
+		this.mRepeat = new JCheckBox("Repeat routine", false);
+		this.mRepeat.setHorizontalAlignment(SwingConstants.LEFT);
+		this.mRepeat.setBounds((this.mMainPanel.getWidth() / 2) + 90, 90, 123, 20);
+		this.mMainPanel.add(this.mRepeat);
+		this.mInputElements.add(this.mRepeat);
+
+		this.mRoutineIntervalField = new JTextField(DEFAULT_ROUTINE_INTERVAL);
+		this.mRoutineIntervalField.setHorizontalAlignment(SwingConstants.LEFT);
+		this.mRoutineIntervalField.setBounds((this.mMainPanel.getWidth() / 2) + 90, 120, 123, 20);
+		this.mMainPanel.add(this.mRoutineIntervalField);
+		this.mInputElements.add(this.mRoutineIntervalField);
+		this.mRoutineIntervalField.setColumns(DEFAULT_FIELD_COLUMNS);
+
 		this.mWorldChoiceBox = new JComboBox<>();
 		for (final EWorld world : EWorld.values()) {
 			this.mWorldChoiceBox.addItem(world);
@@ -549,6 +649,12 @@ public final class MainFrameView {
 		this.mBrowserChoiceBox.setBounds((this.mMainPanel.getWidth() / 2) + 90, 170, 123, 20);
 		this.mMainPanel.add(this.mBrowserChoiceBox);
 		this.mInputElements.add(this.mBrowserChoiceBox);
+
+		this.mHeadless = new JCheckBox("Headless", false);
+		this.mHeadless.setHorizontalAlignment(SwingConstants.LEFT);
+		this.mHeadless.setBounds((this.mMainPanel.getWidth() / 2) + 90, 190, 123, 20);
+		this.mMainPanel.add(this.mHeadless);
+		this.mInputElements.add(this.mHeadless);
 	}
 
 	/**
@@ -591,6 +697,12 @@ public final class MainFrameView {
 		worldChoiceLbl.setBounds((this.mMainPanel.getWidth() / 2) + 20, 60, 65, 14);
 		this.mMainPanel.add(worldChoiceLbl);
 
+		final JLabel routineIntervalLbl = new JLabel("Minutes:");
+		routineIntervalLbl.setHorizontalAlignment(SwingConstants.RIGHT);
+		routineIntervalLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
+		routineIntervalLbl.setBounds((this.mMainPanel.getWidth() / 2) + 20, 120, 65, 14);
+		this.mMainPanel.add(routineIntervalLbl);
+
 		final JLabel browserChoiceLbl = new JLabel("Browser:");
 		browserChoiceLbl.setHorizontalAlignment(SwingConstants.RIGHT);
 		browserChoiceLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
@@ -622,8 +734,13 @@ public final class MainFrameView {
 	 * Initialize the logging area.
 	 */
 	private void initializeTextAreas() {
-		this.mLogArea = new JTextPane();
-		this.mLogArea.setEditable(false);
+		this.mLogModel = new LogListModel(LOG_CAPACITY);
+		this.mLogArea = new JList<>(this.mLogModel);
+		this.mLogArea.setFont(new Font(DEFAULT_FONT, Font.PLAIN, DEFAULT_FONT_SIZE));
+		this.mLogArea.setCellRenderer(new LogCellRenderer(this.mLogModel));
+		// Fixed cell sizes let the list only lay out the visible lines
+		this.mLogArea.setPrototypeCellValue(" ");
+		this.mLogArea.setFixedCellWidth(LOG_LINE_WIDTH);
 		this.mLogPane.setViewportView(this.mLogArea);
 	}
 }
@@ -0,0 +1,119 @@
+package de.zabuza.kivabot.controller.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+
+/**
+ * Tests the planning of the next run of an account by
+ * {@link RoutineScheduler}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutineSchedulerTest {
+	/**
+	 * The catalog of the tests, only the oil barrel has a cooldown, of two
+	 * hours.
+	 */
+	private static final String CATALOG = "BARU_CORN;115;94;corn storehouse;Getreide mitnehmen;baru corn;0\n"
+			+ "GLODO_FISH;68;116;fish storehouse;Fische mitnehmen;glodo fish;0\n"
+			+ "MARSH_GAS;76;104;gas storehouse;Sumpfgasflaschen mitnehmen;marsh gas;0\n"
+			+ "OIL_BARREL;103;117;oil storehouse;Oil mitnehmen;oil barrel;120\n"
+			+ "UNIVERSAL_FOUNDATION;87;112;universal foundation;Gold abholen;gold;0";
+	/**
+	 * The cooldown of the oil barrel in the catalog of the tests, in
+	 * milliseconds.
+	 */
+	private static final long COOLDOWN = TimeUnit.MINUTES.toMillis(120);
+	/**
+	 * The interval of the accounts, in milliseconds.
+	 */
+	private static final long INTERVAL = TimeUnit.MINUTES.toMillis(60);
+	/**
+	 * The delay after which a resource which could not be collected is retried,
+	 * in milliseconds.
+	 */
+	private static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(15);
+
+	/**
+	 * The scheduler to test, it does not start any routines.
+	 */
+	private RoutineScheduler mScheduler;
+
+	/**
+	 * Creates the scheduler with the catalog of the tests.
+	 * 
+	 * @throws IOException
+	 *             If the catalog could not be loaded
+	 */
+	@Before
+	public void setUp() throws IOException {
+		final TaskCatalog catalog = TaskCatalog
+				.load(new ByteArrayInputStream(CATALOG.getBytes(StandardCharsets.ISO_8859_1)));
+		this.mScheduler = new RoutineScheduler(null, catalog, RETRY_DELAY);
+	}
+
+	/**
+	 * Stops the timer of the scheduler.
+	 */
+	@After
+	public void tearDown() {
+		this.mScheduler.shutdown();
+	}
+
+	/**
+	 * Tests that a cooldown longer than the interval delays the next run if the
+	 * resource with the cooldown is the only one.
+	 */
+	@Test
+	public void testCooldownLongerThanInterval() {
+		final EnumSet<EKivaTask> tasks = EnumSet.of(EKivaTask.OIL_BARREL);
+
+		assertEquals(COOLDOWN, this.mScheduler.computeNextRunDelay(tasks, INTERVAL, tasks));
+	}
+
+	/**
+	 * Tests that the next run is planned for the first resource which is
+	 * available again, ignoring a longer cooldown of an other resource.
+	 */
+	@Test
+	public void testFirstAvailableResource() {
+		final EnumSet<EKivaTask> tasks = EnumSet.of(EKivaTask.BARU_CORN, EKivaTask.OIL_BARREL);
+
+		assertEquals(INTERVAL, this.mScheduler.computeNextRunDelay(tasks, INTERVAL, tasks));
+	}
+
+	/**
+	 * Tests that an account without sub tasks runs again after its interval.
+	 */
+	@Test
+	public void testNoSubTasks() {
+		final EnumSet<EKivaTask> tasks = EnumSet.noneOf(EKivaTask.class);
+
+		assertEquals(INTERVAL, this.mScheduler.computeNextRunDelay(tasks, INTERVAL, tasks));
+	}
+
+	/**
+	 * Tests that a resource which could not be collected is retried after the
+	 * retry delay, even if the other resources have a cooldown.
+	 */
+	@Test
+	public void testRetry() {
+		final EnumSet<EKivaTask> tasks = EnumSet.of(EKivaTask.GLODO_FISH, EKivaTask.OIL_BARREL);
+
+		assertEquals(RETRY_DELAY,
+				this.mScheduler.computeNextRunDelay(tasks, INTERVAL, EnumSet.of(EKivaTask.OIL_BARREL)));
+	}
+}
@@ -0,0 +1,278 @@
+package de.zabuza.kivabot.mock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zabuza.kivabot.controller.logging.ConsoleLogSink;
+import de.zabuza.kivabot.controller.logging.Logger;
+import de.zabuza.kivabot.model.Account;
+import de.zabuza.kivabot.model.IBrowserSettingsProvider;
+import de.zabuza.kivabot.model.metrics.MetricsRegistry;
+import de.zabuza.kivabot.model.routing.NetworkCache;
+import de.zabuza.kivabot.model.routing.RouteTableCache;
+import de.zabuza.kivabot.model.session.ActionTargetStore;
+import de.zabuza.kivabot.model.session.HttpActionClient;
+import de.zabuza.kivabot.model.session.ProtectionStore;
+import de.zabuza.kivabot.model.session.SessionStore;
+import de.zabuza.kivabot.model.session.WebDriverPool;
+import de.zabuza.kivabot.model.tasks.EKivaTask;
+import de.zabuza.kivabot.model.tasks.IRoutineListener;
+import de.zabuza.kivabot.model.tasks.RoutineTask;
+import de.zabuza.kivabot.model.tasks.TaskCatalog;
+import de.zabuza.kivabot.model.tasks.TaskDefinition;
+import de.zabuza.sparkle.freewar.EWorld;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.webdriver.EBrowser;
+
+/**
+ * Runs whole routines with a headless browser against the
+ * {@link MockFreewarServer}. The routines write their stores to the current
+ * working directory and log to the console, such that the output shows every
+ * step of them. A routine takes a few minutes, the tests are thus not part of
+ * the unit tests.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class MockRoutineTest {
+	/**
+	 * The interval in which the position of the player is polled, in
+	 * milliseconds.
+	 */
+	private static final long POLL_INTERVAL = 50;
+	/**
+	 * The time a stopped movement is observed to not continue, in milliseconds.
+	 */
+	private static final long STOPPED_OBSERVATION_TIME = 3_000;
+	/**
+	 * The maximal time a routine may take to stop after it was interrupted, in
+	 * milliseconds.
+	 */
+	private static final long STOP_TIMEOUT = 60_000;
+
+	/**
+	 * Creates an account which collects all resources with a headless browser.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @return The created account
+	 */
+	private static Account createAccount(final String username) {
+		return new Account(username, "password", EWorld.ONE, EBrowser.FIREFOX, true, EnumSet.noneOf(EMoveType.class),
+				Optional.<String> empty(), false, EnumSet.allOf(EKivaTask.class));
+	}
+
+	/**
+	 * The catalog of the tasks, whose resources are offered by the server.
+	 */
+	private TaskCatalog mCatalog;
+	/**
+	 * The pool of the web drivers used by the routines.
+	 */
+	private WebDriverPool mDriverPool;
+	/**
+	 * The logger of the routines.
+	 */
+	private Logger mLogger;
+	/**
+	 * The cache of the route tables used by the routines.
+	 */
+	private RouteTableCache mRouteTableCache;
+	/**
+	 * The server the routines act on.
+	 */
+	private MockFreewarServer mServer;
+
+	/**
+	 * Starts the server with all resources of the catalog and sets it as HTTP
+	 * proxy, such that the movement network is fetched from it.
+	 * 
+	 * @throws IOException
+	 *             If the server could not be started
+	 */
+	@Before
+	public void setUp() throws IOException {
+		this.mCatalog = TaskCatalog.loadDefault();
+		this.mServer = new MockFreewarServer(0);
+		for (final TaskDefinition definition : this.mCatalog.getDefinitions()) {
+			this.mServer.addResource(definition.getDestination(), definition.getAnchorText());
+		}
+		this.mServer.start();
+		System.setProperty("http.proxyHost", "localhost");
+		System.setProperty("http.proxyPort", Integer.toString(new URL(this.mServer.getWorldDomain()).getPort()));
+
+		this.mLogger = new Logger(null, new ConsoleLogSink());
+		this.mDriverPool = new WebDriverPool();
+		this.mRouteTableCache = new RouteTableCache(new NetworkCache(this.mLogger), this.mLogger);
+	}
+
+	/**
+	 * Shuts the pool and the server down.
+	 */
+	@After
+	public void tearDown() {
+		this.mDriverPool.shutdown();
+		this.mServer.stop();
+		System.clearProperty("http.proxyHost");
+		System.clearProperty("http.proxyPort");
+		this.mLogger.close();
+	}
+
+	/**
+	 * Tests that a routine which gets interrupted while moving stops its movement
+	 * and returns its driver to the pool.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test was interrupted
+	 */
+	@Test
+	public void testCancelReturnsDriver() throws InterruptedException {
+		final String username = "Canceler";
+		final CompletableFuture<Set<EKivaTask>> result = new CompletableFuture<>();
+		final RoutineTask routine = createRoutine(username, result);
+		final Thread worker = new Thread(routine, "MockRoutine-" + username);
+		worker.start();
+
+		// Wait until the player logged in and started moving
+		MockPlayer player = this.mServer.getPlayer(username);
+		while (player == null) {
+			assertFalse("Routine finished before it logged in", result.isDone());
+			Thread.sleep(POLL_INTERVAL);
+			player = this.mServer.getPlayer(username);
+		}
+		final Point startPosition = player.getPosition();
+		while (player.getPosition().equals(startPosition)) {
+			assertFalse("Routine finished before it moved", result.isDone());
+			Thread.sleep(POLL_INTERVAL);
+		}
+
+		routine.interrupt();
+		worker.join(STOP_TIMEOUT);
+		assertFalse("Routine did not stop", worker.isAlive());
+
+		final Point stoppedPosition = player.getPosition();
+		Thread.sleep(STOPPED_OBSERVATION_TIME);
+		assertEquals("Movement continued after the routine stopped", stoppedPosition, player.getPosition());
+		assertEquals(1, this.mDriverPool.getIdleDriverCount());
+	}
+
+	/**
+	 * Tests that a routine collects every resource of the catalog.
+	 * 
+	 * @throws ExecutionException
+	 *             If the routine did not notify its listener
+	 * @throws InterruptedException
+	 *             If the test was interrupted
+	 * @throws TimeoutException
+	 *             If the routine did not finish in time
+	 */
+	@Test
+	public void testCollectsAllResources() throws ExecutionException, InterruptedException, TimeoutException {
+		final CompletableFuture<Set<EKivaTask>> result = new CompletableFuture<>();
+		createRoutine("Collector", result).run();
+
+		final Set<EKivaTask> collectedTasks = result.get(0, TimeUnit.MILLISECONDS);
+		assertEquals(EnumSet.allOf(EKivaTask.class), collectedTasks);
+		assertEquals(EKivaTask.values().length, this.mServer.getCollectedResources());
+		assertEquals(1, this.mDriverPool.getIdleDriverCount());
+	}
+
+	/**
+	 * Creates a routine of a new account which collects all resources and
+	 * completes the given future with the collected tasks once it has finished.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param result
+	 *            The future to complete with the collected tasks
+	 * @return The created routine
+	 */
+	private RoutineTask createRoutine(final String username, final CompletableFuture<Set<EKivaTask>> result) {
+		final String worldDomain = this.mServer.getWorldDomain();
+		final IBrowserSettingsProvider settings = new IBrowserSettingsProvider() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#getBrowserBinary()
+			 */
+			@Override
+			public String getBrowserBinary() {
+				return null;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.kivabot.model.IBrowserSettingsProvider#getDriverForBrowser(de.
+			 * zabuza.sparkle.webdriver.EBrowser)
+			 */
+			@Override
+			public String getDriverForBrowser(final EBrowser browser) {
+				return null;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#getUserProfile()
+			 */
+			@Override
+			public String getUserProfile() {
+				return null;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#getWorldDomain()
+			 */
+			@Override
+			public String getWorldDomain() {
+				return worldDomain;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.kivabot.model.IBrowserSettingsProvider#isUseHttpFastPath()
+			 */
+			@Override
+			public boolean isUseHttpFastPath() {
+				return false;
+			}
+		};
+		final IRoutineListener listener = new IRoutineListener() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.kivabot.model.tasks.IRoutineListener#routineFinished(de.zabuza.
+			 * kivabot.model.Account, java.util.Set)
+			 */
+			@Override
+			public void routineFinished(final Account account, final Set<EKivaTask> collectedTasks) {
+				result.complete(collectedTasks);
+			}
+		};
+
+		return new RoutineTask(createAccount(username), this.mLogger, listener, settings, this.mRouteTableCache,
+				this.mCatalog, this.mDriverPool, new HttpActionClient(), new SessionStore(this.mLogger),
+				new ActionTargetStore(this.mLogger), new ProtectionStore(this.mLogger), new MetricsRegistry());
+	}
+}
@@ -0,0 +1,91 @@
+package de.zabuza.kivabot.model.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the estimation of percentiles by {@link LatencyHistogram}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LatencyHistogramTest {
+	/**
+	 * Tests that the estimation is capped by the maximal recorded latency.
+	 */
+	@Test
+	public void testCappedByMax() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3);
+
+		// The latency lies in the bucket up to 5 milliseconds
+		assertEquals(3, histogram.getPercentile(0.5));
+		assertEquals(3, histogram.getPercentile(1.0));
+	}
+
+	/**
+	 * Tests that an empty histogram estimates all percentiles as <tt>0</tt>.
+	 */
+	@Test
+	public void testEmpty() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(0, histogram.getPercentile(0.5));
+		assertEquals(0, histogram.getPercentile(1.0));
+	}
+
+	/**
+	 * Tests that negative latencies are recorded as <tt>0</tt>.
+	 */
+	@Test
+	public void testNegative() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getSum());
+		assertEquals(1, histogram.getBucketCounts()[0]);
+		assertEquals(0, histogram.getPercentile(1.0));
+	}
+
+	/**
+	 * Tests that latencies exceeding the last bound are estimated by the maximal
+	 * recorded latency.
+	 */
+	@Test
+	public void testOverflow() {
+		final long[] bounds = LatencyHistogram.getBucketBounds();
+		final long latency = bounds[bounds.length - 1] * 2;
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(1);
+		histogram.record(latency);
+
+		final long[] counts = histogram.getBucketCounts();
+		assertEquals(1, counts[counts.length - 1]);
+		assertEquals(1, histogram.getPercentile(0.5));
+		assertEquals(latency, histogram.getPercentile(0.99));
+	}
+
+	/**
+	 * Tests the estimation of percentiles of evenly distributed latencies. The
+	 * estimation is the upper bound of the bucket containing the percentile.
+	 */
+	@Test
+	public void testPercentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int latency = 1; latency <= 100; latency++) {
+			histogram.record(latency);
+		}
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(100, histogram.getMax());
+		assertEquals(1, histogram.getPercentile(0.0));
+		assertEquals(10, histogram.getPercentile(0.1));
+		assertEquals(50, histogram.getPercentile(0.5));
+		assertEquals(100, histogram.getPercentile(0.51));
+		assertEquals(100, histogram.getPercentile(0.99));
+		assertEquals(100, histogram.getPercentile(1.0));
+	}
+}
@@ -0,0 +1,192 @@
+package de.zabuza.kivabot.model.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.zabuza.pathweaver.network.DirectedWeightedEdge;
+import de.zabuza.pathweaver.network.Node;
+import de.zabuza.sparkle.freewar.movement.network.EMoveType;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNetwork;
+import de.zabuza.sparkle.freewar.movement.network.FreewarNode;
+
+/**
+ * Tests saving and loading of {@link NetworkSnapshot}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NetworkSnapshotTest {
+	/**
+	 * The size of the grid network in both directions.
+	 */
+	private static final int GRID_SIZE = 4;
+	/**
+	 * The offset of the version in the file format, in bytes.
+	 */
+	private static final int VERSION_OFFSET = Integer.BYTES;
+
+	/**
+	 * Asserts that loading a snapshot from the given file fails with an
+	 * I/O-exception.
+	 * 
+	 * @param file
+	 *            The file to load the snapshot from
+	 */
+	private static void assertLoadFails(final File file) {
+		try {
+			NetworkSnapshot.load(file);
+			fail("Invalid snapshot was loaded: " + file);
+		} catch (final IOException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Creates a grid network with walking edges between all neighboring fields,
+	 * except the edges leaving the field at <tt>(1, 1)</tt> to the right. Edges
+	 * are thus not symmetric.
+	 * 
+	 * @return The created network
+	 */
+	private static FreewarNetwork createNetwork() {
+		final FreewarNetwork network = new FreewarNetwork();
+		int id = 0;
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				network.addFreewarNode(new FreewarNode(id, x, y));
+				id++;
+			}
+		}
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				final FreewarNode source = network.getNodeByCoordinates(x, y).get();
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						final Optional<FreewarNode> destination = network.getNodeByCoordinates(x + dx, y + dy);
+						final boolean isRemoved = x == 1 && y == 1 && dx == 1;
+						if ((dx != 0 || dy != 0) && !isRemoved && destination.isPresent()) {
+							network.addEdge(source, destination.get(), EMoveType.WALKING);
+						}
+					}
+				}
+			}
+		}
+		return network;
+	}
+
+	/**
+	 * Gets all edges of the given network, each described by the coordinates of
+	 * its source and destination.
+	 * 
+	 * @param network
+	 *            The network to get the edges of
+	 * @return A set containing a description of every edge of the network
+	 */
+	private static Set<String> getEdges(final FreewarNetwork network) {
+		final Set<String> edges = new HashSet<>();
+		for (final Node node : network.getNodes()) {
+			for (final DirectedWeightedEdge edge : network.getOutgoingEdges(node)) {
+				final FreewarNode source = (FreewarNode) edge.getSource();
+				final FreewarNode destination = (FreewarNode) edge.getDestination();
+				edges.add(source.getXCoordinate() + "," + source.getYCoordinate() + "->"
+						+ destination.getXCoordinate() + "," + destination.getYCoordinate());
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * Folder for the snapshot files, deleted after each test.
+	 */
+	@Rule
+	public final TemporaryFolder mFolder = new TemporaryFolder();
+
+	/**
+	 * Tests that a file which does not start with the magic number is rejected.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	@Test
+	public void testOtherMagicNumber() throws IOException {
+		final File file = this.mFolder.newFile();
+		NetworkSnapshot.fromNetwork(createNetwork(), 0).save(file);
+		try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.writeInt(0);
+		}
+
+		assertLoadFails(file);
+	}
+
+	/**
+	 * Tests that a file of an other version is rejected.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	@Test
+	public void testOtherVersion() throws IOException {
+		final File file = this.mFolder.newFile();
+		NetworkSnapshot.fromNetwork(createNetwork(), 0).save(file);
+		try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(VERSION_OFFSET);
+			final int version = randomAccessFile.readInt();
+			randomAccessFile.seek(VERSION_OFFSET);
+			randomAccessFile.writeInt(version + 1);
+		}
+
+		assertLoadFails(file);
+	}
+
+	/**
+	 * Tests that a snapshot keeps all nodes, edges and its timestamp when it is
+	 * saved and loaded again.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		final FreewarNetwork network = createNetwork();
+		final long timestamp = 1_500_000_000_000L;
+		final File file = this.mFolder.newFile();
+		NetworkSnapshot.fromNetwork(network, timestamp).save(file);
+
+		final NetworkSnapshot snapshot = NetworkSnapshot.load(file);
+		assertEquals(GRID_SIZE * GRID_SIZE, snapshot.getSize());
+		assertEquals(timestamp, snapshot.getTimestamp());
+
+		final Set<String> edges = getEdges(snapshot.createNetwork());
+		assertEquals(getEdges(network), edges);
+		assertFalse(edges.contains("1,1->2,1"));
+	}
+
+	/**
+	 * Tests that a truncated file is rejected.
+	 * 
+	 * @throws IOException
+	 *             If an I/O-exception occurred
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+		final File file = this.mFolder.newFile();
+		NetworkSnapshot.fromNetwork(createNetwork(), 0).save(file);
+		try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.setLength(randomAccessFile.length() - 1);
+		}
+
+		assertLoadFails(file);
+	}
+}
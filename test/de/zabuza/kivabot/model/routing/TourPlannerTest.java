@@ -0,0 +1,196 @@
+package de.zabuza.kivabot.model.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the planning of tours by {@link TourPlanner}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TourPlannerTest {
+	/**
+	 * Provider which uses the Manhattan distance as cost. Positions with a
+	 * negative y-coordinate are not reachable.
+	 */
+	private static final IRouteCostProvider COST_PROVIDER = new IRouteCostProvider() {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * de.zabuza.kivabot.model.routing.IRouteCostProvider#getCost(java.awt.Point,
+		 * java.awt.Point)
+		 */
+		@Override
+		public float getCost(final Point source, final Point destination) {
+			if (destination.y < 0) {
+				return Float.POSITIVE_INFINITY;
+			}
+			return Math.abs(source.x - destination.x) + Math.abs(source.y - destination.y);
+		}
+	};
+	/**
+	 * The position all tours start at.
+	 */
+	private static final Point START = new Point(0, 0);
+
+	/**
+	 * Computes the minimal cost of all tours over the given positions by trying
+	 * all permutations of the positions after the given index.
+	 * 
+	 * @param positions
+	 *            The positions to visit, permuted in place
+	 * @param index
+	 *            The index from which on the positions are permuted
+	 * @return The minimal cost of all tours
+	 */
+	private static float getMinimalCost(final Point[] positions, final int index) {
+		if (index == positions.length) {
+			return getTourCost(Arrays.asList(positions));
+		}
+		float minimalCost = Float.POSITIVE_INFINITY;
+		for (int i = index; i < positions.length; i++) {
+			swap(positions, index, i);
+			minimalCost = Math.min(minimalCost, getMinimalCost(positions, index + 1));
+			swap(positions, index, i);
+		}
+		return minimalCost;
+	}
+
+	/**
+	 * Computes the cost of visiting the given positions in the given order,
+	 * starting at {@link #START}.
+	 * 
+	 * @param tour
+	 *            The positions in the order they are visited
+	 * @return The cost of the tour
+	 */
+	private static float getTourCost(final List<Point> tour) {
+		float cost = 0;
+		Point current = START;
+		for (final Point next : tour) {
+			cost += COST_PROVIDER.getCost(current, next);
+			current = next;
+		}
+		return cost;
+	}
+
+	/**
+	 * Swaps the positions at the given indices.
+	 * 
+	 * @param positions
+	 *            The positions to swap in
+	 * @param first
+	 *            The index of the first position
+	 * @param second
+	 *            The index of the second position
+	 */
+	private static void swap(final Point[] positions, final int first, final int second) {
+		final Point temp = positions[first];
+		positions[first] = positions[second];
+		positions[second] = temp;
+	}
+
+	/**
+	 * The planner to test.
+	 */
+	private final TourPlanner mPlanner = new TourPlanner(COST_PROVIDER);
+
+	/**
+	 * Tests that an empty set of destinations results in an empty tour.
+	 */
+	@Test
+	public void testEmptyDestinations() {
+		assertTrue(this.mPlanner.planTour(START, new LinkedHashMap<String, Point>()).isEmpty());
+	}
+
+	/**
+	 * Tests that the exact planning finds the cheapest tour where always moving
+	 * to the nearest destination does not. The nearest destination <tt>A</tt>
+	 * lies in the opposite direction of <tt>C</tt>, such that visiting <tt>B</tt>
+	 * first is cheaper.
+	 */
+	@Test
+	public void testExactBeatsNearestNeighbor() {
+		final Map<String, Point> destinations = new LinkedHashMap<>();
+		destinations.put("A", new Point(2, 0));
+		destinations.put("B", new Point(-3, 0));
+		destinations.put("C", new Point(10, 0));
+
+		assertEquals(Arrays.asList("B", "A", "C"), this.mPlanner.planTour(START, destinations));
+	}
+
+	/**
+	 * Tests that the tour over destinations on a line visits them in order,
+	 * independent of the order they are given in.
+	 */
+	@Test
+	public void testLine() {
+		final Map<String, Point> destinations = new LinkedHashMap<>();
+		destinations.put("C", new Point(3, 0));
+		destinations.put("A", new Point(1, 0));
+		destinations.put("D", new Point(4, 0));
+		destinations.put("B", new Point(2, 0));
+
+		assertEquals(Arrays.asList("A", "B", "C", "D"), this.mPlanner.planTour(START, destinations));
+	}
+
+	/**
+	 * Tests that more destinations than solved exactly are still all visited
+	 * exactly once, using the fallback.
+	 */
+	@Test
+	public void testManyDestinations() {
+		final Map<Point, Point> destinations = new LinkedHashMap<>();
+		for (int i = 20; i >= 1; i--) {
+			final Point destination = new Point(i, i % 3);
+			destinations.put(destination, destination);
+		}
+
+		final List<Point> tour = this.mPlanner.planTour(START, destinations);
+		assertEquals(destinations.size(), tour.size());
+		assertEquals(destinations.keySet(), new HashSet<>(tour));
+	}
+
+	/**
+	 * Tests that the exact planning results in a tour which is not more expensive
+	 * than any other order of the destinations.
+	 */
+	@Test
+	public void testOptimality() {
+		final Map<Point, Point> destinations = new LinkedHashMap<>();
+		final int[][] coordinates = { { 5, 1 }, { 1, 7 }, { 8, 8 }, { 3, 3 }, { 9, 2 }, { 2, 9 } };
+		for (final int[] coordinate : coordinates) {
+			final Point destination = new Point(coordinate[0], coordinate[1]);
+			destinations.put(destination, destination);
+		}
+
+		final float cost = getTourCost(this.mPlanner.planTour(START, destinations));
+		final Point[] positions = destinations.keySet().toArray(new Point[0]);
+		assertEquals(getMinimalCost(positions, 0), cost, 0.0001f);
+	}
+
+	/**
+	 * Tests that unreachable destinations are still part of the tour, but
+	 * visited after all reachable ones.
+	 */
+	@Test
+	public void testUnreachableLast() {
+		final Map<String, Point> destinations = new LinkedHashMap<>();
+		destinations.put("X", new Point(1, -1));
+		destinations.put("A", new Point(5, 0));
+		destinations.put("B", new Point(2, 0));
+
+		assertEquals(Arrays.asList("B", "A", "X"), this.mPlanner.planTour(START, destinations));
+	}
+}
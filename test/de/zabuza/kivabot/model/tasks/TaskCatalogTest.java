@@ -0,0 +1,153 @@
+package de.zabuza.kivabot.model.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests loading of {@link TaskCatalog}, especially the rejection of invalid
+ * catalogs.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TaskCatalogTest {
+	/**
+	 * The lines of a valid catalog, one per task.
+	 */
+	private static final String[] VALID_LINES = { "BARU_CORN;115;94;corn storehouse;Getreide mitnehmen;baru corn;0",
+			"GLODO_FISH;68;116;fish storehouse;Fische mitnehmen;glodo fish;0",
+			"MARSH_GAS;76;104;gas storehouse;Sumpfgasflaschen mitnehmen;marsh gas;0",
+			"OIL_BARREL;103;117;oil storehouse;lfsser mitnehmen;oil barrel;5",
+			"UNIVERSAL_FOUNDATION;87;112;universal foundation;Goldmnzen abholen;gold;0" };
+
+	/**
+	 * Asserts that loading a catalog with the given lines fails with an
+	 * I/O-exception.
+	 * 
+	 * @param lines
+	 *            The lines of the catalog
+	 */
+	private static void assertLoadFails(final String... lines) {
+		try {
+			load(lines);
+			fail("Invalid catalog was loaded");
+		} catch (final IOException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Loads a catalog with the given lines, encoded like the bundled catalog.
+	 * 
+	 * @param lines
+	 *            The lines of the catalog
+	 * @return The loaded catalog
+	 * @throws IOException
+	 *             If the lines do not describe a valid catalog
+	 */
+	private static TaskCatalog load(final String... lines) throws IOException {
+		final String content = String.join("\n", lines);
+		return TaskCatalog.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)));
+	}
+
+	/**
+	 * Creates the lines of the valid catalog with the line of the first task
+	 * replaced by the given line.
+	 * 
+	 * @param line
+	 *            The line to use instead of the line of the first task
+	 * @return The lines of the catalog
+	 */
+	private static String[] replaceFirstLine(final String line) {
+		final String[] lines = VALID_LINES.clone();
+		lines[0] = line;
+		return lines;
+	}
+
+	/**
+	 * Tests that the bundled catalog can be loaded.
+	 */
+	@Test
+	public void testDefault() {
+		assertEquals(EKivaTask.values().length, TaskCatalog.loadDefault().getDefinitions().size());
+	}
+
+	/**
+	 * Tests that a catalog defining a task twice is rejected.
+	 */
+	@Test
+	public void testDuplicateTask() {
+		final String[] lines = new String[VALID_LINES.length + 1];
+		System.arraycopy(VALID_LINES, 0, lines, 0, VALID_LINES.length);
+		lines[VALID_LINES.length] = VALID_LINES[0];
+
+		assertLoadFails(lines);
+	}
+
+	/**
+	 * Tests that lines with an invalid number are rejected.
+	 */
+	@Test
+	public void testInvalidNumber() {
+		assertLoadFails(replaceFirstLine("BARU_CORN;x;94;corn storehouse;Getreide mitnehmen;baru corn;0"));
+		assertLoadFails(replaceFirstLine("BARU_CORN;115;94;corn storehouse;Getreide mitnehmen;baru corn;"));
+	}
+
+	/**
+	 * Tests that lines with an unknown task are rejected.
+	 */
+	@Test
+	public void testInvalidTask() {
+		assertLoadFails(replaceFirstLine("WHEAT;115;94;corn storehouse;Getreide mitnehmen;baru corn;0"));
+	}
+
+	/**
+	 * Tests that a catalog missing a task is rejected.
+	 */
+	@Test
+	public void testMissingTask() {
+		final String[] lines = new String[VALID_LINES.length - 1];
+		System.arraycopy(VALID_LINES, 1, lines, 0, lines.length);
+
+		assertLoadFails(lines);
+	}
+
+	/**
+	 * Tests that a valid catalog is loaded, ignoring comments and empty lines and
+	 * decoding it in ISO-8859-1.
+	 * 
+	 * @throws IOException
+	 *             If the catalog could not be loaded
+	 */
+	@Test
+	public void testValid() throws IOException {
+		final String[] lines = new String[VALID_LINES.length + 2];
+		lines[0] = "# A comment;with;the;amount;of;values;of;a;task";
+		lines[1] = "";
+		System.arraycopy(VALID_LINES, 0, lines, 2, VALID_LINES.length);
+		final TaskCatalog catalog = load(lines);
+
+		final TaskDefinition definition = catalog.getDefinition(EKivaTask.OIL_BARREL);
+		assertEquals(EKivaTask.OIL_BARREL, definition.getTask());
+		assertEquals(103, definition.getDestination().x);
+		assertEquals(117, definition.getDestination().y);
+		assertEquals("lfsser mitnehmen", definition.getAnchorText());
+		assertEquals(TimeUnit.MINUTES.toMillis(5), definition.getCooldown());
+	}
+
+	/**
+	 * Tests that lines with a wrong amount of values are rejected.
+	 */
+	@Test
+	public void testWrongValueCount() {
+		assertLoadFails(replaceFirstLine("BARU_CORN;115;94;corn storehouse;Getreide mitnehmen;baru corn"));
+		assertLoadFails(replaceFirstLine("BARU_CORN;115;94;corn storehouse;Getreide mitnehmen;baru corn;0;0"));
+	}
+}
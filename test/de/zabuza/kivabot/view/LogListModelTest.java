@@ -0,0 +1,195 @@
+package de.zabuza.kivabot.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ring buffer of {@link LogListModel} and the events it fires.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LogListModelTest {
+	/**
+	 * The capacity of the model to test.
+	 */
+	private static final int CAPACITY = 3;
+
+	/**
+	 * Describes the given event by its type and interval.
+	 * 
+	 * @param event
+	 *            The event to describe
+	 * @return The description of the event
+	 */
+	private static String describe(final ListDataEvent event) {
+		final String type;
+		if (event.getType() == ListDataEvent.INTERVAL_ADDED) {
+			type = "added";
+		} else if (event.getType() == ListDataEvent.INTERVAL_REMOVED) {
+			type = "removed";
+		} else {
+			type = "changed";
+		}
+		return type + " " + event.getIndex0() + "-" + event.getIndex1();
+	}
+
+	/**
+	 * The descriptions of all events fired by the model since the last reset.
+	 */
+	private final List<String> mEvents = new ArrayList<>();
+	/**
+	 * The model to test.
+	 */
+	private LogListModel mModel;
+
+	/**
+	 * Creates an empty model and registers a listener for its events.
+	 */
+	@Before
+	public void setUp() {
+		this.mModel = new LogListModel(CAPACITY);
+		this.mModel.addListDataListener(new ListDataListener() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * javax.swing.event.ListDataListener#contentsChanged(javax.swing.event.
+			 * ListDataEvent)
+			 */
+			@Override
+			public void contentsChanged(final ListDataEvent event) {
+				LogListModelTest.this.mEvents.add(describe(event));
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * javax.swing.event.ListDataListener#intervalAdded(javax.swing.event.
+			 * ListDataEvent)
+			 */
+			@Override
+			public void intervalAdded(final ListDataEvent event) {
+				LogListModelTest.this.mEvents.add(describe(event));
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * javax.swing.event.ListDataListener#intervalRemoved(javax.swing.event.
+			 * ListDataEvent)
+			 */
+			@Override
+			public void intervalRemoved(final ListDataEvent event) {
+				LogListModelTest.this.mEvents.add(describe(event));
+			}
+		});
+	}
+
+	/**
+	 * Tests that lines are appended with a single event while the capacity is
+	 * not exceeded.
+	 */
+	@Test
+	public void testAddBelowCapacity() {
+		this.mModel.addLines(new String[] { "a", "b" }, false);
+
+		assertEquals(2, this.mModel.getSize());
+		assertEquals("a", this.mModel.getElementAt(0));
+		assertEquals("b", this.mModel.getElementAt(1));
+		assertEquals(1, this.mEvents.size());
+		assertEquals("added 0-1", this.mEvents.get(0));
+	}
+
+	/**
+	 * Tests that of more lines than the capacity only the newest are kept,
+	 * replacing all previous lines.
+	 */
+	@Test
+	public void testAddMoreThanCapacity() {
+		this.mModel.addLines(new String[] { "a", "b" }, false);
+		this.mEvents.clear();
+		this.mModel.addLines(new String[] { "c", "d", "e", "f", "g" }, false);
+
+		assertEquals(CAPACITY, this.mModel.getSize());
+		assertEquals("e", this.mModel.getElementAt(0));
+		assertEquals("f", this.mModel.getElementAt(1));
+		assertEquals("g", this.mModel.getElementAt(2));
+		assertEquals(2, this.mEvents.size());
+		assertEquals("removed 0-1", this.mEvents.get(0));
+		assertEquals("added 0-2", this.mEvents.get(1));
+	}
+
+	/**
+	 * Tests that adding no lines does not fire an event.
+	 */
+	@Test
+	public void testAddNothing() {
+		this.mModel.addLines(new String[0], false);
+
+		assertEquals(0, this.mModel.getSize());
+		assertTrue(this.mEvents.isEmpty());
+	}
+
+	/**
+	 * Tests that lines exceeding the capacity overwrite the oldest lines, with a
+	 * single event for the removed and one for the added lines.
+	 */
+	@Test
+	public void testAddOverCapacity() {
+		this.mModel.addLines(new String[] { "a", "b" }, false);
+		this.mEvents.clear();
+		this.mModel.addLines(new String[] { "c", "d" }, true);
+
+		assertEquals(CAPACITY, this.mModel.getSize());
+		assertEquals("b", this.mModel.getElementAt(0));
+		assertEquals("c", this.mModel.getElementAt(1));
+		assertEquals("d", this.mModel.getElementAt(2));
+		assertFalse(this.mModel.isError(0));
+		assertTrue(this.mModel.isError(1));
+		assertTrue(this.mModel.isError(2));
+		assertEquals(2, this.mEvents.size());
+		assertEquals("removed 0-0", this.mEvents.get(0));
+		assertEquals("added 1-2", this.mEvents.get(1));
+	}
+
+	/**
+	 * Tests that accessing an index outside of the model fails, also if the ring
+	 * buffer still holds a line there.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() {
+		this.mModel.addLines(new String[] { "a" }, false);
+		this.mModel.getElementAt(1);
+	}
+
+	/**
+	 * Tests that the lines stay in order while the ring buffer wraps around
+	 * several times.
+	 */
+	@Test
+	public void testWrapAround() {
+		for (int i = 0; i < 10; i++) {
+			this.mModel.addLines(new String[] { Integer.toString(i) }, i % 2 == 0);
+		}
+
+		assertEquals(CAPACITY, this.mModel.getSize());
+		for (int i = 0; i < CAPACITY; i++) {
+			final int line = 10 - CAPACITY + i;
+			assertEquals(Integer.toString(line), this.mModel.getElementAt(i));
+			assertEquals(line % 2 == 0, this.mModel.isError(i));
+		}
+	}
+}